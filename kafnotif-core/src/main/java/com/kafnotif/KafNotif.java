@@ -3,6 +3,7 @@ package com.kafnotif;
 import com.kafnotif.consumer.ConsumerConfig;
 import com.kafnotif.consumer.NotificationConsumer;
 import com.kafnotif.kafka.NotificationPublisher;
+import com.kafnotif.kafka.PublisherConfig;
 import com.kafnotif.model.NotificationEvent;
 import com.kafnotif.model.NotificationType;
 
@@ -36,6 +37,27 @@ public class KafNotif {
         return new NotificationPublisher(bootstrapServers, topicPrefix, autoCreateTopics, partitions, replicationFactor);
     }
     
+    /**
+     * Create a notification publisher from a publisher configuration
+     */
+    public static NotificationPublisher createPublisher(PublisherConfig config) {
+        return new NotificationPublisher(config);
+    }
+    
+    /**
+     * Create a transactional notification publisher (exactly-once publishing)
+     */
+    public static NotificationPublisher createTransactionalPublisher(String bootstrapServers, String transactionalId) {
+        return new NotificationPublisher(new PublisherConfig(bootstrapServers).transactionalId(transactionalId));
+    }
+    
+    /**
+     * Create a publisher configuration builder
+     */
+    public static PublisherConfig configurePublisher(String bootstrapServers) {
+        return new PublisherConfig(bootstrapServers);
+    }
+    
     /**
      * Create a notification consumer with basic configuration
      */
@@ -0,0 +1,25 @@
+package com.kafnotif.blob;
+
+import java.io.IOException;
+
+/**
+ * Content-addressed storage for payloads too large to travel inside Kafka records
+ * (claim-check pattern). Implementations must be shared by publishers and consumers.
+ */
+public interface BlobStore {
+    
+    /**
+     * Store content and return its key; storing identical content again returns the same key
+     * @param content the bytes to store
+     * @return the content hash key
+     */
+    String put(byte[] content) throws IOException;
+    
+    /**
+     * Load content previously stored under a key
+     * @param key the key returned by {@link #put(byte[])}
+     * @return the stored bytes
+     * @throws java.nio.file.NoSuchFileException if no content is stored under the key
+     */
+    byte[] get(String key) throws IOException;
+}
@@ -0,0 +1,175 @@
+package com.kafnotif.blob;
+
+import com.kafnotif.model.EmailNotification;
+import com.kafnotif.model.NotificationEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Claim-check for large email content. On publish, bodies and attachments above the threshold
+ * are moved to the {@link BlobStore} and replaced by a {@value #REFERENCE_PREFIX}&lt;hash&gt;
+ * reference; on consume, references are resolved through an LRU cache, which absorbs
+ * campaigns where every record points at the same body.
+ */
+public class ClaimCheck {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ClaimCheck.class);
+    
+    public static final String REFERENCE_PREFIX = "kafnotif-blob:";
+    
+    private final BlobStore store;
+    private final int thresholdBytes;
+    private final Map<String, String> cache;
+    
+    /**
+     * @param store where large content is stored
+     * @param thresholdBytes content larger than this (UTF-8) is checked in
+     * @param cacheSize number of resolved blobs kept in memory by consumers
+     */
+    public ClaimCheck(BlobStore store, int thresholdBytes, int cacheSize) {
+        this.store = store;
+        this.thresholdBytes = thresholdBytes;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+    
+    /**
+     * Check whether a notification has content that should be checked in
+     */
+    public boolean needsCheckIn(NotificationEvent notification) {
+        if (!(notification instanceof EmailNotification)) {
+            return false;
+        }
+        EmailNotification email = (EmailNotification) notification;
+        if (isLarge(email.getBody()) || isLarge(email.getHtmlBody())) {
+            return true;
+        }
+        if (email.getAttachments() != null) {
+            for (String attachment : email.getAttachments()) {
+                if (isLarge(attachment)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Replace large content by blob references, in place (pass a copy of the caller's notification)
+     */
+    public void checkIn(NotificationEvent notification) throws IOException {
+        if (!(notification instanceof EmailNotification)) {
+            return;
+        }
+        EmailNotification email = (EmailNotification) notification;
+        email.setBody(checkIn(email.getBody()));
+        email.setHtmlBody(checkIn(email.getHtmlBody()));
+        if (email.getAttachments() != null) {
+            List<String> attachments = new ArrayList<>(email.getAttachments().size());
+            for (String attachment : email.getAttachments()) {
+                attachments.add(checkIn(attachment));
+            }
+            email.setAttachments(attachments);
+        }
+    }
+    
+    /**
+     * Check whether a notification still has blob references, e.g. because no blob store is
+     * configured or a blob was not found
+     */
+    public static boolean hasReferences(NotificationEvent notification) {
+        if (!(notification instanceof EmailNotification)) {
+            return false;
+        }
+        EmailNotification email = (EmailNotification) notification;
+        if (isReference(email.getBody()) || isReference(email.getHtmlBody())) {
+            return true;
+        }
+        if (email.getAttachments() != null) {
+            for (String attachment : email.getAttachments()) {
+                if (isReference(attachment)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Resolve blob references back to their content, in place. References to blobs that are
+     * not in the store are left as they are (see {@link #hasReferences(NotificationEvent)}).
+     */
+    public void checkOut(NotificationEvent notification) throws IOException {
+        if (!(notification instanceof EmailNotification)) {
+            return;
+        }
+        EmailNotification email = (EmailNotification) notification;
+        email.setBody(checkOut(email.getBody()));
+        email.setHtmlBody(checkOut(email.getHtmlBody()));
+        if (email.getAttachments() != null) {
+            List<String> attachments = new ArrayList<>(email.getAttachments().size());
+            for (String attachment : email.getAttachments()) {
+                attachments.add(checkOut(attachment));
+            }
+            email.setAttachments(attachments);
+        }
+    }
+    
+    private static boolean isReference(String value) {
+        return value != null && value.startsWith(REFERENCE_PREFIX);
+    }
+    
+    private boolean isLarge(String value) {
+        // Cheap bound first: a UTF-8 char takes at most 3 bytes per UTF-16 unit
+        if (value == null || value.length() * 3 <= thresholdBytes) {
+            return false;
+        }
+        return value.length() > thresholdBytes || value.getBytes(StandardCharsets.UTF_8).length > thresholdBytes;
+    }
+    
+    private String checkIn(String value) throws IOException {
+        if (!isLarge(value)) {
+            return value;
+        }
+        String key = store.put(value.getBytes(StandardCharsets.UTF_8));
+        logger.debug("📎 Checked in {} chars as blob {}", value.length(), key);
+        return REFERENCE_PREFIX + key;
+    }
+    
+    private String checkOut(String value) throws IOException {
+        if (!isReference(value)) {
+            return value;
+        }
+        String key = value.substring(REFERENCE_PREFIX.length());
+        synchronized (cache) {
+            String cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        
+        String content;
+        try {
+            content = new String(store.get(key), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            logger.warn("📎 Blob {} not found in the blob store", key);
+            return value;
+        }
+        synchronized (cache) {
+            cache.put(key, content);
+        }
+        return content;
+    }
+}
@@ -0,0 +1,170 @@
+package com.kafnotif.blob;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Blob store on a local or shared (NFS, mounted bucket) directory.
+ * Blobs are named by their SHA-256 hash and fanned out into 256 subdirectories.
+ * <p>
+ * Blobs are kept until swept. Storing content that already exists refreshes its modification
+ * time, so a sweep only removes blobs no publisher has stored for the whole retention period.
+ * The retention must exceed the topic retention plus the longest consumer lag; a record whose
+ * blob was swept fails permanently.
+ */
+public class FileSystemBlobStore implements BlobStore, AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(FileSystemBlobStore.class);
+    
+    private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{64}");
+    
+    private final Path directory;
+    private final ScheduledExecutorService sweeper;
+    
+    /**
+     * Blob store that never removes blobs (sweep it with {@link #sweep(Duration)})
+     */
+    public FileSystemBlobStore(Path directory) {
+        this(directory, null);
+    }
+    
+    /**
+     * Blob store that sweeps blobs older than the retention every hour (or every retention
+     * period if shorter). Only one process sharing the directory needs to sweep.
+     * @param retention age after which blobs are removed, null to never remove them
+     */
+    public FileSystemBlobStore(Path directory, Duration retention) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create blob store directory " + directory, e);
+        }
+        
+        if (retention != null) {
+            if (retention.isNegative() || retention.isZero()) {
+                throw new IllegalArgumentException("retention must be positive");
+            }
+            this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "kafnotif-blob-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(1000, Math.min(retention.toMillis(), Duration.ofHours(1).toMillis()));
+            sweeper.scheduleWithFixedDelay(() -> {
+                try {
+                    sweep(retention);
+                } catch (Exception e) {
+                    logger.warn("Blob store sweep of {} failed: {}", directory, e.getMessage(), e);
+                }
+            }, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            this.sweeper = null;
+        }
+    }
+    
+    @Override
+    public String put(byte[] content) throws IOException {
+        String key = sha256(content);
+        Path target = pathOf(key);
+        if (Files.exists(target)) {
+            // Content-addressed: already stored. Touch it so a sweep keeps it for the new records
+            try {
+                Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+                return key;
+            } catch (NoSuchFileException e) {
+                // Swept just now; store it again
+            }
+        }
+        
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), key, ".tmp");
+        try {
+            Files.write(temp, content);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Stored concurrently by another publisher
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return key;
+    }
+    
+    @Override
+    public byte[] get(String key) throws IOException {
+        return Files.readAllBytes(pathOf(key));
+    }
+    
+    /**
+     * Remove blobs not stored for longer than the given age
+     * @return number of blobs removed
+     */
+    public int sweep(Duration olderThan) throws IOException {
+        FileTime cutoff = FileTime.fromMillis(System.currentTimeMillis() - olderThan.toMillis());
+        int removed = 0;
+        try (DirectoryStream<Path> shards = Files.newDirectoryStream(directory, Files::isDirectory)) {
+            for (Path shard : shards) {
+                try (DirectoryStream<Path> blobs = Files.newDirectoryStream(shard)) {
+                    for (Path blob : blobs) {
+                        try {
+                            if (Files.getLastModifiedTime(blob).compareTo(cutoff) < 0 && Files.deleteIfExists(blob)) {
+                                removed++;
+                            }
+                        } catch (NoSuchFileException e) {
+                            // Removed concurrently
+                        }
+                    }
+                }
+            }
+        }
+        if (removed > 0) {
+            logger.info("🧹 Swept {} blobs older than {} from {}", removed, olderThan, directory);
+        }
+        return removed;
+    }
+    
+    /**
+     * Stop the scheduled sweeps
+     */
+    @Override
+    public void close() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+    
+    private Path pathOf(String key) {
+        if (!KEY_PATTERN.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid blob key: " + key);
+        }
+        return directory.resolve(key.substring(0, 2)).resolve(key);
+    }
+    
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.kafnotif.builder;
 
 import com.kafnotif.model.*;
+import com.kafnotif.util.NotificationIds;
 
 import java.time.Instant;
 import java.util.HashMap;
@@ -72,6 +73,7 @@ public class NotificationBuilder {
         
         public EmailBuilder(String recipient) {
             this.notification = new EmailNotification();
+            this.notification.setId(NotificationIds.next());
             this.notification.setNotificationType(NotificationType.EMAIL);
             this.notification.setRecipient(recipient);
         }
@@ -117,6 +119,16 @@ public class NotificationBuilder {
             return this;
         }
         
+        /**
+         * Let the consumer render the content from a template instead of sending it inline
+         */
+        public EmailBuilder template(String templateId, int version, Map<String, Object> variables) {
+            notification.setTemplateId(templateId);
+            notification.setTemplateVersion(version);
+            notification.setVariables(variables);
+            return this;
+        }
+        
         public EmailNotification build() {
             return notification;
         }
@@ -128,6 +140,7 @@ public class NotificationBuilder {
         
         public SmsBuilder(String phoneNumber) {
             this.notification = new SmsNotification();
+            this.notification.setId(NotificationIds.next());
             this.notification.setNotificationType(NotificationType.SMS);
             this.notification.setRecipient(phoneNumber);
         }
@@ -152,6 +165,16 @@ public class NotificationBuilder {
             return this;
         }
         
+        /**
+         * Let the consumer render the content from a template instead of sending it inline
+         */
+        public SmsBuilder template(String templateId, int version, Map<String, Object> variables) {
+            notification.setTemplateId(templateId);
+            notification.setTemplateVersion(version);
+            notification.setVariables(variables);
+            return this;
+        }
+        
         public SmsNotification build() {
             return notification;
         }
@@ -163,6 +186,7 @@ public class NotificationBuilder {
         
         public PushBuilder(String deviceToken) {
             this.notification = new PushNotification();
+            this.notification.setId(NotificationIds.next());
             this.notification.setNotificationType(NotificationType.PUSH);
             this.notification.setRecipient(deviceToken);
             this.notification.setDeviceToken(deviceToken);
@@ -213,6 +237,16 @@ public class NotificationBuilder {
             return this;
         }
         
+        /**
+         * Let the consumer render the content from a template instead of sending it inline
+         */
+        public PushBuilder template(String templateId, int version, Map<String, Object> variables) {
+            notification.setTemplateId(templateId);
+            notification.setTemplateVersion(version);
+            notification.setVariables(variables);
+            return this;
+        }
+        
         public PushNotification build() {
             return notification;
         }
@@ -224,6 +258,7 @@ public class NotificationBuilder {
         
         public SlackBuilder(String channel) {
             this.notification = new SlackNotification();
+            this.notification.setId(NotificationIds.next());
             this.notification.setNotificationType(NotificationType.SLACK);
             this.notification.setRecipient(channel);
             this.notification.setChannel(channel);
@@ -254,6 +289,16 @@ public class NotificationBuilder {
             return this;
         }
         
+        /**
+         * Let the consumer render the content from a template instead of sending it inline
+         */
+        public SlackBuilder template(String templateId, int version, Map<String, Object> variables) {
+            notification.setTemplateId(templateId);
+            notification.setTemplateVersion(version);
+            notification.setVariables(variables);
+            return this;
+        }
+        
         public SlackNotification build() {
             return notification;
         }
@@ -265,6 +310,7 @@ public class NotificationBuilder {
         
         public DiscordBuilder(String webhookUrl) {
             this.notification = new DiscordNotification();
+            this.notification.setId(NotificationIds.next());
             this.notification.setNotificationType(NotificationType.DISCORD);
             this.notification.setRecipient(webhookUrl);
             this.notification.setWebhookUrl(webhookUrl);
@@ -290,6 +336,16 @@ public class NotificationBuilder {
             return this;
         }
         
+        /**
+         * Let the consumer render the content from a template instead of sending it inline
+         */
+        public DiscordBuilder template(String templateId, int version, Map<String, Object> variables) {
+            notification.setTemplateId(templateId);
+            notification.setTemplateVersion(version);
+            notification.setVariables(variables);
+            return this;
+        }
+        
         public DiscordNotification build() {
             return notification;
         }
@@ -301,6 +357,7 @@ public class NotificationBuilder {
         
         public WebhookBuilder(String url) {
             this.notification = new WebhookNotification();
+            this.notification.setId(NotificationIds.next());
             this.notification.setNotificationType(NotificationType.WEBHOOK);
             this.notification.setRecipient(url);
             this.notification.setUrl(url);
@@ -0,0 +1,129 @@
+package com.kafnotif.codec;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.kafnotif.model.FanOutNotification;
+import com.kafnotif.model.NotificationEvent;
+import com.kafnotif.model.NotificationType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Codec for any Jackson data format (JSON, Smile, CBOR...), with readers and writers
+ * resolved once per codec. When the notification type is known from the record headers,
+ * a reader bound to the concrete subtype is used, bypassing polymorphic type resolution.
+ */
+public class JacksonCodec implements NotificationCodec {
+    
+    private static final TypeReference<List<NotificationEvent>> LIST_TYPE = new TypeReference<>() {};
+    
+    private final String contentType;
+    private final ObjectMapper mapper;
+    private final ObjectReader notificationReader;
+    private final ObjectReader listReader;
+    private final ObjectReader fanOutReader;
+    private final ObjectWriter notificationWriter;
+    private final ObjectWriter listWriter;
+    private final ObjectWriter fanOutWriter;
+    private final Map<NotificationType, ObjectReader> typedReaders = new EnumMap<>(NotificationType.class);
+    private final Map<NotificationType, ObjectReader> typedListReaders = new EnumMap<>(NotificationType.class);
+    
+    public JacksonCodec(String contentType, ObjectMapper mapper) {
+        this.contentType = contentType;
+        this.mapper = mapper;
+        this.notificationReader = mapper.readerFor(NotificationEvent.class);
+        this.listReader = mapper.readerFor(LIST_TYPE);
+        this.fanOutReader = mapper.readerFor(FanOutNotification.class);
+        this.notificationWriter = mapper.writerFor(NotificationEvent.class);
+        this.listWriter = mapper.writerFor(LIST_TYPE);
+        this.fanOutWriter = mapper.writerFor(FanOutNotification.class);
+        
+        // The subtypes declared on NotificationEvent, read without type info. The type id and
+        // the notificationType field share a key ("email" then "EMAIL"), so enum values are
+        // matched case-insensitively (NotificationType.fromString) and the field's own value wins.
+        ObjectMapper untyped = mapper.copy();
+        untyped.registerModule(new SimpleModule().addDeserializer(NotificationType.class, new JsonDeserializer<>() {
+            @Override
+            public NotificationType deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+                return NotificationType.fromString(parser.getValueAsString());
+            }
+        }));
+        JsonSubTypes.Type[] subTypes = NotificationEvent.class.getAnnotation(JsonSubTypes.class).value();
+        for (JsonSubTypes.Type subType : subTypes) {
+            untyped.addMixIn(subType.value(), UntypedMixin.class);
+        }
+        for (JsonSubTypes.Type subType : subTypes) {
+            NotificationType type = NotificationType.fromString(subType.name());
+            typedReaders.put(type, untyped.readerFor(subType.value()));
+            typedListReaders.put(type, untyped.readerForListOf(subType.value()));
+        }
+    }
+    
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+    
+    @Override
+    public byte[] encode(NotificationEvent notification) throws IOException {
+        return notificationWriter.writeValueAsBytes(notification);
+    }
+    
+    @Override
+    public NotificationEvent decode(byte[] data) throws IOException {
+        return notificationReader.readValue(data);
+    }
+    
+    @Override
+    public NotificationEvent decode(byte[] data, NotificationType type) throws IOException {
+        ObjectReader reader = type != null ? typedReaders.get(type) : null;
+        return reader != null ? reader.readValue(data) : decode(data);
+    }
+    
+    @Override
+    public NotificationView view(byte[] data, NotificationType type) throws IOException {
+        return NotificationView.parse(this, mapper, data, type);
+    }
+    
+    @Override
+    public byte[] encodeAll(List<? extends NotificationEvent> notifications) throws IOException {
+        return listWriter.writeValueAsBytes(new ArrayList<NotificationEvent>(notifications));
+    }
+    
+    @Override
+    public List<NotificationEvent> decodeAll(byte[] data) throws IOException {
+        return listReader.readValue(data);
+    }
+    
+    @Override
+    public List<NotificationEvent> decodeAll(byte[] data, NotificationType type) throws IOException {
+        ObjectReader reader = type != null ? typedListReaders.get(type) : null;
+        return reader != null ? reader.readValue(data) : decodeAll(data);
+    }
+    
+    @Override
+    public byte[] encodeFanOut(FanOutNotification fanOut) throws IOException {
+        return fanOutWriter.writeValueAsBytes(fanOut);
+    }
+    
+    @Override
+    public FanOutNotification decodeFanOut(byte[] data) throws IOException {
+        return fanOutReader.readValue(data);
+    }
+    
+    @JsonTypeInfo(use = JsonTypeInfo.Id.NONE)
+    private abstract static class UntypedMixin {
+    }
+}
@@ -0,0 +1,64 @@
+package com.kafnotif.codec;
+
+import com.kafnotif.model.FanOutNotification;
+import com.kafnotif.model.NotificationEvent;
+import com.kafnotif.model.NotificationType;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Encodes notifications into Kafka record values. The codec of a record is identified by its
+ * {@value NotificationCodecs#CONTENT_TYPE_HEADER} header, so producers and consumers using
+ * different codecs can be mixed during rolling upgrades.
+ */
+public interface NotificationCodec {
+    
+    /**
+     * Content type written to the record header, including the schema version
+     * (e.g. {@code application/x-kafnotif+smile;v=1})
+     */
+    String getContentType();
+    
+    byte[] encode(NotificationEvent notification) throws IOException;
+    
+    NotificationEvent decode(byte[] data) throws IOException;
+    
+    /**
+     * Decode a notification whose type is already known (from the record headers), which lets
+     * codecs skip polymorphic type resolution
+     * @param type the notification type, or null if unknown
+     */
+    default NotificationEvent decode(byte[] data, NotificationType type) throws IOException {
+        return decode(data);
+    }
+    
+    /**
+     * Read only the routing fields of an encoded notification; the rest is decoded on demand
+     * by {@link NotificationView#getNotification()}. Codecs that cannot parse partially decode
+     * the whole notification.
+     * @param type the notification type, or null if unknown
+     */
+    default NotificationView view(byte[] data, NotificationType type) throws IOException {
+        return NotificationView.of(decode(data, type));
+    }
+    
+    /**
+     * Encode the notifications of an envelope record
+     */
+    byte[] encodeAll(List<? extends NotificationEvent> notifications) throws IOException;
+    
+    List<NotificationEvent> decodeAll(byte[] data) throws IOException;
+    
+    /**
+     * Decode an envelope whose notifications all have the given type
+     * @param type the notification type, or null if unknown
+     */
+    default List<NotificationEvent> decodeAll(byte[] data, NotificationType type) throws IOException {
+        return decodeAll(data);
+    }
+    
+    byte[] encodeFanOut(FanOutNotification fanOut) throws IOException;
+    
+    FanOutNotification decodeFanOut(byte[] data) throws IOException;
+}
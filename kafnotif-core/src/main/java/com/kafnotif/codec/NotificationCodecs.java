@@ -0,0 +1,149 @@
+package com.kafnotif.codec;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.kafnotif.model.NotificationEvent;
+import com.kafnotif.model.NotificationType;
+import com.kafnotif.util.JsonUtils;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of notification codecs, looked up by the content type header of a record.
+ * Records without the header are JSON (the format written by earlier versions).
+ */
+public final class NotificationCodecs {
+    
+    public static final String CONTENT_TYPE_HEADER = "content-type";
+    public static final String TYPE_HEADER = "notificationType";
+    
+    /**
+     * Plain JSON, readable by every version of the library
+     */
+    public static final NotificationCodec JSON = new JacksonCodec("application/json", JsonUtils.sharedObjectMapper());
+    
+    /**
+     * Binary Smile with shared property names (repeated field names cost one byte),
+     * null fields and computed properties omitted. Schema version 1.
+     */
+    public static final NotificationCodec SMILE = new JacksonCodec("application/x-kafnotif+smile;v=1", createSmileMapper());
+    
+    private static final Map<String, NotificationCodec> codecs = new ConcurrentHashMap<>();
+    
+    static {
+        register(JSON);
+        register(SMILE);
+    }
+    
+    private NotificationCodecs() {
+        // Utility class - prevent instantiation
+    }
+    
+    /**
+     * Register a custom codec (e.g. a new schema version) so consumers can read it
+     */
+    public static void register(NotificationCodec codec) {
+        codecs.put(codec.getContentType(), codec);
+    }
+    
+    /**
+     * Get the codec for a content type
+     * @throws IllegalArgumentException if no codec is registered for it
+     */
+    public static NotificationCodec forContentType(String contentType) {
+        NotificationCodec codec = codecs.get(contentType);
+        if (codec == null) {
+            throw new IllegalArgumentException("Unsupported notification content type: " + contentType);
+        }
+        return codec;
+    }
+    
+    /**
+     * Get a built-in codec by name ("json" or "smile")
+     */
+    public static NotificationCodec named(String name) {
+        switch (name.toLowerCase()) {
+            case "json":
+                return JSON;
+            case "smile":
+                return SMILE;
+            default:
+                throw new IllegalArgumentException("Unknown codec: " + name + " (expected json or smile)");
+        }
+    }
+    
+    /**
+     * Get the codec of a consumed record from its headers
+     */
+    public static NotificationCodec forHeaders(Headers headers) {
+        Header header = headers.lastHeader(CONTENT_TYPE_HEADER);
+        if (header == null) {
+            return JSON;
+        }
+        return forContentType(new String(header.value(), StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Get the notification type of a record from its notificationType header
+     * @return the type, or null if the header is missing or unknown
+     */
+    public static NotificationType typeOf(Headers headers) {
+        Header header = headers.lastHeader(TYPE_HEADER);
+        if (header == null) {
+            return null;
+        }
+        try {
+            return NotificationType.fromString(new String(header.value(), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Decode a single-notification record with the codec and type of its headers
+     */
+    public static NotificationEvent decode(Headers headers, byte[] value) throws IOException {
+        return forHeaders(headers).decode(value, typeOf(headers));
+    }
+    
+    /**
+     * Read the routing fields of a single-notification record, deferring the full decode
+     */
+    public static NotificationView view(Headers headers, byte[] value) throws IOException {
+        return forHeaders(headers).view(value, typeOf(headers));
+    }
+    
+    /**
+     * Write the content type header of a codec
+     */
+    public static void setContentType(Headers headers, NotificationCodec codec) {
+        headers.remove(CONTENT_TYPE_HEADER);
+        headers.add(CONTENT_TYPE_HEADER, codec.getContentType().getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static ObjectMapper createSmileMapper() {
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        ObjectMapper mapper = JsonUtils.configure(new ObjectMapper(factory));
+        mapper.setDefaultPropertyInclusion(JsonInclude.Value.construct(JsonInclude.Include.NON_NULL, JsonInclude.Include.NON_NULL));
+        mapper.addMixIn(NotificationEvent.class, ComputedPropertiesMixin.class);
+        return mapper;
+    }
+    
+    /**
+     * isValid() and getContent() are derived from other fields and need not be sent
+     */
+    @JsonIgnoreProperties(value = {"valid", "content"}, allowGetters = false)
+    private abstract static class ComputedPropertiesMixin {
+    }
+}
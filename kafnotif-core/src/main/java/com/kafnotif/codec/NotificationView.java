@@ -0,0 +1,156 @@
+package com.kafnotif.codec;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kafnotif.model.NotificationEvent;
+import com.kafnotif.model.NotificationPriority;
+import com.kafnotif.model.NotificationType;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Routing fields of a notification record (id, type, recipient, priority, scheduledAt), read
+ * with a streaming parser that stops as soon as they are found. Bodies, Slack blocks, Discord
+ * embeds and metadata stay encoded until {@link #getNotification()} is called, so records
+ * rejected by a consumer filter never pay for a full decode.
+ */
+public final class NotificationView {
+    
+    private static final int ALL_FIELDS = 0b11111;
+    
+    private final NotificationCodec codec;
+    private final byte[] data;
+    
+    private String id;
+    private NotificationType notificationType;
+    private String recipient;
+    private NotificationPriority priority;
+    private Instant scheduledAt;
+    
+    private NotificationEvent notification;
+    
+    private NotificationView(NotificationCodec codec, byte[] data) {
+        this.codec = codec;
+        this.data = data;
+    }
+    
+    /**
+     * View of an already decoded notification (envelopes, fan-out expansions)
+     */
+    public static NotificationView of(NotificationEvent notification) {
+        NotificationView view = new NotificationView(null, null);
+        view.id = notification.getId();
+        view.notificationType = notification.getNotificationType();
+        view.recipient = notification.getRecipient();
+        view.priority = notification.getPriority();
+        view.scheduledAt = notification.getScheduledAt();
+        view.notification = notification;
+        return view;
+    }
+    
+    /**
+     * Parse the routing fields of an encoded notification, skipping everything else
+     * @param type the type from the record headers, or null to take it from the payload
+     */
+    static NotificationView parse(NotificationCodec codec, ObjectMapper mapper, byte[] data,
+                                  NotificationType type) throws IOException {
+        NotificationView view = new NotificationView(codec, data);
+        view.notificationType = type;
+        int found = type != null ? 0b00010 : 0;
+        
+        try (JsonParser parser = mapper.createParser(data)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a notification object");
+            }
+            while (found != ALL_FIELDS && parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                switch (field) {
+                    case "id":
+                        view.id = parser.getValueAsString();
+                        found |= 0b00001;
+                        break;
+                    case "notificationType":
+                        // Written twice: as type id ("email") and as the field ("EMAIL")
+                        if (token == JsonToken.VALUE_STRING && view.notificationType == null) {
+                            view.notificationType = NotificationType.fromString(parser.getText());
+                        }
+                        found |= 0b00010;
+                        break;
+                    case "recipient":
+                        view.recipient = parser.getValueAsString();
+                        found |= 0b00100;
+                        break;
+                    case "priority":
+                        if (token == JsonToken.VALUE_STRING) {
+                            view.priority = NotificationPriority.valueOf(parser.getText());
+                        }
+                        found |= 0b01000;
+                        break;
+                    case "scheduledAt":
+                        if (token != JsonToken.VALUE_NULL) {
+                            view.scheduledAt = mapper.readValue(parser, Instant.class);
+                        }
+                        found |= 0b10000;
+                        break;
+                    default:
+                        // Objects and arrays are skipped without being bound
+                        parser.skipChildren();
+                }
+            }
+        }
+        if (view.priority == null) {
+            view.priority = NotificationPriority.NORMAL;
+        }
+        return view;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public NotificationType getNotificationType() {
+        return notificationType;
+    }
+    
+    public String getRecipient() {
+        return recipient;
+    }
+    
+    public NotificationPriority getPriority() {
+        return priority;
+    }
+    
+    public Instant getScheduledAt() {
+        return scheduledAt;
+    }
+    
+    /**
+     * Get the full notification, decoding it on first access
+     */
+    public synchronized NotificationEvent getNotification() throws IOException {
+        if (notification == null) {
+            notification = codec.decode(data, notificationType);
+        }
+        return notification;
+    }
+    
+    /**
+     * Check whether the full notification has been decoded
+     */
+    public synchronized boolean isDecoded() {
+        return notification != null;
+    }
+    
+    @Override
+    public String toString() {
+        return "NotificationView{" +
+                "id='" + id + '\'' +
+                ", notificationType=" + notificationType +
+                ", recipient='" + recipient + '\'' +
+                ", priority=" + priority +
+                '}';
+    }
+}
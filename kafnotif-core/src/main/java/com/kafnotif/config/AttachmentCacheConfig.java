@@ -0,0 +1,97 @@
+package com.kafnotif.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Settings of the cache of encoded email attachments used by the JavaMail email notifier
+ */
+public class AttachmentCacheConfig {
+    
+    private int maxEntries = 256;
+    private long maxMemoryBytes = 64L * 1024 * 1024;
+    private long mappedThresholdBytes = 1024 * 1024;
+    private Path directory;
+    
+    // Attachment references come from Kafka records: only data: URIs are accepted by default
+    private Path baseDirectory;
+    private Set<String> allowedHosts = Set.of();
+    private Duration fetchTimeout = Duration.ofSeconds(10);
+    private long maxAttachmentBytes = 25L * 1024 * 1024;
+    
+    /**
+     * Maximum number of encoded attachments kept, least recently used evicted first
+     */
+    public AttachmentCacheConfig maxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+        return this;
+    }
+    
+    /**
+     * Maximum heap used by encoded attachments below the mapped threshold
+     */
+    public AttachmentCacheConfig maxMemoryBytes(long maxMemoryBytes) {
+        this.maxMemoryBytes = maxMemoryBytes;
+        return this;
+    }
+    
+    /**
+     * Encoded attachments larger than this are written to disk and memory-mapped instead of
+     * kept on the heap
+     */
+    public AttachmentCacheConfig mappedThresholdBytes(long mappedThresholdBytes) {
+        this.mappedThresholdBytes = mappedThresholdBytes;
+        return this;
+    }
+    
+    /**
+     * Directory of the memory-mapped files (a new temporary directory by default)
+     */
+    public AttachmentCacheConfig directory(Path directory) {
+        this.directory = directory;
+        return this;
+    }
+    
+    /**
+     * Allow file paths and {@code file:} URLs, resolved against and confined to this directory
+     */
+    public AttachmentCacheConfig baseDirectory(Path baseDirectory) {
+        this.baseDirectory = baseDirectory;
+        return this;
+    }
+    
+    /**
+     * Allow {@code http(s):} URLs on these hosts
+     */
+    public AttachmentCacheConfig allowedHosts(Set<String> allowedHosts) {
+        this.allowedHosts = Set.copyOf(allowedHosts);
+        return this;
+    }
+    
+    /**
+     * Connect and read timeout when fetching URL attachments
+     */
+    public AttachmentCacheConfig fetchTimeout(Duration fetchTimeout) {
+        this.fetchTimeout = fetchTimeout;
+        return this;
+    }
+    
+    /**
+     * Reject attachments larger than this
+     */
+    public AttachmentCacheConfig maxAttachmentBytes(long maxAttachmentBytes) {
+        this.maxAttachmentBytes = maxAttachmentBytes;
+        return this;
+    }
+    
+    // Getters
+    public int getMaxEntries() { return maxEntries; }
+    public long getMaxMemoryBytes() { return maxMemoryBytes; }
+    public long getMappedThresholdBytes() { return mappedThresholdBytes; }
+    public Path getDirectory() { return directory; }
+    public Path getBaseDirectory() { return baseDirectory; }
+    public Set<String> getAllowedHosts() { return allowedHosts; }
+    public Duration getFetchTimeout() { return fetchTimeout; }
+    public long getMaxAttachmentBytes() { return maxAttachmentBytes; }
+}
@@ -0,0 +1,34 @@
+package com.kafnotif.config;
+
+import java.time.Duration;
+
+/**
+ * Settings of the email grouping stage, which sends identical emails to recipients of the same
+ * domain as one message
+ */
+public class EmailGroupingConfig {
+    
+    private Duration window = Duration.ofMillis(200);
+    // Many relays reject envelopes with more than 50-100 recipients
+    private int maxRecipientsPerMessage = 50;
+    
+    /**
+     * How long the first email of a group waits for identical ones before the group is sent
+     */
+    public EmailGroupingConfig window(Duration window) {
+        this.window = window;
+        return this;
+    }
+    
+    /**
+     * Send a group as soon as it reaches this many recipients
+     */
+    public EmailGroupingConfig maxRecipientsPerMessage(int maxRecipientsPerMessage) {
+        this.maxRecipientsPerMessage = maxRecipientsPerMessage;
+        return this;
+    }
+    
+    // Getters
+    public Duration getWindow() { return window; }
+    public int getMaxRecipientsPerMessage() { return maxRecipientsPerMessage; }
+}
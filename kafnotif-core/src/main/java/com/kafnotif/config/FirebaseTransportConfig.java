@@ -0,0 +1,47 @@
+package com.kafnotif.config;
+
+import java.time.Duration;
+
+/**
+ * HTTP transport settings of the Firebase app created by the FCM push notifier
+ */
+public class FirebaseTransportConfig {
+    
+    // All FCM requests go to one host; the Firebase default allows 20 connections per route
+    private int maxConnections = 50;
+    private Duration connectTimeout = Duration.ofSeconds(10);
+    private Duration readTimeout = Duration.ofSeconds(10);
+    private Duration idleTimeout = Duration.ofSeconds(30);
+    
+    /**
+     * Maximum open connections to FCM; requests beyond this wait for a free connection
+     */
+    public FirebaseTransportConfig maxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+        return this;
+    }
+    
+    public FirebaseTransportConfig connectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+        return this;
+    }
+    
+    public FirebaseTransportConfig readTimeout(Duration readTimeout) {
+        this.readTimeout = readTimeout;
+        return this;
+    }
+    
+    /**
+     * Close pooled connections idle for longer than this
+     */
+    public FirebaseTransportConfig idleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+        return this;
+    }
+    
+    // Getters
+    public int getMaxConnections() { return maxConnections; }
+    public Duration getConnectTimeout() { return connectTimeout; }
+    public Duration getReadTimeout() { return readTimeout; }
+    public Duration getIdleTimeout() { return idleTimeout; }
+}
@@ -0,0 +1,117 @@
+package com.kafnotif.config;
+
+import java.time.Duration;
+
+/**
+ * Connection pool and timeout settings of the HTTP clients (blocking and async) shared by the
+ * Slack, Discord and webhook notifiers
+ */
+public class HttpClientConfig {
+    
+    // Pool limits: notifiers mostly talk to a few hosts, so the per-route limit matters most
+    private int maxConnections = 200;
+    private int maxConnectionsPerRoute = 50;
+    
+    // Timeouts
+    private Duration connectTimeout = Duration.ofSeconds(5);
+    private Duration responseTimeout = Duration.ofSeconds(30);
+    private Duration connectionRequestTimeout = Duration.ofSeconds(10);
+    
+    // Connection reuse
+    private Duration keepAlive = Duration.ofMinutes(1);
+    private Duration idleEviction = Duration.ofSeconds(30);
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+    
+    // Async transport: HTTP/2 multiplexing for https endpoints, responses handled on a few threads
+    private boolean http2 = true;
+    private int asyncIoThreads = 2;
+    
+    /**
+     * Maximum number of open connections across all hosts
+     */
+    public HttpClientConfig maxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+        return this;
+    }
+    
+    /**
+     * Maximum number of open connections to one host (e.g. hooks.slack.com)
+     */
+    public HttpClientConfig maxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        return this;
+    }
+    
+    public HttpClientConfig connectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+        return this;
+    }
+    
+    /**
+     * Maximum time to wait for response data (per read)
+     */
+    public HttpClientConfig responseTimeout(Duration responseTimeout) {
+        this.responseTimeout = responseTimeout;
+        return this;
+    }
+    
+    /**
+     * Maximum time a request waits for a free pooled connection
+     */
+    public HttpClientConfig connectionRequestTimeout(Duration connectionRequestTimeout) {
+        this.connectionRequestTimeout = connectionRequestTimeout;
+        return this;
+    }
+    
+    /**
+     * How long an idle connection is kept for reuse when the server does not say
+     */
+    public HttpClientConfig keepAlive(Duration keepAlive) {
+        this.keepAlive = keepAlive;
+        return this;
+    }
+    
+    /**
+     * Close connections idle for longer than this in the background
+     */
+    public HttpClientConfig idleEviction(Duration idleEviction) {
+        this.idleEviction = idleEviction;
+        return this;
+    }
+    
+    /**
+     * Check pooled connections idle for longer than this before reusing them
+     */
+    public HttpClientConfig validateAfterInactivity(Duration validateAfterInactivity) {
+        this.validateAfterInactivity = validateAfterInactivity;
+        return this;
+    }
+    
+    /**
+     * Negotiate HTTP/2 with https endpoints in the async transport (falls back to HTTP/1.1)
+     */
+    public HttpClientConfig http2(boolean http2) {
+        this.http2 = http2;
+        return this;
+    }
+    
+    /**
+     * Threads handling responses of the async transport
+     */
+    public HttpClientConfig asyncIoThreads(int asyncIoThreads) {
+        this.asyncIoThreads = asyncIoThreads;
+        return this;
+    }
+    
+    // Getters
+    public int getMaxConnections() { return maxConnections; }
+    public int getMaxConnectionsPerRoute() { return maxConnectionsPerRoute; }
+    public Duration getConnectTimeout() { return connectTimeout; }
+    public Duration getResponseTimeout() { return responseTimeout; }
+    public Duration getConnectionRequestTimeout() { return connectionRequestTimeout; }
+    public Duration getKeepAlive() { return keepAlive; }
+    public Duration getIdleEviction() { return idleEviction; }
+    public Duration getValidateAfterInactivity() { return validateAfterInactivity; }
+    public boolean isHttp2() { return http2; }
+    public int getAsyncIoThreads() { return asyncIoThreads; }
+}
@@ -0,0 +1,69 @@
+package com.kafnotif.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of the cache of device tokens that FCM reported as invalid
+ */
+public class InvalidTokenCacheConfig {
+    
+    private int maxTokens = 100_000;
+    // Apps are reinstalled and tokens re-registered; forget after a while and let FCM decide again
+    private Duration ttl = Duration.ofDays(7);
+    private boolean bloomFilter = false;
+    private double bloomFalsePositiveRate = 0.01;
+    private Path snapshotPath;
+    private Duration snapshotInterval = Duration.ofMinutes(5);
+    
+    /**
+     * Maximum number of tokens kept, those expiring soonest evicted first
+     */
+    public InvalidTokenCacheConfig maxTokens(int maxTokens) {
+        this.maxTokens = maxTokens;
+        return this;
+    }
+    
+    /**
+     * How long a token is considered invalid after FCM rejected it
+     */
+    public InvalidTokenCacheConfig ttl(Duration ttl) {
+        this.ttl = ttl;
+        return this;
+    }
+    
+    /**
+     * Check a Bloom filter sized for {@link #maxTokens(int)} before the token set, so that
+     * lookups of valid tokens mostly skip the set
+     */
+    public InvalidTokenCacheConfig bloomFilter(boolean bloomFilter) {
+        this.bloomFilter = bloomFilter;
+        return this;
+    }
+    
+    public InvalidTokenCacheConfig bloomFalsePositiveRate(double bloomFalsePositiveRate) {
+        this.bloomFalsePositiveRate = bloomFalsePositiveRate;
+        return this;
+    }
+    
+    /**
+     * File the tokens are saved to periodically and on close, and loaded from on start
+     */
+    public InvalidTokenCacheConfig snapshotPath(Path snapshotPath) {
+        this.snapshotPath = snapshotPath;
+        return this;
+    }
+    
+    public InvalidTokenCacheConfig snapshotInterval(Duration snapshotInterval) {
+        this.snapshotInterval = snapshotInterval;
+        return this;
+    }
+    
+    // Getters
+    public int getMaxTokens() { return maxTokens; }
+    public Duration getTtl() { return ttl; }
+    public boolean isBloomFilter() { return bloomFilter; }
+    public double getBloomFalsePositiveRate() { return bloomFalsePositiveRate; }
+    public Path getSnapshotPath() { return snapshotPath; }
+    public Duration getSnapshotInterval() { return snapshotInterval; }
+}
@@ -1,6 +1,7 @@
 package com.kafnotif.config;
 
 import com.kafnotif.model.NotificationType;
+import com.kafnotif.model.PriorityLane;
 import org.apache.kafka.clients.admin.*;
 import org.apache.kafka.common.errors.TopicExistsException;
 import org.slf4j.Logger;
@@ -93,6 +94,17 @@ public class KafkaTopicManager {
         }
     }
     
+    /**
+     * Create the default, high and bulk lane topics for every notification type
+     */
+    public void createAllPriorityLaneTopics() {
+        for (NotificationType type : NotificationType.values()) {
+            for (PriorityLane lane : PriorityLane.values()) {
+                createTopicIfNotExists(getTopicName(type, lane), defaultPartitions, defaultReplicationFactor);
+            }
+        }
+    }
+    
     /**
      * Get topic name for notification type
      */
@@ -100,6 +112,13 @@ public class KafkaTopicManager {
         return topicPrefix + "." + type.getValue();
     }
     
+    /**
+     * Get topic name for notification type and priority lane
+     */
+    public String getTopicName(NotificationType type, PriorityLane lane) {
+        return lane.topicName(getTopicName(type));
+    }
+    
     /**
      * Get all notification topic names
      */
@@ -109,6 +128,15 @@ public class KafkaTopicManager {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Get all notification topic names including priority lane topics
+     */
+    public List<String> getAllPriorityLaneTopics() {
+        return Arrays.stream(NotificationType.values())
+                .flatMap(type -> Arrays.stream(PriorityLane.values()).map(lane -> getTopicName(type, lane)))
+                .collect(Collectors.toList());
+    }
+    
     /**
      * Check topic health and configuration
      */
@@ -0,0 +1,73 @@
+package com.kafnotif.config;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+
+import java.util.Properties;
+
+/**
+ * Named sets of Kafka client settings for a workload, so producers and consumers
+ * are tuned by picking a profile instead of hand-tuning raw properties
+ */
+public enum PerformanceProfile {
+    /**
+     * Send immediately and fetch as soon as any data is available (alerts, OTPs)
+     */
+    LOW_LATENCY(0, 16 * 1024, "none", 32L * 1024 * 1024, 1, 10, 100),
+    
+    /**
+     * Short linger with light compression; the default
+     */
+    BALANCED(5, 64 * 1024, "lz4", 64L * 1024 * 1024, 1, 100, 500),
+    
+    /**
+     * Large compressed batches and fetches for campaigns and digests
+     */
+    BULK_THROUGHPUT(50, 256 * 1024, "zstd", 128L * 1024 * 1024, 64 * 1024, 500, 1000);
+    
+    private final int lingerMs;
+    private final int batchSize;
+    private final String compressionType;
+    private final long bufferMemory;
+    private final int fetchMinBytes;
+    private final int fetchMaxWaitMs;
+    private final int maxPollRecords;
+    
+    PerformanceProfile(int lingerMs, int batchSize, String compressionType, long bufferMemory,
+                       int fetchMinBytes, int fetchMaxWaitMs, int maxPollRecords) {
+        this.lingerMs = lingerMs;
+        this.batchSize = batchSize;
+        this.compressionType = compressionType;
+        this.bufferMemory = bufferMemory;
+        this.fetchMinBytes = fetchMinBytes;
+        this.fetchMaxWaitMs = fetchMaxWaitMs;
+        this.maxPollRecords = maxPollRecords;
+    }
+    
+    /**
+     * Apply the producer settings of this profile
+     */
+    public void applyToProducer(Properties props) {
+        props.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        props.put(ProducerConfig.BUFFER_MEMORY_CONFIG, bufferMemory);
+    }
+    
+    /**
+     * Apply the consumer settings of this profile
+     */
+    public void applyToConsumer(Properties props) {
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, fetchMinBytes);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, fetchMaxWaitMs);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+    }
+    
+    public int getLingerMs() { return lingerMs; }
+    public int getBatchSize() { return batchSize; }
+    public String getCompressionType() { return compressionType; }
+    public long getBufferMemory() { return bufferMemory; }
+    public int getFetchMinBytes() { return fetchMinBytes; }
+    public int getFetchMaxWaitMs() { return fetchMaxWaitMs; }
+    public int getMaxPollRecords() { return maxPollRecords; }
+}
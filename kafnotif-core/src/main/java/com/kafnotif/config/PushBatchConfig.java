@@ -0,0 +1,39 @@
+package com.kafnotif.config;
+
+import java.time.Duration;
+
+/**
+ * Settings of the push batching stage, which sends individual push notifications to FCM in
+ * batches
+ */
+public class PushBatchConfig {
+    
+    // FCM accepts at most 500 messages per sendEach call
+    public static final int MAX_FCM_BATCH_SIZE = 500;
+    
+    private int maxBatchSize = MAX_FCM_BATCH_SIZE;
+    private Duration linger = Duration.ofMillis(20);
+    
+    /**
+     * Send a batch as soon as it holds this many messages (at most 500)
+     */
+    public PushBatchConfig maxBatchSize(int maxBatchSize) {
+        if (maxBatchSize < 1 || maxBatchSize > MAX_FCM_BATCH_SIZE) {
+            throw new IllegalArgumentException("maxBatchSize must be between 1 and " + MAX_FCM_BATCH_SIZE);
+        }
+        this.maxBatchSize = maxBatchSize;
+        return this;
+    }
+    
+    /**
+     * How long the first message of a batch waits for others before the batch is sent
+     */
+    public PushBatchConfig linger(Duration linger) {
+        this.linger = linger;
+        return this;
+    }
+    
+    // Getters
+    public int getMaxBatchSize() { return maxBatchSize; }
+    public Duration getLinger() { return linger; }
+}
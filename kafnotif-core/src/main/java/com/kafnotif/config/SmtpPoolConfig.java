@@ -0,0 +1,64 @@
+package com.kafnotif.config;
+
+import java.time.Duration;
+
+/**
+ * Settings of the pool of connected SMTP transports used by the JavaMail email notifier
+ */
+public class SmtpPoolConfig {
+    
+    // Relays throttle clients opening many parallel sessions, so keep the pool small
+    private int maxConnections = 8;
+    private int maxMessagesPerConnection = 100;
+    
+    private Duration idleTimeout = Duration.ofSeconds(30);
+    private Duration validateAfterInactivity = Duration.ofSeconds(5);
+    private Duration borrowTimeout = Duration.ofSeconds(30);
+    
+    /**
+     * Maximum number of open connections to the SMTP server
+     */
+    public SmtpPoolConfig maxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+        return this;
+    }
+    
+    /**
+     * Close a connection after it has sent this many messages (many relays cap messages per session)
+     */
+    public SmtpPoolConfig maxMessagesPerConnection(int maxMessagesPerConnection) {
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        return this;
+    }
+    
+    /**
+     * Close connections idle for longer than this, before the server drops them
+     */
+    public SmtpPoolConfig idleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+        return this;
+    }
+    
+    /**
+     * Check pooled connections idle for longer than this with a NOOP before reusing them
+     */
+    public SmtpPoolConfig validateAfterInactivity(Duration validateAfterInactivity) {
+        this.validateAfterInactivity = validateAfterInactivity;
+        return this;
+    }
+    
+    /**
+     * Maximum time a send waits for a free connection
+     */
+    public SmtpPoolConfig borrowTimeout(Duration borrowTimeout) {
+        this.borrowTimeout = borrowTimeout;
+        return this;
+    }
+    
+    // Getters
+    public int getMaxConnections() { return maxConnections; }
+    public int getMaxMessagesPerConnection() { return maxMessagesPerConnection; }
+    public Duration getIdleTimeout() { return idleTimeout; }
+    public Duration getValidateAfterInactivity() { return validateAfterInactivity; }
+    public Duration getBorrowTimeout() { return borrowTimeout; }
+}
@@ -0,0 +1,115 @@
+package com.kafnotif.consumer;
+
+import com.kafnotif.hooks.KafNotifAcknowledgment;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Turns the acknowledgments of one consumer into the offsets to commit, keeping the highest
+ * acknowledged offset per partition. A record that is processed in steps (a fan-out) holds its
+ * partition's commit at its own offset until it is acknowledged, so records after it that finish
+ * first cannot move the commit past it; its checkpoints travel as the held offset's metadata.
+ * <p>
+ * Used by the consumer thread only.
+ */
+class CommitTracker {
+    
+    // Highest offset committed per partition
+    private final Map<TopicPartition, Long> committed = new HashMap<>();
+    // Highest offset acknowledged per partition, which a hold may keep from being committed
+    private final Map<TopicPartition, Long> acknowledged = new HashMap<>();
+    // Offsets of records still in progress per partition, with their latest checkpoint
+    private final Map<TopicPartition, TreeMap<Long, String>> holds = new HashMap<>();
+    // Partitions assigned whose committed checkpoint has not been looked up yet
+    private final Set<TopicPartition> unchecked = new HashSet<>();
+    
+    /**
+     * Note partitions assigned to the consumer, whose first record may resume from a checkpoint
+     */
+    void assigned(Collection<TopicPartition> partitions) {
+        unchecked.addAll(partitions);
+    }
+    
+    /**
+     * @return true for the first call per partition since it was assigned: only the first record
+     *         fetched can be the one a committed checkpoint belongs to
+     */
+    boolean firstSinceAssignment(TopicPartition partition) {
+        return unchecked.remove(partition);
+    }
+    
+    /**
+     * Keep the partition's commit at or before this offset until the record is acknowledged
+     * @param checkpoint metadata to commit with the held offset
+     */
+    void hold(TopicPartition partition, long offset, String checkpoint) {
+        holds.computeIfAbsent(partition, p -> new TreeMap<>()).put(offset, checkpoint);
+    }
+    
+    /**
+     * Drain acknowledgments into the offsets to commit. Offsets never move behind one committed
+     * before.
+     * @param outputs receives records to write with the commit (null when not transactional)
+     */
+    Map<TopicPartition, OffsetAndMetadata> collect(Queue<KafNotifAcknowledgment.AckRequest> ackQueue,
+                                                   List<ProducerRecord<String, byte[]>> outputs) {
+        Set<TopicPartition> changed = new HashSet<>();
+        Map<TopicPartition, OffsetAndMetadata> checkpoints = new HashMap<>();
+        
+        KafNotifAcknowledgment.AckRequest ackRequest;
+        while ((ackRequest = ackQueue.poll()) != null) {
+            if (outputs != null && ackRequest.getOutput() != null) {
+                outputs.add(ackRequest.getOutput());
+            }
+            TopicPartition tp = ackRequest.getTopicPartition();
+            TreeMap<Long, String> held = holds.get(tp);
+            changed.add(tp);
+            
+            if (ackRequest.isCheckpoint()) {
+                if (held != null && held.containsKey(ackRequest.getOffset())) {
+                    held.put(ackRequest.getOffset(), ackRequest.getCheckpoint());
+                } else {
+                    checkpoints.put(tp, new OffsetAndMetadata(ackRequest.getOffset(), ackRequest.getCheckpoint()));
+                }
+                continue;
+            }
+            if (held != null && held.remove(ackRequest.getOffset()) != null && held.isEmpty()) {
+                holds.remove(tp);
+            }
+            acknowledged.merge(tp, ackRequest.getCommitOffset(), Math::max);
+        }
+        
+        Map<TopicPartition, OffsetAndMetadata> offsetsToCommit = new HashMap<>();
+        for (TopicPartition tp : changed) {
+            OffsetAndMetadata candidate = candidate(tp, checkpoints.get(tp));
+            if (candidate != null && candidate.offset() >= committed.getOrDefault(tp, -1L)) {
+                offsetsToCommit.put(tp, candidate);
+                committed.put(tp, candidate.offset());
+            }
+        }
+        return offsetsToCommit;
+    }
+    
+    private OffsetAndMetadata candidate(TopicPartition tp, OffsetAndMetadata checkpoint) {
+        Long acked = acknowledged.get(tp);
+        TreeMap<Long, String> held = holds.get(tp);
+        if (held != null && (acked == null || acked >= held.firstKey())) {
+            Map.Entry<Long, String> first = held.firstEntry();
+            return new OffsetAndMetadata(first.getKey(), first.getValue());
+        }
+        if (checkpoint != null && (acked == null || checkpoint.offset() >= acked)) {
+            return checkpoint;
+        }
+        return acked != null ? new OffsetAndMetadata(acked) : null;
+    }
+}
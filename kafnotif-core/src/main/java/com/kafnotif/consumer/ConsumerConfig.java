@@ -1,11 +1,19 @@
 package com.kafnotif.consumer;
 
+import com.kafnotif.blob.BlobStore;
+import com.kafnotif.codec.NotificationView;
+import com.kafnotif.config.PerformanceProfile;
 import com.kafnotif.config.ThreadingMode;
 import com.kafnotif.hooks.NotificationHooks;
 import com.kafnotif.model.NotificationType;
+import com.kafnotif.template.TemplateSource;
+import com.kafnotif.validation.NotificationValidator;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 
 /**
  * Configuration for notification consumers
@@ -27,10 +35,12 @@ public class ConsumerConfig {
     private AckMode ackMode = AckMode.AUTO; // AUTO, MANUAL, MANUAL_IMMEDIATE
     private Duration pollTimeout = Duration.ofMillis(1000);
     private String offsetReset = "earliest";
+    private boolean readCommitted = false;
     
     // Retry configuration
     private int maxRetries = 3;
     private Duration retryDelay = Duration.ofSeconds(5);
+    private Duration maxRetryDelay = Duration.ofMinutes(5);
     private boolean enableRetries = true;
     
     // Hooks
@@ -40,6 +50,37 @@ public class ConsumerConfig {
     private boolean enableDlq = false;
     private String dlqTopicSuffix = ".dlq";
     
+    // Transactions (consume-process-produce)
+    private boolean transactional = false;
+    private String transactionalIdPrefix;
+    
+    // Priority lanes (".high" and ".bulk" topics next to each type topic)
+    private boolean priorityLanes = false;
+    private double minBulkShare = 0.1;
+    
+    // Fan-out: recipients processed between two progress checkpoints
+    private int fanOutCheckpointInterval = 100;
+    
+    // Consumer tuning
+    private PerformanceProfile profile = PerformanceProfile.BALANCED;
+    private final Map<String, Object> consumerProperties = new HashMap<>();
+    
+    // Claim-check references are resolved from this store (null when not used)
+    private BlobStore blobStore;
+    private int blobCacheSize = 256;
+    
+    // Templates of templated notifications (null when not used)
+    private TemplateSource templateSource;
+    private int templateCacheSize = 512;
+    private Duration templateLatestVersionTtl = Duration.ofSeconds(30);
+    
+    // Records rejected by the filter are acknowledged without being fully decoded (null accepts all)
+    private Predicate<NotificationView> filter;
+    
+    // Validation before delivery; records stamped by a publisher are only trusted when enabled
+    private NotificationValidator validator = NotificationValidator.defaults();
+    private boolean trustValidatedHeader = false;
+    
     public ConsumerConfig(String groupId) {
         this.groupId = groupId;
     }
@@ -97,6 +138,11 @@ public class ConsumerConfig {
         return this;
     }
     
+    public ConsumerConfig readCommitted(boolean readCommitted) {
+        this.readCommitted = readCommitted;
+        return this;
+    }
+    
     public ConsumerConfig maxRetries(int maxRetries) {
         this.maxRetries = maxRetries;
         return this;
@@ -107,6 +153,16 @@ public class ConsumerConfig {
         return this;
     }
     
+    /**
+     * Longest retry-after hint from a provider to wait for (default 5 minutes). A failure asking
+     * for a longer wait is not retried and goes to the DLQ, instead of keeping the record in
+     * memory and its partition's commit behind it.
+     */
+    public ConsumerConfig maxRetryDelay(Duration maxRetryDelay) {
+        this.maxRetryDelay = maxRetryDelay;
+        return this;
+    }
+    
     public ConsumerConfig enableRetries(boolean enable) {
         this.enableRetries = enable;
         return this;
@@ -127,6 +183,142 @@ public class ConsumerConfig {
         return this;
     }
     
+    /**
+     * Write DLQ records and commit offsets in one Kafka transaction.
+     * Implies read_committed isolation.
+     */
+    public ConsumerConfig transactional(boolean transactional) {
+        this.transactional = transactional;
+        if (transactional) {
+            this.readCommitted = true;
+        }
+        return this;
+    }
+    
+    /**
+     * Prefix for the transactional.id of each consumer's producer; must be unique per application instance
+     */
+    public ConsumerConfig transactionalIdPrefix(String prefix) {
+        this.transactionalIdPrefix = prefix;
+        return this;
+    }
+    
+    /**
+     * Also consume the ".high" and ".bulk" lane topics, favouring higher lanes (see {@link #minBulkShare(double)})
+     */
+    public ConsumerConfig priorityLanes(boolean priorityLanes) {
+        this.priorityLanes = priorityLanes;
+        return this;
+    }
+    
+    /**
+     * Minimum fraction of polls (0..1) in which the bulk lane is consumed while urgent lanes are busy
+     */
+    public ConsumerConfig minBulkShare(double minBulkShare) {
+        if (minBulkShare < 0 || minBulkShare > 1) {
+            throw new IllegalArgumentException("minBulkShare must be between 0 and 1");
+        }
+        this.minBulkShare = minBulkShare;
+        return this;
+    }
+    
+    /**
+     * Number of recipients of a fan-out notification sent (in parallel) between two
+     * committed progress checkpoints
+     */
+    public ConsumerConfig fanOutCheckpointInterval(int interval) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("fanOutCheckpointInterval must be positive");
+        }
+        this.fanOutCheckpointInterval = interval;
+        return this;
+    }
+    
+    /**
+     * Fetch settings (fetch.min.bytes, fetch.max.wait.ms, max.poll.records) for this consumer
+     */
+    public ConsumerConfig profile(PerformanceProfile profile) {
+        this.profile = profile;
+        return this;
+    }
+    
+    /**
+     * Set a raw Kafka consumer property, overriding the profile
+     */
+    public ConsumerConfig consumerProperty(String name, Object value) {
+        this.consumerProperties.put(name, value);
+        return this;
+    }
+    
+    /**
+     * Resolve claim-check references of large email content from this store
+     */
+    public ConsumerConfig blobStore(BlobStore blobStore) {
+        this.blobStore = blobStore;
+        return this;
+    }
+    
+    /**
+     * Number of resolved blobs kept in the consumer's LRU cache
+     */
+    public ConsumerConfig blobCacheSize(int blobCacheSize) {
+        this.blobCacheSize = blobCacheSize;
+        return this;
+    }
+    
+    /**
+     * Render templated notifications (see {@link com.kafnotif.model.NotificationEvent#isTemplated()})
+     * with templates from this source
+     */
+    public ConsumerConfig templateSource(TemplateSource templateSource) {
+        this.templateSource = templateSource;
+        return this;
+    }
+    
+    /**
+     * Number of compiled template versions kept in the consumer's LRU cache
+     */
+    public ConsumerConfig templateCacheSize(int templateCacheSize) {
+        this.templateCacheSize = templateCacheSize;
+        return this;
+    }
+    
+    /**
+     * How long notifications without a template version keep using the latest version found,
+     * before it is looked up again (default 30 seconds)
+     */
+    public ConsumerConfig templateLatestVersionTtl(Duration templateLatestVersionTtl) {
+        this.templateLatestVersionTtl = templateLatestVersionTtl;
+        return this;
+    }
+    
+    /**
+     * Skip notifications (routing, dedupe, expiry) using only their routing fields. Skipped
+     * records are acknowledged without decoding bodies, blocks, embeds or metadata, and
+     * without running hooks or notifiers.
+     */
+    public ConsumerConfig filter(Predicate<NotificationView> filter) {
+        this.filter = filter;
+        return this;
+    }
+    
+    /**
+     * Validate notifications with custom rules instead of the default ones
+     */
+    public ConsumerConfig validator(NotificationValidator validator) {
+        this.validator = validator;
+        return this;
+    }
+    
+    /**
+     * Skip validation of records a publisher stamped with {@link NotificationValidator#VALIDATED_HEADER}.
+     * Only enable this when every producer of the topics is a trusted kafnotif publisher.
+     */
+    public ConsumerConfig trustValidatedHeader(boolean trustValidatedHeader) {
+        this.trustValidatedHeader = trustValidatedHeader;
+        return this;
+    }
+    
     // Getters
     public String getBootstrapServers() { return bootstrapServers; }
     public String getGroupId() { return groupId; }
@@ -139,10 +331,27 @@ public class ConsumerConfig {
     public AckMode getAckMode() { return ackMode; }
     public Duration getPollTimeout() { return pollTimeout; }
     public String getOffsetReset() { return offsetReset; }
+    public boolean isReadCommitted() { return readCommitted; }
     public int getMaxRetries() { return maxRetries; }
     public Duration getRetryDelay() { return retryDelay; }
+    public Duration getMaxRetryDelay() { return maxRetryDelay; }
     public boolean isEnableRetries() { return enableRetries; }
     public NotificationHooks getHooks() { return hooks; }
     public boolean isEnableDlq() { return enableDlq; }
     public String getDlqTopicSuffix() { return dlqTopicSuffix; }
+    public boolean isTransactional() { return transactional; }
+    public String getTransactionalIdPrefix() { return transactionalIdPrefix; }
+    public boolean isPriorityLanes() { return priorityLanes; }
+    public double getMinBulkShare() { return minBulkShare; }
+    public int getFanOutCheckpointInterval() { return fanOutCheckpointInterval; }
+    public PerformanceProfile getProfile() { return profile; }
+    public Map<String, Object> getConsumerProperties() { return consumerProperties; }
+    public BlobStore getBlobStore() { return blobStore; }
+    public int getBlobCacheSize() { return blobCacheSize; }
+    public TemplateSource getTemplateSource() { return templateSource; }
+    public int getTemplateCacheSize() { return templateCacheSize; }
+    public Duration getTemplateLatestVersionTtl() { return templateLatestVersionTtl; }
+    public Predicate<NotificationView> getFilter() { return filter; }
+    public NotificationValidator getValidator() { return validator; }
+    public boolean isTrustValidatedHeader() { return trustValidatedHeader; }
 }
@@ -1,31 +1,48 @@
 package com.kafnotif.consumer;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.kafnotif.util.JsonUtils;
+import com.kafnotif.blob.ClaimCheck;
+import com.kafnotif.codec.NotificationCodecs;
+import com.kafnotif.codec.NotificationView;
 import com.kafnotif.config.ExecutorFactory;
 import com.kafnotif.config.KafkaTopicManager;
 import com.kafnotif.hooks.AckControl;
 import com.kafnotif.hooks.NotificationHooks;
+import com.kafnotif.kafka.NotificationEnvelope;
+import com.kafnotif.model.FanOutNotification;
 import com.kafnotif.model.NotificationEvent;
 import com.kafnotif.model.NotificationType;
+import com.kafnotif.model.PriorityLane;
+import com.kafnotif.model.PushNotification;
 import com.kafnotif.notifier.NotificationProcessor;
+import com.kafnotif.notifier.SendResult;
+import com.kafnotif.template.TemplateEngine;
+import com.kafnotif.validation.NotificationValidator;
 import org.apache.kafka.clients.consumer.*;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.errors.ProducerFencedException;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.function.IntFunction;
 
 import com.kafnotif.hooks.Acknowledgment;
+import com.kafnotif.hooks.EnvelopeAcknowledgment;
 import com.kafnotif.hooks.KafNotifAcknowledgment;
 import com.kafnotif.hooks.ThreadSafeAckControl;
 import org.apache.kafka.common.TopicPartition;
@@ -38,25 +55,56 @@ public class NotificationConsumer {
     
     private static final Logger logger = LoggerFactory.getLogger(NotificationConsumer.class);
     
+    private static final String FANOUT_CHECKPOINT_PREFIX = "kafnotif-fanout:";
+    
     private final ConsumerConfig config;
-    private final List<KafkaConsumer<String, String>> consumers;
+    private final List<KafkaConsumer<String, byte[]>> consumers;
     private final ExecutorService executorService;
-    private final ObjectMapper objectMapper;
     private final AtomicBoolean running = new AtomicBoolean(false);
-    private final KafkaProducer<String, String> dlqProducer;
+    // Set when a transactional producer was fenced by another instance with the same transactional.id
+    private volatile boolean fenced;
+    private final KafkaProducer<String, byte[]> dlqProducer;
     private final KafkaTopicManager topicManager;
+    private final ClaimCheck claimCheck;
+    private final TemplateEngine templateEngine;
+    
+    // Thread-safe acknowledgment queues, one per consumer (like Spring Kafka approach)
+    private final List<ConcurrentLinkedQueue<KafNotifAcknowledgment.AckRequest>> ackQueues = new ArrayList<>();
+    
+    // Transactional producers, one per consumer (only in transactional mode)
+    private final List<KafkaProducer<String, byte[]>> transactionalProducers = new ArrayList<>();
     
-    // Thread-safe acknowledgment queue (like Spring Kafka approach)
-    private final ConcurrentLinkedQueue<KafNotifAcknowledgment.AckRequest> ackQueue = new ConcurrentLinkedQueue<>();
+    // Offsets to commit, one tracker per consumer (consumer thread only)
+    private final List<CommitTracker> commitTrackers = new ArrayList<>();
+    
+    // Weighted lane schedulers, one per consumer (only with priority lanes)
+    private final List<PriorityLaneScheduler> laneSchedulers = new ArrayList<>();
     
     public NotificationConsumer(ConsumerConfig config) {
         this.config = config;
-        this.objectMapper = JsonUtils.createObjectMapper();
-        this.consumers = createConsumers();
-        this.executorService = ExecutorFactory.create(config.getThreadingMode(), config.getMaxPoolSize());
-        this.dlqProducer = config.isEnableDlq() ? createDlqProducer() : null;
+        this.claimCheck = config.getBlobStore() != null
+            ? new ClaimCheck(config.getBlobStore(), Integer.MAX_VALUE, config.getBlobCacheSize())
+            : null;
+        this.templateEngine = config.getTemplateSource() != null
+            ? new TemplateEngine(config.getTemplateSource(), config.getTemplateCacheSize(),
+                                 config.getTemplateLatestVersionTtl())
+            : null;
         this.topicManager = new KafkaTopicManager(config.getBootstrapServers(), 
                                                 config.getTopicPrefix(), 3, (short) 1);
+        this.consumers = createConsumers();
+        this.executorService = ExecutorFactory.create(config.getThreadingMode(), config.getMaxPoolSize());
+        this.dlqProducer = (config.isEnableDlq() && !config.isTransactional()) ? createDlqProducer() : null;
+        
+        for (int i = 0; i < consumers.size(); i++) {
+            ackQueues.add(new ConcurrentLinkedQueue<>());
+            commitTrackers.add(new CommitTracker());
+            if (config.isPriorityLanes()) {
+                laneSchedulers.add(new PriorityLaneScheduler(config.getMinBulkShare()));
+            }
+            if (config.isTransactional()) {
+                transactionalProducers.add(createTransactionalProducer(i));
+            }
+        }
         
         // Create topics if they don't exist
         createTopicsIfNeeded();
@@ -71,7 +119,7 @@ public class NotificationConsumer {
             
             for (int i = 0; i < consumers.size(); i++) {
                 final int consumerIndex = i;
-                final KafkaConsumer<String, String> consumer = consumers.get(i);
+                final KafkaConsumer<String, byte[]> consumer = consumers.get(i);
                 
                 CompletableFuture.runAsync(() -> {
                     Thread.currentThread().setName("kafnotif-consumer-" + consumerIndex);
@@ -106,6 +154,7 @@ public class NotificationConsumer {
             if (dlqProducer != null) {
                 dlqProducer.close();
             }
+            transactionalProducers.forEach(KafkaProducer::close);
             
             topicManager.close();
             logger.info("✅ Notification consumer stopped");
@@ -119,19 +168,31 @@ public class NotificationConsumer {
         return running.get();
     }
     
+    /**
+     * Check if the consumer stopped because another instance took over its transactional.id
+     */
+    public boolean isFenced() {
+        return fenced;
+    }
+    
     
-    private List<KafkaConsumer<String, String>> createConsumers() {
-        List<KafkaConsumer<String, String>> consumerList = new ArrayList<>();
+    private List<KafkaConsumer<String, byte[]>> createConsumers() {
+        List<KafkaConsumer<String, byte[]>> consumerList = new ArrayList<>();
         
         for (int i = 0; i < config.getConcurrency(); i++) {
             Properties props = new Properties();
             props.put(org.apache.kafka.clients.consumer.ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, config.getBootstrapServers());
             props.put(org.apache.kafka.clients.consumer.ConsumerConfig.GROUP_ID_CONFIG, config.getGroupId());
             props.put(org.apache.kafka.clients.consumer.ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
-            props.put(org.apache.kafka.clients.consumer.ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+            props.put(org.apache.kafka.clients.consumer.ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
             props.put(org.apache.kafka.clients.consumer.ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, config.getOffsetReset());
             props.put(org.apache.kafka.clients.consumer.ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false"); // Always manual commit for reliability
             
+            // Skip records of aborted or still-open transactions
+            if (config.isReadCommitted()) {
+                props.put(org.apache.kafka.clients.consumer.ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+            }
+            
             // Configure cooperative rebalancing to prevent message redelivery (like your production setup)
             props.put(org.apache.kafka.clients.consumer.ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG, 
                      "org.apache.kafka.clients.consumer.CooperativeStickyAssignor");
@@ -140,17 +201,33 @@ public class NotificationConsumer {
             props.put(org.apache.kafka.clients.consumer.ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, "45000"); // 45 seconds
             props.put(org.apache.kafka.clients.consumer.ConsumerConfig.HEARTBEAT_INTERVAL_MS_CONFIG, "15000"); // 15 seconds
             props.put(org.apache.kafka.clients.consumer.ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, "60000"); // 60 seconds
-            props.put(org.apache.kafka.clients.consumer.ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500);
+            
+            // Fetch sizes and max.poll.records come from the performance profile
+            config.getProfile().applyToConsumer(props);
             
             if (!config.isAutoCommit()) {
                 props.put(org.apache.kafka.clients.consumer.ConsumerConfig.AUTO_COMMIT_INTERVAL_MS_CONFIG, 5000);
             }
             
-            KafkaConsumer<String, String> consumer = new KafkaConsumer<>(props);
+            // Raw Kafka properties win over everything above
+            props.putAll(config.getConsumerProperties());
+            
+            KafkaConsumer<String, byte[]> consumer = new KafkaConsumer<>(props);
             
             // Subscribe to notification topics
             List<String> topics = getTopicsToSubscribe();
-            consumer.subscribe(topics);
+            int consumerIndex = i;
+            consumer.subscribe(topics, new ConsumerRebalanceListener() {
+                @Override
+                public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+                }
+                
+                @Override
+                public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+                    // Called from poll(), after the trackers are created
+                    commitTrackers.get(consumerIndex).assigned(partitions);
+                }
+            });
             
             consumerList.add(consumer);
             logger.debug("Created consumer {} subscribing to topics: {}", i, topics);
@@ -160,28 +237,46 @@ public class NotificationConsumer {
     }
     
     private List<String> getTopicsToSubscribe() {
+        return getTypesToConsume().stream()
+                .flatMap(type -> getLanesToConsume().stream().map(lane -> topicManager.getTopicName(type, lane)))
+                .collect(Collectors.toList());
+    }
+    
+    private Collection<NotificationType> getTypesToConsume() {
         if (config.getNotificationTypes() != null && !config.getNotificationTypes().isEmpty()) {
-            return config.getNotificationTypes().stream()
-                    .map(type -> config.getTopicPrefix() + "." + type.getValue())
-                    .collect(Collectors.toList());
-        } else {
-            // Subscribe to all notification types
-            return Arrays.stream(NotificationType.values())
-                    .map(type -> config.getTopicPrefix() + "." + type.getValue())
-                    .collect(Collectors.toList());
+            return config.getNotificationTypes();
         }
+        // Subscribe to all notification types
+        return Arrays.asList(NotificationType.values());
     }
     
-    private void consumeLoop(KafkaConsumer<String, String> consumer, int consumerIndex) {
+    private List<PriorityLane> getLanesToConsume() {
+        return config.isPriorityLanes() ? Arrays.asList(PriorityLane.values()) : List.of(PriorityLane.DEFAULT);
+    }
+    
+    private void consumeLoop(KafkaConsumer<String, byte[]> consumer, int consumerIndex) {
         try {
-            while (running.get()) {
+            while (running.get() && !fenced) {
                 // Process pending acknowledgments on the main consumer thread (like Spring Kafka)
-                processPendingAcknowledgments(consumer);
+                if (config.isTransactional()) {
+                    commitPendingInTransaction(consumer, consumerIndex);
+                } else {
+                    processPendingAcknowledgments(consumer, consumerIndex);
+                }
+                
+                if (config.isPriorityLanes()) {
+                    // Pause lower lanes while higher lanes have lag or work in flight
+                    laneSchedulers.get(consumerIndex).schedule(consumer);
+                }
                 
-                ConsumerRecords<String, String> records = consumer.poll(config.getPollTimeout());
+                ConsumerRecords<String, byte[]> records = consumer.poll(config.getPollTimeout());
                 
-                for (ConsumerRecord<String, String> record : records) {
-                    processRecord(record, consumer, consumerIndex);
+                if (config.isPriorityLanes()) {
+                    dispatchByLane(records, consumer, consumerIndex);
+                } else {
+                    for (ConsumerRecord<String, byte[]> record : records) {
+                        processRecord(record, consumer, consumerIndex);
+                    }
                 }
             }
         } catch (Exception e) {
@@ -193,65 +288,504 @@ public class NotificationConsumer {
         }
     }
     
-    private void processRecord(ConsumerRecord<String, String> record, 
-                             KafkaConsumer<String, String> consumer, int consumerIndex) {
+    /**
+     * Hand records to the workers lane by lane (HIGH, DEFAULT, BULK) so urgent records
+     * from a poll are never queued behind bulk records from the same poll
+     */
+    private void dispatchByLane(ConsumerRecords<String, byte[]> records,
+                                KafkaConsumer<String, byte[]> consumer, int consumerIndex) {
+        PriorityLaneScheduler scheduler = laneSchedulers.get(consumerIndex);
+        for (PriorityLane lane : PriorityLane.values()) {
+            for (TopicPartition partition : records.partitions()) {
+                if (PriorityLane.forTopic(partition.topic()) == lane) {
+                    for (ConsumerRecord<String, byte[]> record : records.records(partition)) {
+                        scheduler.recordDispatched(lane);
+                        processRecord(record, consumer, consumerIndex)
+                            .whenComplete((result, error) -> scheduler.recordCompleted(lane));
+                    }
+                }
+            }
+        }
+    }
+    
+    private CompletableFuture<Void> processRecord(ConsumerRecord<String, byte[]> record, 
+                             KafkaConsumer<String, byte[]> consumer, int consumerIndex) {
+        
+        if (NotificationEnvelope.isEnvelope(record)) {
+            return processEnvelope(record, consumer, consumerIndex);
+        }
+        if (NotificationEnvelope.isFanOut(record)) {
+            return processFanOut(record, consumer, consumerIndex);
+        }
         
-        CompletableFuture.runAsync(() -> {
+        return CompletableFuture.supplyAsync(() -> {
             // Create thread-safe acknowledgment (Spring Kafka style)
+            ConcurrentLinkedQueue<KafNotifAcknowledgment.AckRequest> ackQueue = ackQueues.get(consumerIndex);
             Acknowledgment acknowledgment = new KafNotifAcknowledgment(record, ackQueue);
             
             try {
-                // Deserialize notification
-                NotificationEvent notification = objectMapper.readValue(record.value(), NotificationEvent.class);
+                // Deserialize notification (only its routing fields when a filter may skip it)
+                NotificationEvent notification;
+                if (config.getFilter() != null) {
+                    NotificationView view = NotificationCodecs.view(record.headers(), record.value());
+                    if (isFilteredOut(view, acknowledgment)) {
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+                    notification = view.getNotification();
+                } else {
+                    notification = NotificationCodecs.decode(record.headers(), record.value());
+                }
+                resolveClaimCheck(notification);
                 
-                logger.debug("🔄 Processing notification {} from topic {} [consumer-{}]", 
-                           notification.getId(), record.topic(), consumerIndex);
+                // DLQ write is committed atomically with this record's offset in transactional mode
+                return processNotification(notification, record, consumer, consumerIndex, acknowledgment,
+                    dlqRecord -> ackQueue.offer(new KafNotifAcknowledgment.AckRequest(
+                        new TopicPartition(record.topic(), record.partition()), record.offset(), dlqRecord)));
                 
-                // Call beforeSend hook (using thread-safe adapter for backward compatibility)
+            } catch (Exception e) {
+                logger.error("💥 Error processing record from topic {}: {}", record.topic(), e.getMessage(), e);
+                
+                // Always acknowledge even on error to prevent infinite reprocessing (like your production approach)
+                acknowledgment.acknowledge();
+                return CompletableFuture.<Void>completedFuture(null);
+            }
+        }, executorService).thenCompose(Function.identity());
+    }
+    
+    /**
+     * Unpack an envelope record and process its notifications in parallel.
+     * The record's offset is committed once every notification has been acknowledged; until
+     * then the positions acknowledged are committed as offset metadata, and an envelope
+     * redelivered after a restart skips them.
+     */
+    private CompletableFuture<Void> processEnvelope(ConsumerRecord<String, byte[]> record,
+                                                    KafkaConsumer<String, byte[]> consumer, int consumerIndex) {
+        ConcurrentLinkedQueue<KafNotifAcknowledgment.AckRequest> ackQueue = ackQueues.get(consumerIndex);
+        
+        // Read on the consumer thread: KafkaConsumer is not thread-safe
+        TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+        CommitTracker tracker = commitTrackers.get(consumerIndex);
+        BitSet delivered = tracker.firstSinceAssignment(partition)
+            ? getEnvelopeCheckpoint(consumer, record) : new BitSet();
+        // Records after this one may finish first; keep the commit here until the envelope completes
+        tracker.hold(partition, record.offset(), EnvelopeAcknowledgment.checkpointOf(delivered));
+        
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                List<NotificationEvent> notifications = NotificationCodecs.forHeaders(record.headers())
+                    .decodeAll(record.value(), NotificationCodecs.typeOf(record.headers()));
+                for (NotificationEvent notification : notifications) {
+                    resolveClaimCheck(notification);
+                }
+                return notifications;
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to decode envelope", e);
+            }
+        }, executorService).thenCompose(notifications -> {
+            logger.debug("📦 Unpacked envelope of {} notifications from topic {} [consumer-{}]", 
+                       notifications.size(), record.topic(), consumerIndex);
+            
+            if (notifications.isEmpty()) {
+                new KafNotifAcknowledgment(record, ackQueue).acknowledge();
+                return CompletableFuture.<Void>completedFuture(null);
+            }
+            
+            EnvelopeAcknowledgment envelopeAck = new EnvelopeAcknowledgment(record, ackQueue, notifications.size(), delivered);
+            if (envelopeAck.isComplete()) {
+                // Every notification was delivered before a restart, only the commit was lost
+                new KafNotifAcknowledgment(record, ackQueue).acknowledge();
+                return CompletableFuture.<Void>completedFuture(null);
+            }
+            if (!delivered.isEmpty()) {
+                logger.info("⏩ Resuming envelope {}:{} offset {} with {} of {} notifications delivered",
+                           record.topic(), record.partition(), record.offset(), delivered.cardinality(), notifications.size());
+            }
+            CompletableFuture<?>[] children = new CompletableFuture<?>[notifications.size()];
+            for (int i = 0; i < notifications.size(); i++) {
+                NotificationEvent notification = notifications.get(i);
+                Acknowledgment acknowledgment = envelopeAck.child(i);
+                if (acknowledgment.isAcknowledged()) {
+                    children[i] = CompletableFuture.completedFuture(null);
+                    continue;
+                }
+                if (config.getFilter() != null && isFilteredOut(NotificationView.of(notification), acknowledgment)) {
+                    children[i] = CompletableFuture.completedFuture(null);
+                    continue;
+                }
+                children[i] = CompletableFuture.supplyAsync(() -> processNotification(
+                    notification, record, consumer, consumerIndex, acknowledgment, envelopeAck::addOutput), executorService)
+                    .thenCompose(Function.identity());
+            }
+            return CompletableFuture.allOf(children);
+        }).exceptionally(e -> {
+            logger.error("💥 Error processing envelope from topic {}: {}", record.topic(), e.getMessage(), e);
+            new KafNotifAcknowledgment(record, ackQueue).acknowledge();
+            return null;
+        });
+    }
+    
+    /**
+     * Expand a fan-out record into one notification per recipient, a window at a time.
+     * After each window the position in the recipient list is committed as offset metadata,
+     * so after a restart the record is redelivered and resumes where it left off. Until the
+     * fan-out completes, its partition's commit stays on this record even if later records
+     * are acknowledged first.
+     */
+    private CompletableFuture<Void> processFanOut(ConsumerRecord<String, byte[]> record,
+                                                  KafkaConsumer<String, byte[]> consumer, int consumerIndex) {
+        ConcurrentLinkedQueue<KafNotifAcknowledgment.AckRequest> ackQueue = ackQueues.get(consumerIndex);
+        
+        // Read on the consumer thread: KafkaConsumer is not thread-safe
+        TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+        CommitTracker tracker = commitTrackers.get(consumerIndex);
+        int resumeFrom = tracker.firstSinceAssignment(partition) ? getFanOutCheckpoint(consumer, record) : 0;
+        // Records after this one may finish first; keep the commit here until the fan-out completes
+        tracker.hold(partition, record.offset(), FANOUT_CHECKPOINT_PREFIX + resumeFrom);
+        
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                FanOutNotification fanOut = NotificationCodecs.forHeaders(record.headers()).decodeFanOut(record.value());
+                resolveClaimCheck(fanOut.getTemplate());
+                return fanOut;
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to decode fan-out record", e);
+            }
+        }, executorService).thenCompose(fanOut -> {
+            if (resumeFrom > 0) {
+                logger.info("⏩ Resuming fan-out {} at recipient {} of {}", 
+                           fanOut.getId(), resumeFrom, fanOut.getRecipients().size());
+            }
+            byte[] template;
+            try {
+                template = NotificationCodecs.JSON.encode(fanOut.getTemplate());
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to serialize fan-out template", e);
+            }
+            return processFanOutWindow(fanOut, template, resumeFrom, record, consumer, consumerIndex)
+                .thenRun(() -> {
+                    logger.info("📣 Fanned out notification {} to {} recipients", 
+                               fanOut.getId(), fanOut.getRecipients().size() - resumeFrom);
+                    new KafNotifAcknowledgment(record, ackQueue).acknowledge();
+                });
+        }).exceptionally(e -> {
+            logger.error("💥 Error processing fan-out record from topic {}: {}", record.topic(), e.getMessage(), e);
+            new KafNotifAcknowledgment(record, ackQueue).acknowledge();
+            return null;
+        });
+    }
+    
+    /**
+     * Send one window of fan-out recipients in parallel, checkpoint, then continue with the next window.
+     * Chained without blocking so a small worker pool cannot deadlock on its own tasks.
+     */
+    private CompletableFuture<Void> processFanOutWindow(FanOutNotification fanOut, byte[] template, int from,
+                                                        ConsumerRecord<String, byte[]> record,
+                                                        KafkaConsumer<String, byte[]> consumer, int consumerIndex) {
+        List<FanOutNotification.Recipient> recipients = fanOut.getRecipients();
+        if (from >= recipients.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        ConcurrentLinkedQueue<KafNotifAcknowledgment.AckRequest> ackQueue = ackQueues.get(consumerIndex);
+        TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+        int to = Math.min(from + config.getFanOutCheckpointInterval(), recipients.size());
+        List<ProducerRecord<String, byte[]>> dlqRecords = Collections.synchronizedList(new ArrayList<>());
+        CompletableFuture<?>[] sends = new CompletableFuture<?>[to - from];
+        
+        for (int i = from; i < to; i++) {
+            final int index = i;
+            sends[i - from] = CompletableFuture.supplyAsync(() -> {
+                NotificationEvent notification = expandRecipient(fanOut, template, index);
+                Acknowledgment acknowledgment = new FanOutAcknowledgment();
+                if (config.getFilter() != null && isFilteredOut(NotificationView.of(notification), acknowledgment)) {
+                    return CompletableFuture.<Void>completedFuture(null);
+                }
+                return processNotification(notification, record, consumer, consumerIndex, acknowledgment, dlqRecords::add);
+            }, executorService).thenCompose(Function.identity());
+        }
+        
+        return CompletableFuture.allOf(sends).thenCompose(v -> {
+            if (to < recipients.size()) {
+                // Offset stays on this record; the metadata says where to resume
+                String checkpoint = FANOUT_CHECKPOINT_PREFIX + to;
+                ackQueue.offer(KafNotifAcknowledgment.AckRequest.checkpoint(partition, record.offset(), checkpoint, null));
+                for (ProducerRecord<String, byte[]> dlqRecord : dlqRecords) {
+                    ackQueue.offer(KafNotifAcknowledgment.AckRequest.checkpoint(partition, record.offset(), checkpoint, dlqRecord));
+                }
+            } else {
+                for (ProducerRecord<String, byte[]> dlqRecord : dlqRecords) {
+                    ackQueue.offer(new KafNotifAcknowledgment.AckRequest(partition, record.offset(), dlqRecord));
+                }
+            }
+            return processFanOutWindow(fanOut, template, to, record, consumer, consumerIndex);
+        });
+    }
+    
+    /**
+     * Get the positions of an envelope record delivered before a restart, from the committed
+     * offset metadata
+     */
+    private BitSet getEnvelopeCheckpoint(KafkaConsumer<String, byte[]> consumer, ConsumerRecord<String, byte[]> record) {
+        try {
+            TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+            OffsetAndMetadata committed = consumer.committed(Collections.singleton(partition)).get(partition);
+            if (committed != null && committed.offset() == record.offset()) {
+                return EnvelopeAcknowledgment.parseCheckpoint(committed.metadata());
+            }
+        } catch (Exception e) {
+            logger.warn("Could not read envelope checkpoint for {}:{} offset {}: {}", 
+                       record.topic(), record.partition(), record.offset(), e.getMessage());
+        }
+        return new BitSet();
+    }
+    
+    /**
+     * Get the recipient index to resume a fan-out record at, from the committed offset metadata
+     */
+    private int getFanOutCheckpoint(KafkaConsumer<String, byte[]> consumer, ConsumerRecord<String, byte[]> record) {
+        try {
+            TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+            OffsetAndMetadata committed = consumer.committed(Collections.singleton(partition)).get(partition);
+            if (committed != null && committed.offset() == record.offset()
+                    && committed.metadata() != null && committed.metadata().startsWith(FANOUT_CHECKPOINT_PREFIX)) {
+                return Integer.parseInt(committed.metadata().substring(FANOUT_CHECKPOINT_PREFIX.length()));
+            }
+        } catch (Exception e) {
+            logger.warn("Could not read fan-out checkpoint for {}:{} offset {}: {}", 
+                       record.topic(), record.partition(), record.offset(), e.getMessage());
+        }
+        return 0;
+    }
+    
+    /**
+     * Build the notification for one recipient from a copy of the shared template
+     */
+    private NotificationEvent expandRecipient(FanOutNotification fanOut, byte[] template, int index) {
+        try {
+            FanOutNotification.Recipient recipient = fanOut.getRecipients().get(index);
+            NotificationEvent notification = NotificationCodecs.JSON.decode(template, fanOut.getTemplate().getNotificationType());
+            notification.setId(fanOut.getId() + ":" + index);
+            notification.setRecipient(recipient.getRecipient());
+            if (notification instanceof PushNotification) {
+                ((PushNotification) notification).setDeviceToken(recipient.getRecipient());
+            }
+            if (recipient.getVariables() != null && !recipient.getVariables().isEmpty()) {
+                Map<String, Object> metadata = notification.getMetadata() != null
+                    ? new HashMap<>(notification.getMetadata()) : new HashMap<>();
+                metadata.putAll(recipient.getVariables());
+                notification.setMetadata(metadata);
+                if (notification.isTemplated()) {
+                    Map<String, Object> variables = notification.getVariables() != null
+                        ? new HashMap<>(notification.getVariables()) : new HashMap<>();
+                    variables.putAll(recipient.getVariables());
+                    notification.setVariables(variables);
+                }
+            }
+            return notification;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to expand fan-out recipient " + index, e);
+        }
+    }
+    
+    /**
+     * Acknowledgment of one fan-out recipient; progress is committed per window instead
+     */
+    private static class FanOutAcknowledgment implements Acknowledgment {
+        private final AtomicBoolean acknowledged = new AtomicBoolean(false);
+        
+        @Override
+        public void acknowledge() {
+            acknowledged.set(true);
+        }
+        
+        @Override
+        public boolean isAcknowledged() {
+            return acknowledged.get();
+        }
+    }
+    
+    /**
+     * Apply the configured filter; a rejected notification is acknowledged right away
+     */
+    private boolean isFilteredOut(NotificationView view, Acknowledgment acknowledgment) {
+        if (config.getFilter().test(view)) {
+            return false;
+        }
+        logger.debug("⏭️ Skipped notification {} ({}) rejected by filter", view.getId(), view.getNotificationType());
+        acknowledgment.acknowledge();
+        return true;
+    }
+    
+    /**
+     * Replace claim-check references by the stored content. References that cannot be resolved
+     * are left in place and fail the notification permanently.
+     */
+    private void resolveClaimCheck(NotificationEvent notification) throws IOException {
+        if (claimCheck != null) {
+            claimCheck.checkOut(notification);
+        }
+    }
+    
+    /**
+     * Render the content of a templated notification, retrying when the template source
+     * could not be read
+     * @return future completing with success once rendered, or the failure to deliver instead
+     */
+    private CompletableFuture<SendResult> renderWithRetries(NotificationEvent notification, int attempt) {
+        SendResult result = renderTemplate(notification);
+        if (result.isSuccess()) {
+            return CompletableFuture.completedFuture(result);
+        }
+        return retryOrGiveUp(notification, result, attempt, next -> renderWithRetries(notification, next));
+    }
+    
+    /**
+     * Render the content of a templated notification. A missing or malformed template is a
+     * permanent failure; an I/O error reading the template source may succeed on a retry.
+     */
+    private SendResult renderTemplate(NotificationEvent notification) {
+        if (!notification.isTemplated()) {
+            return SendResult.success();
+        }
+        if (templateEngine == null) {
+            logger.error("❌ Notification {} uses template {} but no template source is configured", 
+                       notification.getId(), notification.getTemplateId());
+            return SendResult.permanentFailure("template could not be rendered: no template source configured");
+        }
+        try {
+            templateEngine.render(notification);
+            return SendResult.success();
+        } catch (IOException e) {
+            logger.warn("Failed to read template {} for notification {}: {}", 
+                       notification.getTemplateId(), notification.getId(), e.getMessage());
+            return SendResult.failure(e);
+        } catch (Exception e) {
+            logger.error("❌ Failed to render template {} for notification {}: {}", 
+                       notification.getTemplateId(), notification.getId(), e.getMessage());
+            return SendResult.permanentFailure(e);
+        }
+    }
+    
+    /**
+     * Validate a notification once before delivery rather than on every attempt
+     * @return false if it is invalid (handled like a failed delivery, without retries)
+     */
+    private boolean validate(NotificationEvent notification, ConsumerRecord<String, byte[]> record) {
+        if (config.isTrustValidatedHeader()
+                && record.headers().lastHeader(NotificationValidator.VALIDATED_HEADER) != null) {
+            return true;
+        }
+        List<String> violations = config.getValidator().validate(notification);
+        if (violations.isEmpty()) {
+            return true;
+        }
+        logger.error("❌ Invalid notification {}: {}", notification.getId(), String.join(", ", violations));
+        return false;
+    }
+    
+    /**
+     * Run hooks, delivery and DLQ handling for one notification, acknowledging it when delivery
+     * completes. No thread waits for the notifier; the returned future completes after the ack.
+     * @param transactionalDlq receives the DLQ record to commit with the offset in transactional mode
+     */
+    private CompletableFuture<Void> processNotification(NotificationEvent notification, ConsumerRecord<String, byte[]> record,
+                                                        KafkaConsumer<String, byte[]> consumer, int consumerIndex,
+                                                        Acknowledgment acknowledgment,
+                                                        java.util.function.Consumer<ProducerRecord<String, byte[]>> transactionalDlq) {
+        // Thread-safe adapter for hooks (backward compatibility)
+        AckControl threadSafeAckControl = (config.getAckMode() != AckMode.AUTO) ? 
+            new ThreadSafeAckControl(consumer, record, acknowledgment) : null;
+        CompletableFuture<SendResult> delivery;
+        
+        try {
+            logger.debug("🔄 Processing notification {} from topic {} [consumer-{}]", 
+                       notification.getId(), record.topic(), consumerIndex);
+            
+            // Render templated content first so hooks and notifiers see the final text
+            delivery = renderWithRetries(notification, 0).thenCompose(rendered -> {
                 NotificationHooks hooks = config.getHooks();
-                AckControl threadSafeAckControl = (config.getAckMode() != AckMode.AUTO) ? 
-                    new ThreadSafeAckControl(consumer, record, acknowledgment) : null;
-                    
                 if (hooks != null && !hooks.beforeSend(notification, threadSafeAckControl)) {
                     logger.info("⏭️ Notification {} skipped by beforeSend hook", notification.getId());
                     // Always acknowledge when skipped (like your production approach)
                     acknowledgment.acknowledge();
-                    return;
+                    return CompletableFuture.completedFuture(null);
                 }
                 
                 // Process notification with retries
-                boolean success = processWithRetries(notification);
-                
-                // Call afterSend hook (using thread-safe adapter for compatibility)
-                if (hooks != null) {
-                    hooks.afterSend(notification, success, null, threadSafeAckControl);
+                if (!rendered.isSuccess()) {
+                    return CompletableFuture.completedFuture(rendered);
                 }
-                
-                if (success) {
-                    logger.info("✅ Successfully processed notification: {}", notification.getId());
-                } else {
-                    logger.error("❌ Failed to process notification after all retries: {}", notification.getId());
-                    
-                    // Send to DLQ if enabled
-                    if (config.isEnableDlq()) {
-                        sendToDlq(notification, record.topic());
-                    }
+                if (ClaimCheck.hasReferences(notification)) {
+                    // Redelivery cannot bring the content back
+                    return CompletableFuture.completedFuture(SendResult.permanentFailure(claimCheck == null
+                        ? "Notification has claim-check references but no blob store is configured"
+                        : "Notification references a blob that is not in the blob store"));
                 }
-                
-                // Always acknowledge at the end (like your production approach)
-                acknowledgment.acknowledge();
-                
-            } catch (Exception e) {
-                logger.error("💥 Error processing record from topic {}: {}", record.topic(), e.getMessage(), e);
-                
-                // Always acknowledge even on error to prevent infinite reprocessing (like your production approach)
+                if (!validate(notification, record)) {
+                    return CompletableFuture.completedFuture(SendResult.permanentFailure("invalid notification"));
+                }
+                return processWithRetries(notification, 0);
+            });
+            
+        } catch (Exception e) {
+            logger.error("💥 Error processing notification {} from topic {}: {}", 
+                       notification.getId(), record.topic(), e.getMessage(), e);
+            
+            // Always acknowledge even on error to prevent infinite reprocessing (like your production approach)
+            acknowledgment.acknowledge();
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        // A null result means the beforeSend hook skipped the notification
+        return delivery.thenAccept(result -> {
+                if (result != null) {
+                    completeNotification(notification, result, record, threadSafeAckControl, acknowledgment, transactionalDlq);
+                }
+            })
+            .exceptionally(e -> {
+                logger.error("💥 Error processing notification {} from topic {}: {}", 
+                           notification.getId(), record.topic(), e.getMessage(), e);
                 acknowledgment.acknowledge();
+                return null;
+            });
+    }
+    
+    private void completeNotification(NotificationEvent notification, SendResult result,
+                                      ConsumerRecord<String, byte[]> record, AckControl threadSafeAckControl,
+                                      Acknowledgment acknowledgment,
+                                      java.util.function.Consumer<ProducerRecord<String, byte[]>> transactionalDlq) {
+        NotificationHooks hooks = config.getHooks();
+        if (hooks != null && !result.isSuccess()) {
+            // Retries are exhausted or pointless, whether rendering, validation or delivery failed
+            hooks.onPermanentFailure(notification, result, threadSafeAckControl);
+        }
+        
+        // Call afterSend hook (using thread-safe adapter for compatibility)
+        if (hooks != null) {
+            hooks.afterSend(notification, result, threadSafeAckControl);
+        }
+        
+        if (result.isSuccess()) {
+            logger.info("✅ Successfully processed notification: {}", notification.getId());
+        } else {
+            logger.error("❌ Failed to process notification {}: {}", notification.getId(), result);
+            
+            // Send to DLQ if enabled
+            if (config.isEnableDlq()) {
+                if (config.isTransactional()) {
+                    transactionalDlq.accept(createDlqRecord(notification, record.topic()));
+                } else {
+                    sendToDlq(notification, record.topic());
+                }
             }
-        }, executorService);
+        }
+        
+        // Always acknowledge at the end (like your production approach)
+        acknowledgment.acknowledge();
     }
     
-    private void acknowledgeMessage(AckControl ackControl, ConsumerRecord<String, String> record, 
-                                  KafkaConsumer<String, String> consumer) {
+    private void acknowledgeMessage(AckControl ackControl, ConsumerRecord<String, byte[]> record, 
+                                  KafkaConsumer<String, byte[]> consumer) {
         if (config.getAckMode() == AckMode.AUTO) {
             // Auto ACK is handled in the consumer loop
             return;
@@ -272,63 +806,70 @@ public class NotificationConsumer {
         }
     }
     
-    private boolean processWithRetries(NotificationEvent notification) {
-        int attempt = 0;
-        Throwable lastError = null;
-        
-        while (attempt <= config.getMaxRetries()) {
-            try {
-                boolean success = NotificationProcessor.processNotification(notification);
-                if (success) {
-                    return true;
-                }
-            } catch (Exception e) {
-                lastError = e;
-                logger.warn("Attempt {} failed for notification {}: {}", 
-                          attempt + 1, notification.getId(), e.getMessage());
-            }
-            
-            attempt++;
-            
-            if (attempt <= config.getMaxRetries()) {
-                // Call retry hook
-                NotificationHooks hooks = config.getHooks();
-                if (hooks != null) {
-                    hooks.onRetry(notification, attempt, config.getMaxRetries());
-                }
-                
-                // Wait before retry
-                try {
-                    Thread.sleep(config.getRetryDelay().toMillis());
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
+    /**
+     * Deliver through the notifier's async API, scheduling each retry after the retry delay
+     * (or the provider's retry-after hint, if longer) instead of sleeping on a worker thread.
+     * Permanent failures are not retried.
+     * @return future completing with the first successful result, or the last failure
+     */
+    private CompletableFuture<SendResult> processWithRetries(NotificationEvent notification, int attempt) {
+        // Continue on a worker: hooks must not run on the notifier's I/O threads
+        return NotificationProcessor.processNotificationAsync(notification, false, executorService)
+            .toCompletableFuture()
+            .thenComposeAsync(result -> {
+                if (result.isSuccess()) {
+                    return CompletableFuture.completedFuture(result);
                 }
-            }
+                return retryOrGiveUp(notification, result, attempt, next -> processWithRetries(notification, next));
+            }, executorService);
+    }
+    
+    /**
+     * Schedule the next attempt after a failed one, after the retry delay (or the provider's
+     * retry-after hint, if longer), unless the failure is permanent or retries are exhausted
+     * @return future completing with the outcome of the next attempt, or this failure
+     */
+    private CompletableFuture<SendResult> retryOrGiveUp(NotificationEvent notification, SendResult result, int attempt,
+                                                        IntFunction<CompletableFuture<SendResult>> nextAttempt) {
+        logger.warn("Attempt {} failed for notification {}: {}", 
+                  attempt + 1, notification.getId(), result);
+        
+        int next = attempt + 1;
+        if (!result.isRetryable() || next > config.getMaxRetries()) {
+            // The permanent failure hook runs when the notification completes
+            return CompletableFuture.completedFuture(result);
         }
         
-        // Call permanent failure hook  
-        // Note: AckControl is not available here since processWithRetries is called 
-        // from processRecord where ACK control is managed
+        Duration retryAfter = result.getRetryAfter();
+        if (retryAfter != null && retryAfter.compareTo(config.getMaxRetryDelay()) > 0) {
+            logger.warn("⏳ Not retrying notification {}: provider asked to wait {} s, more than the {} s allowed",
+                       notification.getId(), retryAfter.toSeconds(), config.getMaxRetryDelay().toSeconds());
+            return CompletableFuture.completedFuture(result);
+        }
+        
+        // Call retry hook
         NotificationHooks hooks = config.getHooks();
         if (hooks != null) {
-            hooks.onPermanentFailure(notification, lastError, null);
+            hooks.onRetry(notification, result, next, config.getMaxRetries());
         }
         
-        return false;
+        // Wait before retry without holding a thread
+        Duration delay = config.getRetryDelay();
+        if (retryAfter != null && retryAfter.compareTo(delay) > 0) {
+            delay = retryAfter;
+        }
+        Executor delayed = CompletableFuture.delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS, executorService);
+        return CompletableFuture.supplyAsync(() -> nextAttempt.apply(next), delayed)
+            .thenCompose(Function.identity());
     }
     
     private void sendToDlq(NotificationEvent notification, String originalTopic) {
         if (dlqProducer != null) {
             try {
-                String dlqTopic = originalTopic + config.getDlqTopicSuffix();
-                String payload = objectMapper.writeValueAsString(notification);
-                
-                ProducerRecord<String, String> dlqRecord = new ProducerRecord<>(
-                    dlqTopic, notification.getId(), payload);
+                ProducerRecord<String, byte[]> dlqRecord = createDlqRecord(notification, originalTopic);
                 
                 dlqProducer.send(dlqRecord);
-                logger.info("📤 Sent failed notification {} to DLQ: {}", notification.getId(), dlqTopic);
+                logger.info("📤 Sent failed notification {} to DLQ: {}", notification.getId(), dlqRecord.topic());
                 
             } catch (Exception e) {
                 logger.error("Failed to send notification {} to DLQ: {}", notification.getId(), e.getMessage(), e);
@@ -336,33 +877,66 @@ public class NotificationConsumer {
         }
     }
     
-    private KafkaProducer<String, String> createDlqProducer() {
+    private ProducerRecord<String, byte[]> createDlqRecord(NotificationEvent notification, String originalTopic) {
+        try {
+            String dlqTopic = originalTopic + config.getDlqTopicSuffix();
+            // DLQ records are always JSON so they can be inspected with standard tools
+            ProducerRecord<String, byte[]> record = new ProducerRecord<>(
+                dlqTopic, notification.getId(), NotificationCodecs.JSON.encode(notification));
+            NotificationCodecs.setContentType(record.headers(), NotificationCodecs.JSON);
+            return record;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to serialize notification for DLQ: " + notification.getId(), e);
+        }
+    }
+    
+    private KafkaProducer<String, byte[]> createDlqProducer() {
         Properties props = new Properties();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, config.getBootstrapServers());
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, "org.apache.kafka.common.serialization.StringSerializer");
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, "org.apache.kafka.common.serialization.StringSerializer");
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, "org.apache.kafka.common.serialization.ByteArraySerializer");
         props.put(ProducerConfig.ACKS_CONFIG, "all");
         
         return new KafkaProducer<>(props);
     }
     
+    private KafkaProducer<String, byte[]> createTransactionalProducer(int consumerIndex) {
+        String prefix = config.getTransactionalIdPrefix() != null ? config.getTransactionalIdPrefix()
+                : "kafnotif-" + config.getGroupId() + "-" + UUID.randomUUID();
+        
+        Properties props = new Properties();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, config.getBootstrapServers());
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, "org.apache.kafka.common.serialization.StringSerializer");
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, "org.apache.kafka.common.serialization.ByteArraySerializer");
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.TRANSACTIONAL_ID_CONFIG, prefix + "-" + consumerIndex);
+        
+        KafkaProducer<String, byte[]> producer = new KafkaProducer<>(props);
+        producer.initTransactions();
+        return producer;
+    }
+    
     private void createTopicsIfNeeded() {
-        // Create topics for configured notification types
-        List<String> topics = getTopicsToSubscribe();
-        for (String topic : topics) {
-            // Extract notification type from topic name
-            String typeName = topic.substring(topic.lastIndexOf('.') + 1);
-            try {
-                NotificationType type = NotificationType.fromString(typeName);
-                topicManager.createTopicIfNotExists(type);
-                
-                // Create DLQ topic if enabled
-                if (config.isEnableDlq()) {
-                    String dlqTopic = topic + config.getDlqTopicSuffix();
-                    topicManager.createTopicIfNotExists(dlqTopic, 1, (short) 1);
+        // Create topics for configured notification types (and their lanes)
+        for (NotificationType type : getTypesToConsume()) {
+            for (PriorityLane lane : getLanesToConsume()) {
+                String topic = topicManager.getTopicName(type, lane);
+                try {
+                    if (lane == PriorityLane.DEFAULT) {
+                        topicManager.createTopicIfNotExists(type);
+                    } else {
+                        topicManager.createTopicIfNotExists(topic, 3, (short) 1);
+                    }
+                    
+                    // Create DLQ topic if enabled
+                    if (config.isEnableDlq()) {
+                        String dlqTopic = topic + config.getDlqTopicSuffix();
+                        topicManager.createTopicIfNotExists(dlqTopic, 1, (short) 1);
+                    }
+                } catch (Exception e) {
+                    logger.warn("Could not create topic: {}", topic);
                 }
-            } catch (Exception e) {
-                logger.warn("Could not create topic for type: {}", typeName);
             }
         }
     }
@@ -371,29 +945,12 @@ public class NotificationConsumer {
     /**
      * Process pending acknowledgments on the main consumer thread (Spring Kafka style)
      */
-    private void processPendingAcknowledgments(KafkaConsumer<String, String> consumer) {
-        Map<TopicPartition, Long> offsetsToCommit = new HashMap<>();
-        
-        // Collect all pending acknowledgments
-        KafNotifAcknowledgment.AckRequest ackRequest;
-        while ((ackRequest = ackQueue.poll()) != null) {
-            TopicPartition tp = ackRequest.getTopicPartition();
-            long offset = ackRequest.getOffset() + 1; // Kafka commits the next offset
-            
-            // Keep the highest offset for each partition
-            offsetsToCommit.merge(tp, offset, Math::max);
-        }
+    private void processPendingAcknowledgments(KafkaConsumer<String, byte[]> consumer, int consumerIndex) {
+        Map<TopicPartition, OffsetAndMetadata> commitOffsets = collectOffsets(consumerIndex, null);
         
         // Commit collected offsets
-        if (!offsetsToCommit.isEmpty()) {
+        if (!commitOffsets.isEmpty()) {
             try {
-                Map<TopicPartition, org.apache.kafka.clients.consumer.OffsetAndMetadata> commitOffsets = 
-                    offsetsToCommit.entrySet().stream()
-                        .collect(Collectors.toMap(
-                            Map.Entry::getKey,
-                            entry -> new org.apache.kafka.clients.consumer.OffsetAndMetadata(entry.getValue())
-                        ));
-                
                 consumer.commitAsync(commitOffsets, (offsets, exception) -> {
                     if (exception != null) {
                         logger.error("❌ Failed to commit offsets: {}", exception.getMessage());
@@ -406,4 +963,77 @@ public class NotificationConsumer {
             }
         }
     }
+    
+    /**
+     * Drain the consumer's acknowledgment queue into the offsets to commit
+     * @param outputs receives records to write with the commit (null when not transactional)
+     */
+    private Map<TopicPartition, OffsetAndMetadata> collectOffsets(int consumerIndex,
+                                                                 List<ProducerRecord<String, byte[]>> outputs) {
+        return commitTrackers.get(consumerIndex).collect(ackQueues.get(consumerIndex), outputs);
+    }
+    
+    /**
+     * Commit pending acknowledgments and their DLQ records in a single transaction
+     * (consume-process-produce). On abort, the consumer is rewound to the last committed
+     * offsets so the affected records are processed again.
+     */
+    private void commitPendingInTransaction(KafkaConsumer<String, byte[]> consumer, int consumerIndex) {
+        ConcurrentLinkedQueue<KafNotifAcknowledgment.AckRequest> ackQueue = ackQueues.get(consumerIndex);
+        if (ackQueue.isEmpty()) {
+            return;
+        }
+        
+        List<ProducerRecord<String, byte[]>> outputs = new ArrayList<>();
+        Map<TopicPartition, OffsetAndMetadata> commitOffsets = collectOffsets(consumerIndex, outputs);
+        
+        KafkaProducer<String, byte[]> producer = transactionalProducers.get(consumerIndex);
+        try {
+            producer.beginTransaction();
+            for (ProducerRecord<String, byte[]> output : outputs) {
+                producer.send(output);
+            }
+            producer.sendOffsetsToTransaction(commitOffsets, consumer.groupMetadata());
+            producer.commitTransaction();
+            
+            logger.debug("✅ Committed {} partitions and {} DLQ records in one transaction", 
+                        commitOffsets.size(), outputs.size());
+            
+        } catch (ProducerFencedException e) {
+            // Another instance took over this transactional.id: this instance is a zombie. Stop it
+            // from another thread, since stop() waits for the poll loops and closes their consumers.
+            logger.error("❌ Transactional producer fenced for consumer {}, stopping the consumer: {}",
+                        consumerIndex, e.getMessage());
+            fenced = true;
+            Thread stopper = new Thread(this::stop, "kafnotif-consumer-stop");
+            stopper.setDaemon(true);
+            stopper.start();
+        } catch (KafkaException e) {
+            logger.error("❌ Aborting transaction for consumer {}: {}", consumerIndex, e.getMessage(), e);
+            try {
+                producer.abortTransaction();
+            } catch (KafkaException abortError) {
+                logger.error("Failed to abort transaction: {}", abortError.getMessage());
+            }
+            rewindToCommitted(consumer, commitOffsets.keySet());
+        }
+    }
+    
+    private void rewindToCommitted(KafkaConsumer<String, byte[]> consumer, Set<TopicPartition> partitions) {
+        Set<TopicPartition> assigned = new HashSet<>(partitions);
+        assigned.retainAll(consumer.assignment());
+        if (assigned.isEmpty()) {
+            return;
+        }
+        
+        Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(assigned);
+        for (TopicPartition tp : assigned) {
+            OffsetAndMetadata offset = committed.get(tp);
+            if (offset != null) {
+                consumer.seek(tp, offset.offset());
+            } else {
+                consumer.seekToBeginning(Collections.singleton(tp));
+            }
+        }
+    }
 }
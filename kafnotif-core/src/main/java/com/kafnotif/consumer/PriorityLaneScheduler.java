@@ -0,0 +1,125 @@
+package com.kafnotif.consumer;
+
+import com.kafnotif.model.PriorityLane;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Weighted scheduling of priority lanes for one consumer.
+ * While a higher lane has lag or records in flight, lower lanes are paused and only
+ * resumed for a share of polls proportional to their weight ({@link PriorityLane#getWeight()}),
+ * with a configurable floor for the bulk lane so campaigns are never starved.
+ * Must be called from the consumer thread, except for the in-flight counters.
+ */
+class PriorityLaneScheduler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PriorityLaneScheduler.class);
+    
+    private final Map<PriorityLane, AtomicInteger> inFlight = new EnumMap<>(PriorityLane.class);
+    private final Map<PriorityLane, Double> shares = new EnumMap<>(PriorityLane.class);
+    private final Map<PriorityLane, Double> credits = new EnumMap<>(PriorityLane.class);
+    private final Map<PriorityLane, Boolean> pausedLanes = new EnumMap<>(PriorityLane.class);
+    
+    PriorityLaneScheduler(double minBulkShare) {
+        int totalWeight = 0;
+        for (PriorityLane lane : PriorityLane.values()) {
+            totalWeight += lane.getWeight();
+        }
+        for (PriorityLane lane : PriorityLane.values()) {
+            double share = (double) lane.getWeight() / totalWeight;
+            if (lane == PriorityLane.BULK) {
+                share = Math.max(share, minBulkShare);
+            }
+            inFlight.put(lane, new AtomicInteger());
+            shares.put(lane, share);
+            credits.put(lane, 0.0);
+            pausedLanes.put(lane, false);
+        }
+    }
+    
+    void recordDispatched(PriorityLane lane) {
+        inFlight.get(lane).incrementAndGet();
+    }
+    
+    void recordCompleted(PriorityLane lane) {
+        inFlight.get(lane).decrementAndGet();
+    }
+    
+    /**
+     * Pause or resume lane partitions before the next poll
+     */
+    void schedule(KafkaConsumer<?, ?> consumer) {
+        Set<TopicPartition> assignment = consumer.assignment();
+        if (assignment.isEmpty()) {
+            return;
+        }
+        
+        Map<PriorityLane, List<TopicPartition>> partitionsByLane = new EnumMap<>(PriorityLane.class);
+        for (TopicPartition partition : assignment) {
+            partitionsByLane.computeIfAbsent(PriorityLane.forTopic(partition.topic()), l -> new ArrayList<>())
+                    .add(partition);
+        }
+        
+        Set<TopicPartition> paused = consumer.paused();
+        boolean higherLaneBusy = false;
+        
+        // Lanes are declared highest first
+        for (PriorityLane lane : PriorityLane.values()) {
+            List<TopicPartition> partitions = partitionsByLane.getOrDefault(lane, List.of());
+            boolean runThisPoll = !higherLaneBusy || takeCredit(lane);
+            
+            if (runThisPoll) {
+                List<TopicPartition> toResume = new ArrayList<>();
+                for (TopicPartition partition : partitions) {
+                    if (paused.contains(partition)) {
+                        toResume.add(partition);
+                    }
+                }
+                if (!toResume.isEmpty()) {
+                    consumer.resume(toResume);
+                }
+            } else if (!partitions.isEmpty()) {
+                consumer.pause(partitions);
+            }
+            
+            if (pausedLanes.put(lane, !runThisPoll) == runThisPoll) {
+                logger.debug("🚦 {} lane {}", lane, runThisPoll ? "resumed" : "paused for higher priority work");
+            }
+            
+            higherLaneBusy = higherLaneBusy || isBusy(lane, partitions, consumer);
+        }
+    }
+    
+    /**
+     * A throttled lane earns its share on every poll and runs once it has a whole poll's worth
+     */
+    private boolean takeCredit(PriorityLane lane) {
+        double credit = credits.get(lane) + shares.get(lane);
+        boolean run = credit >= 1.0;
+        credits.put(lane, run ? credit - 1.0 : credit);
+        return run;
+    }
+    
+    private boolean isBusy(PriorityLane lane, List<TopicPartition> partitions, KafkaConsumer<?, ?> consumer) {
+        if (inFlight.get(lane).get() > 0) {
+            return true;
+        }
+        for (TopicPartition partition : partitions) {
+            OptionalLong lag = consumer.currentLag(partition);
+            if (lag.isPresent() && lag.getAsLong() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
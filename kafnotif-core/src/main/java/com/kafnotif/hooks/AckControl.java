@@ -17,12 +17,12 @@ public class AckControl {
     
     private static final Logger logger = LoggerFactory.getLogger(AckControl.class);
     
-    private final KafkaConsumer<String, String> consumer;
-    private final ConsumerRecord<String, String> record;
+    private final KafkaConsumer<?, ?> consumer;
+    private final ConsumerRecord<?, ?> record;
     private final Map<TopicPartition, OffsetAndMetadata> offsetsToCommit;
     private volatile boolean acknowledged = false;
     
-    public AckControl(KafkaConsumer<String, String> consumer, ConsumerRecord<String, String> record) {
+    public AckControl(KafkaConsumer<?, ?> consumer, ConsumerRecord<?, ?> record) {
         this.consumer = consumer;
         this.record = record;
         this.offsetsToCommit = new ConcurrentHashMap<>();
@@ -103,7 +103,7 @@ public class AckControl {
     /**
      * Get the Kafka record
      */
-    public ConsumerRecord<String, String> getRecord() {
+    public ConsumerRecord<?, ?> getRecord() {
         return record;
     }
     
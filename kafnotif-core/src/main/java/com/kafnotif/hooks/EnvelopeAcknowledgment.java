@@ -0,0 +1,156 @@
+package com.kafnotif.hooks;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sub-offset acknowledgment for envelope records. Every notification in the envelope gets
+ * its own {@link Acknowledgment}; the envelope's offset is queued for commit only once all
+ * of them have been acknowledged, so an envelope is never committed half-processed.
+ * <p>
+ * Until then, each acknowledgment queues a checkpoint: the envelope's own offset with the
+ * positions acknowledged so far as metadata. An envelope redelivered after a restart skips
+ * the notifications its checkpoint lists.
+ */
+public class EnvelopeAcknowledgment {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EnvelopeAcknowledgment.class);
+    
+    public static final String CHECKPOINT_PREFIX = "kafnotif-envelope:";
+    // Below the broker's default offset.metadata.max.bytes (4096); larger envelopes are not checkpointed
+    private static final int MAX_CHECKPOINT_LENGTH = 4000;
+    
+    private final ConsumerRecord<?, ?> record;
+    private final ConcurrentLinkedQueue<KafNotifAcknowledgment.AckRequest> ackQueue;
+    private final AtomicBoolean[] acknowledged;
+    private final AtomicInteger remaining;
+    private final ConcurrentLinkedQueue<ProducerRecord<String, byte[]>> outputs = new ConcurrentLinkedQueue<>();
+    
+    public EnvelopeAcknowledgment(ConsumerRecord<?, ?> record,
+                                  ConcurrentLinkedQueue<KafNotifAcknowledgment.AckRequest> ackQueue,
+                                  int size) {
+        this(record, ackQueue, size, new BitSet());
+    }
+    
+    /**
+     * @param delivered positions acknowledged before a restart (see {@link #parseCheckpoint(String)}),
+     *                  which start out acknowledged
+     */
+    public EnvelopeAcknowledgment(ConsumerRecord<?, ?> record,
+                                  ConcurrentLinkedQueue<KafNotifAcknowledgment.AckRequest> ackQueue,
+                                  int size, BitSet delivered) {
+        this.record = record;
+        this.ackQueue = ackQueue;
+        this.acknowledged = new AtomicBoolean[size];
+        int remaining = size;
+        for (int i = 0; i < size; i++) {
+            acknowledged[i] = new AtomicBoolean(delivered.get(i));
+            if (delivered.get(i)) {
+                remaining--;
+            }
+        }
+        this.remaining = new AtomicInteger(remaining);
+    }
+    
+    /**
+     * Encode the delivered positions of an envelope as offset metadata
+     */
+    public static String checkpointOf(BitSet delivered) {
+        return CHECKPOINT_PREFIX + Base64.getEncoder().withoutPadding().encodeToString(delivered.toByteArray());
+    }
+    
+    /**
+     * Decode the delivered positions from committed offset metadata
+     * @return the positions, empty if the metadata is not an envelope checkpoint
+     */
+    public static BitSet parseCheckpoint(String metadata) {
+        if (metadata == null || !metadata.startsWith(CHECKPOINT_PREFIX)) {
+            return new BitSet();
+        }
+        try {
+            return BitSet.valueOf(Base64.getDecoder().decode(metadata.substring(CHECKPOINT_PREFIX.length())));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ignoring malformed envelope checkpoint: {}", metadata);
+            return new BitSet();
+        }
+    }
+    
+    /**
+     * Get the acknowledgment of the notification at the given position in the envelope
+     */
+    public Acknowledgment child(int index) {
+        return new Acknowledgment() {
+            @Override
+            public void acknowledge() {
+                // Serialized so checkpoints are queued in the order they grow
+                synchronized (EnvelopeAcknowledgment.this) {
+                    if (!acknowledged[index].compareAndSet(false, true)) {
+                        return;
+                    }
+                    if (remaining.decrementAndGet() == 0) {
+                        complete();
+                    } else {
+                        checkpoint();
+                    }
+                }
+            }
+            
+            @Override
+            public boolean isAcknowledged() {
+                return acknowledged[index].get();
+            }
+        };
+    }
+    
+    /**
+     * Attach a record (e.g. DLQ) that must be committed together with the envelope's offset,
+     * or the checkpoint listing the child, in transactional mode. Must be called before the
+     * child is acknowledged.
+     */
+    public void addOutput(ProducerRecord<String, byte[]> output) {
+        outputs.add(output);
+    }
+    
+    public boolean isComplete() {
+        return remaining.get() == 0;
+    }
+    
+    private void checkpoint() {
+        BitSet delivered = new BitSet(acknowledged.length);
+        for (int i = 0; i < acknowledged.length; i++) {
+            if (acknowledged[i].get()) {
+                delivered.set(i);
+            }
+        }
+        String checkpoint = checkpointOf(delivered);
+        if (checkpoint.length() > MAX_CHECKPOINT_LENGTH) {
+            return; // Outputs are committed with the envelope's offset instead
+        }
+        TopicPartition topicPartition = new TopicPartition(record.topic(), record.partition());
+        ProducerRecord<String, byte[]> output;
+        while ((output = outputs.poll()) != null) {
+            ackQueue.offer(KafNotifAcknowledgment.AckRequest.checkpoint(topicPartition, record.offset(), checkpoint, output));
+        }
+        ackQueue.offer(KafNotifAcknowledgment.AckRequest.checkpoint(topicPartition, record.offset(), checkpoint, null));
+    }
+    
+    private void complete() {
+        TopicPartition topicPartition = new TopicPartition(record.topic(), record.partition());
+        for (ProducerRecord<String, byte[]> output : outputs) {
+            ackQueue.offer(new KafNotifAcknowledgment.AckRequest(topicPartition, record.offset(), output));
+        }
+        ackQueue.offer(new KafNotifAcknowledgment.AckRequest(topicPartition, record.offset()));
+        
+        logger.debug("✅ Queued acknowledgment for envelope {}:{} offset {} ({} notifications)",
+                    record.topic(), record.partition(), record.offset(), acknowledged.length);
+    }
+}
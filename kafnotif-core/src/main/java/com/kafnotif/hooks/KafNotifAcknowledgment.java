@@ -2,6 +2,7 @@ package com.kafnotif.hooks;
 
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.common.TopicPartition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,11 +18,11 @@ public class KafNotifAcknowledgment implements Acknowledgment {
     
     private static final Logger logger = LoggerFactory.getLogger(KafNotifAcknowledgment.class);
     
-    private final ConsumerRecord<String, String> record;
+    private final ConsumerRecord<?, ?> record;
     private final ConcurrentLinkedQueue<AckRequest> ackQueue;
     private final AtomicBoolean acknowledged = new AtomicBoolean(false);
     
-    public KafNotifAcknowledgment(ConsumerRecord<String, String> record, 
+    public KafNotifAcknowledgment(ConsumerRecord<?, ?> record, 
                                   ConcurrentLinkedQueue<AckRequest> ackQueue) {
         this.record = record;
         this.ackQueue = ackQueue;
@@ -51,10 +52,36 @@ public class KafNotifAcknowledgment implements Acknowledgment {
     public static class AckRequest {
         private final TopicPartition topicPartition;
         private final long offset;
+        private final ProducerRecord<String, byte[]> output;
+        private final String checkpoint;
         
         public AckRequest(TopicPartition topicPartition, long offset) {
+            this(topicPartition, offset, null);
+        }
+        
+        /**
+         * Acknowledge an offset together with a record (e.g. DLQ) that must be written
+         * atomically with the offset commit in transactional mode
+         */
+        public AckRequest(TopicPartition topicPartition, long offset, ProducerRecord<String, byte[]> output) {
+            this(topicPartition, offset, output, null);
+        }
+        
+        private AckRequest(TopicPartition topicPartition, long offset, ProducerRecord<String, byte[]> output,
+                           String checkpoint) {
             this.topicPartition = topicPartition;
             this.offset = offset;
+            this.output = output;
+            this.checkpoint = checkpoint;
+        }
+        
+        /**
+         * Record progress inside a partially processed record: the record's own offset is
+         * committed (so it is redelivered after a restart) with the checkpoint as metadata
+         */
+        public static AckRequest checkpoint(TopicPartition topicPartition, long offset, String checkpoint,
+                                            ProducerRecord<String, byte[]> output) {
+            return new AckRequest(topicPartition, offset, output, checkpoint);
         }
         
         public TopicPartition getTopicPartition() {
@@ -64,5 +91,24 @@ public class KafNotifAcknowledgment implements Acknowledgment {
         public long getOffset() {
             return offset;
         }
+        
+        public ProducerRecord<String, byte[]> getOutput() {
+            return output;
+        }
+        
+        public boolean isCheckpoint() {
+            return checkpoint != null;
+        }
+        
+        public String getCheckpoint() {
+            return checkpoint;
+        }
+        
+        /**
+         * Offset to commit: past the record when acknowledged, the record itself for a checkpoint
+         */
+        public long getCommitOffset() {
+            return isCheckpoint() ? offset : offset + 1;
+        }
     }
 }
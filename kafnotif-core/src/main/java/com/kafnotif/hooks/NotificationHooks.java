@@ -1,6 +1,7 @@
 package com.kafnotif.hooks;
 
 import com.kafnotif.model.NotificationEvent;
+import com.kafnotif.notifier.SendResult;
 
 /**
  * Interface for notification lifecycle hooks
@@ -26,6 +27,17 @@ public interface NotificationHooks {
         return true;
     }
     
+    /**
+     * Called after a notification is sent or has failed, with the detailed outcome
+     * (provider code, latency, whether the failure was retryable)
+     * @param notification the notification that was sent
+     * @param result the outcome of the last attempt
+     * @param ackControl Control for manual acknowledgment (null if auto-ack is enabled)
+     */
+    default void afterSend(NotificationEvent notification, SendResult result, AckControl ackControl) {
+        afterSend(notification, result.isSuccess(), result.getError(), ackControl);
+    }
+    
     /**
      * Called after a notification is successfully sent
      * @param notification the notification that was sent
@@ -47,6 +59,17 @@ public interface NotificationHooks {
         // Default implementation does nothing
     }
     
+    /**
+     * Called when a notification processing is retried
+     * @param notification the notification being retried
+     * @param result the retryable failure of the previous attempt
+     * @param retryAttempt the current retry attempt number
+     * @param maxRetries the maximum number of retries
+     */
+    default void onRetry(NotificationEvent notification, SendResult result, int retryAttempt, int maxRetries) {
+        onRetry(notification, retryAttempt, maxRetries);
+    }
+    
     /**
      * Called when a notification processing is retried
      * @param notification the notification being retried
@@ -57,6 +80,16 @@ public interface NotificationHooks {
         // Default implementation does nothing
     }
     
+    /**
+     * Called when a notification fails permanently (max retries exceeded or a non-retryable failure)
+     * @param notification the notification that failed permanently
+     * @param result the outcome of the last attempt
+     * @param ackControl Control for manual acknowledgment (null if auto-ack is enabled)
+     */
+    default void onPermanentFailure(NotificationEvent notification, SendResult result, AckControl ackControl) {
+        onPermanentFailure(notification, result.getError(), ackControl);
+    }
+    
     /**
      * Called when a notification fails permanently (max retries exceeded)
      * @param notification the notification that failed permanently
@@ -11,8 +11,8 @@ public class ThreadSafeAckControl extends AckControl {
     
     private final Acknowledgment acknowledgment;
     
-    public ThreadSafeAckControl(KafkaConsumer<String, String> consumer, 
-                                ConsumerRecord<String, String> record,
+    public ThreadSafeAckControl(KafkaConsumer<?, ?> consumer, 
+                                ConsumerRecord<?, ?> record,
                                 Acknowledgment acknowledgment) {
         super(consumer, record);
         this.acknowledgment = acknowledgment;
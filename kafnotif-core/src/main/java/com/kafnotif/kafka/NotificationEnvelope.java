@@ -0,0 +1,45 @@
+package com.kafnotif.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Wire format for envelope records: many small notifications of one topic packed into a
+ * single Kafka record (a list encoded by the record's
+ * {@link com.kafnotif.codec.NotificationCodec}), marked by the {@value #FORMAT_HEADER} header.
+ * The envelope relies on producer batch compression, which works far better on one
+ * large value than on many tiny ones. Fan-out records ({@link com.kafnotif.model.FanOutNotification})
+ * use the same header with the {@value #FANOUT_FORMAT} format.
+ */
+public final class NotificationEnvelope {
+    
+    public static final String FORMAT_HEADER = "kafnotif-format";
+    public static final String ENVELOPE_FORMAT = "envelope";
+    public static final String FANOUT_FORMAT = "fanout";
+    public static final String COUNT_HEADER = "kafnotif-count";
+    
+    private NotificationEnvelope() {
+        // Utility class - prevent instantiation
+    }
+    
+    /**
+     * Check whether a consumed record is an envelope rather than a single notification
+     */
+    public static boolean isEnvelope(ConsumerRecord<?, ?> record) {
+        return ENVELOPE_FORMAT.equals(formatOf(record));
+    }
+    
+    /**
+     * Check whether a consumed record is a fan-out notification
+     */
+    public static boolean isFanOut(ConsumerRecord<?, ?> record) {
+        return FANOUT_FORMAT.equals(formatOf(record));
+    }
+    
+    private static String formatOf(ConsumerRecord<?, ?> record) {
+        Header format = record.headers().lastHeader(FORMAT_HEADER);
+        return format != null ? new String(format.value(), StandardCharsets.UTF_8) : null;
+    }
+}
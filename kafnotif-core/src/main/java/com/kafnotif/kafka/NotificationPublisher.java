@@ -2,15 +2,44 @@ package com.kafnotif.kafka;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kafnotif.util.JsonUtils;
+import com.kafnotif.blob.ClaimCheck;
+import com.kafnotif.codec.NotificationCodec;
+import com.kafnotif.codec.NotificationCodecs;
 import com.kafnotif.config.KafkaTopicManager;
+import com.kafnotif.config.PerformanceProfile;
+import com.kafnotif.model.FanOutNotification;
 import com.kafnotif.model.NotificationEvent;
 import com.kafnotif.model.NotificationType;
+import com.kafnotif.model.PriorityLane;
+import com.kafnotif.outbox.DiskOutbox;
+import com.kafnotif.outbox.OutboxRelay;
+import com.kafnotif.validation.NotificationValidator;
 import org.apache.kafka.clients.producer.*;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.AuthorizationException;
+import org.apache.kafka.common.errors.OutOfOrderSequenceException;
+import org.apache.kafka.common.errors.ProducerFencedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Enhanced publisher specifically for notification events
@@ -19,11 +48,36 @@ public class NotificationPublisher {
     
     private static final Logger logger = LoggerFactory.getLogger(NotificationPublisher.class);
     
-    private final KafkaProducer<String, String> producer;
-    private final ObjectMapper mapper = JsonUtils.createObjectMapper();
+    private static final byte[] VALIDATED = "true".getBytes(StandardCharsets.UTF_8);
+    
+    private final KafkaProducer<String, byte[]> producer;
+    private final ObjectMapper mapper = JsonUtils.sharedObjectMapper();
     private final String baseTopic;
     private final KafkaTopicManager topicManager;
     private final boolean autoCreateTopics;
+    private final boolean transactional;
+    private final DiskOutbox outbox;
+    private final OutboxRelay outboxRelay;
+    private final boolean priorityLanes;
+    private final int envelopeBatchSize;
+    private final PerformanceProfile defaultProfile;
+    private final Map<NotificationType, PerformanceProfile> typeProfiles;
+    private final ClaimCheck claimCheck;
+    private final NotificationCodec codec;
+    private final NotificationValidator validator;
+    
+    // Dedicated producers for profiles other than the default one (which uses the main producer)
+    private final Map<PerformanceProfile, KafkaProducer<String, byte[]>> profileProducers = new EnumMap<>(PerformanceProfile.class);
+    
+    // Transactions on a producer are strictly sequential
+    private final Object transactionLock = new Object();
+    
+    // Single transactional publishes waiting for their group commit (transactional mode only)
+    private final Duration transactionLinger;
+    private final int transactionBatchSize;
+    private final ScheduledExecutorService transactionCommitter;
+    private final Object pendingLock = new Object();
+    private List<PendingPublish> pendingPublishes = new ArrayList<>(); // Guarded by pendingLock
     
     public NotificationPublisher(String bootstrapServers, String baseTopic) {
         this(bootstrapServers, baseTopic, true, 3, (short) 1);
@@ -31,25 +85,95 @@ public class NotificationPublisher {
     
     public NotificationPublisher(String bootstrapServers, String baseTopic, boolean autoCreateTopics, 
                                int defaultPartitions, short defaultReplicationFactor) {
-        this.baseTopic = baseTopic;
-        this.autoCreateTopics = autoCreateTopics;
+        this(new PublisherConfig(bootstrapServers)
+                .topicPrefix(baseTopic)
+                .autoCreateTopics(autoCreateTopics)
+                .defaultPartitions(defaultPartitions)
+                .defaultReplicationFactor(defaultReplicationFactor));
+    }
+    
+    public NotificationPublisher(PublisherConfig config) {
+        this.baseTopic = config.getTopicPrefix();
+        this.autoCreateTopics = config.isAutoCreateTopics();
+        this.transactional = config.isTransactional();
+        this.priorityLanes = config.isPriorityLanes();
+        this.envelopeBatchSize = config.getEnvelopeBatchSize();
+        this.defaultProfile = config.getProfile();
+        this.typeProfiles = config.getTypeProfiles();
+        this.codec = config.getCodec();
+        this.validator = config.getValidator();
+        this.transactionLinger = config.getTransactionLinger();
+        this.transactionBatchSize = config.getTransactionBatchSize();
+        this.claimCheck = config.getBlobStore() != null
+            ? new ClaimCheck(config.getBlobStore(), config.getClaimCheckThreshold(), 1)
+            : null;
         
-        Properties props = new Properties();
-        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, "org.apache.kafka.common.serialization.StringSerializer");
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, "org.apache.kafka.common.serialization.StringSerializer");
-        props.put(ProducerConfig.ACKS_CONFIG, "all"); // Wait for all replicas
-        props.put(ProducerConfig.RETRIES_CONFIG, 3);
-        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        Properties props = createProducerProperties(config, defaultProfile);
+        
+        if (transactional) {
+            props.put(ProducerConfig.TRANSACTIONAL_ID_CONFIG, config.getTransactionalId());
+        }
         
         this.producer = new KafkaProducer<>(props);
         
+        if (transactional) {
+            // Fences any previous producer with the same transactional.id
+            producer.initTransactions();
+            logger.info("🔒 Transactional publisher initialized with id: {}", config.getTransactionalId());
+            this.transactionCommitter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "kafnotif-transaction-commit");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.transactionCommitter = null;
+        }
+        
+        // Transactions and the outbox relay use a single producer, so profiles of lanes and
+        // type overrides only apply to direct publishing
+        if (!transactional && !config.isOutboxEnabled()) {
+            Set<PerformanceProfile> profiles = EnumSet.noneOf(PerformanceProfile.class);
+            profiles.addAll(typeProfiles.values());
+            if (priorityLanes) {
+                profiles.add(PerformanceProfile.LOW_LATENCY);
+                profiles.add(PerformanceProfile.BULK_THROUGHPUT);
+            }
+            profiles.remove(defaultProfile);
+            for (PerformanceProfile profile : profiles) {
+                profileProducers.put(profile, new KafkaProducer<>(createProducerProperties(config, profile)));
+            }
+            if (!profiles.isEmpty()) {
+                logger.info("🚦 Created dedicated producers for profiles {} (default {})", profiles, defaultProfile);
+            }
+        }
+        
+        // Start the disk outbox relay if enabled
+        if (config.isOutboxEnabled()) {
+            try {
+                this.outbox = new DiskOutbox(config.getOutboxDirectory(), config.getOutboxSegmentBytes(),
+                                             config.isOutboxSyncWrites());
+            } catch (IOException e) {
+                producer.close();
+                throw new RuntimeException("Failed to open outbox at " + config.getOutboxDirectory(), e);
+            }
+            this.outboxRelay = new OutboxRelay(outbox, this::sendBatch, config.getOutboxRelayBatchSize());
+            this.outboxRelay.start();
+            logger.info("📦 Publishing through disk outbox at {}", config.getOutboxDirectory());
+        } else {
+            this.outbox = null;
+            this.outboxRelay = null;
+        }
+        
         // Initialize topic manager if auto-creation is enabled
         if (autoCreateTopics) {
-            this.topicManager = new KafkaTopicManager(bootstrapServers, baseTopic, 
-                                                    defaultPartitions, defaultReplicationFactor);
+            this.topicManager = new KafkaTopicManager(config.getBootstrapServers(), baseTopic, 
+                                                    config.getDefaultPartitions(), config.getDefaultReplicationFactor());
             // Create all notification topics at startup
-            this.topicManager.createAllNotificationTopics();
+            if (priorityLanes) {
+                this.topicManager.createAllPriorityLaneTopics();
+            } else {
+                this.topicManager.createAllNotificationTopics();
+            }
         } else {
             this.topicManager = null;
         }
@@ -61,26 +185,28 @@ public class NotificationPublisher {
      * @return Future for the send result
      */
     public Future<RecordMetadata> publishNotification(NotificationEvent notification) {
-        if (!notification.isValid()) {
-            throw new IllegalArgumentException("Invalid notification: " + notification);
+        validate(notification);
+        return send(notification);
+    }
+    
+    /**
+     * Publish a notification that has already been validated
+     */
+    private Future<RecordMetadata> send(NotificationEvent notification) {
+        if (outbox != null) {
+            return appendToOutbox(notification, getTopicFor(notification), true);
+        }
+        
+        if (transactional) {
+            // A transactional producer cannot send outside a transaction
+            return enqueueForTransaction(notification);
         }
         
         try {
-            String topic = getTopicForType(notification.getNotificationType());
-            String payload = mapper.writeValueAsString(notification);
-            
-            ProducerRecord<String, String> record = new ProducerRecord<>(
-                topic, 
-                notification.getId(), 
-                payload
-            );
-            
-            // Add headers for better message routing and filtering
-            record.headers().add("notificationType", notification.getNotificationType().getValue().getBytes());
-            record.headers().add("priority", String.valueOf(notification.getPriority().getLevel()).getBytes());
-            record.headers().add("retryCount", String.valueOf(notification.getRetryCount()).getBytes());
+            String topic = getTopicFor(notification);
+            ProducerRecord<String, byte[]> record = createRecord(notification, topic, true);
             
-            Future<RecordMetadata> future = producer.send(record, new Callback() {
+            Future<RecordMetadata> future = producerFor(notification).send(record, new Callback() {
                 @Override
                 public void onCompletion(RecordMetadata metadata, Exception exception) {
                     if (exception != null) {
@@ -101,6 +227,253 @@ public class NotificationPublisher {
         }
     }
     
+    /**
+     * Publish a batch of notifications atomically in a single Kafka transaction.
+     * Consumers reading with isolation.level=read_committed see either all or none of them.
+     * Requires a publisher created with a transactional id.
+     * @param notifications the notifications to publish
+     * @return metadata of the published records, in input order
+     */
+    public List<RecordMetadata> publishInTransaction(List<? extends NotificationEvent> notifications) {
+        if (!transactional) {
+            throw new IllegalStateException("publishInTransaction requires a transactional publisher (set PublisherConfig.transactionalId)");
+        }
+        
+        for (NotificationEvent notification : notifications) {
+            validate(notification);
+        }
+        return publishValidatedInTransaction(notifications);
+    }
+    
+    private List<RecordMetadata> publishValidatedInTransaction(List<? extends NotificationEvent> notifications) {
+        List<ProducerRecord<String, byte[]>> records = new ArrayList<>(notifications.size());
+        try {
+            for (NotificationEvent notification : notifications) {
+                records.add(createRecord(notification, getTopicFor(notification), true));
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to serialize notifications for transaction", e);
+        }
+        return commitRecords(records);
+    }
+    
+    /**
+     * Write records in one transaction and wait for it to commit
+     */
+    private List<RecordMetadata> commitRecords(List<ProducerRecord<String, byte[]>> records) {
+        synchronized (transactionLock) {
+            List<Future<RecordMetadata>> futures = sendInTransaction(records);
+            
+            // All futures are complete once the commit has succeeded
+            List<RecordMetadata> results = new ArrayList<>(futures.size());
+            try {
+                for (Future<RecordMetadata> future : futures) {
+                    results.add(future.get());
+                }
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to read transaction results", e);
+            }
+            
+            logger.info("📤 Published {} notifications in one transaction", results.size());
+            return results;
+        }
+    }
+    
+    /**
+     * Queue a single publish for the next group commit. Concurrent publishes share one
+     * transaction, committed after the linger time or once the group is full, so callers do not
+     * each wait for a transaction of their own. The returned future completes at the commit; if
+     * the transaction aborts, every publish of the group fails.
+     */
+    private Future<RecordMetadata> enqueueForTransaction(NotificationEvent notification) {
+        ProducerRecord<String, byte[]> record;
+        try {
+            record = createRecord(notification, getTopicFor(notification), true);
+        } catch (Exception e) {
+            logger.error("Failed to serialize notification: {}", notification.getId(), e);
+            throw new RuntimeException("Failed to publish notification", e);
+        }
+        
+        CompletableFuture<RecordMetadata> future = new CompletableFuture<>();
+        List<PendingPublish> full = null;
+        synchronized (pendingLock) {
+            pendingPublishes.add(new PendingPublish(record, future));
+            if (pendingPublishes.size() == 1) {
+                List<PendingPublish> started = pendingPublishes;
+                transactionCommitter.schedule(() -> commitPending(started),
+                                              transactionLinger.toMillis(), TimeUnit.MILLISECONDS);
+            }
+            if (pendingPublishes.size() >= transactionBatchSize) {
+                full = pendingPublishes;
+                pendingPublishes = new ArrayList<>();
+            }
+        }
+        if (full != null) {
+            List<PendingPublish> group = full;
+            transactionCommitter.execute(() -> commitGroup(group));
+        }
+        return future;
+    }
+    
+    /**
+     * Commit a group whose linger time has elapsed, unless it was already committed for being full
+     */
+    private void commitPending(List<PendingPublish> expected) {
+        synchronized (pendingLock) {
+            if (pendingPublishes != expected) {
+                return;
+            }
+            pendingPublishes = new ArrayList<>();
+        }
+        commitGroup(expected);
+    }
+    
+    private void commitGroup(List<PendingPublish> group) {
+        List<ProducerRecord<String, byte[]>> records = new ArrayList<>(group.size());
+        for (PendingPublish pending : group) {
+            records.add(pending.record);
+        }
+        try {
+            List<RecordMetadata> results = commitRecords(records);
+            for (int i = 0; i < group.size(); i++) {
+                group.get(i).future.complete(results.get(i));
+            }
+        } catch (RuntimeException e) {
+            group.forEach(pending -> pending.future.completeExceptionally(e));
+        }
+    }
+    
+    /**
+     * Publish many notifications, packing up to {@link PublisherConfig#envelopeBatchSize(int)}
+     * notifications of the same topic into one envelope record. Consumers unpack envelopes
+     * transparently and commit an envelope once all its notifications are acknowledged.
+     * Without an envelope batch size, each notification is published as its own record.
+     * @param notifications the notifications to publish
+     * @return one future per Kafka record written (envelope or single notification)
+     */
+    public List<Future<RecordMetadata>> publishBatch(List<? extends NotificationEvent> notifications) {
+        for (NotificationEvent notification : notifications) {
+            validate(notification);
+        }
+        
+        if (envelopeBatchSize <= 1) {
+            List<Future<RecordMetadata>> futures = new ArrayList<>(notifications.size());
+            for (NotificationEvent notification : notifications) {
+                futures.add(send(notification));
+            }
+            return futures;
+        }
+        
+        // Group by destination topic, keeping publish order within each topic
+        Map<String, List<NotificationEvent>> byTopic = new LinkedHashMap<>();
+        for (NotificationEvent notification : notifications) {
+            byTopic.computeIfAbsent(getTopicFor(notification), t -> new ArrayList<>()).add(notification);
+        }
+        
+        List<ProducerRecord<String, byte[]>> records = new ArrayList<>();
+        List<KafkaProducer<String, byte[]>> producers = new ArrayList<>();
+        try {
+            for (Map.Entry<String, List<NotificationEvent>> entry : byTopic.entrySet()) {
+                List<NotificationEvent> topicNotifications = entry.getValue();
+                for (int from = 0; from < topicNotifications.size(); from += envelopeBatchSize) {
+                    List<NotificationEvent> chunk = topicNotifications.subList(
+                        from, Math.min(from + envelopeBatchSize, topicNotifications.size()));
+                    records.add(chunk.size() == 1
+                        ? createRecord(chunk.get(0), entry.getKey(), true)
+                        : createEnvelopeRecord(chunk, entry.getKey()));
+                    // Notifications of one topic share type and lane, hence the producer
+                    producers.add(producerFor(chunk.get(0)));
+                }
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to serialize notification batch", e);
+        }
+        
+        List<Future<RecordMetadata>> futures = new ArrayList<>(records.size());
+        if (outbox != null) {
+            for (ProducerRecord<String, byte[]> record : records) {
+                outbox.append(record);
+                futures.add(CompletableFuture.completedFuture(new RecordMetadata(
+                    new TopicPartition(record.topic(), RecordMetadata.UNKNOWN_PARTITION), -1L, -1,
+                    System.currentTimeMillis(), -1, record.value().length)));
+            }
+            outboxRelay.signal();
+            
+        } else if (transactional) {
+            futures.addAll(sendInTransaction(records));
+            
+        } else {
+            for (int i = 0; i < records.size(); i++) {
+                ProducerRecord<String, byte[]> record = records.get(i);
+                futures.add(producers.get(i).send(record, (metadata, exception) -> {
+                    if (exception != null) {
+                        logger.error("Failed to publish batch record to topic: {}. Error: {}", 
+                                   record.topic(), exception.getMessage(), exception);
+                    }
+                }));
+            }
+        }
+        
+        logger.info("📤 Published {} notifications as {} records", notifications.size(), records.size());
+        return futures;
+    }
+    
+    /**
+     * Publish a broadcast as one record: the shared template plus the recipient list.
+     * Consumers expand it into one notification per recipient and checkpoint their progress,
+     * so a restart resumes mid-list instead of starting over.
+     * @param fanOut the template and its recipients
+     * @return Future for the send result
+     */
+    public Future<RecordMetadata> publishFanOut(FanOutNotification fanOut) {
+        if (!fanOut.isValid()) {
+            throw new IllegalArgumentException("Invalid fan-out notification: " + fanOut);
+        }
+        
+        NotificationEvent template = fanOut.getTemplate();
+        String topic = getTopicFor(template);
+        ProducerRecord<String, byte[]> record;
+        try {
+            FanOutNotification wire = fanOut;
+            NotificationEvent wireTemplate = prepareForWire(template);
+            if (wireTemplate != template) {
+                wire = new FanOutNotification();
+                wire.setId(fanOut.getId());
+                wire.setTemplate(wireTemplate);
+                wire.setRecipients(fanOut.getRecipients());
+            }
+            record = new ProducerRecord<>(topic, fanOut.getId(), codec.encodeFanOut(wire));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to serialize fan-out notification", e);
+        }
+        NotificationCodecs.setContentType(record.headers(), codec);
+        record.headers().add(NotificationEnvelope.FORMAT_HEADER, NotificationEnvelope.FANOUT_FORMAT.getBytes());
+        record.headers().add(NotificationEnvelope.COUNT_HEADER, String.valueOf(fanOut.getRecipients().size()).getBytes());
+        record.headers().add("notificationType", template.getNotificationType().getValue().getBytes());
+        record.headers().add("priority", String.valueOf(template.getPriority().getLevel()).getBytes());
+        
+        Future<RecordMetadata> future;
+        if (outbox != null) {
+            outbox.append(record);
+            outboxRelay.signal();
+            future = CompletableFuture.completedFuture(new RecordMetadata(
+                new TopicPartition(topic, RecordMetadata.UNKNOWN_PARTITION), -1L, -1,
+                System.currentTimeMillis(), -1, record.value().length));
+        } else if (transactional) {
+            future = sendInTransaction(Collections.singletonList(record)).get(0);
+        } else {
+            future = producerFor(template).send(record, (metadata, exception) -> {
+                if (exception != null) {
+                    logger.error("Failed to publish fan-out {} to topic: {}. Error: {}", 
+                               fanOut.getId(), topic, exception.getMessage(), exception);
+                }
+            });
+        }
+        
+        logger.info("📣 Published fan-out {} to {} recipients on topic {}", fanOut.getId(), fanOut.getRecipients().size(), topic);
+        return future;
+    }
+    
     /**
      * Publish notification synchronously
      * @param notification the notification to publish
@@ -115,24 +488,22 @@ public class NotificationPublisher {
     }
     
     /**
-     * Publish to a specific topic (override type-based routing)
+     * Publish to a specific topic (override type-based routing). With the outbox enabled the
+     * record goes through the outbox like any other publish.
      * @param notification the notification to publish
      * @param topic the specific topic to publish to
      * @return Future for the send result
      */
     public Future<RecordMetadata> publishToTopic(NotificationEvent notification, String topic) {
+        if (outbox != null) {
+            return appendToOutbox(notification, topic, false);
+        }
         try {
-            String payload = mapper.writeValueAsString(notification);
+            ProducerRecord<String, byte[]> record = createRecord(notification, topic, false);
             
-            ProducerRecord<String, String> record = new ProducerRecord<>(
-                topic, 
-                notification.getId(), 
-                payload
-            );
-            
-            // Add headers
-            record.headers().add("notificationType", notification.getNotificationType().getValue().getBytes());
-            record.headers().add("priority", String.valueOf(notification.getPriority().getLevel()).getBytes());
+            if (transactional) {
+                return sendInTransaction(List.of(record)).get(0);
+            }
             
             return producer.send(record);
             
@@ -141,6 +512,161 @@ public class NotificationPublisher {
         }
     }
     
+    /**
+     * Append a notification to the disk outbox. The returned metadata has no offset
+     * (see {@link RecordMetadata#hasOffset()}): the record is durable locally and
+     * will be delivered by the relay.
+     */
+    private Future<RecordMetadata> appendToOutbox(NotificationEvent notification, String topic, boolean validated) {
+        try {
+            ProducerRecord<String, byte[]> record = createRecord(notification, topic, validated);
+            outbox.append(record);
+            outboxRelay.signal();
+            
+            logger.debug("📦 Queued notification {} in outbox for topic {}", notification.getId(), topic);
+            return CompletableFuture.completedFuture(new RecordMetadata(
+                new TopicPartition(topic, RecordMetadata.UNKNOWN_PARTITION), -1L, -1,
+                System.currentTimeMillis(), -1, record.value().length));
+            
+        } catch (Exception e) {
+            logger.error("Failed to append notification {} to outbox", notification.getId(), e);
+            throw new RuntimeException("Failed to publish notification", e);
+        }
+    }
+    
+    /**
+     * Send records and wait until Kafka acknowledged all of them (used by the outbox relay)
+     */
+    private void sendBatch(List<ProducerRecord<String, byte[]>> records) throws Exception {
+        if (transactional) {
+            sendInTransaction(records);
+            return;
+        }
+        
+        List<Future<RecordMetadata>> futures = new ArrayList<>(records.size());
+        for (ProducerRecord<String, byte[]> record : records) {
+            futures.add(producer.send(record));
+        }
+        producer.flush();
+        for (Future<RecordMetadata> future : futures) {
+            future.get();
+        }
+    }
+    
+    /**
+     * Send records in one transaction; the returned futures are complete once it has committed.
+     * On a fatal error the producer is closed; otherwise the transaction is aborted.
+     */
+    private List<Future<RecordMetadata>> sendInTransaction(List<ProducerRecord<String, byte[]>> records) {
+        synchronized (transactionLock) {
+            List<Future<RecordMetadata>> futures = new ArrayList<>(records.size());
+            try {
+                producer.beginTransaction();
+                for (ProducerRecord<String, byte[]> record : records) {
+                    futures.add(producer.send(record));
+                }
+                producer.commitTransaction();
+                
+            } catch (ProducerFencedException | OutOfOrderSequenceException | AuthorizationException e) {
+                // Fatal: the producer cannot recover (aborting would throw too) and must be closed
+                logger.error("❌ Fatal transactional error, closing publisher: {}", e.getMessage(), e);
+                producer.close();
+                throw new RuntimeException("Transactional publisher is no longer usable", e);
+            } catch (KafkaException e) {
+                logger.error("❌ Aborting transaction of {} notifications: {}", records.size(), e.getMessage(), e);
+                try {
+                    producer.abortTransaction();
+                } catch (KafkaException abortError) {
+                    e.addSuppressed(abortError);
+                }
+                throw new RuntimeException("Failed to publish notifications in transaction", e);
+            }
+            return futures;
+        }
+    }
+    
+    /**
+     * Move large content to the blob store (claim-check). Works on a copy so the caller's
+     * notification is left untouched; returns the notification itself when nothing is large.
+     */
+    private NotificationEvent prepareForWire(NotificationEvent notification) throws Exception {
+        if (claimCheck == null || !claimCheck.needsCheckIn(notification)) {
+            return notification;
+        }
+        NotificationEvent copy = mapper.readValue(mapper.writeValueAsBytes(notification), NotificationEvent.class);
+        claimCheck.checkIn(copy);
+        return copy;
+    }
+    
+    private List<NotificationEvent> prepareForWire(List<NotificationEvent> notifications) throws Exception {
+        List<NotificationEvent> prepared = new ArrayList<>(notifications.size());
+        for (NotificationEvent notification : notifications) {
+            prepared.add(prepareForWire(notification));
+        }
+        return prepared;
+    }
+    
+    /**
+     * Pack notifications of one topic into a single envelope record
+     */
+    private ProducerRecord<String, byte[]> createEnvelopeRecord(List<NotificationEvent> notifications, String topic) throws Exception {
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(
+            topic,
+            null, // No single key: let the sticky partitioner fill batches
+            codec.encodeAll(prepareForWire(notifications))
+        );
+        NotificationCodecs.setContentType(record.headers(), codec);
+        
+        NotificationEvent first = notifications.get(0);
+        int priority = notifications.stream().mapToInt(n -> n.getPriority().getLevel()).max().orElse(0);
+        record.headers().add(NotificationEnvelope.FORMAT_HEADER, NotificationEnvelope.ENVELOPE_FORMAT.getBytes());
+        record.headers().add(NotificationEnvelope.COUNT_HEADER, String.valueOf(notifications.size()).getBytes());
+        record.headers().add("notificationType", first.getNotificationType().getValue().getBytes());
+        record.headers().add("priority", String.valueOf(priority).getBytes());
+        if (notifications.stream().noneMatch(NotificationEvent::isTemplated)) {
+            record.headers().add(NotificationValidator.VALIDATED_HEADER, VALIDATED);
+        }
+        
+        return record;
+    }
+    
+    /**
+     * Serialize a notification and attach routing headers
+     * @param validated whether the notification passed validation in this publisher
+     */
+    private ProducerRecord<String, byte[]> createRecord(NotificationEvent notification, String topic, boolean validated) throws Exception {
+        byte[] payload = codec.encode(prepareForWire(notification));
+        
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(
+            topic, 
+            notification.getId(), 
+            payload
+        );
+        
+        NotificationCodecs.setContentType(record.headers(), codec);
+        // Add headers for better message routing and filtering
+        record.headers().add("notificationType", notification.getNotificationType().getValue().getBytes());
+        record.headers().add("priority", String.valueOf(notification.getPriority().getLevel()).getBytes());
+        record.headers().add("retryCount", String.valueOf(notification.getRetryCount()).getBytes());
+        // Templated content is only complete after rendering, so consumers must still validate it
+        if (validated && !notification.isTemplated()) {
+            record.headers().add(NotificationValidator.VALIDATED_HEADER, VALIDATED);
+        }
+        
+        return record;
+    }
+    
+    /**
+     * Reject a notification that breaks the publisher's validation rules
+     */
+    private void validate(NotificationEvent notification) {
+        List<String> violations = validator.validate(notification);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException("Invalid notification " + notification.getId() + ": "
+                                               + String.join(", ", violations));
+        }
+    }
+    
     /**
      * Get the topic name for a specific notification type
      * @param type the notification type
@@ -150,20 +676,117 @@ public class NotificationPublisher {
         return baseTopic + "." + type.getValue();
     }
     
+    /**
+     * Get the topic for a notification, taking its priority lane into account
+     */
+    private String getTopicFor(NotificationEvent notification) {
+        String typeTopic = getTopicForType(notification.getNotificationType());
+        if (!priorityLanes) {
+            return typeTopic;
+        }
+        return PriorityLane.forPriority(notification.getPriority()).topicName(typeTopic);
+    }
+    
+    /**
+     * Get the performance profile of a notification: urgent and bulk lanes use LOW_LATENCY and
+     * BULK_THROUGHPUT, other notifications the override of their type or the default profile
+     */
+    private PerformanceProfile profileFor(NotificationEvent notification) {
+        if (priorityLanes) {
+            PriorityLane lane = PriorityLane.forPriority(notification.getPriority());
+            if (lane == PriorityLane.HIGH) {
+                return PerformanceProfile.LOW_LATENCY;
+            }
+            if (lane == PriorityLane.BULK) {
+                return PerformanceProfile.BULK_THROUGHPUT;
+            }
+        }
+        return typeProfiles.getOrDefault(notification.getNotificationType(), defaultProfile);
+    }
+    
+    /**
+     * Get the producer configured with a notification's performance profile
+     */
+    private KafkaProducer<String, byte[]> producerFor(NotificationEvent notification) {
+        if (profileProducers.isEmpty()) {
+            return producer;
+        }
+        return profileProducers.getOrDefault(profileFor(notification), producer);
+    }
+    
+    private Properties createProducerProperties(PublisherConfig config, PerformanceProfile profile) {
+        Properties props = new Properties();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, config.getBootstrapServers());
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, "org.apache.kafka.common.serialization.StringSerializer");
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, "org.apache.kafka.common.serialization.ByteArraySerializer");
+        props.put(ProducerConfig.ACKS_CONFIG, "all"); // Wait for all replicas
+        props.put(ProducerConfig.RETRIES_CONFIG, 3);
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        profile.applyToProducer(props);
+        
+        if (envelopeBatchSize > 1 && "none".equals(profile.getCompressionType())) {
+            // Envelopes are large repetitive JSON values that compress very well
+            props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        }
+        
+        // Raw Kafka properties win over the profile
+        props.putAll(config.getProducerProperties());
+        return props;
+    }
+    
     /**
      * Flush any pending messages
      */
     public void flush() {
         producer.flush();
+        profileProducers.values().forEach(KafkaProducer::flush);
+    }
+    
+    /**
+     * Check whether this publisher writes inside Kafka transactions
+     */
+    public boolean isTransactional() {
+        return transactional;
     }
     
     /**
      * Close the publisher
      */
     public void close() {
+        if (transactionCommitter != null) {
+            List<PendingPublish> pending;
+            synchronized (pendingLock) {
+                pending = pendingPublishes;
+                pendingPublishes = new ArrayList<>();
+            }
+            if (!pending.isEmpty()) {
+                transactionCommitter.execute(() -> commitGroup(pending));
+            }
+            transactionCommitter.shutdown();
+            try {
+                transactionCommitter.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (outboxRelay != null) {
+            outboxRelay.stop(Duration.ofSeconds(10));
+            outbox.close();
+        }
         producer.close();
+        profileProducers.values().forEach(KafkaProducer::close);
         if (topicManager != null) {
             topicManager.close();
         }
     }
+    
+    private static final class PendingPublish {
+        private final ProducerRecord<String, byte[]> record;
+        private final CompletableFuture<RecordMetadata> future;
+        
+        private PendingPublish(ProducerRecord<String, byte[]> record, CompletableFuture<RecordMetadata> future) {
+            this.record = record;
+            this.future = future;
+        }
+    }
 }
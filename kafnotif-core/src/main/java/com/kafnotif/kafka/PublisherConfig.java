@@ -0,0 +1,239 @@
+package com.kafnotif.kafka;
+
+import com.kafnotif.blob.BlobStore;
+import com.kafnotif.codec.NotificationCodec;
+import com.kafnotif.codec.NotificationCodecs;
+import com.kafnotif.config.PerformanceProfile;
+import com.kafnotif.model.NotificationType;
+import com.kafnotif.validation.NotificationValidator;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration for notification publishers
+ */
+public class PublisherConfig {
+    
+    private String bootstrapServers = "localhost:9092";
+    private String topicPrefix = "notifications";
+    
+    // Topic management
+    private boolean autoCreateTopics = true;
+    private int defaultPartitions = 3;
+    private short defaultReplicationFactor = 1;
+    
+    // Transactions (null means non-transactional)
+    private String transactionalId;
+    // Single publishes are grouped into one transaction per linger time or batch size
+    private Duration transactionLinger = Duration.ofMillis(5);
+    private int transactionBatchSize = 500;
+    
+    // Local disk outbox (null means publish directly to Kafka)
+    private Path outboxDirectory;
+    private int outboxSegmentBytes = 64 * 1024 * 1024;
+    private boolean outboxSyncWrites = false;
+    private int outboxRelayBatchSize = 500;
+    
+    // Priority lanes (separate topics and producers per priority class)
+    private boolean priorityLanes = false;
+    
+    // Envelope batching for publishBatch (0 or 1 publishes one record per notification)
+    private int envelopeBatchSize = 0;
+    
+    // Producer tuning
+    private PerformanceProfile profile = PerformanceProfile.BALANCED;
+    private final Map<NotificationType, PerformanceProfile> typeProfiles = new EnumMap<>(NotificationType.class);
+    private final Map<String, Object> producerProperties = new HashMap<>();
+    
+    // Claim-check for large email content (null keeps everything inline)
+    private BlobStore blobStore;
+    private int claimCheckThreshold = 64 * 1024;
+    
+    // Wire format of record values
+    private NotificationCodec codec = NotificationCodecs.JSON;
+    private NotificationValidator validator = NotificationValidator.defaults();
+    
+    public PublisherConfig() {
+    }
+    
+    public PublisherConfig(String bootstrapServers) {
+        this.bootstrapServers = bootstrapServers;
+    }
+    
+    // Builder pattern methods
+    public PublisherConfig bootstrapServers(String bootstrapServers) {
+        this.bootstrapServers = bootstrapServers;
+        return this;
+    }
+    
+    public PublisherConfig topicPrefix(String topicPrefix) {
+        this.topicPrefix = topicPrefix;
+        return this;
+    }
+    
+    public PublisherConfig autoCreateTopics(boolean autoCreateTopics) {
+        this.autoCreateTopics = autoCreateTopics;
+        return this;
+    }
+    
+    public PublisherConfig defaultPartitions(int partitions) {
+        this.defaultPartitions = partitions;
+        return this;
+    }
+    
+    public PublisherConfig defaultReplicationFactor(short replicationFactor) {
+        this.defaultReplicationFactor = replicationFactor;
+        return this;
+    }
+    
+    /**
+     * Enable transactional publishing. The id must be unique per publisher instance
+     * (e.g. include the host or pod name) so that a restarted instance fences its zombie.
+     */
+    public PublisherConfig transactionalId(String transactionalId) {
+        this.transactionalId = transactionalId;
+        return this;
+    }
+    
+    /**
+     * How long a single transactional publish waits for others to share its transaction
+     */
+    public PublisherConfig transactionLinger(Duration linger) {
+        this.transactionLinger = linger;
+        return this;
+    }
+    
+    /**
+     * Commit a group of single transactional publishes as soon as it has this many notifications
+     */
+    public PublisherConfig transactionBatchSize(int batchSize) {
+        this.transactionBatchSize = batchSize;
+        return this;
+    }
+    
+    /**
+     * Write notifications to a memory-mapped outbox in this directory and relay them
+     * to Kafka in the background, so publishing keeps working during broker outages
+     */
+    public PublisherConfig outbox(Path directory) {
+        this.outboxDirectory = directory;
+        return this;
+    }
+    
+    public PublisherConfig outboxSegmentBytes(int segmentBytes) {
+        this.outboxSegmentBytes = segmentBytes;
+        return this;
+    }
+    
+    /**
+     * Force every outbox append to disk (survives OS crashes, at the cost of publish latency)
+     */
+    public PublisherConfig outboxSyncWrites(boolean syncWrites) {
+        this.outboxSyncWrites = syncWrites;
+        return this;
+    }
+    
+    public PublisherConfig outboxRelayBatchSize(int batchSize) {
+        this.outboxRelayBatchSize = batchSize;
+        return this;
+    }
+    
+    /**
+     * Route HIGH/URGENT/CRITICAL to ".high" topics and LOW to ".bulk" topics, each through
+     * its own producer so urgent latency does not depend on bulk volume
+     */
+    public PublisherConfig priorityLanes(boolean priorityLanes) {
+        this.priorityLanes = priorityLanes;
+        return this;
+    }
+    
+    /**
+     * Pack up to this many notifications of the same topic into one record in
+     * {@link NotificationPublisher#publishBatch(java.util.List)}; enables lz4 compression
+     */
+    public PublisherConfig envelopeBatchSize(int envelopeBatchSize) {
+        this.envelopeBatchSize = envelopeBatchSize;
+        return this;
+    }
+    
+    /**
+     * Producer settings (linger, batch size, compression, buffer memory) for all notifications
+     */
+    public PublisherConfig profile(PerformanceProfile profile) {
+        this.profile = profile;
+        return this;
+    }
+    
+    /**
+     * Use a different profile for one notification type; it gets its own producer
+     */
+    public PublisherConfig profile(NotificationType type, PerformanceProfile profile) {
+        this.typeProfiles.put(type, profile);
+        return this;
+    }
+    
+    /**
+     * Set a raw Kafka producer property, overriding the profile
+     */
+    public PublisherConfig producerProperty(String name, Object value) {
+        this.producerProperties.put(name, value);
+        return this;
+    }
+    
+    /**
+     * Store email bodies and attachments larger than thresholdBytes in the blob store and
+     * publish only a content hash reference; consumers need the same store
+     */
+    public PublisherConfig claimCheck(BlobStore blobStore, int thresholdBytes) {
+        this.blobStore = blobStore;
+        this.claimCheckThreshold = thresholdBytes;
+        return this;
+    }
+    
+    /**
+     * Set the wire format of record values (e.g. {@link NotificationCodecs#SMILE}).
+     * Consumers detect the format from the content type header, so switch consumers first.
+     */
+    public PublisherConfig codec(NotificationCodec codec) {
+        this.codec = codec;
+        return this;
+    }
+    
+    /**
+     * Validate notifications with custom rules (e.g. {@link NotificationValidator#createDefault()}
+     * plus stricter limits) instead of the default ones
+     */
+    public PublisherConfig validator(NotificationValidator validator) {
+        this.validator = validator;
+        return this;
+    }
+    
+    // Getters
+    public String getBootstrapServers() { return bootstrapServers; }
+    public String getTopicPrefix() { return topicPrefix; }
+    public boolean isAutoCreateTopics() { return autoCreateTopics; }
+    public int getDefaultPartitions() { return defaultPartitions; }
+    public short getDefaultReplicationFactor() { return defaultReplicationFactor; }
+    public String getTransactionalId() { return transactionalId; }
+    public boolean isTransactional() { return transactionalId != null && !transactionalId.isEmpty(); }
+    public Duration getTransactionLinger() { return transactionLinger; }
+    public int getTransactionBatchSize() { return transactionBatchSize; }
+    public Path getOutboxDirectory() { return outboxDirectory; }
+    public boolean isOutboxEnabled() { return outboxDirectory != null; }
+    public int getOutboxSegmentBytes() { return outboxSegmentBytes; }
+    public boolean isOutboxSyncWrites() { return outboxSyncWrites; }
+    public int getOutboxRelayBatchSize() { return outboxRelayBatchSize; }
+    public boolean isPriorityLanes() { return priorityLanes; }
+    public int getEnvelopeBatchSize() { return envelopeBatchSize; }
+    public PerformanceProfile getProfile() { return profile; }
+    public Map<NotificationType, PerformanceProfile> getTypeProfiles() { return typeProfiles; }
+    public Map<String, Object> getProducerProperties() { return producerProperties; }
+    public BlobStore getBlobStore() { return blobStore; }
+    public int getClaimCheckThreshold() { return claimCheckThreshold; }
+    public NotificationCodec getCodec() { return codec; }
+    public NotificationValidator getValidator() { return validator; }
+}
@@ -1,6 +1,9 @@
 package com.kafnotif.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.kafnotif.validation.NotificationValidator;
 
 import java.util.List;
 import java.util.Map;
@@ -10,6 +13,8 @@ import java.util.Map;
  */
 public class DiscordNotification extends NotificationEvent {
     
+    private static final TypeReference<List<DiscordEmbed>> EMBEDS_TYPE = new TypeReference<>() {};
+    
     @JsonProperty("content")
     private String content;
     
@@ -22,9 +27,13 @@ public class DiscordNotification extends NotificationEvent {
     @JsonProperty("tts")
     private boolean tts = false;
     
-    @JsonProperty("embeds")
+    @JsonIgnore
     private List<DiscordEmbed> embeds;
     
+    // Embeds as read from Kafka, kept as JSON until getEmbeds() is called
+    @JsonIgnore
+    private RawJson rawEmbeds;
+    
     @JsonProperty("webhookUrl")
     private String webhookUrl;
     
@@ -61,9 +70,7 @@ public class DiscordNotification extends NotificationEvent {
 
     @Override
     public boolean isValid() {
-        return (content != null && !content.trim().isEmpty()) &&
-               webhookUrl != null && !webhookUrl.trim().isEmpty() &&
-               content.length() <= 2000; // Discord message limit
+        return NotificationValidator.defaults().isValid(this);
     }
 
     @Override
@@ -100,12 +107,38 @@ public class DiscordNotification extends NotificationEvent {
         this.tts = tts;
     }
 
+    @JsonIgnore
     public List<DiscordEmbed> getEmbeds() {
+        if (embeds == null && rawEmbeds != null) {
+            embeds = rawEmbeds.decode(EMBEDS_TYPE);
+            rawEmbeds = null;
+        }
         return embeds;
     }
 
+    @JsonIgnore
     public void setEmbeds(List<DiscordEmbed> embeds) {
         this.embeds = embeds;
+        this.rawEmbeds = null;
+    }
+
+    /**
+     * Get the embeds as raw JSON if they came from Kafka and were not accessed since, otherwise null
+     */
+    @JsonIgnore
+    public RawJson getRawEmbeds() {
+        return rawEmbeds;
+    }
+
+    @JsonProperty("embeds")
+    private Object getEmbedsJson() {
+        return embeds != null ? embeds : rawEmbeds;
+    }
+
+    @JsonProperty("embeds")
+    private void setEmbedsJson(RawJson rawEmbeds) {
+        this.rawEmbeds = rawEmbeds;
+        this.embeds = null;
     }
 
     public String getWebhookUrl() {
@@ -1,6 +1,7 @@
 package com.kafnotif.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.kafnotif.validation.NotificationValidator;
 
 import java.util.List;
 
@@ -50,10 +51,7 @@ public class EmailNotification extends NotificationEvent {
 
     @Override
     public boolean isValid() {
-        return getRecipient() != null && !getRecipient().trim().isEmpty() &&
-               subject != null && !subject.trim().isEmpty() &&
-               (body != null || htmlBody != null) &&
-               isValidEmail(getRecipient());
+        return NotificationValidator.defaults().isValid(this);
     }
 
     @Override
@@ -61,10 +59,6 @@ public class EmailNotification extends NotificationEvent {
         return htmlBody != null ? htmlBody : body;
     }
 
-    private boolean isValidEmail(String email) {
-        return email != null && email.matches("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
-    }
-
     // Getters and Setters
     public String getSubject() {
         return subject;
@@ -0,0 +1,125 @@
+package com.kafnotif.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.kafnotif.util.NotificationIds;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One notification body sent to many recipients (broadcasts). Published as a single
+ * Kafka record and expanded into per-recipient notifications by the consumer.
+ */
+public class FanOutNotification {
+
+    @JsonProperty("id")
+    private String id;
+
+    @JsonProperty("template")
+    private NotificationEvent template;
+
+    @JsonProperty("recipients")
+    private List<Recipient> recipients = new ArrayList<>();
+
+    public FanOutNotification() {
+    }
+
+    /**
+     * @param template the shared notification; its recipient is replaced for every send
+     */
+    public FanOutNotification(NotificationEvent template) {
+        this.id = NotificationIds.next();
+        this.template = template;
+    }
+
+    public FanOutNotification addRecipient(String recipient) {
+        return addRecipient(recipient, null);
+    }
+
+    /**
+     * Add a recipient with variables that are merged into the metadata of its notification
+     */
+    public FanOutNotification addRecipient(String recipient, Map<String, String> variables) {
+        recipients.add(new Recipient(recipient, variables));
+        return this;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public NotificationEvent getTemplate() {
+        return template;
+    }
+
+    public void setTemplate(NotificationEvent template) {
+        this.template = template;
+    }
+
+    public List<Recipient> getRecipients() {
+        return recipients;
+    }
+
+    public void setRecipients(List<Recipient> recipients) {
+        this.recipients = recipients;
+    }
+
+    @JsonIgnore
+    public boolean isValid() {
+        return template != null && template.getNotificationType() != null
+                && recipients != null && !recipients.isEmpty();
+    }
+
+    /**
+     * A recipient of a fan-out notification (short property names keep large lists compact)
+     */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public static class Recipient {
+
+        @JsonProperty("r")
+        private String recipient;
+
+        @JsonProperty("v")
+        private Map<String, String> variables;
+
+        public Recipient() {
+        }
+
+        public Recipient(String recipient, Map<String, String> variables) {
+            this.recipient = recipient;
+            this.variables = variables;
+        }
+
+        public String getRecipient() {
+            return recipient;
+        }
+
+        public void setRecipient(String recipient) {
+            this.recipient = recipient;
+        }
+
+        public Map<String, String> getVariables() {
+            return variables;
+        }
+
+        public void setVariables(Map<String, String> variables) {
+            this.variables = variables;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FanOutNotification{" +
+                "id='" + id + '\'' +
+                ", type=" + (template != null ? template.getNotificationType() : null) +
+                ", recipients=" + (recipients != null ? recipients.size() : 0) +
+                '}';
+    }
+}
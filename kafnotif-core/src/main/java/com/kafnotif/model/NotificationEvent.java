@@ -1,12 +1,14 @@
 package com.kafnotif.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.kafnotif.util.NotificationIds;
 
 import java.time.Instant;
 import java.util.Map;
-import java.util.UUID;
 
 /**
  * Enhanced event model specifically for notifications
@@ -42,13 +44,26 @@ public abstract class NotificationEvent extends Event {
     
     @JsonProperty("metadata")
     private Map<String, Object> metadata;
+    
+    // Content rendered by the consumer from a template instead of being sent inline
+    @JsonProperty("templateId")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String templateId;
+    
+    @JsonProperty("templateVersion")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer templateVersion;
+    
+    @JsonProperty("variables")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, Object> variables;
 
     public NotificationEvent() {
         super();
     }
 
     public NotificationEvent(NotificationType type, String recipient) {
-        super(UUID.randomUUID().toString(), type.getValue(), null);
+        super(NotificationIds.next(), type.getValue(), null);
         this.notificationType = type;
         this.recipient = recipient;
         this.scheduledAt = Instant.now();
@@ -111,6 +126,39 @@ public abstract class NotificationEvent extends Event {
         this.metadata = metadata;
     }
 
+    public String getTemplateId() {
+        return templateId;
+    }
+
+    public void setTemplateId(String templateId) {
+        this.templateId = templateId;
+    }
+
+    public Integer getTemplateVersion() {
+        return templateVersion;
+    }
+
+    public void setTemplateVersion(Integer templateVersion) {
+        this.templateVersion = templateVersion;
+    }
+
+    public Map<String, Object> getVariables() {
+        return variables;
+    }
+
+    public void setVariables(Map<String, Object> variables) {
+        this.variables = variables;
+    }
+
+    /**
+     * Check whether the content is rendered by the consumer from a template
+     * (content fields may then be left empty)
+     */
+    @JsonIgnore
+    public boolean isTemplated() {
+        return templateId != null;
+    }
+
     /**
      * Abstract method to be implemented by specific notification types
      * @return true if the notification data is valid
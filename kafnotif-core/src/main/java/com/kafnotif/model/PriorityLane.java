@@ -0,0 +1,80 @@
+package com.kafnotif.model;
+
+/**
+ * Priority classes that get their own topic and producer, so urgent notifications
+ * never queue behind bulk traffic
+ */
+public enum PriorityLane {
+    /**
+     * HIGH, URGENT and CRITICAL notifications (topic suffix ".high")
+     */
+    HIGH("high"),
+    
+    /**
+     * NORMAL notifications, published to the plain type topic
+     */
+    DEFAULT(null),
+    
+    /**
+     * LOW notifications such as campaigns (topic suffix ".bulk")
+     */
+    BULK("bulk");
+    
+    private final String topicSuffix;
+    
+    PriorityLane(String topicSuffix) {
+        this.topicSuffix = topicSuffix;
+    }
+    
+    public String getTopicSuffix() {
+        return topicSuffix;
+    }
+    
+    /**
+     * Get the lane a priority is routed to
+     */
+    public static PriorityLane forPriority(NotificationPriority priority) {
+        if (priority == null) {
+            return DEFAULT;
+        }
+        if (priority.getLevel() >= NotificationPriority.HIGH.getLevel()) {
+            return HIGH;
+        }
+        if (priority == NotificationPriority.LOW) {
+            return BULK;
+        }
+        return DEFAULT;
+    }
+    
+    /**
+     * Scheduling weight of the lane: the level of the highest priority routed to it
+     */
+    public int getWeight() {
+        int weight = 0;
+        for (NotificationPriority priority : NotificationPriority.values()) {
+            if (forPriority(priority) == this) {
+                weight = Math.max(weight, priority.getLevel());
+            }
+        }
+        return weight;
+    }
+    
+    /**
+     * Get the lane of a topic created by {@link #topicName(String)}
+     */
+    public static PriorityLane forTopic(String topic) {
+        for (PriorityLane lane : values()) {
+            if (lane.topicSuffix != null && topic.endsWith("." + lane.topicSuffix)) {
+                return lane;
+            }
+        }
+        return DEFAULT;
+    }
+    
+    /**
+     * Build the lane topic from the type topic, e.g. notifications.email.high
+     */
+    public String topicName(String typeTopic) {
+        return topicSuffix == null ? typeTopic : typeTopic + "." + topicSuffix;
+    }
+}
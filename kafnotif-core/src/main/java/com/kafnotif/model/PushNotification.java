@@ -1,6 +1,7 @@
 package com.kafnotif.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.kafnotif.validation.NotificationValidator;
 
 import java.util.Map;
 
@@ -60,9 +61,7 @@ public class PushNotification extends NotificationEvent {
 
     @Override
     public boolean isValid() {
-        return deviceToken != null && !deviceToken.trim().isEmpty() &&
-               title != null && !title.trim().isEmpty() &&
-               body != null && !body.trim().isEmpty();
+        return NotificationValidator.defaults().isValid(this);
     }
 
     @Override
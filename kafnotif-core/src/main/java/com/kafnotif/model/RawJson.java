@@ -0,0 +1,92 @@
+package com.kafnotif.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.json.JsonGeneratorImpl;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.kafnotif.util.JsonUtils;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * A JSON subtree kept as text instead of being bound to maps and lists. Read by copying parser
+ * tokens straight to JSON (from JSON or Smile records), written back by splicing the text into
+ * the output, so provider payloads travel from Kafka to the HTTP body without tree conversions.
+ */
+@JsonSerialize(using = RawJson.Serializer.class)
+@JsonDeserialize(using = RawJson.Deserializer.class)
+public final class RawJson {
+    
+    private final String json;
+    
+    private RawJson(String json) {
+        this.json = json;
+    }
+    
+    /**
+     * Wrap JSON text (not validated)
+     */
+    public static RawJson of(String json) {
+        return new RawJson(json);
+    }
+    
+    /**
+     * Bind the JSON to a type
+     */
+    public <T> T decode(TypeReference<T> type) {
+        try {
+            return JsonUtils.sharedObjectMapper().readValue(json, type);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to decode raw JSON", e);
+        }
+    }
+    
+    /**
+     * Check whether the JSON is null or an empty array or object
+     */
+    public boolean isEmpty() {
+        String trimmed = json.trim();
+        return trimmed.equals("[]") || trimmed.equals("{}") || trimmed.equals("null");
+    }
+    
+    /**
+     * @return the JSON text
+     */
+    @Override
+    public String toString() {
+        return json;
+    }
+    
+    static class Serializer extends JsonSerializer<RawJson> {
+        @Override
+        public void serialize(RawJson value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            if (generator instanceof JsonGeneratorImpl) {
+                generator.writeRawValue(value.json);
+                return;
+            }
+            // Binary formats (Smile) cannot take raw text: re-emit the tokens
+            try (JsonParser parser = JsonUtils.sharedObjectMapper().getFactory().createParser(value.json)) {
+                parser.nextToken();
+                generator.copyCurrentStructure(parser);
+            }
+        }
+    }
+    
+    static class Deserializer extends JsonDeserializer<RawJson> {
+        @Override
+        public RawJson deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            StringWriter writer = new StringWriter();
+            try (JsonGenerator generator = JsonUtils.sharedObjectMapper().getFactory().createGenerator(writer)) {
+                generator.copyCurrentStructure(parser);
+            }
+            return new RawJson(writer.toString());
+        }
+    }
+}
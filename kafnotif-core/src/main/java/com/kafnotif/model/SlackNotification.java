@@ -1,6 +1,9 @@
 package com.kafnotif.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.kafnotif.validation.NotificationValidator;
 
 import java.util.List;
 import java.util.Map;
@@ -10,6 +13,8 @@ import java.util.Map;
  */
 public class SlackNotification extends NotificationEvent {
     
+    private static final TypeReference<List<Map<String, Object>>> BLOCKS_TYPE = new TypeReference<>() {};
+    
     @JsonProperty("text")
     private String text;
     
@@ -28,9 +33,13 @@ public class SlackNotification extends NotificationEvent {
     @JsonProperty("attachments")
     private List<SlackAttachment> attachments;
     
-    @JsonProperty("blocks")
+    @JsonIgnore
     private List<Map<String, Object>> blocks;
     
+    // Blocks as read from Kafka, kept as JSON until getBlocks() is called
+    @JsonIgnore
+    private RawJson rawBlocks;
+    
     @JsonProperty("webhookUrl")
     private String webhookUrl;
     
@@ -54,9 +63,7 @@ public class SlackNotification extends NotificationEvent {
 
     @Override
     public boolean isValid() {
-        return (channel != null && !channel.trim().isEmpty()) &&
-               (text != null && !text.trim().isEmpty()) &&
-               (webhookUrl != null || getRecipient() != null);
+        return NotificationValidator.defaults().isValid(this);
     }
 
     @Override
@@ -113,12 +120,38 @@ public class SlackNotification extends NotificationEvent {
         this.attachments = attachments;
     }
 
+    @JsonIgnore
     public List<Map<String, Object>> getBlocks() {
+        if (blocks == null && rawBlocks != null) {
+            blocks = rawBlocks.decode(BLOCKS_TYPE);
+            rawBlocks = null;
+        }
         return blocks;
     }
 
+    @JsonIgnore
     public void setBlocks(List<Map<String, Object>> blocks) {
         this.blocks = blocks;
+        this.rawBlocks = null;
+    }
+
+    /**
+     * Get the blocks as raw JSON if they came from Kafka and were not accessed since, otherwise null
+     */
+    @JsonIgnore
+    public RawJson getRawBlocks() {
+        return rawBlocks;
+    }
+
+    @JsonProperty("blocks")
+    private Object getBlocksJson() {
+        return blocks != null ? blocks : rawBlocks;
+    }
+
+    @JsonProperty("blocks")
+    private void setBlocksJson(RawJson rawBlocks) {
+        this.rawBlocks = rawBlocks;
+        this.blocks = null;
     }
 
     public String getWebhookUrl() {
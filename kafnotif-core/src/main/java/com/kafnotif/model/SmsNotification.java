@@ -1,6 +1,7 @@
 package com.kafnotif.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.kafnotif.validation.NotificationValidator;
 
 /**
  * SMS notification specific implementation
@@ -32,10 +33,7 @@ public class SmsNotification extends NotificationEvent {
 
     @Override
     public boolean isValid() {
-        return getRecipient() != null && !getRecipient().trim().isEmpty() &&
-               message != null && !message.trim().isEmpty() &&
-               message.length() <= 1600 && // SMS length limit
-               isValidPhoneNumber(getRecipient());
+        return NotificationValidator.defaults().isValid(this);
     }
 
     @Override
@@ -43,11 +41,6 @@ public class SmsNotification extends NotificationEvent {
         return message;
     }
 
-    private boolean isValidPhoneNumber(String phoneNumber) {
-        // Basic phone number validation - can be enhanced based on requirements
-        return phoneNumber != null && phoneNumber.matches("^\\+?[1-9]\\d{1,14}$");
-    }
-
     // Getters and Setters
     public String getMessage() {
         return message;
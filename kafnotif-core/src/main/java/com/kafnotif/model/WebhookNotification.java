@@ -1,6 +1,9 @@
 package com.kafnotif.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.kafnotif.validation.NotificationValidator;
 
 import java.util.Map;
 
@@ -9,6 +12,8 @@ import java.util.Map;
  */
 public class WebhookNotification extends NotificationEvent {
     
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {};
+    
     @JsonProperty("url")
     private String url;
     
@@ -18,9 +23,13 @@ public class WebhookNotification extends NotificationEvent {
     @JsonProperty("headers")
     private Map<String, String> headers;
     
-    @JsonProperty("payload")
+    @JsonIgnore
     private Map<String, Object> payload;
     
+    // Payload as read from Kafka, sent as is unless getWebhookPayload() is called
+    @JsonIgnore
+    private RawJson rawPayload;
+    
     @JsonProperty("contentType")
     private String contentType = "application/json";
     
@@ -44,24 +53,15 @@ public class WebhookNotification extends NotificationEvent {
 
     @Override
     public boolean isValid() {
-        return url != null && !url.trim().isEmpty() &&
-               method != null && !method.trim().isEmpty() &&
-               payload != null && !payload.isEmpty() &&
-               isValidUrl(url);
+        return NotificationValidator.defaults().isValid(this);
     }
 
     @Override
     public String getContent() {
-        return payload != null ? payload.toString() : "";
-    }
-
-    private boolean isValidUrl(String url) {
-        try {
-            new java.net.URL(url);
-            return true;
-        } catch (Exception e) {
-            return false;
+        if (rawPayload != null) {
+            return rawPayload.toString();
         }
+        return payload != null ? payload.toString() : "";
     }
 
     // Getters and Setters
@@ -89,12 +89,38 @@ public class WebhookNotification extends NotificationEvent {
         this.headers = headers;
     }
 
+    @JsonIgnore
     public Map<String, Object> getWebhookPayload() {
+        if (payload == null && rawPayload != null) {
+            payload = rawPayload.decode(PAYLOAD_TYPE);
+            rawPayload = null;
+        }
         return payload;
     }
 
+    @JsonIgnore
     public void setPayload(Map<String, Object> payload) {
         this.payload = payload;
+        this.rawPayload = null;
+    }
+
+    /**
+     * Get the payload as raw JSON if it came from Kafka and was not accessed since, otherwise null
+     */
+    @JsonIgnore
+    public RawJson getRawPayload() {
+        return rawPayload;
+    }
+
+    @JsonProperty("payload")
+    private Object getPayloadJson() {
+        return payload != null ? payload : rawPayload;
+    }
+
+    @JsonProperty("payload")
+    private void setPayloadJson(RawJson rawPayload) {
+        this.rawPayload = rawPayload;
+        this.payload = null;
     }
 
     public String getContentType() {
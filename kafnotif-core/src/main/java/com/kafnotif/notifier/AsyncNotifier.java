@@ -0,0 +1,33 @@
+package com.kafnotif.notifier;
+
+import com.kafnotif.model.Event;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+/**
+ * Notifier that delivers without blocking the calling thread. The consumer drives async
+ * notifiers directly and acknowledges a record when its stage completes, so no worker thread
+ * waits for the provider; blocking notifiers are run on the consumer's executor through
+ * {@link #adapt(Notifier, Executor)}.
+ */
+public interface AsyncNotifier extends Notifier {
+    
+    /**
+     * Send a notification
+     * @return stage completing with the outcome; it completes exceptionally only on unexpected errors
+     */
+    CompletionStage<SendResult> sendAsync(Event event);
+    
+    /**
+     * Get an async view of a notifier
+     * @param executor runs {@link Notifier#send(Event)} of blocking notifiers
+     * @return the notifier itself if it is already async
+     */
+    static AsyncNotifier adapt(Notifier notifier, Executor executor) {
+        if (notifier instanceof AsyncNotifier) {
+            return (AsyncNotifier) notifier;
+        }
+        return new BlockingNotifierAdapter(notifier, executor);
+    }
+}
@@ -0,0 +1,43 @@
+package com.kafnotif.notifier;
+
+import com.kafnotif.model.Event;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs a blocking notifier on an executor; a send that returns normally counts as delivered.
+ * Invalid arguments are permanent failures, other exceptions retryable ones.
+ */
+class BlockingNotifierAdapter implements AsyncNotifier {
+    
+    private final Notifier notifier;
+    private final Executor executor;
+    
+    BlockingNotifierAdapter(Notifier notifier, Executor executor) {
+        this.notifier = notifier;
+        this.executor = executor;
+    }
+    
+    @Override
+    public CompletionStage<SendResult> sendAsync(Event event) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                notifier.send(event);
+                return SendResult.success();
+            } catch (NotificationSendException e) {
+                return e.getResult();
+            } catch (IllegalArgumentException e) {
+                return SendResult.permanentFailure(e);
+            } catch (Exception e) {
+                return SendResult.failure(e);
+            }
+        }, executor);
+    }
+    
+    @Override
+    public void send(Event event) {
+        notifier.send(event);
+    }
+}
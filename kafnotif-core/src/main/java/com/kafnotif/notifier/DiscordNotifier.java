@@ -43,7 +43,9 @@ public interface DiscordNotifier extends Notifier {
     @Override
     default void send(Event event) {
         if (event instanceof DiscordNotification) {
-            sendDiscordMessage((DiscordNotification) event);
+            if (!sendDiscordMessage((DiscordNotification) event)) {
+                throw new NotificationSendException(SendResult.failure("Discord delivery failed"));
+            }
         } else {
             throw new IllegalArgumentException("Event must be a DiscordNotification");
         }
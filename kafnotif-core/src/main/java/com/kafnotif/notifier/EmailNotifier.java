@@ -36,7 +36,9 @@ public interface EmailNotifier extends Notifier {
     @Override
     default void send(Event event) {
         if (event instanceof EmailNotification) {
-            sendEmail((EmailNotification) event);
+            if (!sendEmail((EmailNotification) event)) {
+                throw new NotificationSendException(SendResult.failure("Email delivery failed"));
+            }
         } else {
             throw new IllegalArgumentException("Event must be an EmailNotification");
         }
@@ -6,6 +6,12 @@ import com.kafnotif.model.NotificationType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
 /**
  * Central processor for handling notification events
  */
@@ -19,12 +25,22 @@ public class NotificationProcessor {
      * @return true if processed successfully, false otherwise
      */
     public static boolean processNotification(NotificationEvent notification) {
+        return processNotification(notification, true);
+    }
+    
+    /**
+     * Process a notification event using the appropriate notifier
+     * @param notification the notification event to process
+     * @param validate false if the caller has already validated the notification
+     * @return true if processed successfully, false otherwise
+     */
+    public static boolean processNotification(NotificationEvent notification, boolean validate) {
         if (notification == null) {
             logger.error("Notification event is null");
             return false;
         }
         
-        if (!notification.isValid()) {
+        if (validate && !notification.isValid()) {
             logger.error("Invalid notification event: {}", notification);
             return false;
         }
@@ -46,8 +62,10 @@ public class NotificationProcessor {
             logger.error("Failed to process notification: {} for recipient: {}. Error: {}", 
                         type, notification.getRecipient(), e.getMessage(), e);
             
-            // Handle retry logic
-            if (notification.getRetryCount() < notification.getMaxRetries()) {
+            // Handle retry logic (permanent failures such as an unknown device token are not retried)
+            boolean retryable = !(e instanceof NotificationSendException)
+                || ((NotificationSendException) e).getResult().isRetryable();
+            if (retryable && notification.getRetryCount() < notification.getMaxRetries()) {
                 notification.setRetryCount(notification.getRetryCount() + 1);
                 logger.info("Scheduling retry {} for notification: {}", 
                            notification.getRetryCount(), notification.getId());
@@ -58,6 +76,61 @@ public class NotificationProcessor {
         }
     }
     
+    /**
+     * Process a notification event without waiting for delivery. Async notifiers are driven
+     * directly; blocking notifiers run on the given executor.
+     * @param notification the notification event to process
+     * @param validate false if the caller has already validated the notification
+     * @param blockingExecutor runs notifiers that do not implement {@link AsyncNotifier}
+     * @return stage completing with the outcome and its latency; failures and errors complete it normally
+     */
+    public static CompletionStage<SendResult> processNotificationAsync(NotificationEvent notification, boolean validate,
+                                                                      Executor blockingExecutor) {
+        if (notification == null) {
+            logger.error("Notification event is null");
+            return CompletableFuture.completedFuture(SendResult.failure("notification is null"));
+        }
+        
+        if (validate && !notification.isValid()) {
+            logger.error("Invalid notification event: {}", notification);
+            return CompletableFuture.completedFuture(SendResult.permanentFailure("invalid notification"));
+        }
+        
+        NotificationType type = notification.getNotificationType();
+        Notifier notifier = NotifierFactory.getNotifier(type);
+        
+        if (notifier == null) {
+            logger.error("No notifier registered for type: {}", type);
+            return CompletableFuture.completedFuture(SendResult.failure("no notifier registered for " + type));
+        }
+        
+        long start = System.nanoTime();
+        CompletionStage<SendResult> delivery;
+        try {
+            delivery = AsyncNotifier.adapt(notifier, blockingExecutor).sendAsync(notification);
+        } catch (Exception e) {
+            delivery = CompletableFuture.failedFuture(e);
+        }
+        
+        return delivery.handle((result, error) -> {
+            if (error != null) {
+                result = SendResult.failure(error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error);
+            }
+            if (result.getLatency() == null) {
+                result = result.withLatency(Duration.ofNanos(System.nanoTime() - start));
+            }
+            if (result.isSuccess()) {
+                logger.info("Successfully processed notification: {} for recipient: {} in {} ms", 
+                           type, notification.getRecipient(), result.getLatency().toMillis());
+            } else {
+                logger.error("Failed to process notification: {} for recipient: {}. Result: {}", 
+                            type, notification.getRecipient(), result);
+            }
+            return result;
+        });
+    }
+    
     /**
      * Process notification with retry handling
      * @param notification the notification event to process
@@ -0,0 +1,19 @@
+package com.kafnotif.notifier;
+
+/**
+ * Thrown by {@link Notifier#send} when a notification was not delivered, carrying the
+ * classified outcome
+ */
+public class NotificationSendException extends RuntimeException {
+    
+    private final SendResult result;
+    
+    public NotificationSendException(SendResult result) {
+        super(result.getMessage(), result.getError());
+        this.result = result;
+    }
+    
+    public SendResult getResult() {
+        return result;
+    }
+}
@@ -43,7 +43,9 @@ public interface PushNotifier extends Notifier {
     @Override
     default void send(Event event) {
         if (event instanceof PushNotification) {
-            sendPushNotification((PushNotification) event);
+            if (!sendPushNotification((PushNotification) event)) {
+                throw new NotificationSendException(SendResult.failure("Push delivery failed"));
+            }
         } else {
             throw new IllegalArgumentException("Event must be a PushNotification");
         }
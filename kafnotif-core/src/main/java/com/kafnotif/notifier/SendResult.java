@@ -0,0 +1,165 @@
+package com.kafnotif.notifier;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.regex.Pattern;
+
+/**
+ * Outcome of one delivery attempt. Failures are classified as retryable (timeouts, throttling,
+ * provider outages) or permanent (invalid token, unknown webhook, rejected payload); the
+ * consumer only retries the former, waiting at least the provider's retry-after hint.
+ */
+public final class SendResult {
+    
+    public enum Status {
+        SENT,
+        FAILED
+    }
+    
+    private static final SendResult SUCCESS = new SendResult(Status.SENT, false, null, null, null, null, null);
+    
+    // delay-seconds of RFC 9110, with an optional fraction; not "Infinity", "NaN", exponents or hex
+    private static final Pattern RETRY_AFTER_SECONDS = Pattern.compile("[0-9]{1,10}(\\.[0-9]+)?");
+    
+    private final Status status;
+    private final boolean retryable;
+    private final String message;
+    private final Throwable error;
+    private final String providerCode;
+    private final Duration latency;
+    private final Duration retryAfter;
+    
+    private SendResult(Status status, boolean retryable, String message, Throwable error,
+                       String providerCode, Duration latency, Duration retryAfter) {
+        this.status = status;
+        this.retryable = retryable;
+        this.message = message;
+        this.error = error;
+        this.providerCode = providerCode;
+        this.latency = latency;
+        this.retryAfter = retryAfter;
+    }
+    
+    public static SendResult success() {
+        return SUCCESS;
+    }
+    
+    /**
+     * A failure that may succeed when retried
+     * @param message why the notification was not delivered
+     */
+    public static SendResult failure(String message) {
+        return new SendResult(Status.FAILED, true, message, null, null, null, null);
+    }
+    
+    /**
+     * A failure caused by an exception, retryable since most are I/O errors and timeouts
+     */
+    public static SendResult failure(Throwable error) {
+        return new SendResult(Status.FAILED, true, error.getMessage(), error, null, null, null);
+    }
+    
+    /**
+     * A failure that will not succeed when retried
+     */
+    public static SendResult permanentFailure(String message) {
+        return new SendResult(Status.FAILED, false, message, null, null, null, null);
+    }
+    
+    public static SendResult permanentFailure(Throwable error) {
+        return new SendResult(Status.FAILED, false, error.getMessage(), error, null, null, null);
+    }
+    
+    /**
+     * Map the boolean outcome of the existing notifier methods; false is treated as retryable
+     * @param failureMessage reported when {@code sent} is false
+     */
+    public static SendResult of(boolean sent, String failureMessage) {
+        return sent ? SUCCESS : failure(failureMessage);
+    }
+    
+    /**
+     * Classify an HTTP response: 2xx is sent; 408, 425, 429 and 5xx are retryable; other
+     * statuses are permanent
+     * @param retryAfterHeader value of the Retry-After header, or null
+     */
+    public static SendResult forHttpStatus(int statusCode, String retryAfterHeader) {
+        if (statusCode >= 200 && statusCode < 300) {
+            return new SendResult(Status.SENT, false, null, null, String.valueOf(statusCode), null, null);
+        }
+        boolean retryable = statusCode == 408 || statusCode == 425 || statusCode == 429 || statusCode >= 500;
+        return new SendResult(Status.FAILED, retryable, "HTTP " + statusCode, null, String.valueOf(statusCode),
+                              null, retryable ? parseRetryAfter(retryAfterHeader) : null);
+    }
+    
+    /**
+     * Parse a Retry-After value in seconds (fractions allowed) or as an HTTP date
+     * @return the delay, or null if absent or unparseable
+     */
+    public static Duration parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        if (RETRY_AFTER_SECONDS.matcher(trimmed).matches()) {
+            return Duration.ofMillis((long) (Double.parseDouble(trimmed) * 1000));
+        }
+        try {
+            Duration delay = Duration.between(ZonedDateTime.now(),
+                ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME));
+            return delay.isNegative() ? Duration.ZERO : delay;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * @param providerCode the provider's status or error code (HTTP status, FCM error code...)
+     */
+    public SendResult withProviderCode(String providerCode) {
+        return new SendResult(status, retryable, message, error, providerCode, latency, retryAfter);
+    }
+    
+    public SendResult withLatency(Duration latency) {
+        return new SendResult(status, retryable, message, error, providerCode, latency, retryAfter);
+    }
+    
+    /**
+     * @param retryAfter how long the provider asked to wait before the next attempt
+     */
+    public SendResult withRetryAfter(Duration retryAfter) {
+        return new SendResult(status, retryable, message, error, providerCode, latency, retryAfter);
+    }
+    
+    public boolean isSuccess() { return status == Status.SENT; }
+    public Status getStatus() { return status; }
+    public boolean isRetryable() { return retryable; }
+    public String getMessage() { return message; }
+    public Throwable getError() { return error; }
+    public String getProviderCode() { return providerCode; }
+    public Duration getLatency() { return latency; }
+    public Duration getRetryAfter() { return retryAfter; }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("SendResult{").append(status);
+        if (status == Status.FAILED) {
+            sb.append(retryable ? ", retryable" : ", permanent");
+            if (message != null) {
+                sb.append(", message=").append(message);
+            }
+        }
+        if (providerCode != null) {
+            sb.append(", providerCode=").append(providerCode);
+        }
+        if (latency != null) {
+            sb.append(", latency=").append(latency.toMillis()).append("ms");
+        }
+        if (retryAfter != null) {
+            sb.append(", retryAfter=").append(retryAfter.toMillis()).append("ms");
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -42,7 +42,9 @@ public interface SlackNotifier extends Notifier {
     @Override
     default void send(Event event) {
         if (event instanceof SlackNotification) {
-            sendSlackMessage((SlackNotification) event);
+            if (!sendSlackMessage((SlackNotification) event)) {
+                throw new NotificationSendException(SendResult.failure("Slack delivery failed"));
+            }
         } else {
             throw new IllegalArgumentException("Event must be a SlackNotification");
         }
@@ -35,7 +35,9 @@ public interface SmsNotifier extends Notifier {
     @Override
     default void send(Event event) {
         if (event instanceof SmsNotification) {
-            sendSms((SmsNotification) event);
+            if (!sendSms((SmsNotification) event)) {
+                throw new NotificationSendException(SendResult.failure("SMS delivery failed"));
+            }
         } else {
             throw new IllegalArgumentException("Event must be an SmsNotification");
         }
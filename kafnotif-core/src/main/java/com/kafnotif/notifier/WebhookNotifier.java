@@ -47,7 +47,9 @@ public interface WebhookNotifier extends Notifier {
     @Override
     default void send(Event event) {
         if (event instanceof WebhookNotification) {
-            sendWebhook((WebhookNotification) event);
+            if (!sendWebhook((WebhookNotification) event)) {
+                throw new NotificationSendException(SendResult.failure("Webhook delivery failed"));
+            }
         } else {
             throw new IllegalArgumentException("Event must be a WebhookNotification");
         }
@@ -0,0 +1,191 @@
+package com.kafnotif.notifier.impl;
+
+import com.kafnotif.config.HttpClientConfig;
+import com.kafnotif.notifier.SendResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking HTTP transport for webhook-style notifiers, built on {@link java.net.http.HttpClient}.
+ * Requests to https endpoints negotiate HTTP/2 (falling back to HTTP/1.1), so concurrent requests
+ * to one host are multiplexed over a single connection. Responses are handled on a few I/O
+ * threads instead of one blocked thread per request.
+ * <p>
+ * In-flight requests are capped at {@link HttpClientConfig#getMaxConnections()}; further requests
+ * queue without blocking the caller.
+ */
+public class AsyncHttpTransport implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AsyncHttpTransport.class);
+    
+    private final HttpClient client;
+    private final ExecutorService executor;
+    private final Duration responseTimeout;
+    private final boolean http2;
+    private final int maxInFlight;
+    
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean shutDown = new AtomicBoolean();
+    private volatile boolean closing;
+    
+    public AsyncHttpTransport(HttpClientConfig config) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(config.getAsyncIoThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "kafnotif-http-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.http2 = config.isHttp2();
+        this.client = HttpClient.newBuilder()
+            .version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+            .connectTimeout(config.getConnectTimeout())
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .executor(executor)
+            .build();
+        this.responseTimeout = config.getResponseTimeout();
+        this.maxInFlight = config.getMaxConnections();
+    }
+    
+    /**
+     * POST a JSON body
+     */
+    public CompletableFuture<HttpResponse<String>> postJson(String url, String body, Map<String, String> headers) {
+        return send("POST", url, body, headers, null);
+    }
+    
+    /**
+     * Send a request; the future completes with the response (of any status) or exceptionally
+     * on I/O errors and timeouts
+     * @param body JSON request body, or null for none
+     * @param timeout response timeout of this request, or null for the configured default
+     */
+    public CompletableFuture<HttpResponse<String>> send(String method, String url, String body,
+                                                        Map<String, String> headers, Duration timeout) {
+        HttpRequest request;
+        try {
+            request = buildRequest(method, url, body, headers, timeout);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        
+        CompletableFuture<HttpResponse<String>> result = new CompletableFuture<>();
+        pending.add(() -> {
+            try {
+                client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        release();
+                        if (error != null) {
+                            result.completeExceptionally(error);
+                        } else {
+                            result.complete(response);
+                        }
+                    });
+            } catch (RuntimeException e) {
+                release();
+                result.completeExceptionally(e);
+            }
+        });
+        drain();
+        return result;
+    }
+    
+    /**
+     * Classify a response by its status and Retry-After header
+     */
+    public static SendResult resultOf(HttpResponse<?> response) {
+        return SendResult.forHttpStatus(response.statusCode(), response.headers().firstValue("Retry-After").orElse(null));
+    }
+    
+    private HttpRequest buildRequest(String method, String url, String body,
+                                     Map<String, String> headers, Duration timeout) {
+        URI uri = URI.create(url);
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+            .timeout(timeout != null ? timeout : responseTimeout)
+            .method(method.toUpperCase(), body != null
+                ? HttpRequest.BodyPublishers.ofString(body)
+                : HttpRequest.BodyPublishers.noBody());
+        // Plain-text endpoints stay on HTTP/1.1 rather than attempting an h2c upgrade
+        if (http2 && !"https".equalsIgnoreCase(uri.getScheme())) {
+            builder.version(HttpClient.Version.HTTP_1_1);
+        }
+        if (body != null) {
+            builder.header("Content-Type", "application/json");
+        }
+        if (headers != null) {
+            headers.forEach((name, value) -> {
+                try {
+                    builder.setHeader(name, value);
+                } catch (IllegalArgumentException e) {
+                    // Connection-level headers (Host, Connection, Content-Length...) are managed by the client
+                    logger.debug("Skipping restricted header {} for {}", name, url);
+                }
+            });
+        }
+        return builder.build();
+    }
+    
+    /**
+     * Start queued requests while below the in-flight limit
+     */
+    private void drain() {
+        while (!pending.isEmpty()) {
+            int current = inFlight.get();
+            if (current >= maxInFlight) {
+                return;
+            }
+            if (!inFlight.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            Runnable task = pending.poll();
+            if (task == null) {
+                inFlight.decrementAndGet();
+                continue;
+            }
+            task.run();
+        }
+    }
+    
+    private void release() {
+        inFlight.decrementAndGet();
+        drain();
+        shutdownIfIdle();
+    }
+    
+    /**
+     * @return requests sent and not yet completed
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+    
+    /**
+     * Shut down once the requests in flight and queued have completed
+     */
+    @Override
+    public void close() {
+        closing = true;
+        shutdownIfIdle();
+    }
+    
+    private void shutdownIfIdle() {
+        if (closing && inFlight.get() == 0 && pending.isEmpty() && shutDown.compareAndSet(false, true)) {
+            client.shutdown();
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,464 @@
+package com.kafnotif.notifier.impl;
+
+import com.kafnotif.blob.ClaimCheck;
+import com.kafnotif.config.AttachmentCacheConfig;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.ContentDisposition;
+import jakarta.mail.internet.ContentType;
+import jakarta.mail.internet.InternetHeaders;
+import jakarta.mail.internet.MimeBodyPart;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URLConnection;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Cache of email attachments encoded as base64 MIME body parts, keyed by SHA-256 of their
+ * content. Campaigns attach the same file to thousands of emails; with the cache each message
+ * gets a new body part sharing the encoded bytes instead of re-reading and re-encoding the file.
+ * Encoded parts above a size threshold are written to disk and memory-mapped rather than kept
+ * on the heap.
+ * <p>
+ * An attachment reference is a {@code data:} URI, or, when the configuration allows it, a file
+ * path or {@code file:} URL under the base directory, or an {@code http(s):} URL on an allowed
+ * host. References come from Kafka records, so nothing else is opened: otherwise any producer
+ * could mail out server files or make the consumer call internal endpoints. Files are re-read
+ * when their size or modification time changes; URLs are fetched once while cached.
+ */
+public class AttachmentCache implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AttachmentCache.class);
+    
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+    private static final byte[] NO_CONTENT = new byte[0];
+    
+    private final AttachmentCacheConfig config;
+    private final Path directory;
+    private final Path baseDirectory;
+    private final Set<String> allowedHosts;
+    
+    // Both maps are guarded by this
+    private final Map<String, EncodedPart> parts = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, IndexEntry> index;
+    private long memoryBytes;
+    
+    public AttachmentCache(AttachmentCacheConfig config) {
+        this.config = config;
+        try {
+            this.directory = config.getDirectory() != null
+                ? Files.createDirectories(config.getDirectory())
+                : Files.createTempDirectory("kafnotif-attachments");
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create attachment cache directory", e);
+        }
+        try {
+            this.baseDirectory = config.getBaseDirectory() != null
+                ? config.getBaseDirectory().toRealPath() : null;
+        } catch (IOException e) {
+            throw new RuntimeException("Attachment base directory does not exist: " + config.getBaseDirectory(), e);
+        }
+        this.allowedHosts = config.getAllowedHosts().stream()
+            .map(host -> host.toLowerCase(Locale.ROOT))
+            .collect(Collectors.toUnmodifiableSet());
+        int indexSize = config.getMaxEntries() * 4;
+        this.index = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IndexEntry> eldest) {
+                return size() > indexSize;
+            }
+        };
+    }
+    
+    /**
+     * Create a body part for an attachment, encoding it only if its content is not cached
+     * @throws java.nio.file.NoSuchFileException if the referenced file does not exist
+     * @throws IllegalArgumentException if the reference is not allowed, malformed or too large
+     */
+    public MimeBodyPart createPart(String reference) throws IOException, MessagingException {
+        return resolve(reference).newPart();
+    }
+    
+    private EncodedPart resolve(String reference) throws IOException, MessagingException {
+        boolean dataUri = reference.startsWith("data:");
+        // Inline content is its own version; keep its hash rather than the content as the key
+        String indexKey = dataUri ? "data:" + sha256(reference.getBytes(StandardCharsets.UTF_8)) : reference;
+        if (reference.startsWith(ClaimCheck.REFERENCE_PREFIX)) {
+            throw new IllegalArgumentException("Unresolved claim-check reference in attachment");
+        }
+        if (dataUri && reference.length() / 4 * 3 > config.getMaxAttachmentBytes()) {
+            throw tooLarge();
+        }
+        boolean url = reference.startsWith("http://") || reference.startsWith("https://");
+        if (url) {
+            checkHost(reference);
+        }
+        Path file = dataUri || url ? null : toPath(reference);
+        String version = file != null ? versionOf(file) : "";
+        
+        synchronized (this) {
+            IndexEntry entry = index.get(indexKey);
+            if (entry != null && entry.version.equals(version)) {
+                EncodedPart part = parts.get(entry.hash);
+                if (part != null) {
+                    return part;
+                }
+            }
+        }
+        
+        Source source = dataUri ? decodeDataUri(reference) : file != null ? read(file) : fetch(reference);
+        String hash = sha256(source.content);
+        synchronized (this) {
+            index.put(indexKey, new IndexEntry(hash, version));
+            EncodedPart part = parts.get(hash);
+            if (part != null) {
+                // Same content under another reference
+                return part;
+            }
+        }
+        
+        EncodedPart part = encode(hash, source);
+        synchronized (this) {
+            EncodedPart existing = parts.putIfAbsent(hash, part);
+            if (existing != null) {
+                return existing;
+            }
+            memoryBytes += part.heapBytes();
+            evict();
+        }
+        return part;
+    }
+    
+    private EncodedPart encode(String hash, Source source) throws IOException, MessagingException {
+        ContentType contentType = new ContentType(source.contentType);
+        contentType.setParameter("name", source.fileName);
+        ContentDisposition disposition = new ContentDisposition("attachment");
+        disposition.setParameter("filename", source.fileName);
+        
+        // Base64 grows content by a third, plus a CRLF every 76 characters
+        long encodedSize = (source.content.length + 2) / 3 * 4 * 78 / 76;
+        if (encodedSize <= config.getMappedThresholdBytes()) {
+            byte[] encoded = Base64.getMimeEncoder().encode(source.content);
+            return new EncodedPart(contentType.toString(), disposition.toString(), encoded, null, null);
+        }
+        
+        Path file = directory.resolve(hash + ".b64");
+        Path tmp = Files.createTempFile(directory, hash, ".tmp");
+        try (OutputStream out = Base64.getMimeEncoder().wrap(Files.newOutputStream(tmp))) {
+            out.write(source.content);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        logger.debug("📎 Mapped encoded attachment {} ({} bytes)", source.fileName, mapped.capacity());
+        return new EncodedPart(contentType.toString(), disposition.toString(), null, mapped, file);
+    }
+    
+    private void evict() {
+        var iterator = parts.values().iterator();
+        while (iterator.hasNext() && parts.size() > 1
+               && (parts.size() > config.getMaxEntries() || memoryBytes > config.getMaxMemoryBytes())) {
+            EncodedPart eldest = iterator.next();
+            iterator.remove();
+            memoryBytes -= eldest.heapBytes();
+            eldest.deleteFile();
+        }
+    }
+    
+    /**
+     * Resolve a file reference, which must stay under the base directory once relative segments
+     * and symbolic links are resolved
+     */
+    private Path toPath(String reference) throws IOException {
+        if (baseDirectory == null) {
+            throw new IllegalArgumentException("File attachments are not enabled (no base directory configured)");
+        }
+        Path path;
+        try {
+            path = reference.startsWith("file:") ? Path.of(URI.create(reference)) : baseDirectory.resolve(reference);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed attachment reference", e);
+        }
+        Path normalized = path.toAbsolutePath().normalize();
+        if (!normalized.startsWith(baseDirectory)) {
+            throw new IllegalArgumentException("Attachment path is outside the base directory");
+        }
+        Path real = normalized.toRealPath();
+        if (!real.startsWith(baseDirectory)) {
+            throw new IllegalArgumentException("Attachment path is outside the base directory");
+        }
+        return real;
+    }
+    
+    private void checkHost(String url) {
+        String host;
+        try {
+            host = URI.create(url).getHost();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed attachment URL", e);
+        }
+        if (host == null || !allowedHosts.contains(host.toLowerCase(Locale.ROOT))) {
+            throw new IllegalArgumentException("Attachment host is not allowed: " + host);
+        }
+    }
+    
+    private IllegalArgumentException tooLarge() {
+        return new IllegalArgumentException("Attachment is larger than " + config.getMaxAttachmentBytes() + " bytes");
+    }
+    
+    private static String versionOf(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        return attributes.size() + ":" + attributes.lastModifiedTime().toMillis();
+    }
+    
+    private Source read(Path file) throws IOException {
+        if (Files.size(file) > config.getMaxAttachmentBytes()) {
+            throw tooLarge();
+        }
+        String fileName = file.getFileName().toString();
+        String contentType = Files.probeContentType(file);
+        return new Source(Files.readAllBytes(file), fileName,
+                          contentType != null ? contentType : guessContentType(fileName));
+    }
+    
+    private Source fetch(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) URI.create(url).toURL().openConnection();
+        connection.setConnectTimeout((int) config.getFetchTimeout().toMillis());
+        connection.setReadTimeout((int) config.getFetchTimeout().toMillis());
+        // A redirect could leave the allowed hosts
+        connection.setInstanceFollowRedirects(false);
+        byte[] content;
+        try {
+            int status = connection.getResponseCode();
+            if (status < 200 || status >= 300) {
+                throw new IOException("Fetching attachment failed with HTTP " + status);
+            }
+            if (connection.getContentLengthLong() > config.getMaxAttachmentBytes()) {
+                throw tooLarge();
+            }
+            try (InputStream in = connection.getInputStream()) {
+                content = in.readNBytes((int) Math.min(Integer.MAX_VALUE - 8, config.getMaxAttachmentBytes() + 1));
+            }
+            if (content.length > config.getMaxAttachmentBytes()) {
+                throw tooLarge();
+            }
+        } finally {
+            connection.disconnect();
+        }
+        String path = URI.create(url).getPath();
+        String fileName = path == null || path.isEmpty() || path.endsWith("/")
+            ? "attachment" : path.substring(path.lastIndexOf('/') + 1);
+        String contentType = connection.getContentType();
+        return new Source(content, fileName, contentType != null ? contentType : guessContentType(fileName));
+    }
+    
+    /**
+     * Decode {@code data:[<media type>][;base64],<data>}; a {@code name} parameter of the media
+     * type becomes the file name
+     */
+    private static Source decodeDataUri(String uri) throws MessagingException {
+        int comma = uri.indexOf(',');
+        if (comma < 0) {
+            throw new IllegalArgumentException("Malformed data URI attachment");
+        }
+        String header = uri.substring(5, comma);
+        boolean base64 = header.endsWith(";base64");
+        if (base64) {
+            header = header.substring(0, header.length() - ";base64".length());
+        }
+        String data = uri.substring(comma + 1);
+        byte[] content = base64
+            ? Base64.getMimeDecoder().decode(data)
+            : URLDecoder.decode(data.replace("+", "%2B"), StandardCharsets.UTF_8).getBytes(StandardCharsets.UTF_8);
+        
+        ContentType contentType = new ContentType(header.isEmpty() ? "text/plain; charset=US-ASCII" : header);
+        String fileName = contentType.getParameter("name");
+        contentType.getParameterList().remove("name");
+        return new Source(content, fileName != null ? fileName : "attachment", contentType.toString());
+    }
+    
+    private static String guessContentType(String fileName) {
+        String contentType = URLConnection.guessContentTypeFromName(fileName);
+        return contentType != null ? contentType : DEFAULT_CONTENT_TYPE;
+    }
+    
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    /**
+     * @return number of cached encoded attachments
+     */
+    public synchronized int size() {
+        return parts.size();
+    }
+    
+    /**
+     * @return heap used by encoded attachments that are not memory-mapped
+     */
+    public synchronized long getMemoryBytes() {
+        return memoryBytes;
+    }
+    
+    /**
+     * Drop cached attachments and delete their mapped files
+     */
+    @Override
+    public synchronized void close() {
+        parts.values().forEach(EncodedPart::deleteFile);
+        parts.clear();
+        index.clear();
+        memoryBytes = 0;
+        if (config.getDirectory() == null) {
+            try {
+                Files.deleteIfExists(directory);
+            } catch (IOException e) {
+                logger.debug("Could not delete attachment cache directory: {}", e.getMessage());
+            }
+        }
+    }
+    
+    private static final class Source {
+        private final byte[] content;
+        private final String fileName;
+        private final String contentType;
+        
+        private Source(byte[] content, String fileName, String contentType) {
+            this.content = content;
+            this.fileName = fileName;
+            this.contentType = contentType;
+        }
+    }
+    
+    private static final class IndexEntry {
+        private final String hash;
+        private final String version;
+        
+        private IndexEntry(String hash, String version) {
+            this.hash = hash;
+            this.version = version;
+        }
+    }
+    
+    /**
+     * An encoded attachment, either on the heap or memory-mapped from a file
+     */
+    private static final class EncodedPart {
+        private final String contentType;
+        private final String disposition;
+        private final byte[] encoded;
+        private final MappedByteBuffer mapped;
+        private final Path file;
+        
+        private EncodedPart(String contentType, String disposition, byte[] encoded, MappedByteBuffer mapped, Path file) {
+            this.contentType = contentType;
+            this.disposition = disposition;
+            this.encoded = encoded;
+            this.mapped = mapped;
+            this.file = file;
+        }
+        
+        private MimeBodyPart newPart() throws MessagingException {
+            InternetHeaders headers = new InternetHeaders();
+            headers.setHeader("Content-Type", contentType);
+            headers.setHeader("Content-Disposition", disposition);
+            headers.setHeader("Content-Transfer-Encoding", "base64");
+            return encoded != null ? new MimeBodyPart(headers, encoded) : new MappedBodyPart(headers, mapped);
+        }
+        
+        private long heapBytes() {
+            return encoded != null ? encoded.length : 0;
+        }
+        
+        private void deleteFile() {
+            if (file == null) {
+                return;
+            }
+            try {
+                // Messages still being written keep their mapping
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.debug("Could not delete cached attachment {}: {}", file, e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Body part whose already-encoded content is read from a memory-mapped file
+     */
+    private static final class MappedBodyPart extends MimeBodyPart {
+        private final ByteBuffer mapped;
+        
+        private MappedBodyPart(InternetHeaders headers, ByteBuffer mapped) throws MessagingException {
+            super(headers, NO_CONTENT);
+            this.mapped = mapped;
+        }
+        
+        @Override
+        protected InputStream getContentStream() {
+            return new ByteBufferInputStream(mapped.duplicate());
+        }
+        
+        @Override
+        public int getSize() {
+            return mapped.capacity();
+        }
+    }
+    
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+        
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+        
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+        
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+        
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.kafnotif.notifier.impl;
+
+import com.google.firebase.messaging.Message;
+import com.kafnotif.config.PushBatchConfig;
+import com.kafnotif.model.Event;
+import com.kafnotif.model.PushNotification;
+import com.kafnotif.notifier.AsyncNotifier;
+import com.kafnotif.notifier.PushNotifier;
+import com.kafnotif.notifier.SendResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Batching stage in front of {@link FirebasePushNotifier}. Push notifications from the consumer
+ * are collected for a short linger time, up to 500, and sent with one {@code sendEach} call
+ * instead of one HTTP round trip each. Each notification completes with its own message's
+ * outcome, so acks and retries stay per notification.
+ * <p>
+ * Synchronous sends go straight to the delegate.
+ */
+public class BatchingPushNotifier implements PushNotifier, AsyncNotifier, AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BatchingPushNotifier.class);
+    
+    private final FirebasePushNotifier delegate;
+    private final PushBatchConfig config;
+    private final ScheduledExecutorService timer;
+    // Batches sent to FCM and not yet answered, awaited on close
+    private final Set<CompletableFuture<?>> inFlight = ConcurrentHashMap.newKeySet();
+    
+    // Guarded by this
+    private List<Pending> batch = new ArrayList<>();
+    
+    public BatchingPushNotifier(FirebasePushNotifier delegate) {
+        this(delegate, new PushBatchConfig());
+    }
+    
+    public BatchingPushNotifier(FirebasePushNotifier delegate, PushBatchConfig config) {
+        this.delegate = delegate;
+        this.config = config;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kafnotif-push-batching");
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("🔔 Batching push notifications (linger {} ms, up to {} per batch)",
+                   config.getLinger().toMillis(), config.getMaxBatchSize());
+    }
+    
+    @Override
+    public CompletionStage<SendResult> sendAsync(Event event) {
+        if (!(event instanceof PushNotification)) {
+            return CompletableFuture.completedFuture(
+                SendResult.permanentFailure("Event must be a PushNotification"));
+        }
+        PushNotification notification = (PushNotification) event;
+        SendResult known = delegate.knownInvalid(notification);
+        if (known != null) {
+            return CompletableFuture.completedFuture(known);
+        }
+        Message message;
+        try {
+            message = delegate.buildMessage(notification);
+        } catch (IllegalArgumentException e) {
+            // No device token, or an invalid message
+            return CompletableFuture.completedFuture(SendResult.permanentFailure(e));
+        }
+        
+        CompletableFuture<SendResult> future = new CompletableFuture<>();
+        List<Pending> full = null;
+        synchronized (this) {
+            batch.add(new Pending(message, notification.getDeviceToken(), future));
+            if (batch.size() == 1) {
+                List<Pending> started = batch;
+                timer.schedule(() -> flush(started), config.getLinger().toMillis(), TimeUnit.MILLISECONDS);
+            }
+            if (batch.size() >= config.getMaxBatchSize()) {
+                full = batch;
+                batch = new ArrayList<>();
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return future;
+    }
+    
+    /**
+     * Send a batch whose linger time has elapsed, unless it was already sent for being full
+     */
+    private void flush(List<Pending> expected) {
+        synchronized (this) {
+            if (batch != expected) {
+                return;
+            }
+            batch = new ArrayList<>();
+        }
+        dispatch(expected);
+    }
+    
+    private void dispatch(List<Pending> pending) {
+        List<Message> messages = new ArrayList<>(pending.size());
+        List<String> deviceTokens = new ArrayList<>(pending.size());
+        for (Pending p : pending) {
+            messages.add(p.message);
+            deviceTokens.add(p.deviceToken);
+        }
+        CompletableFuture<List<SendResult>> sent = delegate.sendEachAsync(messages, deviceTokens);
+        inFlight.add(sent);
+        sent.whenComplete((results, error) -> {
+            inFlight.remove(sent);
+            for (int i = 0; i < pending.size(); i++) {
+                SendResult result = error == null && i < results.size()
+                    ? results.get(i) : SendResult.failure("No outcome for push notification in batch");
+                pending.get(i).future.complete(result);
+            }
+        });
+    }
+    
+    /**
+     * @return push notifications waiting for their batch to be sent
+     */
+    public synchronized int getPendingCount() {
+        return batch.size();
+    }
+    
+    @Override
+    public boolean sendPushNotification(PushNotification notification) {
+        return delegate.sendPushNotification(notification);
+    }
+    
+    @Override
+    public boolean sendSimplePush(String deviceToken, String title, String body) {
+        return delegate.sendSimplePush(deviceToken, title, body);
+    }
+    
+    @Override
+    public boolean sendPushToMultipleDevices(String[] deviceTokens, String title, String body) {
+        return delegate.sendPushToMultipleDevices(deviceTokens, title, body);
+    }
+    
+    @Override
+    public boolean sendPushWithData(PushNotification notification) {
+        return delegate.sendPushWithData(notification);
+    }
+    
+    @Override
+    public void send(Event event) {
+        delegate.send(event);
+    }
+    
+    /**
+     * Send the pending batch, stop the linger timer and wait up to 10 seconds for batches in
+     * flight. The delegate is left open.
+     */
+    @Override
+    public void close() {
+        timer.shutdownNow();
+        List<Pending> pending;
+        synchronized (this) {
+            pending = batch;
+            batch = new ArrayList<>();
+        }
+        if (!pending.isEmpty()) {
+            dispatch(pending);
+        }
+        try {
+            // Failed batches were already completed with their failure
+            CompletableFuture.allOf(inFlight.toArray(new CompletableFuture<?>[0]))
+                .exceptionally(e -> null)
+                .get(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            logger.warn("⚠️ {} push batches still in flight on close", inFlight.size());
+        }
+    }
+    
+    private static final class Pending {
+        private final Message message;
+        private final String deviceToken;
+        private final CompletableFuture<SendResult> future;
+        
+        private Pending(Message message, String deviceToken, CompletableFuture<SendResult> future) {
+            this.message = message;
+            this.deviceToken = deviceToken;
+            this.future = future;
+        }
+    }
+}
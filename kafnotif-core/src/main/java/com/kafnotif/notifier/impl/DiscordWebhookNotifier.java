@@ -4,11 +4,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kafnotif.util.JsonUtils;
 import com.kafnotif.model.DiscordNotification;
 import com.kafnotif.model.Event;
+import com.kafnotif.notifier.AsyncNotifier;
 import com.kafnotif.notifier.DiscordNotifier;
+import com.kafnotif.notifier.SendResult;
+import com.kafnotif.notifier.NotificationSendException;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.io.entity.StringEntity;
 import org.slf4j.Logger;
@@ -17,16 +19,19 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Discord Webhook implementation of DiscordNotifier
  */
-public class DiscordWebhookNotifier implements DiscordNotifier {
+public class DiscordWebhookNotifier implements DiscordNotifier, AsyncNotifier {
     
     private static final Logger logger = LoggerFactory.getLogger(DiscordWebhookNotifier.class);
     
     private final String webhookUrl;
     private final CloseableHttpClient httpClient;
+    private final boolean ownsHttpClient;
     private final ObjectMapper objectMapper;
     
     /**
@@ -34,8 +39,9 @@ public class DiscordWebhookNotifier implements DiscordNotifier {
      */
     public DiscordWebhookNotifier(String webhookUrl) {
         this.webhookUrl = webhookUrl;
-        this.httpClient = HttpClients.createDefault();
-        this.objectMapper = JsonUtils.createObjectMapper();
+        this.httpClient = SharedHttpClient.get();
+        this.ownsHttpClient = false;
+        this.objectMapper = JsonUtils.sharedObjectMapper();
     }
     
     /**
@@ -44,31 +50,14 @@ public class DiscordWebhookNotifier implements DiscordNotifier {
     public DiscordWebhookNotifier(String webhookUrl, CloseableHttpClient httpClient) {
         this.webhookUrl = webhookUrl;
         this.httpClient = httpClient;
-        this.objectMapper = JsonUtils.createObjectMapper();
+        this.ownsHttpClient = true;
+        this.objectMapper = JsonUtils.sharedObjectMapper();
     }
     
     @Override
     public boolean sendDiscordMessage(DiscordNotification notification) {
         try {
-            Map<String, Object> payload = new HashMap<>();
-            payload.put("content", notification.getContent());
-            
-            if (notification.getUsername() != null) {
-                payload.put("username", notification.getUsername());
-            }
-            
-            if (notification.getAvatarUrl() != null) {
-                payload.put("avatar_url", notification.getAvatarUrl());
-            }
-            
-            if (notification.isTts()) {
-                payload.put("tts", true);
-            }
-            
-            // Add embeds if present
-            if (notification.getEmbeds() != null && !notification.getEmbeds().isEmpty()) {
-                payload.put("embeds", notification.getEmbeds());
-            }
+            Map<String, Object> payload = buildPayload(notification);
             
             // Add webhook URL if specified
             if (notification.getWebhookUrl() != null) {
@@ -83,6 +72,69 @@ public class DiscordWebhookNotifier implements DiscordNotifier {
         }
     }
     
+    /**
+     * Send a Discord message through the shared non-blocking transport
+     * @return future completing with true if Discord accepted the message
+     */
+    public CompletableFuture<Boolean> sendDiscordMessageAsync(DiscordNotification notification) {
+        return deliverAsync(notification).thenApply(SendResult::isSuccess);
+    }
+    
+    private CompletableFuture<SendResult> deliverAsync(DiscordNotification notification) {
+        String url = notification.getWebhookUrl() != null ? notification.getWebhookUrl() : webhookUrl;
+        String jsonBody;
+        try {
+            jsonBody = objectMapper.writeValueAsString(buildPayload(notification));
+        } catch (Exception e) {
+            logger.error("Failed to serialize Discord message", e);
+            return CompletableFuture.completedFuture(SendResult.permanentFailure(e));
+        }
+        
+        return SharedHttpClient.async().postJson(url, jsonBody, null)
+            .handle((response, error) -> {
+                if (error != null) {
+                    logger.error("Failed to send Discord webhook: {}", error.getMessage());
+                    return SendResult.failure(error);
+                }
+                SendResult result = AsyncHttpTransport.resultOf(response);
+                if (result.isSuccess()) {
+                    logger.info("Discord message sent successfully. Status: {}", response.statusCode());
+                    return result;
+                }
+                logger.error("Discord message failed. Status: {}", response.statusCode());
+                return result;
+            });
+    }
+    
+    private Map<String, Object> buildPayload(DiscordNotification notification) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("content", notification.getContent());
+        
+        if (notification.getUsername() != null) {
+            payload.put("username", notification.getUsername());
+        }
+        
+        if (notification.getAvatarUrl() != null) {
+            payload.put("avatar_url", notification.getAvatarUrl());
+        }
+        
+        if (notification.isTts()) {
+            payload.put("tts", true);
+        }
+        
+        // Add embeds if present
+        if (notification.getRawEmbeds() != null) {
+            // Spliced into the request body as received, without binding
+            if (!notification.getRawEmbeds().isEmpty()) {
+                payload.put("embeds", notification.getRawEmbeds());
+            }
+        } else if (notification.getEmbeds() != null && !notification.getEmbeds().isEmpty()) {
+            payload.put("embeds", notification.getEmbeds());
+        }
+        
+        return payload;
+    }
+    
     @Override
     public boolean sendSimpleMessage(String webhookUrl, String content) {
         DiscordNotification notification = new DiscordNotification();
@@ -109,12 +161,22 @@ public class DiscordWebhookNotifier implements DiscordNotifier {
     @Override
     public void send(Event event) {
         if (event instanceof DiscordNotification) {
-            sendDiscordMessage((DiscordNotification) event);
+            if (!sendDiscordMessage((DiscordNotification) event)) {
+                throw new NotificationSendException(SendResult.failure("Discord delivery failed"));
+            }
         } else {
             throw new IllegalArgumentException("Event must be a DiscordNotification");
         }
     }
     
+    @Override
+    public CompletionStage<SendResult> sendAsync(Event event) {
+        if (!(event instanceof DiscordNotification)) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Event must be a DiscordNotification"));
+        }
+        return deliverAsync((DiscordNotification) event);
+    }
+    
     private boolean sendDiscordWebhook(Map<String, Object> payload) {
         String url = webhookUrl; // Use default webhook URL
         
@@ -147,10 +209,10 @@ public class DiscordWebhookNotifier implements DiscordNotifier {
     }
     
     /**
-     * Close the HTTP client
+     * Close the HTTP client if it was passed to this notifier
      */
     public void close() throws IOException {
-        if (httpClient != null) {
+        if (httpClient != null && ownsHttpClient) {
             httpClient.close();
         }
     }
@@ -1,43 +1,86 @@
 package com.kafnotif.notifier.impl;
 
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.apache.v2.ApacheHttpTransport;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
+import com.google.firebase.ThreadManager;
 import com.google.firebase.messaging.*;
+import com.kafnotif.config.FirebaseTransportConfig;
 import com.kafnotif.model.Event;
 import com.kafnotif.model.PushNotification;
+import com.kafnotif.notifier.AsyncNotifier;
 import com.kafnotif.notifier.PushNotifier;
+import com.kafnotif.notifier.NotificationSendException;
+import com.kafnotif.notifier.SendResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
- * Firebase Cloud Messaging implementation of PushNotifier
+ * Firebase Cloud Messaging implementation of PushNotifier. Async sends use the Firebase
+ * executor and complete when FCM answers, so consumer workers do not wait on them; apps created
+ * from a service account get a pooled HTTP transport sized by {@link FirebaseTransportConfig}.
+ * With an {@link InvalidTokenCache}, sends to tokens FCM already rejected fail without a call.
  */
-public class FirebasePushNotifier implements PushNotifier {
+public class FirebasePushNotifier implements PushNotifier, AsyncNotifier, AutoCloseable {
     
     private static final Logger logger = LoggerFactory.getLogger(FirebasePushNotifier.class);
     
     private final FirebaseMessaging firebaseMessaging;
+    // The app this notifier created from a service account, deleted on close (null otherwise)
+    private final FirebaseApp ownedApp;
+    private volatile InvalidTokenCache invalidTokenCache;
     
     /**
      * Constructor with service account JSON file path
      */
     public FirebasePushNotifier(String serviceAccountPath) throws IOException {
-        this.firebaseMessaging = initializeFirebase(serviceAccountPath);
+        this(serviceAccountPath, new FirebaseTransportConfig());
+    }
+    
+    /**
+     * Constructor with service account JSON file path and HTTP transport settings
+     */
+    public FirebasePushNotifier(String serviceAccountPath, FirebaseTransportConfig transportConfig) throws IOException {
+        this.ownedApp = initializeFirebase(serviceAccountPath, transportConfig);
+        this.firebaseMessaging = FirebaseMessaging.getInstance(ownedApp);
     }
     
     /**
      * Constructor with service account JSON as InputStream
      */
     public FirebasePushNotifier(InputStream serviceAccountStream) throws IOException {
-        this.firebaseMessaging = initializeFirebase(serviceAccountStream);
+        this(serviceAccountStream, new FirebaseTransportConfig());
+    }
+    
+    /**
+     * Constructor with service account JSON as InputStream and HTTP transport settings
+     */
+    public FirebasePushNotifier(InputStream serviceAccountStream, FirebaseTransportConfig transportConfig) throws IOException {
+        this.ownedApp = initializeFirebase(serviceAccountStream, transportConfig);
+        this.firebaseMessaging = FirebaseMessaging.getInstance(ownedApp);
     }
     
     /**
@@ -45,6 +88,7 @@ public class FirebasePushNotifier implements PushNotifier {
      */
     public FirebasePushNotifier() {
         this.firebaseMessaging = FirebaseMessaging.getInstance();
+        this.ownedApp = null;
     }
     
     /**
@@ -52,67 +96,274 @@ public class FirebasePushNotifier implements PushNotifier {
      */
     public FirebasePushNotifier(FirebaseApp firebaseApp) {
         this.firebaseMessaging = FirebaseMessaging.getInstance(firebaseApp);
+        this.ownedApp = null;
     }
     
     /**
      * Initialize Firebase with service account file
      */
-    private FirebaseMessaging initializeFirebase(String serviceAccountPath) throws IOException {
+    private FirebaseApp initializeFirebase(String serviceAccountPath, FirebaseTransportConfig transportConfig)
+            throws IOException {
         try (FileInputStream serviceAccount = new FileInputStream(serviceAccountPath)) {
-            return initializeFirebase(serviceAccount);
+            return initializeFirebase(serviceAccount, transportConfig);
         }
     }
     
     /**
      * Initialize Firebase with service account InputStream
      */
-    private FirebaseMessaging initializeFirebase(InputStream serviceAccountStream) throws IOException {
+    private FirebaseApp initializeFirebase(InputStream serviceAccountStream, FirebaseTransportConfig transportConfig)
+            throws IOException {
         FirebaseOptions options = FirebaseOptions.builder()
             .setCredentials(GoogleCredentials.fromStream(serviceAccountStream))
+            .setHttpTransport(createHttpTransport(transportConfig))
+            .setThreadManager(new DaemonThreadManager())
+            .setConnectTimeout((int) transportConfig.getConnectTimeout().toMillis())
+            .setReadTimeout((int) transportConfig.getReadTimeout().toMillis())
             .build();
         
         // Use a unique app name to avoid conflicts
         String appName = "kafnotif-" + System.currentTimeMillis();
-        FirebaseApp app = FirebaseApp.initializeApp(options, appName);
+        return FirebaseApp.initializeApp(options, appName);
+    }
+    
+    /**
+     * Delete the Firebase app created by this notifier and close its connection pool. Apps
+     * passed in by the application are left alone.
+     */
+    @Override
+    public void close() {
+        if (ownedApp == null) {
+            return;
+        }
+        try {
+            HttpTransport transport = ownedApp.getOptions().getHttpTransport();
+            ownedApp.delete();
+            transport.shutdown();
+        } catch (Exception e) {
+            logger.warn("Failed to close Firebase app {}: {}", ownedApp.getName(), e.getMessage());
+        }
+    }
+    
+    /**
+     * Remember tokens FCM rejects as unregistered or invalid, and skip further sends to them
+     */
+    public void setInvalidTokenCache(InvalidTokenCache invalidTokenCache) {
+        this.invalidTokenCache = invalidTokenCache;
+    }
+    
+    /**
+     * Apache HTTP transport whose connection pool allows the configured number of connections
+     * to FCM (the default transport allows 20 per host)
+     */
+    private static ApacheHttpTransport createHttpTransport(FirebaseTransportConfig config) {
+        return new ApacheHttpTransport(ApacheHttpTransport.newDefaultHttpClientBuilder()
+            .setMaxConnTotal(config.getMaxConnections())
+            .setMaxConnPerRoute(config.getMaxConnections())
+            .evictIdleConnections(config.getIdleTimeout().toMillis(), TimeUnit.MILLISECONDS)
+            .build());
+    }
+    
+    @Override
+    public CompletionStage<SendResult> sendAsync(Event event) {
+        if (!(event instanceof PushNotification)) {
+            return CompletableFuture.completedFuture(
+                SendResult.permanentFailure("Event must be a PushNotification"));
+        }
+        PushNotification notification = (PushNotification) event;
+        SendResult known = knownInvalid(notification);
+        if (known != null) {
+            return CompletableFuture.completedFuture(known);
+        }
+        Message message;
+        try {
+            message = buildMessage(notification);
+        } catch (IllegalArgumentException e) {
+            // No device token, or an invalid message
+            return CompletableFuture.completedFuture(SendResult.permanentFailure(e));
+        }
         
-        return FirebaseMessaging.getInstance(app);
+        return call(() -> firebaseMessaging.sendAsync(message)).handle((response, error) -> {
+            if (error != null) {
+                logger.error("Failed to send push notification to device: {}", notification.getDeviceToken(), error);
+                return failureFor(notification.getDeviceToken(), error);
+            }
+            logger.info("Push notification sent successfully. Response: {}", response);
+            return SendResult.success();
+        });
     }
     
     @Override
     public boolean sendPushNotification(PushNotification notification) {
+        return deliver(notification).isSuccess();
+    }
+    
+    private SendResult deliver(PushNotification notification) {
+        SendResult known = knownInvalid(notification);
+        if (known != null) {
+            return known;
+        }
         try {
-            Message.Builder messageBuilder = Message.builder()
-                .setToken(notification.getDeviceToken())
-                .setNotification(Notification.builder()
-                    .setTitle(notification.getTitle())
-                    .setBody(notification.getBody())
-                    .setImage(notification.getIcon()) // Using icon as image
-                    .build());
-            
-            // Add custom data if present
-            if (notification.getData() != null && !notification.getData().isEmpty()) {
-                messageBuilder.putAllData(notification.getData());
-            }
-            
-            // Configure platform-specific options based on platform
-            if (notification.getPlatform() == PushNotification.PushPlatform.ANDROID) {
-                messageBuilder.setAndroidConfig(buildAndroidConfig(notification));
-            }
-            
-            if (notification.getPlatform() == PushNotification.PushPlatform.IOS) {
-                messageBuilder.setApnsConfig(buildApnsConfig(notification));
-            }
-            
-            Message message = messageBuilder.build();
+            Message message = buildMessage(notification);
             String response = firebaseMessaging.send(message);
             
             logger.info("Push notification sent successfully. Response: {}", response);
-            return true;
+            return SendResult.success();
             
         } catch (FirebaseMessagingException e) {
             logger.error("Failed to send push notification to device: {}", notification.getDeviceToken(), e);
+            return failureFor(notification.getDeviceToken(), e);
+        }
+    }
+    
+    /**
+     * Send up to 500 messages with one {@code sendEach} call, without blocking the caller
+     * @param deviceTokens the token of each message, in order
+     * @return future of the outcome of each message, in order; it does not complete exceptionally
+     */
+    CompletableFuture<List<SendResult>> sendEachAsync(List<Message> messages, List<String> deviceTokens) {
+        return call(() -> firebaseMessaging.sendEachAsync(messages)).handle((response, error) -> {
+            if (error != null) {
+                // The whole call failed (auth, network): every message shares the outcome
+                logger.error("Failed to send batch of {} push notifications", messages.size(), error);
+                return Collections.nCopies(messages.size(), resultOf(error));
+            }
+            List<SendResult> results = new ArrayList<>(messages.size());
+            List<SendResponse> responses = response.getResponses();
+            for (int i = 0; i < responses.size(); i++) {
+                SendResponse sendResponse = responses.get(i);
+                results.add(sendResponse.isSuccessful()
+                    ? SendResult.success() : failureFor(deviceTokens.get(i), sendResponse.getException()));
+            }
+            logger.info("Push notification batch sent. Success: {}, Failure: {}",
+                       response.getSuccessCount(), response.getFailureCount());
+            return results;
+        });
+    }
+    
+    /**
+     * Start a Firebase call and bridge its ApiFuture; an exception thrown while starting it
+     * fails the returned future
+     */
+    private static <T> CompletableFuture<T> call(Supplier<ApiFuture<T>> request) {
+        ApiFuture<T> apiFuture;
+        try {
+            apiFuture = request.get();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<T> future = new CompletableFuture<>();
+        ApiFutures.addCallback(apiFuture, new ApiFutureCallback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                future.complete(result);
+            }
+            
+            @Override
+            public void onFailure(Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }, Runnable::run);
+        return future;
+    }
+    
+    /**
+     * Build the FCM message for a notification
+     */
+    Message buildMessage(PushNotification notification) {
+        Message.Builder messageBuilder = Message.builder()
+            .setToken(notification.getDeviceToken())
+            .setNotification(Notification.builder()
+                .setTitle(notification.getTitle())
+                .setBody(notification.getBody())
+                .setImage(notification.getIcon()) // Using icon as image
+                .build());
+        
+        // Add custom data if present
+        if (notification.getData() != null && !notification.getData().isEmpty()) {
+            messageBuilder.putAllData(notification.getData());
+        }
+        
+        // Configure platform-specific options based on platform
+        if (notification.getPlatform() == PushNotification.PushPlatform.ANDROID) {
+            messageBuilder.setAndroidConfig(buildAndroidConfig(notification));
+        }
+        
+        if (notification.getPlatform() == PushNotification.PushPlatform.IOS) {
+            messageBuilder.setApnsConfig(buildApnsConfig(notification));
+        }
+        
+        return messageBuilder.build();
+    }
+    
+    /**
+     * @return the cached failure if the notification's token is known to be invalid, otherwise null
+     */
+    SendResult knownInvalid(PushNotification notification) {
+        InvalidTokenCache cache = invalidTokenCache;
+        SendResult known = cache != null ? cache.lookup(notification.getDeviceToken()) : null;
+        if (known != null) {
+            logger.debug("Skipping push notification to invalid device token");
+        }
+        return known;
+    }
+    
+    /**
+     * Classify the failure of a send to one token, remembering the token if FCM rejected it
+     */
+    private SendResult failureFor(String deviceToken, Throwable error) {
+        SendResult result = resultOf(error);
+        InvalidTokenCache cache = invalidTokenCache;
+        if (cache != null && deviceToken != null && isInvalidToken(error)) {
+            cache.recordInvalid(deviceToken, result);
+        }
+        return result;
+    }
+    
+    /**
+     * INVALID_ARGUMENT also covers malformed payloads, so it only condemns the token when FCM
+     * says the token is what is invalid
+     */
+    private static boolean isInvalidToken(Throwable error) {
+        if (!(error instanceof FirebaseMessagingException)) {
             return false;
         }
+        MessagingErrorCode code = ((FirebaseMessagingException) error).getMessagingErrorCode();
+        if (code == MessagingErrorCode.UNREGISTERED || code == MessagingErrorCode.SENDER_ID_MISMATCH) {
+            return true;
+        }
+        return code == MessagingErrorCode.INVALID_ARGUMENT && error.getMessage() != null
+            && error.getMessage().toLowerCase(Locale.ROOT).contains("registration token");
+    }
+    
+    private static SendResult resultOf(Throwable error) {
+        return error instanceof FirebaseMessagingException
+            ? resultOf((FirebaseMessagingException) error) : SendResult.failure(error);
+    }
+    
+    /**
+     * Classify an FCM error: a token that is unregistered, malformed or belongs to another
+     * sender will never succeed; quota and availability errors are retryable
+     */
+    private static SendResult resultOf(FirebaseMessagingException e) {
+        MessagingErrorCode code = e.getMessagingErrorCode();
+        boolean permanent = code == MessagingErrorCode.UNREGISTERED
+            || code == MessagingErrorCode.INVALID_ARGUMENT
+            || code == MessagingErrorCode.SENDER_ID_MISMATCH
+            || code == MessagingErrorCode.THIRD_PARTY_AUTH_ERROR;
+        SendResult result = permanent ? SendResult.permanentFailure(e) : SendResult.failure(e);
+        
+        String retryAfter = null;
+        if (e.getHttpResponse() != null) {
+            Object header = e.getHttpResponse().getHeaders().get("retry-after");
+            if (header instanceof List && !((List<?>) header).isEmpty()) {
+                header = ((List<?>) header).get(0);
+            }
+            retryAfter = header != null ? header.toString() : null;
+        }
+        return result
+            .withProviderCode(code != null ? code.name() : e.getErrorCode().name())
+            .withRetryAfter(permanent ? null : SendResult.parseRetryAfter(retryAfter));
     }
     
     @Override
@@ -166,7 +417,10 @@ public class FirebasePushNotifier implements PushNotifier {
     @Override
     public void send(Event event) {
         if (event instanceof PushNotification) {
-            sendPushNotification((PushNotification) event);
+            SendResult result = deliver((PushNotification) event);
+            if (!result.isSuccess()) {
+                throw new NotificationSendException(result);
+            }
         } else {
             throw new IllegalArgumentException("Event must be a PushNotification");
         }
@@ -200,4 +454,35 @@ public class FirebasePushNotifier implements PushNotifier {
         
         return builder.build();
     }
+    
+    /**
+     * Runs Firebase calls on virtual threads. The executor must not be bounded:
+     * {@code sendEachAsync} runs a task that submits one task per message to the same executor
+     * and blocks until they finish, so a fixed pool deadlocks once every thread holds a batch.
+     * A virtual thread blocked on the connection pool costs no OS thread, so a batch of 500
+     * messages waits on the pool's 50 connections without starting 500 platform threads.
+     * Other Firebase background work uses named daemon threads.
+     */
+    private static final class DaemonThreadManager extends ThreadManager {
+        private final AtomicInteger threadCount = new AtomicInteger();
+        
+        @Override
+        protected ExecutorService getExecutor(FirebaseApp app) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("kafnotif-firebase-worker-", 0).factory());
+        }
+        
+        @Override
+        protected void releaseExecutor(FirebaseApp app, ExecutorService executor) {
+            executor.shutdownNow();
+        }
+        
+        @Override
+        protected ThreadFactory getThreadFactory() {
+            return runnable -> {
+                Thread thread = new Thread(runnable, "kafnotif-firebase-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+    }
 }
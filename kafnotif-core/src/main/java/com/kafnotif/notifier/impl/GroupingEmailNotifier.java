@@ -0,0 +1,259 @@
+package com.kafnotif.notifier.impl;
+
+import com.kafnotif.config.EmailGroupingConfig;
+import com.kafnotif.model.EmailNotification;
+import com.kafnotif.model.Event;
+import com.kafnotif.notifier.AsyncNotifier;
+import com.kafnotif.notifier.EmailNotifier;
+import com.kafnotif.notifier.NotificationSendException;
+import com.kafnotif.notifier.SendResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in grouping stage in front of {@link JavaMailEmailNotifier}. Emails with identical
+ * content sent within a short window are grouped by recipient domain, and each group is sent as
+ * one message with a RCPT TO per recipient, so the message is built and transmitted once
+ * instead of once per recipient. No recipient appears in the headers of a grouped message.
+ * <p>
+ * Only emails without CC or BCC are grouped; others, and all synchronous sends, go straight
+ * to the delegate. Each email still completes with its own recipient's outcome.
+ */
+public class GroupingEmailNotifier implements EmailNotifier, AsyncNotifier, AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(GroupingEmailNotifier.class);
+    
+    private final JavaMailEmailNotifier delegate;
+    private final EmailGroupingConfig config;
+    private final Map<GroupKey, Group> groups = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer;
+    // SMTP sends block; the transport pool bounds how many run at once
+    private final ExecutorService sender = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("kafnotif-email-group-", 0).factory());
+    
+    public GroupingEmailNotifier(JavaMailEmailNotifier delegate) {
+        this(delegate, new EmailGroupingConfig());
+    }
+    
+    public GroupingEmailNotifier(JavaMailEmailNotifier delegate, EmailGroupingConfig config) {
+        this.delegate = delegate;
+        this.config = config;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kafnotif-email-grouping");
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("📧 Grouping identical emails per recipient domain (window {} ms, max {} recipients per message)",
+                   config.getWindow().toMillis(), config.getMaxRecipientsPerMessage());
+    }
+    
+    @Override
+    public CompletionStage<SendResult> sendAsync(Event event) {
+        if (!(event instanceof EmailNotification)) {
+            return CompletableFuture.completedFuture(
+                SendResult.permanentFailure("Event must be an EmailNotification"));
+        }
+        EmailNotification email = (EmailNotification) event;
+        if (!isGroupable(email)) {
+            return CompletableFuture.supplyAsync(() -> sendDirect(email), sender);
+        }
+        
+        CompletableFuture<SendResult> future = new CompletableFuture<>();
+        GroupKey key = new GroupKey(email);
+        groups.compute(key, (k, group) -> {
+            if (group != null && group.recipients.contains(email.getRecipient())) {
+                // The same email twice to one recipient: send both rather than merging them
+                dispatch(group);
+                group = null;
+            }
+            if (group == null) {
+                Group created = new Group(email);
+                timer.schedule(() -> flush(k, created), config.getWindow().toMillis(), TimeUnit.MILLISECONDS);
+                group = created;
+            }
+            group.add(email.getRecipient(), future);
+            if (group.size() >= config.getMaxRecipientsPerMessage()) {
+                dispatch(group);
+                return null;
+            }
+            return group;
+        });
+        return future;
+    }
+    
+    private static boolean isGroupable(EmailNotification email) {
+        String recipient = email.getRecipient();
+        return recipient != null && recipient.indexOf('@') > 0 && recipient.indexOf(',') < 0
+            && isEmpty(email.getCc()) && isEmpty(email.getBcc());
+    }
+    
+    private static boolean isEmpty(List<String> list) {
+        return list == null || list.isEmpty();
+    }
+    
+    private SendResult sendDirect(EmailNotification email) {
+        try {
+            delegate.send(email);
+            return SendResult.success();
+        } catch (NotificationSendException e) {
+            return e.getResult();
+        } catch (Exception e) {
+            return SendResult.failure(e);
+        }
+    }
+    
+    /**
+     * Send a group whose window has elapsed, unless it was already sent for being full
+     */
+    private void flush(GroupKey key, Group group) {
+        if (groups.remove(key, group)) {
+            dispatch(group);
+        }
+    }
+    
+    private void dispatch(Group group) {
+        sender.execute(() -> {
+            Map<String, SendResult> results;
+            try {
+                results = group.members.size() == 1
+                    ? Map.of(group.members.get(0).recipient, sendDirect(group.content))
+                    : delegate.sendToRecipients(group.content, new ArrayList<>(group.recipients));
+            } catch (Exception e) {
+                SendResult failure = SendResult.failure(e);
+                group.members.forEach(member -> member.future.complete(failure));
+                return;
+            }
+            for (Member member : group.members) {
+                SendResult result = results.get(member.recipient);
+                member.future.complete(result != null ? result : SendResult.failure("No outcome for " + member.recipient));
+            }
+        });
+    }
+    
+    /**
+     * @return emails waiting for their group to be sent
+     */
+    public int getPendingCount() {
+        return groups.values().stream().mapToInt(Group::size).sum();
+    }
+    
+    @Override
+    public boolean sendEmail(EmailNotification notification) {
+        return delegate.sendEmail(notification);
+    }
+    
+    @Override
+    public boolean sendSimpleEmail(String to, String subject, String body) {
+        return delegate.sendSimpleEmail(to, subject, body);
+    }
+    
+    @Override
+    public boolean sendHtmlEmail(String to, String subject, String htmlBody) {
+        return delegate.sendHtmlEmail(to, subject, htmlBody);
+    }
+    
+    @Override
+    public void send(Event event) {
+        delegate.send(event);
+    }
+    
+    /**
+     * Send the pending groups, then close the delegate once they are delivered
+     */
+    @Override
+    public void close() {
+        timer.shutdownNow();
+        for (GroupKey key : List.copyOf(groups.keySet())) {
+            Group group = groups.remove(key);
+            if (group != null) {
+                dispatch(group);
+            }
+        }
+        sender.close();
+        delegate.close();
+    }
+    
+    /**
+     * Emails share a group if their content, sender and recipient domain are equal
+     */
+    private static final class GroupKey {
+        private final String subject;
+        private final String body;
+        private final String htmlBody;
+        private final List<String> attachments;
+        private final String fromEmail;
+        private final String fromName;
+        private final String domain;
+        
+        private GroupKey(EmailNotification email) {
+            this.subject = email.getSubject();
+            this.body = email.getBody();
+            this.htmlBody = email.getHtmlBody();
+            this.attachments = email.getAttachments();
+            this.fromEmail = email.getFromEmail();
+            this.fromName = email.getFromName();
+            String recipient = email.getRecipient();
+            this.domain = recipient.substring(recipient.lastIndexOf('@') + 1).trim().toLowerCase(Locale.ROOT);
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof GroupKey)) return false;
+            GroupKey other = (GroupKey) o;
+            return Objects.equals(subject, other.subject) && Objects.equals(body, other.body)
+                && Objects.equals(htmlBody, other.htmlBody) && Objects.equals(attachments, other.attachments)
+                && Objects.equals(fromEmail, other.fromEmail) && Objects.equals(fromName, other.fromName)
+                && domain.equals(other.domain);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(subject, body, htmlBody, attachments, fromEmail, fromName, domain);
+        }
+    }
+    
+    private static final class Group {
+        private final EmailNotification content;
+        private final List<Member> members = new ArrayList<>();
+        private final Set<String> recipients = new LinkedHashSet<>();
+        
+        private Group(EmailNotification content) {
+            this.content = content;
+        }
+        
+        private void add(String recipient, CompletableFuture<SendResult> future) {
+            members.add(new Member(recipient, future));
+            recipients.add(recipient);
+        }
+        
+        private int size() {
+            return members.size();
+        }
+    }
+    
+    private static final class Member {
+        private final String recipient;
+        private final CompletableFuture<SendResult> future;
+        
+        private Member(String recipient, CompletableFuture<SendResult> future) {
+            this.recipient = recipient;
+            this.future = future;
+        }
+    }
+}
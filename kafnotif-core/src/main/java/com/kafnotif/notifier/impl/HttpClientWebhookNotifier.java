@@ -3,36 +3,49 @@ package com.kafnotif.notifier.impl;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kafnotif.util.JsonUtils;
 import com.kafnotif.model.Event;
+import com.kafnotif.model.RawJson;
 import com.kafnotif.model.WebhookNotification;
+import com.kafnotif.notifier.AsyncNotifier;
 import com.kafnotif.notifier.WebhookNotifier;
+import com.kafnotif.notifier.SendResult;
+import com.kafnotif.notifier.NotificationSendException;
 import org.apache.hc.client5.http.classic.methods.*;
+import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.util.Timeout;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Apache HttpClient implementation of WebhookNotifier
  */
-public class HttpClientWebhookNotifier implements WebhookNotifier {
+public class HttpClientWebhookNotifier implements WebhookNotifier, AsyncNotifier {
     
     private static final Logger logger = LoggerFactory.getLogger(HttpClientWebhookNotifier.class);
     
     private final CloseableHttpClient httpClient;
+    private final boolean ownsHttpClient;
+    private final RequestConfig defaultRequestConfig;
     private final ObjectMapper objectMapper;
     
     /**
-     * Constructor with default HTTP client
+     * Constructor using the shared HTTP client
      */
     public HttpClientWebhookNotifier() {
-        this.httpClient = HttpClients.createDefault();
-        this.objectMapper = JsonUtils.createObjectMapper();
+        this.httpClient = SharedHttpClient.get();
+        this.ownsHttpClient = false;
+        this.defaultRequestConfig = SharedHttpClient.requestConfig();
+        this.objectMapper = JsonUtils.sharedObjectMapper();
     }
     
     /**
@@ -40,19 +53,76 @@ public class HttpClientWebhookNotifier implements WebhookNotifier {
      */
     public HttpClientWebhookNotifier(CloseableHttpClient httpClient) {
         this.httpClient = httpClient;
-        this.objectMapper = JsonUtils.createObjectMapper();
+        this.ownsHttpClient = true;
+        this.defaultRequestConfig = RequestConfig.DEFAULT;
+        this.objectMapper = JsonUtils.sharedObjectMapper();
     }
     
     @Override
     public boolean sendWebhook(WebhookNotification notification) {
-        return sendCustomWebhook(
+        return deliver(notification).isSuccess();
+    }
+    
+    private SendResult deliver(WebhookNotification notification) {
+        return sendRequest(
             notification.getUrl(),
             notification.getMethod(),
-            notification.getWebhookPayload(),
-            notification.getHeaders()
+            payloadOf(notification),
+            notification.getHeaders(),
+            notification.getTimeout()
         );
     }
     
+    /**
+     * Send a webhook through the shared non-blocking transport; no thread waits for the response
+     * @return future completing with true if the endpoint answered with a 2xx status
+     */
+    public CompletableFuture<Boolean> sendWebhookAsync(WebhookNotification notification) {
+        return deliverAsync(notification).thenApply(SendResult::isSuccess);
+    }
+    
+    private CompletableFuture<SendResult> deliverAsync(WebhookNotification notification) {
+        String url = notification.getUrl();
+        String body;
+        try {
+            Object payload = payloadOf(notification);
+            body = payload != null && !notification.getMethod().equalsIgnoreCase("GET") ? toJson(payload) : null;
+        } catch (Exception e) {
+            logger.error("Failed to serialize webhook payload for: {}", url, e);
+            return CompletableFuture.completedFuture(SendResult.permanentFailure(e));
+        }
+        Duration timeout = notification.getTimeout() != null ? Duration.ofSeconds(notification.getTimeout()) : null;
+        
+        return SharedHttpClient.async()
+            .send(notification.getMethod(), url, body, notification.getHeaders(), timeout)
+            .handle((response, error) -> {
+                if (error != null) {
+                    logger.error("Failed to send webhook to: {}: {}", url, error.getMessage());
+                    return SendResult.failure(error);
+                }
+                SendResult result = AsyncHttpTransport.resultOf(response);
+                if (result.isSuccess()) {
+                    logger.info("Webhook sent successfully to: {}. Status: {}", url, response.statusCode());
+                } else {
+                    logger.error("Webhook failed. URL: {}, Status: {}", url, response.statusCode());
+                }
+                return result;
+            });
+    }
+    
+    /**
+     * A payload straight from Kafka is sent as received, without binding it to a map
+     */
+    private static Object payloadOf(WebhookNotification notification) {
+        return notification.getRawPayload() != null
+            ? notification.getRawPayload()
+            : notification.getWebhookPayload();
+    }
+    
+    private String toJson(Object payload) throws IOException {
+        return payload instanceof RawJson ? payload.toString() : objectMapper.writeValueAsString(payload);
+    }
+    
     @Override
     public boolean sendSimpleWebhook(String url, Map<String, Object> payload) {
         return sendWebhookWithHeaders(url, payload, null);
@@ -65,8 +135,21 @@ public class HttpClientWebhookNotifier implements WebhookNotifier {
     
     @Override
     public boolean sendCustomWebhook(String url, String method, Map<String, Object> payload, Map<String, String> headers) {
+        return sendRequest(url, method, payload, headers, null).isSuccess();
+    }
+    
+    /**
+     * @param timeoutSeconds response timeout of this request, or null for the client's default
+     */
+    private SendResult sendRequest(String url, String method, Object payload, Map<String, String> headers,
+                                Integer timeoutSeconds) {
         try {
             HttpUriRequestBase request = createHttpRequest(method, url);
+            if (timeoutSeconds != null) {
+                request.setConfig(RequestConfig.copy(defaultRequestConfig)
+                    .setResponseTimeout(Timeout.ofSeconds(timeoutSeconds))
+                    .build());
+            }
             
             // Add headers
             if (headers != null) {
@@ -75,37 +158,48 @@ public class HttpClientWebhookNotifier implements WebhookNotifier {
             
             // Add body for methods that support it
             if (payload != null && !method.equalsIgnoreCase("GET")) {
-                String jsonBody = objectMapper.writeValueAsString(payload);
-                request.setEntity(new StringEntity(jsonBody, ContentType.APPLICATION_JSON));
+                request.setEntity(new StringEntity(toJson(payload), ContentType.APPLICATION_JSON));
             }
             
             try (CloseableHttpResponse response = httpClient.execute(request)) {
                 int statusCode = response.getCode();
+                Header retryAfter = response.getFirstHeader("Retry-After");
+                SendResult result = SendResult.forHttpStatus(statusCode, retryAfter != null ? retryAfter.getValue() : null);
                 
-                if (statusCode >= 200 && statusCode < 300) {
+                if (result.isSuccess()) {
                     logger.info("Webhook sent successfully to: {}. Status: {}", url, statusCode);
-                    return true;
                 } else {
                     logger.error("Webhook failed. URL: {}, Status: {}", url, statusCode);
-                    return false;
                 }
+                return result;
             }
             
         } catch (IOException e) {
             logger.error("Failed to send webhook to: {}", url, e);
-            return false;
+            return SendResult.failure(e);
         }
     }
     
     @Override
     public void send(Event event) {
         if (event instanceof WebhookNotification) {
-            sendWebhook((WebhookNotification) event);
+            SendResult result = deliver((WebhookNotification) event);
+            if (!result.isSuccess()) {
+                throw new NotificationSendException(result);
+            }
         } else {
             throw new IllegalArgumentException("Event must be a WebhookNotification");
         }
     }
     
+    @Override
+    public CompletionStage<SendResult> sendAsync(Event event) {
+        if (!(event instanceof WebhookNotification)) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Event must be a WebhookNotification"));
+        }
+        return deliverAsync((WebhookNotification) event);
+    }
+    
     private HttpUriRequestBase createHttpRequest(String method, String url) {
         return switch (method.toUpperCase()) {
             case "GET" -> new HttpGet(url);
@@ -120,10 +214,10 @@ public class HttpClientWebhookNotifier implements WebhookNotifier {
     }
     
     /**
-     * Close the HTTP client
+     * Close the HTTP client if it was passed to this notifier
      */
     public void close() throws IOException {
-        if (httpClient != null) {
+        if (httpClient != null && ownsHttpClient) {
             httpClient.close();
         }
     }
@@ -0,0 +1,327 @@
+package com.kafnotif.notifier.impl;
+
+import com.kafnotif.config.InvalidTokenCacheConfig;
+import com.kafnotif.notifier.SendResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Device tokens that FCM rejected as unregistered or invalid. Sends to a known invalid token
+ * fail immediately as permanent failures instead of making a call that is bound to fail again;
+ * listeners are told about each newly invalid token so the application can prune its token
+ * store.
+ * <p>
+ * Tokens expire after a TTL and the set is bounded, evicting the tokens expiring soonest. An
+ * optional Bloom filter answers most lookups of valid tokens without touching the set, and an
+ * optional snapshot file keeps the tokens across restarts.
+ */
+public class InvalidTokenCache implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(InvalidTokenCache.class);
+    
+    /**
+     * Notified when a token is first found to be invalid
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onInvalidToken(String deviceToken, SendResult result);
+    }
+    
+    private final InvalidTokenCacheConfig config;
+    private final Map<String, Entry> tokens = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService maintenance;
+    private volatile BloomFilter bloom;
+    private volatile boolean dirty;
+    
+    public InvalidTokenCache() {
+        this(new InvalidTokenCacheConfig());
+    }
+    
+    public InvalidTokenCache(InvalidTokenCacheConfig config) {
+        this.config = config;
+        this.bloom = config.isBloomFilter() ? newBloomFilter() : null;
+        if (config.getSnapshotPath() != null) {
+            load(config.getSnapshotPath());
+        }
+        
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kafnotif-token-cache");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, config.getSnapshotInterval().toMillis());
+        maintenance.scheduleWithFixedDelay(this::maintain, period, period, TimeUnit.MILLISECONDS);
+    }
+    
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+    
+    /**
+     * @return a permanent failure if the token is known to be invalid, otherwise null
+     */
+    public SendResult lookup(String deviceToken) {
+        if (deviceToken == null) {
+            return null;
+        }
+        BloomFilter filter = bloom;
+        if (filter != null && !filter.mightContain(deviceToken)) {
+            return null;
+        }
+        Entry entry = tokens.get(deviceToken);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            tokens.remove(deviceToken, entry);
+            return null;
+        }
+        return SendResult.permanentFailure("Device token is known to be invalid").withProviderCode(entry.code);
+    }
+    
+    /**
+     * Remember a token FCM rejected, notifying listeners if it was not already known
+     * @param result the classified failure of the send
+     */
+    public void recordInvalid(String deviceToken, SendResult result) {
+        long now = System.currentTimeMillis();
+        Entry previous = tokens.put(deviceToken, new Entry(now + config.getTtl().toMillis(), result.getProviderCode()));
+        BloomFilter filter = bloom;
+        if (filter != null) {
+            filter.put(deviceToken);
+        }
+        dirty = true;
+        if (tokens.size() > config.getMaxTokens()) {
+            evict();
+        }
+        
+        if (previous == null || previous.isExpired(now)) {
+            logger.info("🔕 Device token marked invalid ({})", result.getProviderCode());
+            for (Listener listener : listeners) {
+                try {
+                    listener.onInvalidToken(deviceToken, result);
+                } catch (Exception e) {
+                    logger.warn("Invalid token listener failed: {}", e.getMessage(), e);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Forget a token, e.g. after the app registered it again
+     */
+    public void remove(String deviceToken) {
+        if (tokens.remove(deviceToken) != null) {
+            dirty = true;
+        }
+    }
+    
+    /**
+     * @return number of tokens held, including expired ones not yet purged
+     */
+    public int size() {
+        return tokens.size();
+    }
+    
+    /**
+     * Drop the tokens expiring soonest until the set is back under 90% of its bound
+     */
+    private synchronized void evict() {
+        purgeExpired();
+        int excess = tokens.size() - config.getMaxTokens() * 9 / 10;
+        if (excess <= 0) {
+            return;
+        }
+        List<Map.Entry<String, Entry>> entries = new ArrayList<>(tokens.entrySet());
+        entries.sort(Comparator.comparingLong(e -> e.getValue().expiresAt));
+        for (int i = 0; i < excess && i < entries.size(); i++) {
+            tokens.remove(entries.get(i).getKey(), entries.get(i).getValue());
+        }
+        dirty = true;
+    }
+    
+    private void purgeExpired() {
+        long now = System.currentTimeMillis();
+        if (tokens.values().removeIf(entry -> entry.isExpired(now))) {
+            dirty = true;
+        }
+    }
+    
+    private void maintain() {
+        try {
+            synchronized (this) {
+                purgeExpired();
+                if (bloom != null) {
+                    // Bloom filters cannot delete; rebuild one without the purged tokens. A token
+                    // recorded during the rebuild may be missed until the next one, costing one send.
+                    BloomFilter rebuilt = newBloomFilter();
+                    tokens.keySet().forEach(rebuilt::put);
+                    bloom = rebuilt;
+                }
+            }
+            if (config.getSnapshotPath() != null && dirty) {
+                snapshot();
+            }
+        } catch (Exception e) {
+            logger.warn("Invalid token cache maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Write the tokens to the snapshot file, replacing it atomically
+     */
+    public synchronized void snapshot() throws IOException {
+        Path path = config.getSnapshotPath();
+        if (path == null) {
+            return;
+        }
+        dirty = false;
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        long now = System.currentTimeMillis();
+        int count = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Entry> token : tokens.entrySet()) {
+                Entry entry = token.getValue();
+                if (!entry.isExpired(now)) {
+                    writer.write(entry.expiresAt + "\t" + (entry.code != null ? entry.code : "") + "\t" + token.getKey());
+                    writer.newLine();
+                    count++;
+                }
+            }
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.debug("Saved {} invalid device tokens to {}", count, path);
+    }
+    
+    private void load(Path path) {
+        if (!Files.exists(path)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t", 3);
+                if (fields.length < 3) {
+                    continue;
+                }
+                Entry entry = new Entry(Long.parseLong(fields[0]), fields[1].isEmpty() ? null : fields[1]);
+                if (!entry.isExpired(now)) {
+                    tokens.put(fields[2], entry);
+                    if (bloom != null) {
+                        bloom.put(fields[2]);
+                    }
+                }
+            }
+            logger.info("🔕 Loaded {} invalid device tokens from {}", tokens.size(), path);
+        } catch (IOException | NumberFormatException e) {
+            logger.warn("Could not load invalid device tokens from {}: {}", path, e.getMessage());
+        }
+    }
+    
+    private BloomFilter newBloomFilter() {
+        return new BloomFilter(config.getMaxTokens(), config.getBloomFalsePositiveRate());
+    }
+    
+    /**
+     * Stop maintenance and save a final snapshot
+     */
+    @Override
+    public void close() {
+        maintenance.shutdownNow();
+        if (config.getSnapshotPath() != null) {
+            try {
+                snapshot();
+            } catch (IOException e) {
+                logger.warn("Could not save invalid device tokens to {}: {}", config.getSnapshotPath(), e.getMessage());
+            }
+        }
+    }
+    
+    private static final class Entry {
+        private final long expiresAt;
+        private final String code;
+        
+        private Entry(long expiresAt, String code) {
+            this.expiresAt = expiresAt;
+            this.code = code;
+        }
+        
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+    
+    /**
+     * Lock-free Bloom filter over strings, using double hashing of a 64-bit FNV-1a hash
+     */
+    private static final class BloomFilter {
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+        
+        private BloomFilter(int expectedInsertions, double falsePositiveRate) {
+            int n = Math.max(1, expectedInsertions);
+            long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bits = new AtomicLongArray((int) Math.max(1, (m + 63) / 64));
+            this.bitCount = bits.length() * 64L;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        }
+        
+        private void put(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+                int index = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long word;
+                while (((word = bits.get(index)) & mask) == 0 && !bits.compareAndSet(index, word, word | mask)) {
+                    // Retry until the bit is set
+                }
+            }
+        }
+        
+        private boolean mightContain(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        private static long hash(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+    }
+}
@@ -1,30 +1,64 @@
 package com.kafnotif.notifier.impl;
 
+import com.kafnotif.config.AttachmentCacheConfig;
+import com.kafnotif.config.SmtpPoolConfig;
 import com.kafnotif.model.EmailNotification;
 import com.kafnotif.model.Event;
 import com.kafnotif.notifier.EmailNotifier;
+import com.kafnotif.notifier.NotificationSendException;
+import com.kafnotif.notifier.SendResult;
+import org.eclipse.angus.mail.smtp.SMTPMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import jakarta.mail.*;
+import jakarta.mail.internet.AddressException;
 import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeBodyPart;
 import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 /**
- * JavaMail implementation of EmailNotifier
+ * JavaMail implementation of EmailNotifier. Messages are sent over a pool of connected SMTP
+ * transports rather than a new connection per message, and attachments are encoded once and
+ * served from an {@link AttachmentCache}.
  */
-public class JavaMailEmailNotifier implements EmailNotifier {
+public class JavaMailEmailNotifier implements EmailNotifier, AutoCloseable {
     
     private static final Logger logger = LoggerFactory.getLogger(JavaMailEmailNotifier.class);
     
     private final Session session;
     private final String fromEmail;
+    private final SmtpTransportPool transportPool;
+    private final AttachmentCache attachmentCache;
     
     /**
      * Constructor with SMTP configuration
      */
     public JavaMailEmailNotifier(String smtpHost, int smtpPort, String username, String password, String fromEmail) {
+        this(smtpHost, smtpPort, username, password, fromEmail, new SmtpPoolConfig());
+    }
+    
+    /**
+     * Constructor with SMTP configuration and connection pool settings
+     */
+    public JavaMailEmailNotifier(String smtpHost, int smtpPort, String username, String password, String fromEmail,
+                                 SmtpPoolConfig poolConfig) {
+        this(smtpHost, smtpPort, username, password, fromEmail, poolConfig, new AttachmentCacheConfig());
+    }
+    
+    /**
+     * Constructor with SMTP configuration, connection pool and attachment cache settings
+     */
+    public JavaMailEmailNotifier(String smtpHost, int smtpPort, String username, String password, String fromEmail,
+                                 SmtpPoolConfig poolConfig, AttachmentCacheConfig attachmentCacheConfig) {
         this.fromEmail = fromEmail;
         
         Properties props = new Properties();
@@ -47,29 +81,44 @@ public class JavaMailEmailNotifier implements EmailNotifier {
             // No authentication - suitable for development servers like MailCatcher
             this.session = Session.getInstance(props);
         }
+        this.transportPool = new SmtpTransportPool(session, poolConfig);
+        this.attachmentCache = new AttachmentCache(attachmentCacheConfig);
     }
     
     /**
      * Constructor with existing JavaMail Session
      */
     public JavaMailEmailNotifier(Session session, String fromEmail) {
+        this(session, fromEmail, new SmtpPoolConfig());
+    }
+    
+    /**
+     * Constructor with existing JavaMail Session and connection pool settings
+     */
+    public JavaMailEmailNotifier(Session session, String fromEmail, SmtpPoolConfig poolConfig) {
+        this(session, fromEmail, poolConfig, new AttachmentCacheConfig());
+    }
+    
+    /**
+     * Constructor with existing JavaMail Session, connection pool and attachment cache settings
+     */
+    public JavaMailEmailNotifier(Session session, String fromEmail, SmtpPoolConfig poolConfig,
+                                 AttachmentCacheConfig attachmentCacheConfig) {
         this.session = session;
         this.fromEmail = fromEmail;
+        this.transportPool = new SmtpTransportPool(session, poolConfig);
+        this.attachmentCache = new AttachmentCache(attachmentCacheConfig);
     }
     
     @Override
     public boolean sendEmail(EmailNotification notification) {
+        return deliver(notification).isSuccess();
+    }
+    
+    private SendResult deliver(EmailNotification notification) {
         try {
-            MimeMessage message = new MimeMessage(session);
-            message.setFrom(new InternetAddress(fromEmail));
+            MimeMessage message = createMessage(notification, false);
             message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(notification.getRecipient()));
-            message.setSubject(notification.getSubject());
-            
-            if (notification.getHtmlBody() != null) {
-                message.setContent(notification.getHtmlBody(), "text/html; charset=utf-8");
-            } else {
-                message.setText(notification.getBody());
-            }
             
             // Add CC recipients if present
             if (notification.getCc() != null && !notification.getCc().isEmpty()) {
@@ -83,16 +132,142 @@ public class JavaMailEmailNotifier implements EmailNotifier {
                     InternetAddress.parse(String.join(",", notification.getBcc())));
             }
             
-            Transport.send(message);
+            transportPool.send(message);
             logger.info("Email sent successfully to: {}", notification.getRecipient());
-            return true;
+            return SendResult.success();
             
         } catch (MessagingException e) {
             logger.error("Failed to send email to: {}", notification.getRecipient(), e);
-            return false;
+            // Malformed or rejected addresses will not be accepted on a retry either
+            boolean permanent = e instanceof AddressException
+                || (e instanceof SendFailedException && ((SendFailedException) e).getInvalidAddresses() != null
+                    && ((SendFailedException) e).getInvalidAddresses().length > 0);
+            return permanent ? SendResult.permanentFailure(e) : SendResult.failure(e);
+            
+        } catch (IOException e) {
+            logger.error("Failed to load attachments of email to: {}", notification.getRecipient(), e);
+            return attachmentFailure(e);
+            
+        } catch (IllegalArgumentException e) {
+            logger.error("Rejected attachment of email to: {}: {}", notification.getRecipient(), e.getMessage());
+            return SendResult.permanentFailure(e);
         }
     }
     
+    private static SendResult attachmentFailure(IOException e) {
+        // A missing file will still be missing on a retry
+        return e instanceof NoSuchFileException ? SendResult.permanentFailure(e) : SendResult.failure(e);
+    }
+    
+    /**
+     * Send the content of one email to several recipients as a single message: one RCPT TO per
+     * recipient, with no recipient listed in the headers so they do not see each other. The
+     * message is serialized once for the whole group.
+     * @return the outcome for each recipient
+     */
+    Map<String, SendResult> sendToRecipients(EmailNotification content, List<String> recipients) {
+        Map<String, SendResult> results = new HashMap<>();
+        Map<InternetAddress, String> envelope = new LinkedHashMap<>();
+        for (String recipient : recipients) {
+            try {
+                envelope.put(new InternetAddress(recipient, true), recipient);
+            } catch (AddressException e) {
+                results.put(recipient, SendResult.permanentFailure(e));
+            }
+        }
+        if (envelope.isEmpty()) {
+            return results;
+        }
+        
+        try {
+            // Deliver to the accepted recipients even if the server rejects some; each recipient
+            // gets its own outcome. Single emails stay all-or-nothing.
+            MimeMessage message = createMessage(content, true);
+            message.setHeader("To", "undisclosed-recipients:;");
+            transportPool.send(message, envelope.keySet().toArray(new Address[0]));
+            envelope.values().forEach(recipient -> results.put(recipient, SendResult.success()));
+            logger.info("Email sent successfully to {} recipients in one message", envelope.size());
+            
+        } catch (SendFailedException e) {
+            // Rejected addresses are permanent; the rest were either sent or may be retried
+            SendResult retryable = SendResult.failure(e);
+            envelope.values().forEach(recipient -> results.put(recipient, retryable));
+            record(results, envelope, e.getValidSentAddresses(), SendResult.success());
+            record(results, envelope, e.getInvalidAddresses(), SendResult.permanentFailure(e));
+            logger.error("Failed to send grouped email to some of {} recipients", envelope.size(), e);
+            
+        } catch (MessagingException e) {
+            logger.error("Failed to send grouped email to {} recipients", envelope.size(), e);
+            SendResult failure = SendResult.failure(e);
+            envelope.values().forEach(recipient -> results.put(recipient, failure));
+            
+        } catch (IOException e) {
+            logger.error("Failed to load attachments of grouped email to {} recipients", envelope.size(), e);
+            SendResult failure = attachmentFailure(e);
+            envelope.values().forEach(recipient -> results.put(recipient, failure));
+            
+        } catch (IllegalArgumentException e) {
+            logger.error("Rejected attachment of grouped email to {} recipients: {}", envelope.size(), e.getMessage());
+            SendResult failure = SendResult.permanentFailure(e);
+            envelope.values().forEach(recipient -> results.put(recipient, failure));
+        }
+        return results;
+    }
+    
+    private static void record(Map<String, SendResult> results, Map<InternetAddress, String> envelope,
+                               Address[] addresses, SendResult result) {
+        if (addresses == null) {
+            return;
+        }
+        for (Address address : addresses) {
+            String recipient = envelope.get(address);
+            if (recipient != null) {
+                results.put(recipient, result);
+            }
+        }
+    }
+    
+    /**
+     * Build a message with sender, subject, body and attachments but no recipients
+     * @param sendPartial whether to send to the accepted recipients when the server rejects some
+     */
+    private MimeMessage createMessage(EmailNotification notification, boolean sendPartial)
+            throws MessagingException, IOException {
+        MimeMessage message;
+        if (sendPartial) {
+            SMTPMessage partial = new SMTPMessage(session);
+            partial.setSendPartial(true);
+            message = partial;
+        } else {
+            message = new MimeMessage(session);
+        }
+        message.setFrom(new InternetAddress(fromEmail));
+        message.setSubject(notification.getSubject());
+        
+        if (notification.getAttachments() == null || notification.getAttachments().isEmpty()) {
+            if (notification.getHtmlBody() != null) {
+                message.setContent(notification.getHtmlBody(), "text/html; charset=utf-8");
+            } else {
+                message.setText(notification.getBody());
+            }
+            return message;
+        }
+        
+        MimeBodyPart body = new MimeBodyPart();
+        if (notification.getHtmlBody() != null) {
+            body.setContent(notification.getHtmlBody(), "text/html; charset=utf-8");
+        } else {
+            body.setText(notification.getBody());
+        }
+        MimeMultipart multipart = new MimeMultipart("mixed");
+        multipart.addBodyPart(body);
+        for (String attachment : notification.getAttachments()) {
+            multipart.addBodyPart(attachmentCache.createPart(attachment));
+        }
+        message.setContent(multipart);
+        return message;
+    }
+    
     @Override
     public boolean sendSimpleEmail(String to, String subject, String body) {
         EmailNotification notification = new EmailNotification();
@@ -117,9 +292,21 @@ public class JavaMailEmailNotifier implements EmailNotifier {
     @Override
     public void send(Event event) {
         if (event instanceof EmailNotification) {
-            sendEmail((EmailNotification) event);
+            SendResult result = deliver((EmailNotification) event);
+            if (!result.isSuccess()) {
+                throw new NotificationSendException(result);
+            }
         } else {
             throw new IllegalArgumentException("Event must be an EmailNotification");
         }
     }
+    
+    /**
+     * Close the pooled SMTP connections and drop the cached attachments
+     */
+    @Override
+    public void close() {
+        transportPool.close();
+        attachmentCache.close();
+    }
 }
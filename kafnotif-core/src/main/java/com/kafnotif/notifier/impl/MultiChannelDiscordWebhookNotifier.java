@@ -3,13 +3,14 @@ package com.kafnotif.notifier.impl;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kafnotif.model.DiscordNotification;
 import com.kafnotif.model.Event;
+import com.kafnotif.notifier.AsyncNotifier;
 import com.kafnotif.notifier.DiscordNotifier;
+import com.kafnotif.notifier.SendResult;
 import com.kafnotif.spring.AutomaticNotifierSetup.DiscordConfig;
 import com.kafnotif.util.JsonUtils;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.io.entity.StringEntity;
 import org.slf4j.Logger;
@@ -19,27 +20,105 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Multi-channel Discord Webhook implementation of DiscordNotifier
  * Supports routing messages to different Discord channels based on configuration
  */
-public class MultiChannelDiscordWebhookNotifier implements DiscordNotifier {
+public class MultiChannelDiscordWebhookNotifier implements DiscordNotifier, AsyncNotifier {
     
     private static final Logger logger = LoggerFactory.getLogger(MultiChannelDiscordWebhookNotifier.class);
     
+    private static final String USER_AGENT = "KafNotif-Bot/1.0";
+    
     private final DiscordConfig discordConfig;
     private final CloseableHttpClient httpClient;
+    private final boolean ownsHttpClient;
     private final ObjectMapper objectMapper;
     
     public MultiChannelDiscordWebhookNotifier(DiscordConfig discordConfig) {
         this.discordConfig = discordConfig;
-        this.httpClient = HttpClients.createDefault();
-        this.objectMapper = JsonUtils.createObjectMapper();
+        this.httpClient = SharedHttpClient.get();
+        this.ownsHttpClient = false;
+        this.objectMapper = JsonUtils.sharedObjectMapper();
+    }
+    
+    /**
+     * Constructor with custom HTTP client
+     */
+    public MultiChannelDiscordWebhookNotifier(DiscordConfig discordConfig, CloseableHttpClient httpClient) {
+        this.discordConfig = discordConfig;
+        this.httpClient = httpClient;
+        this.ownsHttpClient = true;
+        this.objectMapper = JsonUtils.sharedObjectMapper();
     }
     
     @Override
     public boolean sendDiscordMessage(DiscordNotification notification) {
+        try {
+            Delivery delivery = prepare(notification);
+            return delivery != null && sendDiscordWebhook(delivery.webhookUrl, delivery.payload);
+            
+        } catch (Exception e) {
+            logger.error("Failed to send Discord message to channel '{}'", notification.getChannelId(), e);
+            return false;
+        }
+    }
+    
+    /**
+     * Send a Discord message through the shared non-blocking transport
+     * @return future completing with true if Discord accepted the message
+     */
+    public CompletableFuture<Boolean> sendDiscordMessageAsync(DiscordNotification notification) {
+        return deliverAsync(notification).thenApply(SendResult::isSuccess);
+    }
+    
+    private CompletableFuture<SendResult> deliverAsync(DiscordNotification notification) {
+        Delivery delivery;
+        String jsonPayload;
+        try {
+            delivery = prepare(notification);
+            if (delivery == null) {
+                return CompletableFuture.completedFuture(SendResult.permanentFailure("No webhook URL configured"));
+            }
+            jsonPayload = objectMapper.writeValueAsString(delivery.payload);
+        } catch (Exception e) {
+            logger.error("Failed to prepare Discord message to channel '{}'", notification.getChannelId(), e);
+            return CompletableFuture.completedFuture(SendResult.permanentFailure(e));
+        }
+        String url = delivery.webhookUrl;
+        
+        return SharedHttpClient.async().postJson(url, jsonPayload, Map.of("User-Agent", USER_AGENT))
+            .handle((response, error) -> {
+                if (error != null) {
+                    logger.error("❌ Failed to send Discord webhook to: {}: {}", url, error.getMessage());
+                    return SendResult.failure(error);
+                }
+                SendResult result = AsyncHttpTransport.resultOf(response);
+                if (result.isSuccess()) {
+                    logger.debug("✅ Discord webhook sent successfully to: {}", url);
+                    return result;
+                }
+                logger.error("❌ Discord webhook failed with status {}: {}", response.statusCode(), url);
+                return result;
+            });
+    }
+    
+    @Override
+    public CompletionStage<SendResult> sendAsync(Event event) {
+        if (!(event instanceof DiscordNotification)) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Event must be a DiscordNotification"));
+        }
+        return deliverAsync((DiscordNotification) event);
+    }
+    
+    /**
+     * Resolve the channel webhook and username of a notification and build its payload
+     * @return null if no webhook URL is configured for it
+     */
+    private Delivery prepare(DiscordNotification notification) {
         String targetChannel = extractChannelFromNotification(notification);
         String webhookUrlToUse = null;
         String usernameToUse = notification.getUsername();
@@ -67,31 +146,30 @@ public class MultiChannelDiscordWebhookNotifier implements DiscordNotifier {
         
         if (webhookUrlToUse == null) {
             logger.error("❌ No Discord webhook URL configured for channel '{}' or default channel. Notification will not be sent.", targetChannel);
-            return false;
+            return null;
         }
         
-        try {
-            Map<String, Object> payload = new HashMap<>();
-            payload.put("content", notification.getContent());
-            
-            if (usernameToUse != null) {
-                payload.put("username", usernameToUse);
-            }
-            
-            if (notification.getAvatarUrl() != null) {
-                payload.put("avatar_url", notification.getAvatarUrl());
-            }
-            
-            if (notification.getEmbeds() != null && !notification.getEmbeds().isEmpty()) {
-                payload.put("embeds", notification.getEmbeds());
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("content", notification.getContent());
+        
+        if (usernameToUse != null) {
+            payload.put("username", usernameToUse);
+        }
+        
+        if (notification.getAvatarUrl() != null) {
+            payload.put("avatar_url", notification.getAvatarUrl());
+        }
+        
+        if (notification.getRawEmbeds() != null) {
+            // Spliced into the request body as received, without binding
+            if (!notification.getRawEmbeds().isEmpty()) {
+                payload.put("embeds", notification.getRawEmbeds());
             }
-            
-            return sendDiscordWebhook(webhookUrlToUse, payload);
-            
-        } catch (Exception e) {
-            logger.error("Failed to send Discord message to channel '{}'", targetChannel, e);
-            return false;
+        } else if (notification.getEmbeds() != null && !notification.getEmbeds().isEmpty()) {
+            payload.put("embeds", notification.getEmbeds());
         }
+        
+        return new Delivery(targetChannel, webhookUrlToUse, payload);
     }
     
     @Override
@@ -190,10 +268,10 @@ public class MultiChannelDiscordWebhookNotifier implements DiscordNotifier {
     }
     
     /**
-     * Close the HTTP client
+     * Close the HTTP client if it was passed to this notifier
      */
     public void close() throws IOException {
-        if (httpClient != null) {
+        if (httpClient != null && ownsHttpClient) {
             httpClient.close();
         }
     }
@@ -233,7 +311,7 @@ public class MultiChannelDiscordWebhookNotifier implements DiscordNotifier {
             
             HttpPost request = new HttpPost(url);
             request.setEntity(new StringEntity(jsonPayload, ContentType.APPLICATION_JSON));
-            request.setHeader("User-Agent", "KafNotif-Bot/1.0");
+            request.setHeader("User-Agent", USER_AGENT);
             
             try (CloseableHttpResponse response = httpClient.execute(request)) {
                 int statusCode = response.getCode();
@@ -252,4 +330,19 @@ public class MultiChannelDiscordWebhookNotifier implements DiscordNotifier {
             return false;
         }
     }
+    
+    /**
+     * Where and what to send for one notification
+     */
+    private static final class Delivery {
+        private final String channel;
+        private final String webhookUrl;
+        private final Map<String, Object> payload;
+        
+        private Delivery(String channel, String webhookUrl, Map<String, Object> payload) {
+            this.channel = channel;
+            this.webhookUrl = webhookUrl;
+            this.payload = payload;
+        }
+    }
 }
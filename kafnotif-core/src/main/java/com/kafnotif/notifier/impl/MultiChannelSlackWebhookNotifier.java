@@ -4,12 +4,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kafnotif.util.JsonUtils;
 import com.kafnotif.model.Event;
 import com.kafnotif.model.SlackNotification;
+import com.kafnotif.notifier.AsyncNotifier;
 import com.kafnotif.notifier.SlackNotifier;
+import com.kafnotif.notifier.SendResult;
+import com.kafnotif.notifier.NotificationSendException;
 import com.kafnotif.spring.AutomaticNotifierSetup.SlackConfig;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.io.entity.StringEntity;
 import org.slf4j.Logger;
@@ -18,16 +20,19 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Enhanced Slack Webhook implementation with multi-channel support
  */
-public class MultiChannelSlackWebhookNotifier implements SlackNotifier {
+public class MultiChannelSlackWebhookNotifier implements SlackNotifier, AsyncNotifier {
     
     private static final Logger logger = LoggerFactory.getLogger(MultiChannelSlackWebhookNotifier.class);
     
     private final SlackConfig slackConfig;
     private final CloseableHttpClient httpClient;
+    private final boolean ownsHttpClient;
     private final ObjectMapper objectMapper;
     
     /**
@@ -35,8 +40,9 @@ public class MultiChannelSlackWebhookNotifier implements SlackNotifier {
      */
     public MultiChannelSlackWebhookNotifier(SlackConfig slackConfig) {
         this.slackConfig = slackConfig;
-        this.httpClient = HttpClients.createDefault();
-        this.objectMapper = JsonUtils.createObjectMapper();
+        this.httpClient = SharedHttpClient.get();
+        this.ownsHttpClient = false;
+        this.objectMapper = JsonUtils.sharedObjectMapper();
     }
     
     /**
@@ -45,67 +51,20 @@ public class MultiChannelSlackWebhookNotifier implements SlackNotifier {
     public MultiChannelSlackWebhookNotifier(SlackConfig slackConfig, CloseableHttpClient httpClient) {
         this.slackConfig = slackConfig;
         this.httpClient = httpClient;
-        this.objectMapper = JsonUtils.createObjectMapper();
+        this.ownsHttpClient = true;
+        this.objectMapper = JsonUtils.sharedObjectMapper();
     }
     
     @Override
     public boolean sendSlackMessage(SlackNotification notification) {
         try {
-            // Resolve webhook URL for the specified channel
-            String channel = notification.getChannel();
-            if (channel == null || channel.trim().isEmpty()) {
-                channel = slackConfig.getDefaultChannel();
-                notification.setChannel(channel);
-            }
-            
-            String webhookUrl = slackConfig.getWebhookUrlForChannel(channel);
+            String webhookUrl = resolveWebhookUrl(notification);
             if (webhookUrl == null) {
-                logger.error("No webhook URL configured for channel: {}. Available channels: {}", 
-                    channel, slackConfig.getChannels().keySet());
                 return false;
             }
             
-            // Apply default username if not specified and available for this channel
-            if (notification.getUsername() == null) {
-                String defaultUsername = slackConfig.getDefaultUsernameForChannel(channel);
-                if (defaultUsername != null) {
-                    notification.setUsername(defaultUsername);
-                }
-            }
-            
-            Map<String, Object> payload = new HashMap<>();
-            payload.put("text", notification.getText());
-            payload.put("channel", notification.getChannel());
-            
-            if (notification.getUsername() != null) {
-                payload.put("username", notification.getUsername());
-            }
-            
-            if (notification.getIconEmoji() != null) {
-                payload.put("icon_emoji", notification.getIconEmoji());
-            }
-            
-            if (notification.getIconUrl() != null) {
-                payload.put("icon_url", notification.getIconUrl());
-            }
-            
-            // Add attachments if present
-            if (notification.getAttachments() != null && !notification.getAttachments().isEmpty()) {
-                payload.put("attachments", notification.getAttachments());
-            }
-            
-            // Add blocks if present
-            if (notification.getBlocks() != null && !notification.getBlocks().isEmpty()) {
-                payload.put("blocks", notification.getBlocks());
-            }
-            
-            // Add thread support if present
-            if (notification.getThreadTs() != null) {
-                payload.put("thread_ts", notification.getThreadTs());
-            }
-            
-            logger.debug("Sending Slack message to channel '{}' using webhook: {}", channel, webhookUrl);
-            return sendSlackWebhook(webhookUrl, payload);
+            logger.debug("Sending Slack message to channel '{}' using webhook: {}", notification.getChannel(), webhookUrl);
+            return sendSlackWebhook(webhookUrl, buildPayload(notification));
             
         } catch (Exception e) {
             logger.error("Failed to send Slack message to channel: {}", notification.getChannel(), e);
@@ -113,6 +72,115 @@ public class MultiChannelSlackWebhookNotifier implements SlackNotifier {
         }
     }
     
+    /**
+     * Send a Slack message through the shared non-blocking transport
+     * @return future completing with true if Slack accepted the message
+     */
+    public CompletableFuture<Boolean> sendSlackMessageAsync(SlackNotification notification) {
+        return deliverAsync(notification).thenApply(SendResult::isSuccess);
+    }
+    
+    private CompletableFuture<SendResult> deliverAsync(SlackNotification notification) {
+        String webhookUrl;
+        String jsonBody;
+        try {
+            webhookUrl = resolveWebhookUrl(notification);
+            if (webhookUrl == null) {
+                return CompletableFuture.completedFuture(SendResult.permanentFailure("No webhook URL configured"));
+            }
+            jsonBody = objectMapper.writeValueAsString(buildPayload(notification));
+        } catch (Exception e) {
+            logger.error("Failed to prepare Slack message for channel: {}", notification.getChannel(), e);
+            return CompletableFuture.completedFuture(SendResult.permanentFailure(e));
+        }
+        String channel = notification.getChannel();
+        
+        return SharedHttpClient.async().postJson(webhookUrl, jsonBody, null)
+            .handle((response, error) -> {
+                if (error != null) {
+                    logger.error("Failed to send Slack webhook to channel '{}': {}", channel, error.getMessage());
+                    return SendResult.failure(error);
+                }
+                SendResult result = AsyncHttpTransport.resultOf(response);
+                if (result.isSuccess()) {
+                    logger.info("Slack message sent successfully to channel '{}'. Status: {}", channel, response.statusCode());
+                    return result;
+                }
+                logger.error("Slack message failed for channel '{}'. Status: {}", channel, response.statusCode());
+                return result;
+            });
+    }
+    
+    /**
+     * Resolve the webhook of the notification's channel (or the default one), applying channel defaults
+     * @return the webhook URL, or null if none is configured
+     */
+    private String resolveWebhookUrl(SlackNotification notification) {
+        // Resolve webhook URL for the specified channel
+        String channel = notification.getChannel();
+        if (channel == null || channel.trim().isEmpty()) {
+            channel = slackConfig.getDefaultChannel();
+            notification.setChannel(channel);
+        }
+        
+        String webhookUrl = slackConfig.getWebhookUrlForChannel(channel);
+        if (webhookUrl == null) {
+            logger.error("No webhook URL configured for channel: {}. Available channels: {}", 
+                channel, slackConfig.getChannels().keySet());
+            return null;
+        }
+        
+        // Apply default username if not specified and available for this channel
+        if (notification.getUsername() == null) {
+            String defaultUsername = slackConfig.getDefaultUsernameForChannel(channel);
+            if (defaultUsername != null) {
+                notification.setUsername(defaultUsername);
+            }
+        }
+        
+        return webhookUrl;
+    }
+    
+    private Map<String, Object> buildPayload(SlackNotification notification) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("text", notification.getText());
+        payload.put("channel", notification.getChannel());
+        
+        if (notification.getUsername() != null) {
+            payload.put("username", notification.getUsername());
+        }
+        
+        if (notification.getIconEmoji() != null) {
+            payload.put("icon_emoji", notification.getIconEmoji());
+        }
+        
+        if (notification.getIconUrl() != null) {
+            payload.put("icon_url", notification.getIconUrl());
+        }
+        
+        // Add attachments if present
+        if (notification.getAttachments() != null && !notification.getAttachments().isEmpty()) {
+            payload.put("attachments", notification.getAttachments());
+        }
+        
+        // Add blocks if present
+        if (notification.getRawBlocks() != null) {
+            // Spliced into the request body as received, without binding
+            if (!notification.getRawBlocks().isEmpty()) {
+                payload.put("blocks", notification.getRawBlocks());
+            }
+        } else if (notification.getBlocks() != null && !notification.getBlocks().isEmpty()) {
+            payload.put("blocks", notification.getBlocks());
+        }
+        
+        // Add thread support if present
+        if (notification.getThreadTs() != null) {
+            payload.put("thread_ts", notification.getThreadTs());
+        }
+        
+        return payload;
+    }
+    
     @Override
     public boolean sendSimpleMessage(String channel, String text) {
         SlackNotification notification = new SlackNotification();
@@ -138,12 +206,22 @@ public class MultiChannelSlackWebhookNotifier implements SlackNotifier {
     @Override
     public void send(Event event) {
         if (event instanceof SlackNotification) {
-            sendSlackMessage((SlackNotification) event);
+            if (!sendSlackMessage((SlackNotification) event)) {
+                throw new NotificationSendException(SendResult.failure("Slack delivery failed"));
+            }
         } else {
             throw new IllegalArgumentException("Event must be a SlackNotification");
         }
     }
     
+    @Override
+    public CompletionStage<SendResult> sendAsync(Event event) {
+        if (!(event instanceof SlackNotification)) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Event must be a SlackNotification"));
+        }
+        return deliverAsync((SlackNotification) event);
+    }
+    
     private boolean sendSlackWebhook(String webhookUrl, Map<String, Object> payload) {
         try {
             HttpPost request = new HttpPost(webhookUrl);
@@ -182,10 +260,10 @@ public class MultiChannelSlackWebhookNotifier implements SlackNotifier {
     }
     
     /**
-     * Close the HTTP client
+     * Close the HTTP client if it was passed to this notifier
      */
     public void close() throws IOException {
-        if (httpClient != null) {
+        if (httpClient != null && ownsHttpClient) {
             httpClient.close();
         }
     }
@@ -0,0 +1,152 @@
+package com.kafnotif.notifier.impl;
+
+import com.kafnotif.config.HttpClientConfig;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactoryBuilder;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.ssl.SSLContexts;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The HTTP client shared by the Slack, Discord and webhook notifiers. One pooled connection
+ * manager and one SSL context mean connections and TLS sessions to the same host are reused
+ * across notifiers, instead of each notifier owning a small default pool without timeouts.
+ * <p>
+ * Call {@link #configure(HttpClientConfig)} before creating notifiers. Blocking sends use the client
+ * the notifier was created with; async sends always use the current transport.
+ */
+public final class SharedHttpClient {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SharedHttpClient.class);
+    
+    private static HttpClientConfig config = new HttpClientConfig();
+    private static CloseableHttpClient client;
+    private static AsyncHttpTransport asyncTransport;
+    // Clients replaced by configure() and still held by notifiers created before it
+    private static final List<CloseableHttpClient> retired = new ArrayList<>();
+    
+    private SharedHttpClient() {
+    }
+    
+    /**
+     * Get the shared client, creating it with the current settings on first use
+     */
+    public static synchronized CloseableHttpClient get() {
+        if (client == null) {
+            client = create(config);
+            logger.info("🌐 Created shared HTTP client (max {} connections, {} per route)",
+                       config.getMaxConnections(), config.getMaxConnectionsPerRoute());
+        }
+        return client;
+    }
+    
+    /**
+     * Get the shared non-blocking transport, creating it with the current settings on first use
+     */
+    public static synchronized AsyncHttpTransport async() {
+        if (asyncTransport == null) {
+            asyncTransport = new AsyncHttpTransport(config);
+            logger.info("🌐 Created shared async HTTP transport (HTTP/2: {}, {} I/O threads)",
+                       config.isHttp2(), config.getAsyncIoThreads());
+        }
+        return asyncTransport;
+    }
+    
+    /**
+     * Set the settings of the shared client. If it already exists it is replaced; notifiers
+     * created earlier keep using the previous one for blocking sends until {@link #close()}.
+     * An existing async transport is shut down once its in-flight requests complete, and the
+     * next async send creates one with the new settings.
+     */
+    public static synchronized void configure(HttpClientConfig httpClientConfig) {
+        config = httpClientConfig;
+        if (client != null) {
+            logger.warn("Shared HTTP client reconfigured after first use; existing notifiers keep the old settings");
+            retired.add(client);
+            client = null;
+        }
+        if (asyncTransport != null) {
+            asyncTransport.close();
+            asyncTransport = null;
+        }
+    }
+    
+    /**
+     * Close the shared clients, including ones replaced by {@link #configure(HttpClientConfig)},
+     * and their pooled connections
+     */
+    public static synchronized void close() {
+        retired.forEach(retiredClient -> retiredClient.close(CloseMode.GRACEFUL));
+        retired.clear();
+        if (client != null) {
+            client.close(CloseMode.GRACEFUL);
+            client = null;
+        }
+        if (asyncTransport != null) {
+            asyncTransport.close();
+            asyncTransport = null;
+        }
+    }
+    
+    /**
+     * Create a dedicated pooled client with the given settings
+     */
+    public static CloseableHttpClient create(HttpClientConfig config) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setSSLSocketFactory(SSLConnectionSocketFactoryBuilder.create()
+                .setSslContext(SSLContexts.createSystemDefault())
+                .build())
+            .setMaxConnTotal(config.getMaxConnections())
+            .setMaxConnPerRoute(config.getMaxConnectionsPerRoute())
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(timeout(config.getConnectTimeout()))
+                .setSocketTimeout(timeout(config.getResponseTimeout()))
+                .setValidateAfterInactivity(timeValue(config.getValidateAfterInactivity()))
+                .build())
+            .build();
+        
+        return HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(requestConfig(config))
+            .evictExpiredConnections()
+            .evictIdleConnections(timeValue(config.getIdleEviction()))
+            .build();
+    }
+    
+    /**
+     * Get the request defaults of the shared client, to derive per-request settings from.
+     * A request's own config replaces the client defaults instead of being merged with them.
+     */
+    public static synchronized RequestConfig requestConfig() {
+        return requestConfig(config);
+    }
+    
+    private static RequestConfig requestConfig(HttpClientConfig config) {
+        return RequestConfig.custom()
+            .setConnectionRequestTimeout(timeout(config.getConnectionRequestTimeout()))
+            .setResponseTimeout(timeout(config.getResponseTimeout()))
+            // Used by the default keep-alive strategy when the server sends no Keep-Alive header
+            .setConnectionKeepAlive(timeValue(config.getKeepAlive()))
+            .build();
+    }
+    
+    private static Timeout timeout(Duration duration) {
+        return Timeout.ofMilliseconds(duration.toMillis());
+    }
+    
+    private static TimeValue timeValue(Duration duration) {
+        return TimeValue.ofMilliseconds(duration.toMillis());
+    }
+}
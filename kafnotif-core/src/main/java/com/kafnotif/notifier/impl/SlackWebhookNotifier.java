@@ -4,11 +4,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kafnotif.util.JsonUtils;
 import com.kafnotif.model.Event;
 import com.kafnotif.model.SlackNotification;
+import com.kafnotif.notifier.AsyncNotifier;
 import com.kafnotif.notifier.SlackNotifier;
+import com.kafnotif.notifier.SendResult;
+import com.kafnotif.notifier.NotificationSendException;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.io.entity.StringEntity;
 import org.slf4j.Logger;
@@ -17,16 +19,19 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Slack Webhook implementation of SlackNotifier
  */
-public class SlackWebhookNotifier implements SlackNotifier {
+public class SlackWebhookNotifier implements SlackNotifier, AsyncNotifier {
     
     private static final Logger logger = LoggerFactory.getLogger(SlackWebhookNotifier.class);
     
     private final String webhookUrl;
     private final CloseableHttpClient httpClient;
+    private final boolean ownsHttpClient;
     private final ObjectMapper objectMapper;
     
     /**
@@ -34,8 +39,9 @@ public class SlackWebhookNotifier implements SlackNotifier {
      */
     public SlackWebhookNotifier(String webhookUrl) {
         this.webhookUrl = webhookUrl;
-        this.httpClient = HttpClients.createDefault();
-        this.objectMapper = JsonUtils.createObjectMapper();
+        this.httpClient = SharedHttpClient.get();
+        this.ownsHttpClient = false;
+        this.objectMapper = JsonUtils.sharedObjectMapper();
     }
     
     /**
@@ -44,42 +50,14 @@ public class SlackWebhookNotifier implements SlackNotifier {
     public SlackWebhookNotifier(String webhookUrl, CloseableHttpClient httpClient) {
         this.webhookUrl = webhookUrl;
         this.httpClient = httpClient;
-        this.objectMapper = JsonUtils.createObjectMapper();
+        this.ownsHttpClient = true;
+        this.objectMapper = JsonUtils.sharedObjectMapper();
     }
     
     @Override
     public boolean sendSlackMessage(SlackNotification notification) {
         try {
-            Map<String, Object> payload = new HashMap<>();
-            payload.put("text", notification.getText());
-            
-            if (notification.getChannel() != null) {
-                payload.put("channel", notification.getChannel());
-            }
-            
-            if (notification.getUsername() != null) {
-                payload.put("username", notification.getUsername());
-            }
-            
-            if (notification.getIconEmoji() != null) {
-                payload.put("icon_emoji", notification.getIconEmoji());
-            }
-            
-            if (notification.getIconUrl() != null) {
-                payload.put("icon_url", notification.getIconUrl());
-            }
-            
-            // Add attachments if present
-            if (notification.getAttachments() != null && !notification.getAttachments().isEmpty()) {
-                payload.put("attachments", notification.getAttachments());
-            }
-            
-            // Add blocks if present
-            if (notification.getBlocks() != null && !notification.getBlocks().isEmpty()) {
-                payload.put("blocks", notification.getBlocks());
-            }
-            
-            return sendSlackWebhook(payload);
+            return sendSlackWebhook(buildPayload(notification));
             
         } catch (Exception e) {
             logger.error("Failed to send Slack message", e);
@@ -87,6 +65,77 @@ public class SlackWebhookNotifier implements SlackNotifier {
         }
     }
     
+    /**
+     * Send a Slack message through the shared non-blocking transport
+     * @return future completing with true if Slack accepted the message
+     */
+    public CompletableFuture<Boolean> sendSlackMessageAsync(SlackNotification notification) {
+        return deliverAsync(notification).thenApply(SendResult::isSuccess);
+    }
+    
+    private CompletableFuture<SendResult> deliverAsync(SlackNotification notification) {
+        String jsonBody;
+        try {
+            jsonBody = objectMapper.writeValueAsString(buildPayload(notification));
+        } catch (Exception e) {
+            logger.error("Failed to serialize Slack message", e);
+            return CompletableFuture.completedFuture(SendResult.permanentFailure(e));
+        }
+        
+        return SharedHttpClient.async().postJson(webhookUrl, jsonBody, null)
+            .handle((response, error) -> {
+                if (error != null) {
+                    logger.error("Failed to send Slack webhook: {}", error.getMessage());
+                    return SendResult.failure(error);
+                }
+                SendResult result = AsyncHttpTransport.resultOf(response);
+                if (result.isSuccess()) {
+                    logger.info("Slack message sent successfully. Status: {}", response.statusCode());
+                    return result;
+                }
+                logger.error("Slack message failed. Status: {}", response.statusCode());
+                return result;
+            });
+    }
+    
+    private Map<String, Object> buildPayload(SlackNotification notification) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("text", notification.getText());
+        
+        if (notification.getChannel() != null) {
+            payload.put("channel", notification.getChannel());
+        }
+        
+        if (notification.getUsername() != null) {
+            payload.put("username", notification.getUsername());
+        }
+        
+        if (notification.getIconEmoji() != null) {
+            payload.put("icon_emoji", notification.getIconEmoji());
+        }
+        
+        if (notification.getIconUrl() != null) {
+            payload.put("icon_url", notification.getIconUrl());
+        }
+        
+        // Add attachments if present
+        if (notification.getAttachments() != null && !notification.getAttachments().isEmpty()) {
+            payload.put("attachments", notification.getAttachments());
+        }
+        
+        // Add blocks if present
+        if (notification.getRawBlocks() != null) {
+            // Spliced into the request body as received, without binding
+            if (!notification.getRawBlocks().isEmpty()) {
+                payload.put("blocks", notification.getRawBlocks());
+            }
+        } else if (notification.getBlocks() != null && !notification.getBlocks().isEmpty()) {
+            payload.put("blocks", notification.getBlocks());
+        }
+        
+        return payload;
+    }
+    
     @Override
     public boolean sendSimpleMessage(String channel, String text) {
         SlackNotification notification = new SlackNotification();
@@ -111,12 +160,22 @@ public class SlackWebhookNotifier implements SlackNotifier {
     @Override
     public void send(Event event) {
         if (event instanceof SlackNotification) {
-            sendSlackMessage((SlackNotification) event);
+            if (!sendSlackMessage((SlackNotification) event)) {
+                throw new NotificationSendException(SendResult.failure("Slack delivery failed"));
+            }
         } else {
             throw new IllegalArgumentException("Event must be a SlackNotification");
         }
     }
     
+    @Override
+    public CompletionStage<SendResult> sendAsync(Event event) {
+        if (!(event instanceof SlackNotification)) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Event must be a SlackNotification"));
+        }
+        return deliverAsync((SlackNotification) event);
+    }
+    
     private boolean sendSlackWebhook(Map<String, Object> payload) {
         try {
             HttpPost request = new HttpPost(webhookUrl);
@@ -142,10 +201,10 @@ public class SlackWebhookNotifier implements SlackNotifier {
     }
     
     /**
-     * Close the HTTP client
+     * Close the HTTP client if it was passed to this notifier
      */
     public void close() throws IOException {
-        if (httpClient != null) {
+        if (httpClient != null && ownsHttpClient) {
             httpClient.close();
         }
     }
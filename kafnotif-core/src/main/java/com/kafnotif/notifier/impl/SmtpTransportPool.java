@@ -0,0 +1,228 @@
+package com.kafnotif.notifier.impl;
+
+import com.kafnotif.config.SmtpPoolConfig;
+import jakarta.mail.Address;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded pool of connected SMTP transports for one mail session (one SMTP server).
+ * {@code Transport.send} opens a connection, negotiates STARTTLS and AUTH, sends one message
+ * and disconnects; a pooled connection pays for that once and then costs one envelope and
+ * DATA exchange per message.
+ * <p>
+ * Idle connections are checked with a NOOP before reuse, closed after the idle timeout and
+ * recycled after a maximum number of messages.
+ */
+public class SmtpTransportPool implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SmtpTransportPool.class);
+    
+    private final Session session;
+    private final SmtpPoolConfig config;
+    private final Semaphore permits;
+    private final long idleTimeoutNanos;
+    private final long validateAfterNanos;
+    
+    // Most recently used first, so surplus connections age out at the tail
+    private final Deque<PooledTransport> idle = new ConcurrentLinkedDeque<>();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+    
+    public SmtpTransportPool(Session session, SmtpPoolConfig config) {
+        this.session = session;
+        this.config = config;
+        this.permits = new Semaphore(config.getMaxConnections(), true);
+        this.idleTimeoutNanos = config.getIdleTimeout().toNanos();
+        this.validateAfterNanos = config.getValidateAfterInactivity().toNanos();
+        
+        long evictionPeriod = Math.max(1000, config.getIdleTimeout().toMillis() / 2);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kafnotif-smtp-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(this::evictIdle, evictionPeriod, evictionPeriod, TimeUnit.MILLISECONDS);
+        
+        logger.info("📧 Created SMTP connection pool (max {} connections to {}, {} messages per connection)",
+                   config.getMaxConnections(), session.getProperty("mail.smtp.host"),
+                   config.getMaxMessagesPerConnection());
+    }
+    
+    /**
+     * Send a message over a pooled connection, waiting for one if all are busy. If a reused
+     * connection turns out to be broken, the message is sent once more over a new connection.
+     */
+    public void send(Message message) throws MessagingException {
+        message.saveChanges();
+        sendTo(message, message.getAllRecipients());
+    }
+    
+    /**
+     * Send a message to an explicit envelope (one RCPT TO per address), independent of the
+     * recipients listed in its headers
+     */
+    public void send(Message message, Address[] recipients) throws MessagingException {
+        message.saveChanges();
+        sendTo(message, recipients);
+    }
+    
+    private void sendTo(Message message, Address[] recipients) throws MessagingException {
+        if (recipients == null || recipients.length == 0) {
+            throw new SendFailedException("No recipient addresses");
+        }
+        
+        acquire();
+        try {
+            PooledTransport connection = borrow();
+            try {
+                sendOn(connection, message, recipients);
+            } catch (MessagingException e) {
+                if (e instanceof SendFailedException || connection.messagesSent == 0) {
+                    throw e;
+                }
+                // The server dropped the connection since it was last checked
+                logger.debug("Pooled SMTP connection failed ({}), retrying on a new connection", e.getMessage());
+                sendOn(connect(), message, recipients);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+    
+    private void sendOn(PooledTransport connection, Message message, Address[] recipients) throws MessagingException {
+        boolean reusable = false;
+        try {
+            connection.transport.sendMessage(message, recipients);
+            connection.messagesSent++;
+            reusable = true;
+        } finally {
+            // A failed transaction may leave the session mid-command; never reuse it
+            release(connection, reusable);
+        }
+    }
+    
+    private void acquire() throws MessagingException {
+        if (closed) {
+            throw new MessagingException("SMTP connection pool is closed");
+        }
+        try {
+            if (!permits.tryAcquire(config.getBorrowTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new MessagingException("Timed out waiting for an SMTP connection after "
+                                             + config.getBorrowTimeout().toMillis() + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for an SMTP connection", e);
+        }
+    }
+    
+    private PooledTransport borrow() throws MessagingException {
+        PooledTransport connection;
+        while ((connection = idle.pollFirst()) != null) {
+            long idleNanos = System.nanoTime() - connection.lastUsed;
+            if (idleNanos > idleTimeoutNanos) {
+                closeQuietly(connection);
+            } else if (idleNanos > validateAfterNanos && !connection.transport.isConnected()) {
+                // isConnected() sends a NOOP once the connection has been idle
+                logger.debug("Discarding stale SMTP connection");
+                closeQuietly(connection);
+            } else {
+                return connection;
+            }
+        }
+        return connect();
+    }
+    
+    private PooledTransport connect() throws MessagingException {
+        String protocol = session.getProperty("mail.transport.protocol");
+        Transport transport = session.getTransport(protocol != null ? protocol : "smtp");
+        transport.connect();
+        logger.debug("Opened SMTP connection to {}", session.getProperty("mail.smtp.host"));
+        return new PooledTransport(transport);
+    }
+    
+    private void release(PooledTransport connection, boolean reusable) {
+        if (reusable && !closed && connection.messagesSent < config.getMaxMessagesPerConnection()) {
+            connection.lastUsed = System.nanoTime();
+            idle.offerFirst(connection);
+        } else {
+            closeQuietly(connection);
+        }
+    }
+    
+    /**
+     * Close connections idle for longer than the idle timeout
+     */
+    private void evictIdle() {
+        long now = System.nanoTime();
+        List<PooledTransport> expired = new ArrayList<>();
+        for (PooledTransport connection : idle) {
+            if (now - connection.lastUsed > idleTimeoutNanos) {
+                expired.add(connection);
+            }
+        }
+        for (PooledTransport connection : expired) {
+            // Skip connections borrowed in the meantime
+            if (idle.removeFirstOccurrence(connection)) {
+                closeQuietly(connection);
+            }
+        }
+    }
+    
+    private static void closeQuietly(PooledTransport connection) {
+        try {
+            connection.transport.close();
+        } catch (MessagingException e) {
+            logger.debug("Error closing SMTP connection: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * @return connected transports waiting to be reused
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+    
+    /**
+     * @return sends currently holding a connection
+     */
+    public int getActiveCount() {
+        return config.getMaxConnections() - permits.availablePermits();
+    }
+    
+    @Override
+    public void close() {
+        closed = true;
+        evictor.shutdownNow();
+        PooledTransport connection;
+        while ((connection = idle.pollFirst()) != null) {
+            closeQuietly(connection);
+        }
+    }
+    
+    private static final class PooledTransport {
+        private final Transport transport;
+        private int messagesSent;
+        private volatile long lastUsed = System.nanoTime();
+        
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+}
@@ -2,17 +2,25 @@ package com.kafnotif.notifier.impl;
 
 import com.kafnotif.model.Event;
 import com.kafnotif.model.SmsNotification;
+import com.kafnotif.notifier.AsyncNotifier;
+import com.kafnotif.notifier.NotificationSendException;
+import com.kafnotif.notifier.SendResult;
 import com.kafnotif.notifier.SmsNotifier;
 import com.twilio.Twilio;
+import com.twilio.exception.ApiException;
 import com.twilio.rest.api.v2010.account.Message;
 import com.twilio.type.PhoneNumber;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
 /**
  * Twilio implementation of SmsNotifier
  */
-public class TwilioSmsNotifier implements SmsNotifier {
+public class TwilioSmsNotifier implements SmsNotifier, AsyncNotifier {
     
     private static final Logger logger = LoggerFactory.getLogger(TwilioSmsNotifier.class);
     
@@ -28,6 +36,10 @@ public class TwilioSmsNotifier implements SmsNotifier {
     
     @Override
     public boolean sendSms(SmsNotification notification) {
+        return deliver(notification).isSuccess();
+    }
+    
+    private SendResult deliver(SmsNotification notification) {
         try {
             Message message = Message.creator(
                     new PhoneNumber(notification.getRecipient()),
@@ -37,14 +49,61 @@ public class TwilioSmsNotifier implements SmsNotifier {
             
             logger.info("SMS sent successfully. SID: {}, Status: {}", 
                        message.getSid(), message.getStatus());
-            return true;
+            return SendResult.success();
             
         } catch (Exception e) {
             logger.error("Failed to send SMS to: {}", notification.getRecipient(), e);
-            return false;
+            return resultOf(e);
         }
     }
     
+    /**
+     * Send an SMS through the Twilio SDK's async API, off the caller's thread
+     * @return future completing with true if Twilio accepted the message
+     */
+    public CompletableFuture<Boolean> sendSmsAsync(SmsNotification notification) {
+        return deliverAsync(notification).thenApply(SendResult::isSuccess);
+    }
+    
+    private CompletableFuture<SendResult> deliverAsync(SmsNotification notification) {
+        try {
+            return Message.creator(
+                    new PhoneNumber(notification.getRecipient()),
+                    new PhoneNumber(fromPhoneNumber),
+                    notification.getMessage())
+                .createAsync()
+                .handle((message, error) -> {
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                        logger.error("Failed to send SMS to: {}: {}", notification.getRecipient(), cause.getMessage());
+                        return resultOf(cause);
+                    }
+                    logger.info("SMS sent successfully. SID: {}, Status: {}", 
+                               message.getSid(), message.getStatus());
+                    return SendResult.success();
+                });
+        } catch (Exception e) {
+            logger.error("Failed to send SMS to: {}", notification.getRecipient(), e);
+            return CompletableFuture.completedFuture(resultOf(e));
+        }
+    }
+    
+    /**
+     * Classify a Twilio error by its HTTP status (e.g. 400 for an invalid number is permanent,
+     * 429 and 5xx are retryable), reporting the Twilio error code
+     */
+    private static SendResult resultOf(Throwable error) {
+        if (error instanceof ApiException && ((ApiException) error).getStatusCode() != null) {
+            ApiException apiError = (ApiException) error;
+            boolean retryable = SendResult.forHttpStatus(apiError.getStatusCode(), null).isRetryable();
+            SendResult result = retryable ? SendResult.failure(error) : SendResult.permanentFailure(error);
+            return result.withProviderCode(String.valueOf(
+                apiError.getCode() != null ? apiError.getCode() : apiError.getStatusCode()));
+        }
+        return SendResult.failure(error);
+    }
+    
     @Override
     public boolean sendSimpleSms(String phoneNumber, String message) {
         SmsNotification notification = new SmsNotification();
@@ -62,9 +121,20 @@ public class TwilioSmsNotifier implements SmsNotifier {
     @Override
     public void send(Event event) {
         if (event instanceof SmsNotification) {
-            sendSms((SmsNotification) event);
+            SendResult result = deliver((SmsNotification) event);
+            if (!result.isSuccess()) {
+                throw new NotificationSendException(result);
+            }
         } else {
             throw new IllegalArgumentException("Event must be an SmsNotification");
         }
     }
+    
+    @Override
+    public CompletionStage<SendResult> sendAsync(Event event) {
+        if (!(event instanceof SmsNotification)) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Event must be an SmsNotification"));
+        }
+        return deliverAsync((SmsNotification) event);
+    }
 }
@@ -0,0 +1,391 @@
+package com.kafnotif.outbox;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped segment log used as a local outbox for the publisher.
+ *
+ * Records are appended by publishing threads and read back in order by a single relay thread.
+ * Each frame is {@code [int length][int crc32][payload]}; a zero length marks the end of the
+ * written area. A checkpoint file stores the position up to which records were acknowledged
+ * by Kafka; fully acknowledged segments are deleted.
+ */
+public class DiskOutbox implements Closeable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DiskOutbox.class);
+    
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final int FRAME_HEADER_BYTES = 8;
+    
+    private final Path directory;
+    private final int segmentBytes;
+    private final boolean syncWrites;
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    
+    // Writer state (guarded by this)
+    private Segment writeSegment;
+    
+    // Reader state (relay thread only)
+    private long readSegmentId;
+    private int readPosition;
+    
+    // Last acknowledged position
+    private volatile long ackedSegmentId;
+    private volatile int ackedPosition;
+    
+    public DiskOutbox(Path directory, int segmentBytes, boolean syncWrites) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.syncWrites = syncWrites;
+        
+        Files.createDirectories(directory);
+        recover();
+    }
+    
+    /**
+     * Append a record to the outbox
+     */
+    public synchronized void append(ProducerRecord<String, byte[]> record) {
+        byte[] payload = encode(record);
+        int frameSize = FRAME_HEADER_BYTES + payload.length;
+        
+        if (frameSize + 4 > segmentBytes) {
+            throw new IllegalArgumentException("Record of " + payload.length + " bytes exceeds outbox segment size " + segmentBytes);
+        }
+        
+        // Keep room for the zero end marker after the frame
+        if (writeSegment.writePosition + frameSize + 4 > segmentBytes) {
+            roll();
+        }
+        
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        
+        MappedByteBuffer buffer = writeSegment.buffer;
+        int position = writeSegment.writePosition;
+        // End marker first: the space after a frame truncated on recovery may hold stale frames
+        buffer.putInt(position + frameSize, 0);
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.put(position + FRAME_HEADER_BYTES, payload);
+        // Length is written last so a torn write is never read as a complete frame
+        buffer.putInt(position, payload.length);
+        
+        if (syncWrites) {
+            buffer.force(position, frameSize + 4);
+        }
+        
+        writeSegment.writePosition = position + frameSize;
+    }
+    
+    /**
+     * Read up to maxRecords records following the current read position (relay thread only)
+     */
+    public List<OutboxEntry> read(int maxRecords) {
+        List<OutboxEntry> entries = new ArrayList<>();
+        
+        while (entries.size() < maxRecords) {
+            Segment segment = segments.get(readSegmentId);
+            if (segment == null) {
+                break;
+            }
+            
+            if (readPosition >= segment.writePosition) {
+                // Move on only once the writer has left this segment
+                boolean sealed = segment.sealed;
+                if (sealed && readPosition < segment.writePosition) {
+                    continue; // the last frame was written just before sealing
+                }
+                Map.Entry<Long, Segment> next = segments.higherEntry(readSegmentId);
+                if (sealed && next != null) {
+                    readSegmentId = next.getKey();
+                    readPosition = 0;
+                    continue;
+                }
+                break;
+            }
+            
+            int length = segment.buffer.getInt(readPosition);
+            byte[] payload = new byte[length];
+            segment.buffer.get(readPosition + FRAME_HEADER_BYTES, payload);
+            readPosition += FRAME_HEADER_BYTES + length;
+            
+            entries.add(new OutboxEntry(decode(payload), readSegmentId, readPosition));
+        }
+        
+        return entries;
+    }
+    
+    /**
+     * Mark everything up to and including the given entry as delivered. Persists the
+     * checkpoint and deletes segments that are no longer needed.
+     */
+    public void acknowledge(OutboxEntry entry) throws IOException {
+        writeCheckpoint(entry.getSegmentId(), entry.getNextPosition());
+        ackedSegmentId = entry.getSegmentId();
+        ackedPosition = entry.getNextPosition();
+        
+        for (Long segmentId : new ArrayList<>(segments.headMap(entry.getSegmentId()).keySet())) {
+            Segment segment = segments.remove(segmentId);
+            Files.deleteIfExists(segment.path);
+            logger.debug("Deleted delivered outbox segment {}", segment.path.getFileName());
+        }
+    }
+    
+    /**
+     * Move the read position back to the last acknowledged position (after a failed delivery)
+     */
+    public void rewind() {
+        readSegmentId = ackedSegmentId;
+        readPosition = ackedPosition;
+    }
+    
+    /**
+     * Check whether all appended records have been acknowledged
+     */
+    public boolean isDrained() {
+        for (Segment segment : segments.tailMap(ackedSegmentId).values()) {
+            int start = segment.id == ackedSegmentId ? ackedPosition : 0;
+            if (start < segment.writePosition) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    public synchronized void close() {
+        // Mapped buffers are released by the GC once unreferenced
+        for (Segment segment : segments.values()) {
+            segment.buffer.force();
+        }
+        segments.clear();
+    }
+    
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+        }
+        
+        long[] checkpoint = readCheckpoint();
+        
+        for (Path file : files) {
+            long id = Long.parseLong(file.getFileName().toString().replace(SEGMENT_SUFFIX, ""));
+            if (checkpoint != null && id < checkpoint[0]) {
+                Files.deleteIfExists(file);
+                continue;
+            }
+            Segment segment = openSegment(id);
+            segment.writePosition = scanValidEnd(segment.buffer);
+            segment.sealed = true;
+            segments.put(id, segment);
+        }
+        
+        if (segments.isEmpty()) {
+            long id = checkpoint != null ? checkpoint[0] : 0;
+            segments.put(id, openSegment(id));
+            checkpoint = new long[] { id, 0 };
+        }
+        
+        writeSegment = segments.lastEntry().getValue();
+        writeSegment.sealed = false;
+        
+        if (checkpoint == null) {
+            checkpoint = new long[] { segments.firstKey(), 0 };
+        }
+        ackedSegmentId = checkpoint[0];
+        ackedPosition = (int) checkpoint[1];
+        rewind();
+        
+        if (!isDrained()) {
+            logger.info("📦 Recovered outbox at {} with undelivered records in {} segment(s)", directory, segments.size());
+        }
+    }
+    
+    private int scanValidEnd(MappedByteBuffer buffer) {
+        int position = 0;
+        while (position + FRAME_HEADER_BYTES <= segmentBytes) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + FRAME_HEADER_BYTES + length > segmentBytes) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(position + FRAME_HEADER_BYTES, payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                logger.warn("Outbox frame at position {} failed CRC check, truncating", position);
+                break;
+            }
+            position += FRAME_HEADER_BYTES + length;
+        }
+        return position;
+    }
+    
+    private void roll() {
+        writeSegment.sealed = true;
+        long nextId = writeSegment.id + 1;
+        try {
+            Segment segment = openSegment(nextId);
+            segments.put(nextId, segment);
+            writeSegment = segment;
+        } catch (IOException e) {
+            writeSegment.sealed = false;
+            throw new RuntimeException("Failed to create outbox segment " + nextId, e);
+        }
+    }
+    
+    private Segment openSegment(long id) throws IOException {
+        Path path = directory.resolve(String.format("%020d%s", id, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            return new Segment(id, path, buffer);
+        }
+    }
+    
+    private long[] readCheckpoint() throws IOException {
+        Path path = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        return new long[] { buffer.getLong(), buffer.getInt() };
+    }
+    
+    private void writeCheckpoint(long segmentId, int position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(12).putLong(segmentId).putInt(position);
+        Path tmp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        Files.write(tmp, buffer.array());
+        Files.move(tmp, directory.resolve(CHECKPOINT_FILE),
+                   StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    static byte[] encode(ProducerRecord<String, byte[]> record) {
+        byte[] topic = record.topic().getBytes(StandardCharsets.UTF_8);
+        byte[] key = record.key() != null ? record.key().getBytes(StandardCharsets.UTF_8) : null;
+        byte[] value = record.value();
+        Header[] headers = record.headers().toArray();
+        
+        int size = 2 + topic.length + 4 + (key != null ? key.length : 0) + 2 + 4 + (value != null ? value.length : 0);
+        for (Header header : headers) {
+            size += 2 + header.key().getBytes(StandardCharsets.UTF_8).length + 4
+                    + (header.value() != null ? header.value().length : 0);
+        }
+        
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putShort((short) topic.length).put(topic);
+        putBytes(buffer, key);
+        buffer.putShort((short) headers.length);
+        for (Header header : headers) {
+            byte[] headerKey = header.key().getBytes(StandardCharsets.UTF_8);
+            buffer.putShort((short) headerKey.length).put(headerKey);
+            putBytes(buffer, header.value());
+        }
+        putBytes(buffer, value);
+        return buffer.array();
+    }
+    
+    static ProducerRecord<String, byte[]> decode(byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        byte[] topic = new byte[buffer.getShort()];
+        buffer.get(topic);
+        byte[] key = getBytes(buffer);
+        
+        short headerCount = buffer.getShort();
+        List<Header> headers = new ArrayList<>(headerCount);
+        for (int i = 0; i < headerCount; i++) {
+            byte[] headerKey = new byte[buffer.getShort()];
+            buffer.get(headerKey);
+            headers.add(new RecordHeader(new String(headerKey, StandardCharsets.UTF_8), getBytes(buffer)));
+        }
+        byte[] value = getBytes(buffer);
+        
+        return new ProducerRecord<>(
+            new String(topic, StandardCharsets.UTF_8), null,
+            key != null ? new String(key, StandardCharsets.UTF_8) : null,
+            value,
+            headers);
+    }
+    
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(bytes.length).put(bytes);
+        }
+    }
+    
+    private static byte[] getBytes(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+    
+    /**
+     * A single memory-mapped segment file
+     */
+    private static class Segment {
+        private final long id;
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private volatile int writePosition;
+        private volatile boolean sealed;
+        
+        Segment(long id, Path path, MappedByteBuffer buffer) {
+            this.id = id;
+            this.path = path;
+            this.buffer = buffer;
+        }
+    }
+    
+    /**
+     * A record read from the outbox together with the position following it
+     */
+    public static class OutboxEntry {
+        private final ProducerRecord<String, byte[]> record;
+        private final long segmentId;
+        private final int nextPosition;
+        
+        public OutboxEntry(ProducerRecord<String, byte[]> record, long segmentId, int nextPosition) {
+            this.record = record;
+            this.segmentId = segmentId;
+            this.nextPosition = nextPosition;
+        }
+        
+        public ProducerRecord<String, byte[]> getRecord() {
+            return record;
+        }
+        
+        public long getSegmentId() {
+            return segmentId;
+        }
+        
+        public int getNextPosition() {
+            return nextPosition;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.kafnotif.outbox;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Background relay that drains the disk outbox to Kafka in order.
+ * A batch is acknowledged in the outbox only after Kafka has confirmed every record in it;
+ * on failure the relay rewinds to the last acknowledged position and retries with backoff.
+ */
+public class OutboxRelay {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+    
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long MAX_BACKOFF_MS = 30_000;
+    
+    /**
+     * Sends a batch of records and returns only once all of them are acknowledged by Kafka
+     */
+    @FunctionalInterface
+    public interface BatchSender {
+        void send(List<ProducerRecord<String, byte[]>> records) throws Exception;
+    }
+    
+    private final DiskOutbox outbox;
+    private final BatchSender sender;
+    private final int batchSize;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private Thread thread;
+    
+    public OutboxRelay(DiskOutbox outbox, BatchSender sender, int batchSize) {
+        this.outbox = outbox;
+        this.sender = sender;
+        this.batchSize = batchSize;
+    }
+    
+    /**
+     * Start the relay thread
+     */
+    public void start() {
+        if (running.compareAndSet(false, true)) {
+            thread = Thread.ofPlatform()
+                    .name("kafnotif-outbox-relay")
+                    .daemon(true)
+                    .start(this::relayLoop);
+        }
+    }
+    
+    /**
+     * Wake the relay after new records were appended
+     */
+    public void signal() {
+        Thread relayThread = thread;
+        if (relayThread != null) {
+            LockSupport.unpark(relayThread);
+        }
+    }
+    
+    /**
+     * Stop the relay, waiting up to drainTimeout for pending records to be delivered.
+     * Undelivered records stay on disk and are sent after the next start.
+     */
+    public void stop(Duration drainTimeout) {
+        long deadline = System.nanoTime() + drainTimeout.toNanos();
+        while (!outbox.isDrained() && System.nanoTime() < deadline) {
+            signal();
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+        
+        if (running.compareAndSet(true, false)) {
+            signal();
+            try {
+                thread.join(drainTimeout.toMillis() + 1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        
+        if (!outbox.isDrained()) {
+            logger.warn("⚠️ Outbox relay stopped with undelivered records; they will be sent on next start");
+        }
+    }
+    
+    private void relayLoop() {
+        long backoffMs = 100;
+        
+        while (running.get()) {
+            List<DiskOutbox.OutboxEntry> batch = outbox.read(batchSize);
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            
+            try {
+                sender.send(batch.stream().map(DiskOutbox.OutboxEntry::getRecord).collect(Collectors.toList()));
+                outbox.acknowledge(batch.get(batch.size() - 1));
+                backoffMs = 100;
+                logger.debug("📤 Relayed {} outbox records to Kafka", batch.size());
+                
+            } catch (Exception e) {
+                logger.warn("Outbox relay failed to deliver {} records, retrying in {} ms: {}",
+                           batch.size(), backoffMs, e.getMessage());
+                outbox.rewind();
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(backoffMs));
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+}
@@ -1,24 +1,37 @@
 package com.kafnotif.spring;
 
+import com.kafnotif.config.AttachmentCacheConfig;
+import com.kafnotif.config.EmailGroupingConfig;
+import com.kafnotif.config.FirebaseTransportConfig;
+import com.kafnotif.config.InvalidTokenCacheConfig;
+import com.kafnotif.config.PushBatchConfig;
+import com.kafnotif.config.SmtpPoolConfig;
 import com.kafnotif.model.NotificationType;
 import com.kafnotif.notifier.NotifierFactory;
 import com.kafnotif.notifier.impl.*;
 import com.kafnotif.notifier.impl.MultiChannelSlackWebhookNotifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
 import jakarta.annotation.PostConstruct;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
- * Automatically sets up concrete notifier implementations based on configuration
+ * Automatically sets up concrete notifier implementations based on configuration. The
+ * notifiers it creates are closed when the context shuts down.
  */
 @Component
 @ConfigurationProperties(prefix = "kafnotif.providers")
-public class AutomaticNotifierSetup {
+public class AutomaticNotifierSetup implements DisposableBean {
     
     private static final Logger logger = LoggerFactory.getLogger(AutomaticNotifierSetup.class);
     
@@ -40,6 +53,13 @@ public class AutomaticNotifierSetup {
     // Webhook configuration (always enabled)
     private boolean enableWebhooks = true;
     
+    private final List<InvalidTokenCache.Listener> invalidTokenListeners = new ArrayList<>();
+    private InvalidTokenCache invalidTokenCache;
+    
+    // Closed in order on shutdown: batching and grouping stages before the notifiers they
+    // send through, and the invalid token cache last so it saves what the final sends found
+    private final List<AutoCloseable> closeables = new ArrayList<>();
+    
     @PostConstruct
     public void setupAutomaticNotifiers() {
         logger.info("🚀 Setting up automatic concrete notifiers...");
@@ -94,9 +114,19 @@ public class AutomaticNotifierSetup {
             JavaMailEmailNotifier emailNotifier = new JavaMailEmailNotifier(
                 email.getSmtpHost(), email.getSmtpPort(), 
                 email.getUsername(), email.getPassword(), 
-                email.getFromEmail()
+                email.getFromEmail(),
+                email.toSmtpPoolConfig(),
+                email.toAttachmentCacheConfig()
             );
-            NotifierFactory.registerNotifier(NotificationType.EMAIL, emailNotifier);
+            if (email.isGroupingEnabled()) {
+                // Closes the email notifier and its SMTP pool once the pending groups are sent
+                GroupingEmailNotifier groupingNotifier = new GroupingEmailNotifier(emailNotifier, email.toEmailGroupingConfig());
+                NotifierFactory.registerNotifier(NotificationType.EMAIL, groupingNotifier);
+                closeables.add(groupingNotifier);
+            } else {
+                NotifierFactory.registerNotifier(NotificationType.EMAIL, emailNotifier);
+                closeables.add(emailNotifier);
+            }
             logger.info("📧 JavaMail email notifier registered");
         } catch (Exception e) {
             logger.error("Failed to setup JavaMail notifier, using console fallback", e);
@@ -106,8 +136,21 @@ public class AutomaticNotifierSetup {
     
     private void setupFirebaseNotifier() {
         try {
-            FirebasePushNotifier pushNotifier = new FirebasePushNotifier(firebase.getServiceAccountPath());
-            NotifierFactory.registerNotifier(NotificationType.PUSH, pushNotifier);
+            FirebasePushNotifier pushNotifier = new FirebasePushNotifier(
+                firebase.getServiceAccountPath(), firebase.toTransportConfig());
+            if (firebase.isInvalidTokenCacheEnabled()) {
+                invalidTokenCache = new InvalidTokenCache(firebase.toInvalidTokenCacheConfig());
+                invalidTokenListeners.forEach(invalidTokenCache::addListener);
+                pushNotifier.setInvalidTokenCache(invalidTokenCache);
+            }
+            if (firebase.isBatchingEnabled()) {
+                BatchingPushNotifier batchingNotifier = new BatchingPushNotifier(pushNotifier, firebase.toPushBatchConfig());
+                NotifierFactory.registerNotifier(NotificationType.PUSH, batchingNotifier);
+                closeables.add(batchingNotifier);
+            } else {
+                NotifierFactory.registerNotifier(NotificationType.PUSH, pushNotifier);
+            }
+            closeables.add(pushNotifier);
             logger.info("🔔 Firebase push notifier registered");
         } catch (Exception e) {
             logger.error("Failed to setup Firebase notifier, using console fallback", e);
@@ -115,6 +158,32 @@ public class AutomaticNotifierSetup {
         }
     }
     
+    /**
+     * Send what the batching and grouping stages still hold, then close the notifiers, save
+     * the invalid token cache and close the shared HTTP clients
+     */
+    @Override
+    public void destroy() {
+        List<AutoCloseable> toClose = new ArrayList<>(closeables);
+        if (invalidTokenCache != null) {
+            toClose.add(invalidTokenCache);
+        }
+        closeables.clear();
+        for (AutoCloseable closeable : toClose) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                logger.error("Failed to close {}: {}", closeable.getClass().getSimpleName(), e.getMessage(), e);
+            }
+        }
+        // Last: the notifiers closed above may still have been sending through them
+        try {
+            SharedHttpClient.close();
+        } catch (Exception e) {
+            logger.error("Failed to close shared HTTP clients: {}", e.getMessage(), e);
+        }
+    }
+    
     private void setupTwilioNotifier() {
         try {
             TwilioSmsNotifier smsNotifier = new TwilioSmsNotifier(
@@ -227,6 +296,24 @@ public class AutomaticNotifierSetup {
         logger.info("🌐 Console webhook notifier registered (fallback)");
     }
     
+    /**
+     * Notify the application of device tokens FCM rejected, e.g. to prune its token store
+     * (requires the invalid token cache to be enabled)
+     */
+    public void addInvalidTokenListener(InvalidTokenCache.Listener listener) {
+        invalidTokenListeners.add(listener);
+        if (invalidTokenCache != null) {
+            invalidTokenCache.addListener(listener);
+        }
+    }
+    
+    /**
+     * @return the cache of invalid device tokens, or null if it is not enabled
+     */
+    public InvalidTokenCache getInvalidTokenCache() {
+        return invalidTokenCache;
+    }
+    
     // Configuration classes
     public static class EmailConfig {
         private boolean enabled = false;
@@ -236,6 +323,44 @@ public class AutomaticNotifierSetup {
         private String password;
         private String fromEmail;
         
+        // SMTP connection pool
+        private int maxConnections = 8;
+        private int maxMessagesPerConnection = 100;
+        private Duration idleTimeout = Duration.ofSeconds(30);
+        
+        public SmtpPoolConfig toSmtpPoolConfig() {
+            return new SmtpPoolConfig()
+                .maxConnections(maxConnections)
+                .maxMessagesPerConnection(maxMessagesPerConnection)
+                .idleTimeout(idleTimeout);
+        }
+        
+        // Cache of encoded attachments
+        private int attachmentCacheSize = 256;
+        private String attachmentCacheDirectory;
+        // Attachments may only be data: URIs unless file or URL sources are allowed here
+        private String attachmentBaseDirectory;
+        private List<String> attachmentAllowedHosts = new ArrayList<>();
+        
+        public AttachmentCacheConfig toAttachmentCacheConfig() {
+            return new AttachmentCacheConfig()
+                .maxEntries(attachmentCacheSize)
+                .directory(attachmentCacheDirectory != null ? Path.of(attachmentCacheDirectory) : null)
+                .baseDirectory(attachmentBaseDirectory != null ? Path.of(attachmentBaseDirectory) : null)
+                .allowedHosts(Set.copyOf(attachmentAllowedHosts));
+        }
+        
+        // Grouping of identical emails per recipient domain (off by default)
+        private boolean groupingEnabled = false;
+        private Duration groupingWindow = Duration.ofMillis(200);
+        private int maxRecipientsPerMessage = 50;
+        
+        public EmailGroupingConfig toEmailGroupingConfig() {
+            return new EmailGroupingConfig()
+                .window(groupingWindow)
+                .maxRecipientsPerMessage(maxRecipientsPerMessage);
+        }
+        
         // Getters and setters
         public boolean isEnabled() { 
             // Allow email without authentication for development (e.g., MailCatcher)
@@ -252,16 +377,92 @@ public class AutomaticNotifierSetup {
         public void setPassword(String password) { this.password = password; }
         public String getFromEmail() { return fromEmail; }
         public void setFromEmail(String fromEmail) { this.fromEmail = fromEmail; }
+        public int getMaxConnections() { return maxConnections; }
+        public void setMaxConnections(int maxConnections) { this.maxConnections = maxConnections; }
+        public int getMaxMessagesPerConnection() { return maxMessagesPerConnection; }
+        public void setMaxMessagesPerConnection(int maxMessagesPerConnection) { this.maxMessagesPerConnection = maxMessagesPerConnection; }
+        public Duration getIdleTimeout() { return idleTimeout; }
+        public void setIdleTimeout(Duration idleTimeout) { this.idleTimeout = idleTimeout; }
+        public int getAttachmentCacheSize() { return attachmentCacheSize; }
+        public void setAttachmentCacheSize(int attachmentCacheSize) { this.attachmentCacheSize = attachmentCacheSize; }
+        public String getAttachmentCacheDirectory() { return attachmentCacheDirectory; }
+        public void setAttachmentCacheDirectory(String attachmentCacheDirectory) { this.attachmentCacheDirectory = attachmentCacheDirectory; }
+        public String getAttachmentBaseDirectory() { return attachmentBaseDirectory; }
+        public void setAttachmentBaseDirectory(String attachmentBaseDirectory) { this.attachmentBaseDirectory = attachmentBaseDirectory; }
+        public List<String> getAttachmentAllowedHosts() { return attachmentAllowedHosts; }
+        public void setAttachmentAllowedHosts(List<String> attachmentAllowedHosts) { this.attachmentAllowedHosts = attachmentAllowedHosts; }
+        public boolean isGroupingEnabled() { return groupingEnabled; }
+        public void setGroupingEnabled(boolean groupingEnabled) { this.groupingEnabled = groupingEnabled; }
+        public Duration getGroupingWindow() { return groupingWindow; }
+        public void setGroupingWindow(Duration groupingWindow) { this.groupingWindow = groupingWindow; }
+        public int getMaxRecipientsPerMessage() { return maxRecipientsPerMessage; }
+        public void setMaxRecipientsPerMessage(int maxRecipientsPerMessage) { this.maxRecipientsPerMessage = maxRecipientsPerMessage; }
     }
     
     public static class FirebaseConfig {
         private boolean enabled = false;
         private String serviceAccountPath;
         
+        // HTTP transport to FCM
+        private int maxConnections = 50;
+        private Duration connectTimeout = Duration.ofSeconds(10);
+        private Duration readTimeout = Duration.ofSeconds(10);
+        
+        public FirebaseTransportConfig toTransportConfig() {
+            return new FirebaseTransportConfig()
+                .maxConnections(maxConnections)
+                .connectTimeout(connectTimeout)
+                .readTimeout(readTimeout);
+        }
+        
+        // Cache of device tokens FCM rejected (off by default)
+        private boolean invalidTokenCacheEnabled = false;
+        private Duration invalidTokenTtl = Duration.ofDays(7);
+        private boolean invalidTokenBloomFilter = false;
+        private String invalidTokenSnapshotPath;
+        
+        public InvalidTokenCacheConfig toInvalidTokenCacheConfig() {
+            return new InvalidTokenCacheConfig()
+                .ttl(invalidTokenTtl)
+                .bloomFilter(invalidTokenBloomFilter)
+                .snapshotPath(invalidTokenSnapshotPath != null ? Path.of(invalidTokenSnapshotPath) : null);
+        }
+        
+        // Batched sending with sendEach (off by default)
+        private boolean batchingEnabled = false;
+        private Duration batchLinger = Duration.ofMillis(20);
+        private int maxBatchSize = PushBatchConfig.MAX_FCM_BATCH_SIZE;
+        
+        public PushBatchConfig toPushBatchConfig() {
+            return new PushBatchConfig()
+                .linger(batchLinger)
+                .maxBatchSize(maxBatchSize);
+        }
+        
         public boolean isEnabled() { return enabled && serviceAccountPath != null; }
         public void setEnabled(boolean enabled) { this.enabled = enabled; }
         public String getServiceAccountPath() { return serviceAccountPath; }
         public void setServiceAccountPath(String serviceAccountPath) { this.serviceAccountPath = serviceAccountPath; }
+        public int getMaxConnections() { return maxConnections; }
+        public void setMaxConnections(int maxConnections) { this.maxConnections = maxConnections; }
+        public Duration getConnectTimeout() { return connectTimeout; }
+        public void setConnectTimeout(Duration connectTimeout) { this.connectTimeout = connectTimeout; }
+        public Duration getReadTimeout() { return readTimeout; }
+        public void setReadTimeout(Duration readTimeout) { this.readTimeout = readTimeout; }
+        public boolean isInvalidTokenCacheEnabled() { return invalidTokenCacheEnabled; }
+        public void setInvalidTokenCacheEnabled(boolean invalidTokenCacheEnabled) { this.invalidTokenCacheEnabled = invalidTokenCacheEnabled; }
+        public Duration getInvalidTokenTtl() { return invalidTokenTtl; }
+        public void setInvalidTokenTtl(Duration invalidTokenTtl) { this.invalidTokenTtl = invalidTokenTtl; }
+        public boolean isInvalidTokenBloomFilter() { return invalidTokenBloomFilter; }
+        public void setInvalidTokenBloomFilter(boolean invalidTokenBloomFilter) { this.invalidTokenBloomFilter = invalidTokenBloomFilter; }
+        public String getInvalidTokenSnapshotPath() { return invalidTokenSnapshotPath; }
+        public void setInvalidTokenSnapshotPath(String invalidTokenSnapshotPath) { this.invalidTokenSnapshotPath = invalidTokenSnapshotPath; }
+        public boolean isBatchingEnabled() { return batchingEnabled; }
+        public void setBatchingEnabled(boolean batchingEnabled) { this.batchingEnabled = batchingEnabled; }
+        public Duration getBatchLinger() { return batchLinger; }
+        public void setBatchLinger(Duration batchLinger) { this.batchLinger = batchLinger; }
+        public int getMaxBatchSize() { return maxBatchSize; }
+        public void setMaxBatchSize(int maxBatchSize) { this.maxBatchSize = maxBatchSize; }
     }
     
     public static class TwilioConfig {
@@ -1,7 +1,13 @@
 package com.kafnotif.spring;
 
 import com.kafnotif.KafNotif;
+import com.kafnotif.blob.FileSystemBlobStore;
+import com.kafnotif.codec.NotificationCodecs;
 import com.kafnotif.kafka.NotificationPublisher;
+import com.kafnotif.kafka.PublisherConfig;
+import com.kafnotif.notifier.impl.InvalidTokenCache;
+import com.kafnotif.notifier.impl.SharedHttpClient;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -9,6 +15,8 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.nio.file.Path;
+
 /**
  * Auto-configuration for KafNotif Spring Boot integration
  */
@@ -26,10 +34,34 @@ public class KafNotifAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    public NotificationPublisher kafNotifPublisher() {
-        return KafNotif.createPublisher(properties.getBootstrapServers(), properties.getTopicPrefix());
+    public NotificationPublisher kafNotifPublisher(ObjectProvider<FileSystemBlobStore> blobStore) {
+        PublisherConfig config = new PublisherConfig(properties.getBootstrapServers())
+            .topicPrefix(properties.getTopicPrefix())
+            .transactionalId(properties.getTransactionalId())
+            .priorityLanes(properties.isPriorityLanes())
+            .envelopeBatchSize(properties.getEnvelopeBatchSize())
+            .profile(properties.getProfile())
+            .codec(NotificationCodecs.named(properties.getCodec()));
+        properties.getTypeProfiles().forEach(config::profile);
+        properties.getProducerProperties().forEach(config::producerProperty);
+        blobStore.ifAvailable(store -> config.claimCheck(store, properties.getClaimCheckThreshold()));
+        if (properties.getOutboxDirectory() != null) {
+            config.outbox(Path.of(properties.getOutboxDirectory()));
+        }
+        return KafNotif.createPublisher(config);
     }
 
+    /**
+     * Claim-check blob store of the publisher, which also sweeps it when a retention is set
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "kafnotif", name = "claim-check-directory")
+    public FileSystemBlobStore kafNotifBlobStore() {
+        return new FileSystemBlobStore(Path.of(properties.getClaimCheckDirectory()),
+                                       properties.getClaimCheckRetention());
+    }
+    
     @Bean 
     @ConditionalOnMissingBean
     public KafNotifListenerProcessor kafNotifListenerProcessor() {
@@ -38,7 +70,11 @@ public class KafNotifAutoConfiguration {
     
     @Bean
     @ConditionalOnMissingBean
-    public AutomaticNotifierSetup automaticNotifierSetup() {
-        return new AutomaticNotifierSetup();
+    public AutomaticNotifierSetup automaticNotifierSetup(ObjectProvider<InvalidTokenCache.Listener> invalidTokenListeners) {
+        // Notifiers pick up the shared HTTP client when they are created
+        SharedHttpClient.configure(properties.getHttp().toHttpClientConfig());
+        AutomaticNotifierSetup setup = new AutomaticNotifierSetup();
+        invalidTokenListeners.orderedStream().forEach(setup::addInvalidTokenListener);
+        return setup;
     }
 }
@@ -1,5 +1,7 @@
 package com.kafnotif.spring;
 
+import com.kafnotif.blob.FileSystemBlobStore;
+import com.kafnotif.config.PerformanceProfile;
 import com.kafnotif.consumer.ConsumerConfig;
 import com.kafnotif.consumer.NotificationConsumer;
 import com.kafnotif.hooks.AckControl;
@@ -7,6 +9,7 @@ import com.kafnotif.hooks.NotificationHooks;
 import com.kafnotif.model.NotificationEvent;
 import com.kafnotif.model.NotificationType;
 import com.kafnotif.notifier.NotifierFactory;
+import com.kafnotif.template.DirectoryTemplateSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeansException;
@@ -20,8 +23,10 @@ import org.springframework.util.StringUtils;
 
 import jakarta.annotation.PreDestroy;
 import java.lang.reflect.Method;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 /**
  * Simple processor that discovers @KafNotifListener annotations and sets up consumers.
@@ -93,7 +98,21 @@ public class KafNotifListenerProcessor implements BeanPostProcessor, Application
             .concurrency(annotation.concurrency())
             .ackMode(annotation.ackMode())
             .maxRetries(annotation.maxRetries())
-            .enableDlq(properties.isEnableDlq());
+            .maxRetryDelay(properties.getMaxRetryDelay())
+            .enableDlq(properties.isEnableDlq())
+            .transactional(properties.isTransactional())
+            .priorityLanes(properties.isPriorityLanes())
+            .minBulkShare(properties.getMinBulkShare())
+            .trustValidatedHeader(properties.isTrustValidatedHeader())
+            .profile(getProfile(types));
+        properties.getConsumerProperties().forEach(config::consumerProperty);
+        if (properties.getClaimCheckDirectory() != null) {
+            config.blobStore(new FileSystemBlobStore(Path.of(properties.getClaimCheckDirectory())));
+        }
+        if (properties.getTemplateDirectory() != null) {
+            config.templateSource(new DirectoryTemplateSource(Path.of(properties.getTemplateDirectory())))
+                  .templateCacheSize(properties.getTemplateCacheSize());
+        }
         
         // Create hooks that will be called before/after automatic processing
         config.hooks(createListenerHooks(bean, method, annotation));
@@ -109,6 +128,16 @@ public class KafNotifListenerProcessor implements BeanPostProcessor, Application
             types, annotation.concurrency(), annotation.ackMode(), annotation.threadingMode());
     }
     
+    /**
+     * Use the type override when all of the listener's types share one, otherwise the default profile
+     */
+    private PerformanceProfile getProfile(Set<NotificationType> types) {
+        Set<PerformanceProfile> overrides = types.stream()
+            .map(type -> properties.getTypeProfiles().getOrDefault(type, properties.getProfile()))
+            .collect(Collectors.toSet());
+        return overrides.size() == 1 ? overrides.iterator().next() : properties.getProfile();
+    }
+    
     private NotificationHooks createListenerHooks(Object bean, Method method, KafNotifListener annotation) {
         // Look up optional afterSend method
         Method afterSendMethod = null;
@@ -1,9 +1,17 @@
 package com.kafnotif.spring;
 
+import com.kafnotif.config.HttpClientConfig;
+import com.kafnotif.config.PerformanceProfile;
 import com.kafnotif.config.ThreadingMode;
 import com.kafnotif.consumer.AckMode;
+import com.kafnotif.model.NotificationType;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Global KafNotif configuration properties for Spring Boot
  */
@@ -45,10 +53,106 @@ public class KafNotifProperties {
      */
     private int maxRetries = 3;
     
+    /**
+     * Longest provider retry-after hint to wait for; longer ones send the notification to the DLQ
+     */
+    private Duration maxRetryDelay = Duration.ofMinutes(5);
+    
     /**
      * Enable DLQ by default
      */
     private boolean enableDlq = true;
+    
+    /**
+     * Transactional id for the publisher (null disables transactional publishing)
+     */
+    private String transactionalId;
+    
+    /**
+     * Commit consumer offsets and DLQ records in one transaction (read_committed)
+     */
+    private boolean transactional = false;
+    
+    /**
+     * Directory of the publisher's local disk outbox (null publishes directly to Kafka)
+     */
+    private String outboxDirectory;
+    
+    /**
+     * Route high and low priority notifications through separate lane topics and producers
+     */
+    private boolean priorityLanes = false;
+    
+    /**
+     * Minimum fraction of polls that consume the bulk lane while urgent lanes are busy
+     */
+    private double minBulkShare = 0.1;
+    
+    /**
+     * Notifications packed into one envelope record by publishBatch (0 disables envelopes)
+     */
+    private int envelopeBatchSize = 0;
+    
+    /**
+     * Performance profile of the publisher and listeners (LOW_LATENCY, BALANCED, BULK_THROUGHPUT)
+     */
+    private PerformanceProfile profile = PerformanceProfile.BALANCED;
+    
+    /**
+     * Per notification type profile overrides, e.g. sms: BULK_THROUGHPUT
+     */
+    private Map<NotificationType, PerformanceProfile> typeProfiles = new EnumMap<>(NotificationType.class);
+    
+    /**
+     * Raw Kafka producer properties, applied on top of the profile
+     */
+    private Map<String, String> producerProperties = new HashMap<>();
+    
+    /**
+     * Raw Kafka consumer properties, applied on top of the profile
+     */
+    private Map<String, String> consumerProperties = new HashMap<>();
+    
+    /**
+     * Shared directory of the claim-check blob store (null keeps large email content inline)
+     */
+    private String claimCheckDirectory;
+    
+    /**
+     * Email bodies and attachments larger than this many bytes go to the blob store
+     */
+    private int claimCheckThreshold = 64 * 1024;
+    
+    /**
+     * Age after which the publisher sweeps blobs from the claim-check directory (null keeps them).
+     * Must exceed the topic retention plus the longest consumer lag.
+     */
+    private Duration claimCheckRetention;
+    
+    /**
+     * Wire format of published records: json or smile (consumers read both)
+     */
+    private String codec = "json";
+    
+    /**
+     * Directory of consumer-side templates (templateId/version/part.tmpl); null disables rendering
+     */
+    private String templateDirectory;
+    
+    /**
+     * Number of compiled template versions cached per listener
+     */
+    private int templateCacheSize = 512;
+    
+    /**
+     * Skip revalidation of records stamped as validated by a kafnotif publisher
+     */
+    private boolean trustValidatedHeader = false;
+    
+    /**
+     * Connection pool and timeouts of the HTTP client shared by Slack, Discord and webhook notifiers
+     */
+    private Http http = new Http();
 
     // Getters and setters
     public String getBootstrapServers() {
@@ -107,6 +211,14 @@ public class KafNotifProperties {
         this.maxRetries = maxRetries;
     }
 
+    public Duration getMaxRetryDelay() {
+        return maxRetryDelay;
+    }
+
+    public void setMaxRetryDelay(Duration maxRetryDelay) {
+        this.maxRetryDelay = maxRetryDelay;
+    }
+
     public boolean isEnableDlq() {
         return enableDlq;
     }
@@ -114,4 +226,203 @@ public class KafNotifProperties {
     public void setEnableDlq(boolean enableDlq) {
         this.enableDlq = enableDlq;
     }
+
+    public String getTransactionalId() {
+        return transactionalId;
+    }
+
+    public void setTransactionalId(String transactionalId) {
+        this.transactionalId = transactionalId;
+    }
+
+    public boolean isTransactional() {
+        return transactional;
+    }
+
+    public void setTransactional(boolean transactional) {
+        this.transactional = transactional;
+    }
+
+    public String getOutboxDirectory() {
+        return outboxDirectory;
+    }
+
+    public void setOutboxDirectory(String outboxDirectory) {
+        this.outboxDirectory = outboxDirectory;
+    }
+
+    public boolean isPriorityLanes() {
+        return priorityLanes;
+    }
+
+    public void setPriorityLanes(boolean priorityLanes) {
+        this.priorityLanes = priorityLanes;
+    }
+
+    public double getMinBulkShare() {
+        return minBulkShare;
+    }
+
+    public void setMinBulkShare(double minBulkShare) {
+        this.minBulkShare = minBulkShare;
+    }
+
+    public int getEnvelopeBatchSize() {
+        return envelopeBatchSize;
+    }
+
+    public void setEnvelopeBatchSize(int envelopeBatchSize) {
+        this.envelopeBatchSize = envelopeBatchSize;
+    }
+
+    public PerformanceProfile getProfile() {
+        return profile;
+    }
+
+    public void setProfile(PerformanceProfile profile) {
+        this.profile = profile;
+    }
+
+    public Map<NotificationType, PerformanceProfile> getTypeProfiles() {
+        return typeProfiles;
+    }
+
+    public void setTypeProfiles(Map<NotificationType, PerformanceProfile> typeProfiles) {
+        this.typeProfiles = typeProfiles;
+    }
+
+    public Map<String, String> getProducerProperties() {
+        return producerProperties;
+    }
+
+    public void setProducerProperties(Map<String, String> producerProperties) {
+        this.producerProperties = producerProperties;
+    }
+
+    public Map<String, String> getConsumerProperties() {
+        return consumerProperties;
+    }
+
+    public void setConsumerProperties(Map<String, String> consumerProperties) {
+        this.consumerProperties = consumerProperties;
+    }
+
+    public String getClaimCheckDirectory() {
+        return claimCheckDirectory;
+    }
+
+    public void setClaimCheckDirectory(String claimCheckDirectory) {
+        this.claimCheckDirectory = claimCheckDirectory;
+    }
+
+    public int getClaimCheckThreshold() {
+        return claimCheckThreshold;
+    }
+
+    public void setClaimCheckThreshold(int claimCheckThreshold) {
+        this.claimCheckThreshold = claimCheckThreshold;
+    }
+
+    public Duration getClaimCheckRetention() {
+        return claimCheckRetention;
+    }
+
+    public void setClaimCheckRetention(Duration claimCheckRetention) {
+        this.claimCheckRetention = claimCheckRetention;
+    }
+
+    public String getCodec() {
+        return codec;
+    }
+
+    public void setCodec(String codec) {
+        this.codec = codec;
+    }
+
+    public String getTemplateDirectory() {
+        return templateDirectory;
+    }
+
+    public void setTemplateDirectory(String templateDirectory) {
+        this.templateDirectory = templateDirectory;
+    }
+
+    public int getTemplateCacheSize() {
+        return templateCacheSize;
+    }
+
+    public void setTemplateCacheSize(int templateCacheSize) {
+        this.templateCacheSize = templateCacheSize;
+    }
+
+    public boolean isTrustValidatedHeader() {
+        return trustValidatedHeader;
+    }
+
+    public void setTrustValidatedHeader(boolean trustValidatedHeader) {
+        this.trustValidatedHeader = trustValidatedHeader;
+    }
+
+    public Http getHttp() {
+        return http;
+    }
+
+    public void setHttp(Http http) {
+        this.http = http;
+    }
+
+    /**
+     * Settings under kafnotif.http (durations accept values like 5s or 1m)
+     */
+    public static class Http {
+        private int maxConnections = 200;
+        private int maxConnectionsPerRoute = 50;
+        private Duration connectTimeout = Duration.ofSeconds(5);
+        private Duration responseTimeout = Duration.ofSeconds(30);
+        private Duration connectionRequestTimeout = Duration.ofSeconds(10);
+        private Duration keepAlive = Duration.ofMinutes(1);
+        private Duration idleEviction = Duration.ofSeconds(30);
+        private boolean http2 = true;
+        private int asyncIoThreads = 2;
+
+        public HttpClientConfig toHttpClientConfig() {
+            return new HttpClientConfig()
+                .maxConnections(maxConnections)
+                .maxConnectionsPerRoute(maxConnectionsPerRoute)
+                .connectTimeout(connectTimeout)
+                .responseTimeout(responseTimeout)
+                .connectionRequestTimeout(connectionRequestTimeout)
+                .keepAlive(keepAlive)
+                .idleEviction(idleEviction)
+                .http2(http2)
+                .asyncIoThreads(asyncIoThreads);
+        }
+
+        public int getMaxConnections() { return maxConnections; }
+        public void setMaxConnections(int maxConnections) { this.maxConnections = maxConnections; }
+
+        public int getMaxConnectionsPerRoute() { return maxConnectionsPerRoute; }
+        public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) { this.maxConnectionsPerRoute = maxConnectionsPerRoute; }
+
+        public Duration getConnectTimeout() { return connectTimeout; }
+        public void setConnectTimeout(Duration connectTimeout) { this.connectTimeout = connectTimeout; }
+
+        public Duration getResponseTimeout() { return responseTimeout; }
+        public void setResponseTimeout(Duration responseTimeout) { this.responseTimeout = responseTimeout; }
+
+        public Duration getConnectionRequestTimeout() { return connectionRequestTimeout; }
+        public void setConnectionRequestTimeout(Duration connectionRequestTimeout) { this.connectionRequestTimeout = connectionRequestTimeout; }
+
+        public Duration getKeepAlive() { return keepAlive; }
+        public void setKeepAlive(Duration keepAlive) { this.keepAlive = keepAlive; }
+
+        public Duration getIdleEviction() { return idleEviction; }
+        public void setIdleEviction(Duration idleEviction) { this.idleEviction = idleEviction; }
+
+        public boolean isHttp2() { return http2; }
+        public void setHttp2(boolean http2) { this.http2 = http2; }
+
+        public int getAsyncIoThreads() { return asyncIoThreads; }
+        public void setAsyncIoThreads(int asyncIoThreads) { this.asyncIoThreads = asyncIoThreads; }
+    }
 }
@@ -0,0 +1,98 @@
+package com.kafnotif.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A template parsed once into literal and variable segments. {@code {{name}}} inserts a variable
+ * (HTML-escaped in HTML templates), {@code {{{name}}}} inserts it unescaped. Missing variables
+ * render as empty strings.
+ */
+public final class CompiledTemplate {
+    
+    private final String[] literals;
+    private final String[] variables;
+    private final boolean[] escaped;
+    private final int literalLength;
+    
+    private CompiledTemplate(List<String> literals, List<String> variables, List<Boolean> escaped) {
+        this.literals = literals.toArray(new String[0]);
+        this.variables = variables.toArray(new String[0]);
+        this.escaped = new boolean[escaped.size()];
+        for (int i = 0; i < this.escaped.length; i++) {
+            this.escaped[i] = escaped.get(i);
+        }
+        this.literalLength = literals.stream().mapToInt(String::length).sum();
+    }
+    
+    /**
+     * Parse a template
+     * @param source the template text
+     * @param html whether {@code {{name}}} values are HTML-escaped
+     */
+    public static CompiledTemplate compile(String source, boolean html) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        List<Boolean> escaped = new ArrayList<>();
+        
+        int position = 0;
+        while (true) {
+            int start = source.indexOf("{{", position);
+            if (start < 0) {
+                break;
+            }
+            boolean raw = source.startsWith("{{{", start);
+            String close = raw ? "}}}" : "}}";
+            int end = source.indexOf(close, start + close.length());
+            if (end < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at position " + start);
+            }
+            literals.add(source.substring(position, start));
+            variables.add(source.substring(start + close.length(), end).trim());
+            escaped.add(html && !raw);
+            position = end + close.length();
+        }
+        literals.add(source.substring(position));
+        
+        return new CompiledTemplate(literals, variables, escaped);
+    }
+    
+    /**
+     * Render into an existing buffer (e.g. a request body being assembled)
+     */
+    public void render(Map<String, ?> values, StringBuilder out) {
+        for (int i = 0; i < variables.length; i++) {
+            out.append(literals[i]);
+            Object value = values != null ? values.get(variables[i]) : null;
+            if (value != null) {
+                if (escaped[i]) {
+                    appendHtmlEscaped(value.toString(), out);
+                } else {
+                    out.append(value);
+                }
+            }
+        }
+        out.append(literals[variables.length]);
+    }
+    
+    public String render(Map<String, ?> values) {
+        StringBuilder out = new StringBuilder(literalLength + variables.length * 16);
+        render(values, out);
+        return out.toString();
+    }
+    
+    private static void appendHtmlEscaped(String value, StringBuilder out) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<': out.append("&lt;"); break;
+                case '>': out.append("&gt;"); break;
+                case '&': out.append("&amp;"); break;
+                case '"': out.append("&quot;"); break;
+                case '\'': out.append("&#39;"); break;
+                default: out.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.kafnotif.template;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Templates stored as files: {@code <directory>/<templateId>/<version>/<part>.tmpl},
+ * e.g. {@code templates/order-shipped/3/htmlBody.tmpl}
+ */
+public class DirectoryTemplateSource implements TemplateSource {
+    
+    private static final String PART_SUFFIX = ".tmpl";
+    
+    private final Path directory;
+    
+    public DirectoryTemplateSource(Path directory) {
+        this.directory = directory;
+    }
+    
+    @Override
+    public Map<String, String> load(String templateId, Integer version) throws IOException {
+        Path templateDirectory = templateDirectory(templateId);
+        if (templateDirectory == null) {
+            return null;
+        }
+        
+        Integer resolved = version != null ? version : latestVersion(templateId);
+        if (resolved == null) {
+            return null;
+        }
+        Path versionDirectory = templateDirectory.resolve(String.valueOf(resolved));
+        if (!Files.isDirectory(versionDirectory)) {
+            return null;
+        }
+        
+        Map<String, String> parts = new HashMap<>();
+        try (Stream<Path> files = Files.list(versionDirectory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(PART_SUFFIX)) {
+                    parts.put(name.substring(0, name.length() - PART_SUFFIX.length()),
+                              Files.readString(file, StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return parts;
+    }
+    
+    @Override
+    public Integer latestVersion(String templateId) throws IOException {
+        Path templateDirectory = templateDirectory(templateId);
+        if (templateDirectory == null) {
+            return null;
+        }
+        try (Stream<Path> versions = Files.list(templateDirectory)) {
+            return versions
+                .map(path -> path.getFileName().toString())
+                .filter(name -> name.matches("\\d{1,9}"))
+                .map(Integer::valueOf)
+                .max(Integer::compare)
+                .orElse(null);
+        }
+    }
+    
+    private Path templateDirectory(String templateId) {
+        Path templateDirectory = directory.resolve(templateId).normalize();
+        if (!templateDirectory.startsWith(directory.normalize()) || !Files.isDirectory(templateDirectory)) {
+            return null;
+        }
+        return templateDirectory;
+    }
+}
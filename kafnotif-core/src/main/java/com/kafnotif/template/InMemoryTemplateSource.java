@@ -0,0 +1,37 @@
+package com.kafnotif.template;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Templates registered in code
+ */
+public class InMemoryTemplateSource implements TemplateSource {
+    
+    private final Map<String, ConcurrentSkipListMap<Integer, Map<String, String>>> templates = new ConcurrentHashMap<>();
+    
+    /**
+     * Register a version of a template
+     * @param parts the template text of each part, keyed by field (e.g. "subject", "htmlBody")
+     */
+    public InMemoryTemplateSource register(String templateId, int version, Map<String, String> parts) {
+        templates.computeIfAbsent(templateId, id -> new ConcurrentSkipListMap<>()).put(version, Map.copyOf(parts));
+        return this;
+    }
+    
+    @Override
+    public Map<String, String> load(String templateId, Integer version) {
+        ConcurrentSkipListMap<Integer, Map<String, String>> versions = templates.get(templateId);
+        if (versions == null || versions.isEmpty()) {
+            return null;
+        }
+        return version != null ? versions.get(version) : versions.lastEntry().getValue();
+    }
+    
+    @Override
+    public Integer latestVersion(String templateId) {
+        ConcurrentSkipListMap<Integer, Map<String, String>> versions = templates.get(templateId);
+        return versions == null || versions.isEmpty() ? null : versions.lastKey();
+    }
+}
@@ -0,0 +1,161 @@
+package com.kafnotif.template;
+
+import com.kafnotif.model.DiscordNotification;
+import com.kafnotif.model.EmailNotification;
+import com.kafnotif.model.NotificationEvent;
+import com.kafnotif.model.PushNotification;
+import com.kafnotif.model.SlackNotification;
+import com.kafnotif.model.SmsNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders templated notifications on the consumer side. Publishers send only a template id,
+ * version and variables; templates are loaded and compiled once per id and version and kept
+ * in an LRU cache.
+ * <p>
+ * Notifications without a version use the latest one. It is looked up again once the latest
+ * version TTL has passed, so a newly deployed version is picked up within that time.
+ */
+public class TemplateEngine {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TemplateEngine.class);
+    
+    private final TemplateSource source;
+    private final Map<String, Map<String, CompiledTemplate>> cache;
+    private final long latestVersionTtlMillis;
+    private final Map<String, LatestVersion> latestVersions = new ConcurrentHashMap<>();
+    
+    /**
+     * @param source where templates are loaded from
+     * @param cacheSize number of compiled template versions kept in memory
+     */
+    public TemplateEngine(TemplateSource source, int cacheSize) {
+        this(source, cacheSize, Duration.ofSeconds(30));
+    }
+    
+    /**
+     * @param source where templates are loaded from
+     * @param cacheSize number of compiled template versions kept in memory
+     * @param latestVersionTtl how long the latest version of a template is used before it is looked up again
+     */
+    public TemplateEngine(TemplateSource source, int cacheSize, Duration latestVersionTtl) {
+        this.source = source;
+        this.latestVersionTtlMillis = latestVersionTtl.toMillis();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Map<String, CompiledTemplate>> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+    
+    /**
+     * Render the content fields of a templated notification in place. The template reference
+     * is cleared afterwards, so the notification is validated, retried and dead-lettered with
+     * its rendered content.
+     * @throws IllegalArgumentException if the template does not exist
+     */
+    public void render(NotificationEvent notification) throws IOException {
+        if (!notification.isTemplated()) {
+            return;
+        }
+        Map<String, CompiledTemplate> template = getTemplate(notification.getTemplateId(), notification.getTemplateVersion());
+        
+        Map<String, Object> values = new HashMap<>();
+        values.put("recipient", notification.getRecipient());
+        if (notification.getVariables() != null) {
+            values.putAll(notification.getVariables());
+        }
+        
+        if (notification instanceof EmailNotification) {
+            EmailNotification email = (EmailNotification) notification;
+            email.setSubject(render(template, "subject", values, email.getSubject()));
+            email.setBody(render(template, "body", values, email.getBody()));
+            email.setHtmlBody(render(template, "htmlBody", values, email.getHtmlBody()));
+        } else if (notification instanceof SmsNotification) {
+            SmsNotification sms = (SmsNotification) notification;
+            sms.setMessage(render(template, "message", values, sms.getMessage()));
+        } else if (notification instanceof PushNotification) {
+            PushNotification push = (PushNotification) notification;
+            push.setTitle(render(template, "title", values, push.getTitle()));
+            push.setBody(render(template, "body", values, push.getBody()));
+        } else if (notification instanceof SlackNotification) {
+            SlackNotification slack = (SlackNotification) notification;
+            slack.setText(render(template, "text", values, slack.getText()));
+        } else if (notification instanceof DiscordNotification) {
+            DiscordNotification discord = (DiscordNotification) notification;
+            discord.setContent(render(template, "content", values, discord.getContent()));
+        }
+        
+        notification.setTemplateId(null);
+        notification.setTemplateVersion(null);
+        notification.setVariables(null);
+    }
+    
+    /**
+     * Get a compiled template, loading and compiling it on a cache miss
+     * @param version the template version, or null for the latest one
+     */
+    public Map<String, CompiledTemplate> getTemplate(String templateId, Integer version) throws IOException {
+        int resolved = version != null ? version : latestVersion(templateId);
+        String key = templateId + "@" + resolved;
+        synchronized (cache) {
+            Map<String, CompiledTemplate> cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        
+        Map<String, String> parts = source.load(templateId, resolved);
+        if (parts == null) {
+            throw new IllegalArgumentException("Template not found: " + key);
+        }
+        Map<String, CompiledTemplate> compiled = new HashMap<>();
+        parts.forEach((part, text) -> compiled.put(part, CompiledTemplate.compile(text, part.startsWith("html"))));
+        logger.debug("🧾 Compiled template {} ({} parts)", key, compiled.size());
+        
+        synchronized (cache) {
+            cache.put(key, compiled);
+        }
+        return compiled;
+    }
+    
+    private int latestVersion(String templateId) throws IOException {
+        long now = System.currentTimeMillis();
+        LatestVersion latest = latestVersions.get(templateId);
+        if (latest == null || now - latest.resolvedAt >= latestVersionTtlMillis) {
+            Integer version = source.latestVersion(templateId);
+            if (version == null) {
+                latestVersions.remove(templateId);
+                throw new IllegalArgumentException("Template not found: " + templateId + "@latest");
+            }
+            latest = new LatestVersion(version, now);
+            latestVersions.put(templateId, latest);
+        }
+        return latest.version;
+    }
+    
+    private static String render(Map<String, CompiledTemplate> template, String part,
+                                 Map<String, Object> values, String current) {
+        CompiledTemplate compiled = template.get(part);
+        return compiled != null ? compiled.render(values) : current;
+    }
+    
+    private static final class LatestVersion {
+        private final int version;
+        private final long resolvedAt;
+        
+        private LatestVersion(int version, long resolvedAt) {
+            this.version = version;
+            this.resolvedAt = resolvedAt;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.kafnotif.template;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Where consumers load notification templates from
+ */
+public interface TemplateSource {
+    
+    /**
+     * Load the parts of a template, keyed by the field they render
+     * (subject, body, htmlBody, message, title, text, content)
+     * @param templateId the template id
+     * @param version the template version, or null for the latest one
+     * @return the template text of each part, or null if the template does not exist
+     */
+    Map<String, String> load(String templateId, Integer version) throws IOException;
+    
+    /**
+     * Find the latest version of a template
+     * @param templateId the template id
+     * @return the highest version, or null if the template does not exist
+     */
+    Integer latestVersion(String templateId) throws IOException;
+}
@@ -1,29 +1,78 @@
 package com.kafnotif.util;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Utility class for JSON serialization/deserialization with proper Java 8+ date/time support
  */
 public class JsonUtils {
     
+    private static final Logger logger = LoggerFactory.getLogger(JsonUtils.class);
+    
+    private static final String BLACKBIRD_MODULE = "com.fasterxml.jackson.module.blackbird.BlackbirdModule";
+    
     /**
      * Creates a pre-configured ObjectMapper with JSR310 module for Java 8+ date/time types
      * and configured to ignore unknown properties for better compatibility
      * @return configured ObjectMapper instance
      */
     public static ObjectMapper createObjectMapper() {
-        ObjectMapper mapper = new ObjectMapper();
+        return configure(new ObjectMapper());
+    }
+    
+    /**
+     * Get the mapper shared by publishers, consumers and notifiers. A configured ObjectMapper is
+     * thread-safe, and sharing it keeps its serializer caches warm instead of rebuilding them
+     * per instance. Callers must not reconfigure it; use {@link #createObjectMapper()} for that.
+     * @return shared ObjectMapper instance
+     */
+    public static ObjectMapper sharedObjectMapper() {
+        return SharedMapperHolder.MAPPER;
+    }
+    
+    /**
+     * Applies the library's settings to a mapper of any data format (e.g. a binary one)
+     * @param mapper the mapper to configure
+     * @return the same mapper
+     */
+    public static ObjectMapper configure(ObjectMapper mapper) {
         mapper.registerModule(new JavaTimeModule());
         
         // Configure to ignore unknown properties for better compatibility
         mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
         
+        // Blackbird replaces reflection with generated lambdas for property access
+        Module blackbird = createBlackbirdModule();
+        if (blackbird != null) {
+            mapper.registerModule(blackbird);
+        }
+        
         return mapper;
     }
     
+    /**
+     * Instantiate the Blackbird module if jackson-module-blackbird is on the classpath
+     */
+    private static Module createBlackbirdModule() {
+        try {
+            return (Module) Class.forName(BLACKBIRD_MODULE).getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            logger.warn("Failed to register Jackson Blackbird module: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    private static class SharedMapperHolder {
+        private static final ObjectMapper MAPPER = createObjectMapper();
+    }
+    
     private JsonUtils() {
         // Utility class - prevent instantiation
     }
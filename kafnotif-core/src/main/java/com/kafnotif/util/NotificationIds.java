@@ -0,0 +1,71 @@
+package com.kafnotif.util;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates time-ordered notification ids in the UUIDv7 layout (RFC 9562): a 48-bit Unix
+ * millisecond timestamp, a 12-bit counter and 62 random bits. Ids sort by creation time, and
+ * ids from the same thread are strictly increasing. Generation uses per-thread state and
+ * {@link ThreadLocalRandom}, so publishers do not contend on a shared SecureRandom the way
+ * {@link UUID#randomUUID()} does. The ids are unique but not unguessable; do not use them as secrets.
+ */
+public final class NotificationIds {
+    
+    private static final int MAX_COUNTER = 0xFFF;
+    
+    private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+    
+    private NotificationIds() {
+    }
+    
+    /**
+     * @return a new time-ordered id in the standard 36-character UUID form
+     */
+    public static String next() {
+        return nextUuid().toString();
+    }
+    
+    /**
+     * @return a new time-ordered UUID (version 7)
+     */
+    public static UUID nextUuid() {
+        State state = STATE.get();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        
+        long now = System.currentTimeMillis();
+        if (now > state.millis) {
+            state.millis = now;
+            // Start low in the counter range so bursts in one millisecond rarely overflow it
+            state.counter = random.nextInt(MAX_COUNTER >> 1);
+        } else if (state.counter < MAX_COUNTER) {
+            state.counter++;
+        } else {
+            // Counter exhausted (or the clock moved back): borrow the next millisecond
+            state.millis++;
+            state.counter = 0;
+        }
+        
+        long msb = (state.millis << 16) | 0x7000L | state.counter;
+        long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+    
+    /**
+     * Extract the creation time of an id produced by this class
+     * @return epoch milliseconds, or -1 if the id is not a version 7 UUID
+     */
+    public static long timestampOf(String id) {
+        try {
+            UUID uuid = UUID.fromString(id);
+            return uuid.version() == 7 ? uuid.getMostSignificantBits() >>> 16 : -1;
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+    
+    private static final class State {
+        private long millis;
+        private int counter;
+    }
+}
@@ -0,0 +1,298 @@
+package com.kafnotif.validation;
+
+import com.kafnotif.model.DiscordNotification;
+import com.kafnotif.model.EmailNotification;
+import com.kafnotif.model.NotificationEvent;
+import com.kafnotif.model.PushNotification;
+import com.kafnotif.model.SlackNotification;
+import com.kafnotif.model.SmsNotification;
+import com.kafnotif.model.WebhookNotification;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Rule sets per notification class, built once with precompiled patterns. Besides the required
+ * fields, the default rules enforce provider limits (SMS length, FCM payload size, Slack and
+ * Discord text length) so oversized notifications are rejected at publish time instead of by
+ * the provider after a Kafka round trip.
+ * <p>
+ * Content rules are skipped for templated notifications; consumers validate them again after
+ * rendering.
+ * <p>
+ * Rules registered for a class also apply to its subclasses. A notification's own
+ * {@code isValid()} is checked as well when its class has no rules, or when an application class
+ * overrides it.
+ */
+public class NotificationValidator {
+    
+    /**
+     * Record header stamped by publishers on notifications that passed validation. Consumers
+     * configured to trust it ({@code ConsumerConfig.trustValidatedHeader}) skip revalidation.
+     */
+    public static final String VALIDATED_HEADER = "kafnotif-validated";
+    
+    public static final int MAX_SMS_LENGTH = 1600;
+    public static final int MAX_FCM_PAYLOAD_BYTES = 4096;
+    public static final int MAX_SLACK_TEXT_LENGTH = 40000;
+    public static final int MAX_DISCORD_CONTENT_LENGTH = 2000;
+    
+    private static final Pattern EMAIL = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+    private static final Pattern PHONE_NUMBER = Pattern.compile("^\\+?[1-9]\\d{1,14}$");
+    private static final Pattern HTTP_URL = Pattern.compile("^(?i)https?://[^\\s/?#]+[^\\s]*$");
+    
+    private static final String CUSTOM_CHECK_VIOLATION = "isValid() returned false";
+    private static final String MODEL_PACKAGE = "com.kafnotif.model";
+    
+    private static final NotificationValidator DEFAULTS = createDefault();
+    
+    // Set while a notification's own isValid() runs, which may call back into a validator
+    private static final ThreadLocal<Boolean> IN_CUSTOM_CHECK = ThreadLocal.withInitial(() -> false);
+    
+    private final Map<Class<?>, List<Rule<NotificationEvent>>> rules = new ConcurrentHashMap<>();
+    // Rules of each concrete class including its superclasses; cleared when rules are added
+    private final Map<Class<?>, ClassRules> resolved = new ConcurrentHashMap<>();
+    
+    /**
+     * Get the validator with the library's default rules, used by {@code isValid()}
+     */
+    public static NotificationValidator defaults() {
+        return DEFAULTS;
+    }
+    
+    /**
+     * Create a validator with the default rules, to extend with custom ones
+     */
+    public static NotificationValidator createDefault() {
+        NotificationValidator validator = new NotificationValidator();
+        
+        validator.rule(EmailNotification.class, "recipient must be an email address",
+                email -> notBlank(email.getRecipient()) && EMAIL.matcher(email.getRecipient()).matches());
+        validator.contentRule(EmailNotification.class, "subject is required",
+                email -> notBlank(email.getSubject()));
+        validator.contentRule(EmailNotification.class, "body or htmlBody is required",
+                email -> email.getBody() != null || email.getHtmlBody() != null);
+        
+        validator.rule(SmsNotification.class, "recipient must be an E.164 phone number",
+                sms -> notBlank(sms.getRecipient()) && PHONE_NUMBER.matcher(sms.getRecipient()).matches());
+        validator.contentRule(SmsNotification.class, "message is required",
+                sms -> notBlank(sms.getMessage()));
+        validator.contentRule(SmsNotification.class, "message exceeds " + MAX_SMS_LENGTH + " characters",
+                sms -> sms.getMessage() == null || sms.getMessage().length() <= MAX_SMS_LENGTH);
+        
+        validator.rule(PushNotification.class, "deviceToken is required",
+                push -> notBlank(push.getDeviceToken()));
+        validator.contentRule(PushNotification.class, "title and body are required",
+                push -> notBlank(push.getTitle()) && notBlank(push.getBody()));
+        validator.contentRule(PushNotification.class, "payload exceeds " + MAX_FCM_PAYLOAD_BYTES + " bytes",
+                push -> pushPayloadBytes(push) <= MAX_FCM_PAYLOAD_BYTES);
+        
+        validator.rule(SlackNotification.class, "channel is required",
+                slack -> notBlank(slack.getChannel()));
+        validator.rule(SlackNotification.class, "webhookUrl or recipient is required",
+                slack -> slack.getWebhookUrl() != null || slack.getRecipient() != null);
+        validator.contentRule(SlackNotification.class, "text is required",
+                slack -> notBlank(slack.getText()));
+        validator.contentRule(SlackNotification.class, "text exceeds " + MAX_SLACK_TEXT_LENGTH + " characters",
+                slack -> slack.getText() == null || slack.getText().length() <= MAX_SLACK_TEXT_LENGTH);
+        
+        validator.rule(DiscordNotification.class, "webhookUrl is required",
+                discord -> notBlank(discord.getWebhookUrl()));
+        validator.contentRule(DiscordNotification.class, "content is required",
+                discord -> notBlank(discord.getContent()));
+        validator.contentRule(DiscordNotification.class, "content exceeds " + MAX_DISCORD_CONTENT_LENGTH + " characters",
+                discord -> discord.getContent() == null || discord.getContent().length() <= MAX_DISCORD_CONTENT_LENGTH);
+        
+        validator.rule(WebhookNotification.class, "url must be an http(s) URL",
+                webhook -> webhook.getUrl() != null && HTTP_URL.matcher(webhook.getUrl()).matches());
+        validator.rule(WebhookNotification.class, "method is required",
+                webhook -> notBlank(webhook.getMethod()));
+        validator.rule(WebhookNotification.class, "payload is required",
+                webhook -> webhook.getRawPayload() != null
+                        ? !webhook.getRawPayload().isEmpty()
+                        : webhook.getWebhookPayload() != null && !webhook.getWebhookPayload().isEmpty());
+        
+        return validator;
+    }
+    
+    /**
+     * Add a rule that always applies to notifications of a class
+     * @param message the violation reported when the check fails
+     */
+    public <T extends NotificationEvent> NotificationValidator rule(Class<T> type, String message, Predicate<? super T> check) {
+        return add(type, new Rule<>(message, check, false));
+    }
+    
+    /**
+     * Add a rule on rendered content, skipped while a notification is still templated
+     */
+    public <T extends NotificationEvent> NotificationValidator contentRule(Class<T> type, String message, Predicate<? super T> check) {
+        return add(type, new Rule<>(message, check, true));
+    }
+    
+    /**
+     * @return the violated rules, empty if the notification is valid
+     */
+    public List<String> validate(NotificationEvent notification) {
+        if (notification == null) {
+            return Collections.singletonList("notification is required");
+        }
+        List<String> violations = null;
+        boolean templated = notification.isTemplated();
+        ClassRules classRules = rulesFor(notification);
+        for (Rule<NotificationEvent> rule : classRules.rules) {
+            if (!rule.appliesTo(templated) || rule.check.test(notification)) {
+                continue;
+            }
+            if (violations == null) {
+                violations = new ArrayList<>(2);
+            }
+            violations.add(rule.message);
+        }
+        if (classRules.customCheck && !passesCustomCheck(notification)) {
+            if (violations == null) {
+                violations = new ArrayList<>(1);
+            }
+            violations.add(CUSTOM_CHECK_VIOLATION);
+        }
+        return violations != null ? violations : Collections.emptyList();
+    }
+    
+    /**
+     * Check a notification, stopping at the first violated rule
+     */
+    public boolean isValid(NotificationEvent notification) {
+        if (notification == null) {
+            return false;
+        }
+        boolean templated = notification.isTemplated();
+        ClassRules classRules = rulesFor(notification);
+        for (Rule<NotificationEvent> rule : classRules.rules) {
+            if (rule.appliesTo(templated) && !rule.check.test(notification)) {
+                return false;
+            }
+        }
+        return !classRules.customCheck || passesCustomCheck(notification);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private <T extends NotificationEvent> NotificationValidator add(Class<T> type, Rule<T> rule) {
+        rules.computeIfAbsent(type, t -> new CopyOnWriteArrayList<>()).add((Rule<NotificationEvent>) (Rule<?>) rule);
+        resolved.clear();
+        return this;
+    }
+    
+    private ClassRules rulesFor(NotificationEvent notification) {
+        return resolved.computeIfAbsent(notification.getClass(), this::resolve);
+    }
+    
+    /**
+     * Collect the rules of a class and its superclasses, most general first
+     */
+    private ClassRules resolve(Class<?> type) {
+        List<Rule<NotificationEvent>> typeRules = new ArrayList<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            List<Rule<NotificationEvent>> declared = rules.get(c);
+            if (declared != null) {
+                typeRules.addAll(0, declared);
+            }
+        }
+        return new ClassRules(List.copyOf(typeRules), typeRules.isEmpty() || overridesIsValid(type));
+    }
+    
+    private static boolean overridesIsValid(Class<?> type) {
+        try {
+            return !type.getMethod("isValid").getDeclaringClass().getName().startsWith(MODEL_PACKAGE + ".");
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Call the notification's own isValid(), unless this thread is already inside it (an
+     * override calling {@code super.isValid()} comes back here through the default validator)
+     */
+    private static boolean passesCustomCheck(NotificationEvent notification) {
+        if (IN_CUSTOM_CHECK.get()) {
+            return true;
+        }
+        IN_CUSTOM_CHECK.set(true);
+        try {
+            return notification.isValid();
+        } finally {
+            IN_CUSTOM_CHECK.set(false);
+        }
+    }
+    
+    private static boolean notBlank(String value) {
+        return value != null && !value.isBlank();
+    }
+    
+    /**
+     * Approximate FCM payload size: the UTF-8 size of the user-visible fields and data entries
+     */
+    private static int pushPayloadBytes(PushNotification push) {
+        int size = utf8Length(push.getTitle()) + utf8Length(push.getBody()) + utf8Length(push.getIcon())
+                 + utf8Length(push.getSound()) + utf8Length(push.getClickAction());
+        if (push.getData() != null) {
+            for (Map.Entry<String, String> entry : push.getData().entrySet()) {
+                size += utf8Length(entry.getKey()) + utf8Length(entry.getValue());
+            }
+        }
+        return size;
+    }
+    
+    private static int utf8Length(String value) {
+        if (value == null) {
+            return 0;
+        }
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+    
+    private static final class ClassRules {
+        private final List<Rule<NotificationEvent>> rules;
+        // Whether the notification's own isValid() must be checked too
+        private final boolean customCheck;
+        
+        private ClassRules(List<Rule<NotificationEvent>> rules, boolean customCheck) {
+            this.rules = rules;
+            this.customCheck = customCheck;
+        }
+    }
+    
+    private static final class Rule<T extends NotificationEvent> {
+        private final String message;
+        private final Predicate<? super T> check;
+        private final boolean content;
+        
+        private Rule(String message, Predicate<? super T> check, boolean content) {
+            this.message = message;
+            this.check = check;
+            this.content = content;
+        }
+        
+        private boolean appliesTo(boolean templated) {
+            return !content || !templated;
+        }
+    }
+}
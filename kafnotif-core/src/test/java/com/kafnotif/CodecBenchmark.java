@@ -0,0 +1,73 @@
+package com.kafnotif;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kafnotif.codec.NotificationCodecs;
+import com.kafnotif.model.EmailNotification;
+import com.kafnotif.model.NotificationEvent;
+import com.kafnotif.model.NotificationPriority;
+import com.kafnotif.model.NotificationType;
+import com.kafnotif.util.JsonUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Micro-benchmark of the per-record decode cost on the consumer, for full decodes and for
+ * records skipped by a filter (routing fields only). Not a unit test; run with
+ * {@code mvn test-compile exec:java -Dexec.mainClass=com.kafnotif.CodecBenchmark -Dexec.classpathScope=test}
+ */
+public class CodecBenchmark {
+
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+
+    // Keeps the JIT from eliminating the decode calls
+    private static long sink;
+
+    public static void main(String[] args) throws Exception {
+        EmailNotification email = new EmailNotification("user@example.com", "Your order has shipped",
+                "Hi Jane, your order #12345 is on its way and should arrive on Thursday.");
+        email.setPriority(NotificationPriority.HIGH);
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("orderId", "12345");
+        metadata.put("campaign", "shipping");
+        email.setMetadata(metadata);
+
+        ObjectMapper mapper = JsonUtils.sharedObjectMapper();
+        byte[] json = NotificationCodecs.JSON.encode(email);
+        byte[] smile = NotificationCodecs.SMILE.encode(email);
+        System.out.printf("Blackbird: %s, record size: json=%d bytes, smile=%d bytes%n",
+                mapper.getRegisteredModuleIds().stream().anyMatch(id -> id.toString().contains("Blackbird")),
+                json.length, smile.length);
+
+        run("json  String + readValue (old path)", () -> {
+            String value = new String(json, StandardCharsets.UTF_8);
+            return mapper.readValue(value, NotificationEvent.class).getRecipient();
+        });
+        run("json  byte[] polymorphic", () -> NotificationCodecs.JSON.decode(json).getRecipient());
+        run("json  byte[] typed reader", () -> NotificationCodecs.JSON.decode(json, NotificationType.EMAIL).getRecipient());
+        run("smile byte[] polymorphic", () -> NotificationCodecs.SMILE.decode(smile).getRecipient());
+        run("smile byte[] typed reader", () -> NotificationCodecs.SMILE.decode(smile, NotificationType.EMAIL).getRecipient());
+        // Cost of a record skipped by a consumer filter
+        run("json  routing fields only", () -> NotificationCodecs.JSON.view(json, NotificationType.EMAIL).getRecipient());
+        run("smile routing fields only", () -> NotificationCodecs.SMILE.view(smile, NotificationType.EMAIL).getRecipient());
+    }
+
+    private static void run(String name, Decode decode) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            sink += decode.decode().length();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += decode.decode().length();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-36s %8.0f ns/record%n", name, (double) elapsed / ITERATIONS);
+    }
+
+    @FunctionalInterface
+    private interface Decode {
+        String decode() throws Exception;
+    }
+}
@@ -0,0 +1,88 @@
+package com.kafnotif.blob;
+
+import com.kafnotif.model.EmailNotification;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileSystemBlobStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void storesContentByHash() throws Exception {
+        try (FileSystemBlobStore store = new FileSystemBlobStore(directory)) {
+            byte[] content = "hello".getBytes(StandardCharsets.UTF_8);
+            String key = store.put(content);
+
+            assertEquals(key, store.put(content));
+            assertArrayEquals(content, store.get(key));
+            assertThrows(IllegalArgumentException.class, () -> store.get("../secret"));
+        }
+    }
+
+    @Test
+    void sweepRemovesOnlyBlobsNotStoredRecently() throws Exception {
+        try (FileSystemBlobStore store = new FileSystemBlobStore(directory)) {
+            String old = store.put("old".getBytes(StandardCharsets.UTF_8));
+            String reused = store.put("reused".getBytes(StandardCharsets.UTF_8));
+            String fresh = store.put("fresh".getBytes(StandardCharsets.UTF_8));
+            age(old);
+            age(reused);
+            store.put("reused".getBytes(StandardCharsets.UTF_8));
+
+            assertEquals(1, store.sweep(Duration.ofDays(1)));
+            assertThrows(NoSuchFileException.class, () -> store.get(old));
+            store.get(reused);
+            store.get(fresh);
+        }
+    }
+
+    @Test
+    void unresolvedReferencesAreLeftInPlace() throws Exception {
+        try (FileSystemBlobStore store = new FileSystemBlobStore(directory)) {
+            ClaimCheck claimCheck = new ClaimCheck(store, 4, 16);
+            EmailNotification email = new EmailNotification();
+            email.setBody("a large body");
+            email.setAttachments(List.of("small"));
+            claimCheck.checkIn(email);
+            assertTrue(ClaimCheck.hasReferences(email));
+
+            EmailNotification swept = copyOf(email);
+            claimCheck.checkOut(email);
+            assertEquals("a large body", email.getBody());
+            assertFalse(ClaimCheck.hasReferences(email));
+
+            age(swept.getBody().substring(ClaimCheck.REFERENCE_PREFIX.length()));
+            store.sweep(Duration.ofDays(1));
+            new ClaimCheck(store, 4, 16).checkOut(swept);
+            assertTrue(ClaimCheck.hasReferences(swept));
+        }
+    }
+
+    private void age(String key) throws Exception {
+        Path blob = directory.resolve(key.substring(0, 2)).resolve(key);
+        Files.setLastModifiedTime(blob, FileTime.fromMillis(System.currentTimeMillis() - Duration.ofDays(2).toMillis()));
+    }
+
+    private static EmailNotification copyOf(EmailNotification email) {
+        EmailNotification copy = new EmailNotification();
+        copy.setBody(email.getBody());
+        copy.setAttachments(email.getAttachments());
+        return copy;
+    }
+}
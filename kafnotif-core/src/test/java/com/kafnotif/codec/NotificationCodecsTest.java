@@ -0,0 +1,231 @@
+package com.kafnotif.codec;
+
+import com.kafnotif.model.DiscordNotification;
+import com.kafnotif.model.EmailNotification;
+import com.kafnotif.model.FanOutNotification;
+import com.kafnotif.model.NotificationEvent;
+import com.kafnotif.model.NotificationPriority;
+import com.kafnotif.model.NotificationType;
+import com.kafnotif.model.SlackNotification;
+import com.kafnotif.model.SmsNotification;
+import com.kafnotif.model.WebhookNotification;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NotificationCodecsTest {
+
+    private static final String BLOCKS = "[{\"type\":\"section\",\"text\":{\"type\":\"mrkdwn\",\"text\":\"*Deploy* done\"}}]";
+    private static final String EMBEDS = "[{\"title\":\"Build\",\"color\":65280,\"fields\":[{\"name\":\"env\",\"value\":\"prod\"}]}]";
+    private static final String PAYLOAD = "{\"event\":\"order.shipped\",\"order\":{\"id\":12345,\"items\":[1,2]},\"gift\":false}";
+
+    @ParameterizedTest
+    @ValueSource(strings = {"json", "smile"})
+    void decodesPolymorphicAndTypedNotifications(String name) throws Exception {
+        NotificationCodec codec = NotificationCodecs.named(name);
+        EmailNotification email = email();
+
+        byte[] data = codec.encode(email);
+
+        assertEmail(email, codec.decode(data));
+        assertEmail(email, codec.decode(data, NotificationType.EMAIL));
+        assertEmail(email, codec.decode(data, null));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"json", "smile"})
+    void decodesRecordsWithTheCodecAndTypeOfTheirHeaders(String name) throws Exception {
+        NotificationCodec codec = NotificationCodecs.named(name);
+        EmailNotification email = email();
+        Headers headers = headers(codec, "EMAIL");
+
+        assertSame(codec, NotificationCodecs.forHeaders(headers));
+        assertEquals(NotificationType.EMAIL, NotificationCodecs.typeOf(headers));
+        assertEmail(email, NotificationCodecs.decode(headers, codec.encode(email)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"json", "smile"})
+    void decodesEnvelopesOfMixedAndSingleTypes(String name) throws Exception {
+        NotificationCodec codec = NotificationCodecs.named(name);
+        EmailNotification email = email();
+        SmsNotification sms = new SmsNotification("+15550100", "Your code is 1234");
+
+        List<NotificationEvent> mixed = codec.decodeAll(codec.encodeAll(List.of(email, sms)));
+        assertEquals(2, mixed.size());
+        assertEmail(email, mixed.get(0));
+        SmsNotification decodedSms = assertInstanceOf(SmsNotification.class, mixed.get(1));
+        assertEquals(sms.getId(), decodedSms.getId());
+        assertEquals("+15550100", decodedSms.getRecipient());
+
+        EmailNotification second = new EmailNotification("other@example.com", "Receipt", "Thanks");
+        byte[] data = codec.encodeAll(List.of(email, second));
+        List<NotificationEvent> typed = codec.decodeAll(data, NotificationType.EMAIL);
+        assertEquals(2, typed.size());
+        assertEmail(email, typed.get(0));
+        assertEmail(second, typed.get(1));
+        assertEquals(2, NotificationCodecs.forHeaders(headers(codec, "EMAIL")).decodeAll(data, NotificationType.EMAIL).size());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"json", "smile"})
+    void decodesFanOuts(String name) throws Exception {
+        NotificationCodec codec = NotificationCodecs.named(name);
+        FanOutNotification fanOut = new FanOutNotification(email())
+                .addRecipient("a@example.com")
+                .addRecipient("b@example.com", Map.of("firstName", "Bea"));
+
+        FanOutNotification decoded = codec.decodeFanOut(codec.encodeFanOut(fanOut));
+
+        assertEquals(fanOut.getId(), decoded.getId());
+        assertEmail(email(), decoded.getTemplate());
+        assertEquals(2, decoded.getRecipients().size());
+        assertEquals("a@example.com", decoded.getRecipients().get(0).getRecipient());
+        assertNull(decoded.getRecipients().get(0).getVariables());
+        assertEquals("b@example.com", decoded.getRecipients().get(1).getRecipient());
+        assertEquals(Map.of("firstName", "Bea"), decoded.getRecipients().get(1).getVariables());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"json", "smile"})
+    void viewsReadRoutingFieldsBeforeTheFullDecode(String name) throws Exception {
+        NotificationCodec codec = NotificationCodecs.named(name);
+        EmailNotification email = email();
+        byte[] data = codec.encode(email);
+
+        for (NotificationType type : new NotificationType[] {NotificationType.EMAIL, null}) {
+            NotificationView view = codec.view(data, type);
+
+            assertEquals(email.getId(), view.getId());
+            assertEquals(NotificationType.EMAIL, view.getNotificationType());
+            assertEquals("user@example.com", view.getRecipient());
+            assertEquals(NotificationPriority.HIGH, view.getPriority());
+            assertEquals(email.getScheduledAt(), view.getScheduledAt());
+            assertFalse(view.isDecoded());
+
+            assertEmail(email, view.getNotification());
+            assertTrue(view.isDecoded());
+        }
+
+        NotificationView view = NotificationCodecs.view(headers(codec, "EMAIL"), data);
+        assertEquals(email.getId(), view.getId());
+    }
+
+    @Test
+    void viewsOfDecodedNotificationsNeedNoDecode() throws Exception {
+        EmailNotification email = email();
+
+        NotificationView view = NotificationView.of(email);
+
+        assertTrue(view.isDecoded());
+        assertSame(email, view.getNotification());
+        assertEquals(email.getId(), view.getId());
+        assertEquals(NotificationPriority.HIGH, view.getPriority());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"json", "smile"})
+    void rawSlackBlocksReserializeUnchanged(String name) throws Exception {
+        NotificationCodec codec = NotificationCodecs.named(name);
+        String json = "{\"notificationType\":\"slack\",\"id\":\"s-1\",\"recipient\":\"#deploys\","
+                + "\"channel\":\"#deploys\",\"text\":\"Deploy done\",\"blocks\":" + BLOCKS + "}";
+        NotificationEvent slack = NotificationCodecs.JSON.decode(json.getBytes(StandardCharsets.UTF_8));
+
+        SlackNotification decoded = (SlackNotification) codec.decode(codec.encode(slack));
+
+        assertEquals(BLOCKS, decoded.getRawBlocks().toString());
+        // Encoding again without accessing the blocks keeps them as they were
+        SlackNotification again = (SlackNotification) codec.decode(codec.encode(decoded));
+        assertEquals(BLOCKS, again.getRawBlocks().toString());
+        assertEquals("section", again.getBlocks().get(0).get("type"));
+        assertNull(again.getRawBlocks());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"json", "smile"})
+    void rawDiscordEmbedsReserializeUnchanged(String name) throws Exception {
+        NotificationCodec codec = NotificationCodecs.named(name);
+        String json = "{\"notificationType\":\"discord\",\"id\":\"d-1\",\"recipient\":\"https://discord.example/hook\","
+                + "\"content\":\"Build finished\",\"embeds\":" + EMBEDS + "}";
+        NotificationEvent discord = NotificationCodecs.JSON.decode(json.getBytes(StandardCharsets.UTF_8));
+
+        DiscordNotification decoded = (DiscordNotification) codec.decode(codec.encode(discord));
+
+        assertEquals(EMBEDS, decoded.getRawEmbeds().toString());
+        DiscordNotification again = (DiscordNotification) codec.decode(codec.encode(decoded));
+        assertEquals(EMBEDS, again.getRawEmbeds().toString());
+        assertEquals("Build", again.getEmbeds().get(0).getTitle());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"json", "smile"})
+    void rawWebhookPayloadsReserializeUnchanged(String name) throws Exception {
+        NotificationCodec codec = NotificationCodecs.named(name);
+        String json = "{\"notificationType\":\"webhook\",\"id\":\"w-1\",\"recipient\":\"https://example.com/hook\","
+                + "\"url\":\"https://example.com/hook\",\"payload\":" + PAYLOAD + "}";
+        NotificationEvent webhook = NotificationCodecs.JSON.decode(json.getBytes(StandardCharsets.UTF_8));
+
+        WebhookNotification decoded = (WebhookNotification) codec.decode(codec.encode(webhook), NotificationType.WEBHOOK);
+
+        assertEquals(PAYLOAD, decoded.getRawPayload().toString());
+        assertEquals(PAYLOAD, decoded.getContent());
+        WebhookNotification again = (WebhookNotification) codec.decode(codec.encode(decoded));
+        assertEquals(PAYLOAD, again.getRawPayload().toString());
+        assertEquals(false, again.getWebhookPayload().get("gift"));
+    }
+
+    @Test
+    void recordsWithoutContentTypeAreJson() {
+        assertSame(NotificationCodecs.JSON, NotificationCodecs.forHeaders(new RecordHeaders()));
+        assertNull(NotificationCodecs.typeOf(new RecordHeaders()));
+        assertNull(NotificationCodecs.typeOf(headers(NotificationCodecs.JSON, "carrier-pigeon")));
+        assertThrows(IllegalArgumentException.class, () -> NotificationCodecs.forContentType("application/x-unknown"));
+        assertThrows(IllegalArgumentException.class, () -> NotificationCodecs.named("xml"));
+    }
+
+    private static EmailNotification email() {
+        EmailNotification email = new EmailNotification("user@example.com", "Your order has shipped",
+                "Your order #12345 is on its way.");
+        email.setId("e-1");
+        email.setPriority(NotificationPriority.HIGH);
+        email.setScheduledAt(Instant.parse("2026-03-01T09:30:00Z"));
+        email.setCc(List.of("support@example.com"));
+        email.setMetadata(Map.of("orderId", "12345"));
+        return email;
+    }
+
+    private static void assertEmail(EmailNotification expected, NotificationEvent actual) {
+        EmailNotification email = assertInstanceOf(EmailNotification.class, actual);
+        assertEquals(expected.getId(), email.getId());
+        assertEquals(NotificationType.EMAIL, email.getNotificationType());
+        assertEquals(expected.getRecipient(), email.getRecipient());
+        assertEquals(expected.getPriority(), email.getPriority());
+        assertEquals(expected.getScheduledAt(), email.getScheduledAt());
+        assertEquals(expected.getSubject(), email.getSubject());
+        assertEquals(expected.getBody(), email.getBody());
+        assertEquals(expected.getCc(), email.getCc());
+        assertEquals(expected.getMetadata(), email.getMetadata());
+    }
+
+    private static Headers headers(NotificationCodec codec, String type) {
+        Headers headers = new RecordHeaders();
+        NotificationCodecs.setContentType(headers, codec);
+        headers.add(NotificationCodecs.TYPE_HEADER, type.getBytes(StandardCharsets.UTF_8));
+        return headers;
+    }
+}
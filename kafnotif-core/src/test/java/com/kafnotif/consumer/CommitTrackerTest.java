@@ -0,0 +1,118 @@
+package com.kafnotif.consumer;
+
+import com.kafnotif.hooks.EnvelopeAcknowledgment;
+import com.kafnotif.hooks.KafNotifAcknowledgment.AckRequest;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommitTrackerTest {
+
+    private final TopicPartition partition = new TopicPartition("notifications", 0);
+    private final CommitTracker tracker = new CommitTracker();
+    private final Queue<AckRequest> acks = new ArrayDeque<>();
+
+    @Test
+    void commitsHighestAcknowledgedOffset() {
+        acks.add(new AckRequest(partition, 3));
+        acks.add(new AckRequest(partition, 1));
+
+        assertEquals(new OffsetAndMetadata(4), tracker.collect(acks, null).get(partition));
+    }
+
+    @Test
+    void laterRecordsAcknowledgedFirstDoNotPassUnfinishedFanOut() {
+        tracker.hold(partition, 5, "kafnotif-fanout:0");
+
+        // Records after the fan-out finish while it is still sending
+        acks.add(new AckRequest(partition, 6));
+        acks.add(new AckRequest(partition, 7));
+        assertEquals(new OffsetAndMetadata(5, "kafnotif-fanout:0"), tracker.collect(acks, null).get(partition));
+
+        acks.add(AckRequest.checkpoint(partition, 5, "kafnotif-fanout:100", null));
+        assertEquals(new OffsetAndMetadata(5, "kafnotif-fanout:100"), tracker.collect(acks, null).get(partition));
+
+        acks.add(new AckRequest(partition, 8));
+        assertEquals(new OffsetAndMetadata(5, "kafnotif-fanout:100"), tracker.collect(acks, null).get(partition));
+
+        // Once the fan-out completes, the commit moves past everything acknowledged meanwhile
+        acks.add(new AckRequest(partition, 5));
+        assertEquals(new OffsetAndMetadata(9), tracker.collect(acks, null).get(partition));
+    }
+
+    @Test
+    void commitsRecordsBeforeFanOutWithoutCheckpoint() {
+        tracker.hold(partition, 5, "kafnotif-fanout:0");
+        acks.add(new AckRequest(partition, 2));
+
+        assertEquals(new OffsetAndMetadata(3), tracker.collect(acks, null).get(partition));
+    }
+
+    @Test
+    void earliestFanOutHoldsThePartition() {
+        tracker.hold(partition, 5, "kafnotif-fanout:0");
+        tracker.hold(partition, 7, "kafnotif-fanout:0");
+        acks.add(AckRequest.checkpoint(partition, 7, "kafnotif-fanout:50", null));
+        acks.add(new AckRequest(partition, 8));
+        assertEquals(new OffsetAndMetadata(5, "kafnotif-fanout:0"), tracker.collect(acks, null).get(partition));
+
+        acks.add(new AckRequest(partition, 5));
+        assertEquals(new OffsetAndMetadata(7, "kafnotif-fanout:50"), tracker.collect(acks, null).get(partition));
+    }
+
+    @Test
+    void otherPartitionsAreNotHeld() {
+        TopicPartition other = new TopicPartition("notifications", 1);
+        tracker.hold(partition, 5, "kafnotif-fanout:0");
+        acks.add(new AckRequest(other, 9));
+
+        Map<TopicPartition, OffsetAndMetadata> offsets = tracker.collect(acks, null);
+        assertEquals(new OffsetAndMetadata(10), offsets.get(other));
+        assertFalse(offsets.containsKey(partition));
+    }
+
+    @Test
+    void envelopeCommitsDeliveredPositionsUntilComplete() {
+        ConcurrentLinkedQueue<AckRequest> envelopeAcks = new ConcurrentLinkedQueue<>();
+        ConsumerRecord<String, byte[]> record = new ConsumerRecord<>("notifications", 0, 5, "key", new byte[0]);
+        tracker.hold(partition, 5, EnvelopeAcknowledgment.checkpointOf(new BitSet()));
+        EnvelopeAcknowledgment envelope = new EnvelopeAcknowledgment(record, envelopeAcks, 3);
+
+        envelope.child(2).acknowledge();
+        envelopeAcks.add(new AckRequest(partition, 6));
+        OffsetAndMetadata checkpoint = tracker.collect(envelopeAcks, null).get(partition);
+        assertEquals(5, checkpoint.offset());
+        BitSet delivered = EnvelopeAcknowledgment.parseCheckpoint(checkpoint.metadata());
+        assertEquals(BitSet.valueOf(new long[] {0b100}), delivered);
+
+        // Redelivered after a restart: only the positions not delivered are left
+        EnvelopeAcknowledgment resumed = new EnvelopeAcknowledgment(record, new ConcurrentLinkedQueue<>(), 3, delivered);
+        assertTrue(resumed.child(2).isAcknowledged());
+        assertFalse(resumed.child(0).isAcknowledged());
+
+        envelope.child(0).acknowledge();
+        envelope.child(1).acknowledge();
+        assertEquals(new OffsetAndMetadata(7), tracker.collect(envelopeAcks, null).get(partition));
+    }
+
+    @Test
+    void checkpointsAreLookedUpOncePerAssignment() {
+        assertFalse(tracker.firstSinceAssignment(partition));
+
+        tracker.assigned(List.of(partition));
+        assertTrue(tracker.firstSinceAssignment(partition));
+        assertFalse(tracker.firstSinceAssignment(partition));
+    }
+}
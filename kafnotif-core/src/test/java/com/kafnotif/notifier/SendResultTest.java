@@ -0,0 +1,70 @@
+package com.kafnotif.notifier;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SendResultTest {
+
+    @Test
+    void successfulStatusesAreSent() {
+        SendResult result = SendResult.forHttpStatus(204, "30");
+
+        assertTrue(result.isSuccess());
+        assertEquals("204", result.getProviderCode());
+        assertNull(result.getRetryAfter());
+    }
+
+    @Test
+    void throttlingTimeoutsAndServerErrorsAreRetryable() {
+        for (int status : new int[] {408, 425, 429, 500, 502, 503, 504}) {
+            SendResult result = SendResult.forHttpStatus(status, null);
+            assertFalse(result.isSuccess(), "HTTP " + status);
+            assertTrue(result.isRetryable(), "HTTP " + status);
+            assertEquals(String.valueOf(status), result.getProviderCode());
+        }
+        assertEquals(Duration.ofSeconds(7), SendResult.forHttpStatus(429, "7").getRetryAfter());
+    }
+
+    @Test
+    void clientErrorsArePermanent() {
+        for (int status : new int[] {301, 400, 401, 403, 404, 410, 413}) {
+            SendResult result = SendResult.forHttpStatus(status, "7");
+            assertFalse(result.isSuccess(), "HTTP " + status);
+            assertFalse(result.isRetryable(), "HTTP " + status);
+            assertNull(result.getRetryAfter(), "HTTP " + status);
+        }
+    }
+
+    @Test
+    void parsesRetryAfterSeconds() {
+        assertEquals(Duration.ofSeconds(120), SendResult.parseRetryAfter("120"));
+        assertEquals(Duration.ofMillis(1500), SendResult.parseRetryAfter(" 1.5 "));
+        assertEquals(Duration.ZERO, SendResult.parseRetryAfter("0"));
+    }
+
+    @Test
+    void parsesRetryAfterDates() {
+        String inOneMinute = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(60));
+        Duration delay = SendResult.parseRetryAfter(inOneMinute);
+        assertTrue(delay.compareTo(Duration.ofSeconds(55)) > 0 && delay.compareTo(Duration.ofSeconds(61)) <= 0, delay.toString());
+
+        assertEquals(Duration.ZERO, SendResult.parseRetryAfter("Wed, 21 Oct 2015 07:28:00 GMT"));
+    }
+
+    @Test
+    void ignoresMalformedRetryAfter() {
+        for (String value : new String[] {null, "", "  ", "-5", "soon", "NaN", "Infinity", "1e9", "0x10", "12d",
+                                          "99999999999999999999"}) {
+            assertNull(SendResult.parseRetryAfter(value), String.valueOf(value));
+        }
+    }
+}
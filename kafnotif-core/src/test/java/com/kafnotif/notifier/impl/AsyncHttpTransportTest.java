@@ -0,0 +1,79 @@
+package com.kafnotif.notifier.impl;
+
+import com.kafnotif.config.HttpClientConfig;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AsyncHttpTransportTest {
+
+    private HttpServer server;
+    private String url;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/slow";
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        SharedHttpClient.close();
+        SharedHttpClient.configure(new HttpClientConfig());
+    }
+
+    @Test
+    void closeLetsQueuedAndInFlightRequestsComplete() throws Exception {
+        AsyncHttpTransport transport = new AsyncHttpTransport(new HttpClientConfig().maxConnections(1));
+        CompletableFuture<HttpResponse<String>> first = transport.postJson(url, "{}", null);
+        CompletableFuture<HttpResponse<String>> queued = transport.postJson(url, "{}", null);
+        transport.close();
+
+        assertEquals(200, first.get(5, TimeUnit.SECONDS).statusCode());
+        assertEquals("ok", queued.get(5, TimeUnit.SECONDS).body());
+
+        assertThrows(ExecutionException.class, () -> transport.postJson(url, "{}", null).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void reconfiguringReplacesTheAsyncTransport() throws Exception {
+        AsyncHttpTransport before = SharedHttpClient.async();
+        assertSame(before, SharedHttpClient.async());
+        CompletableFuture<HttpResponse<String>> inFlight = before.postJson(url, "{}", null);
+
+        SharedHttpClient.configure(new HttpClientConfig().maxConnections(10));
+
+        AsyncHttpTransport after = SharedHttpClient.async();
+        assertNotSame(before, after);
+        assertEquals(200, inFlight.get(5, TimeUnit.SECONDS).statusCode());
+        assertEquals(200, after.postJson(url, "{}", null).get(5, TimeUnit.SECONDS).statusCode());
+    }
+}
@@ -0,0 +1,129 @@
+package com.kafnotif.notifier.impl;
+
+import com.kafnotif.config.AttachmentCacheConfig;
+import jakarta.mail.BodyPart;
+import jakarta.mail.Message;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeBodyPart;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AttachmentCacheTest {
+
+    @TempDir
+    Path base;
+
+    @TempDir
+    Path outside;
+
+    @Test
+    void rejectsFilesAndUrlsByDefault() throws Exception {
+        Path file = Files.writeString(base.resolve("a.txt"), "a");
+        try (AttachmentCache cache = new AttachmentCache(new AttachmentCacheConfig())) {
+            assertThrows(IllegalArgumentException.class, () -> cache.createPart(file.toString()));
+            assertThrows(IllegalArgumentException.class, () -> cache.createPart(file.toUri().toString()));
+            assertThrows(IllegalArgumentException.class, () -> cache.createPart("http://localhost/a.txt"));
+            assertThrows(IllegalArgumentException.class, () -> cache.createPart("kafnotif-blob:abc"));
+        }
+    }
+
+    @Test
+    void confinesFilesToBaseDirectory() throws Exception {
+        Path secret = Files.writeString(outside.resolve("secret.txt"), "secret");
+        Files.createSymbolicLink(base.resolve("link.txt"), secret);
+        AttachmentCacheConfig config = new AttachmentCacheConfig().baseDirectory(base);
+        try (AttachmentCache cache = new AttachmentCache(config)) {
+            assertThrows(IllegalArgumentException.class, () -> cache.createPart(secret.toString()));
+            assertThrows(IllegalArgumentException.class, () -> cache.createPart("../" + outside.getFileName() + "/secret.txt"));
+            assertThrows(IllegalArgumentException.class, () -> cache.createPart("link.txt"));
+            assertThrows(IllegalArgumentException.class, () -> cache.createPart("/etc/hostname"));
+            assertThrows(NoSuchFileException.class, () -> cache.createPart("missing.pdf"));
+        }
+    }
+
+    @Test
+    void rejectsHostsNotAllowed() throws Exception {
+        AttachmentCacheConfig config = new AttachmentCacheConfig().allowedHosts(Set.of("cdn.example.com"));
+        try (AttachmentCache cache = new AttachmentCache(config)) {
+            assertThrows(IllegalArgumentException.class, () -> cache.createPart("http://169.254.169.254/latest"));
+            assertThrows(IllegalArgumentException.class, () -> cache.createPart("https://cdn.example.com.evil.org/a"));
+        }
+    }
+
+    @Test
+    void rejectsOversizedAttachments() throws Exception {
+        Files.write(base.resolve("big.bin"), new byte[2048]);
+        AttachmentCacheConfig config = new AttachmentCacheConfig().baseDirectory(base).maxAttachmentBytes(1024);
+        try (AttachmentCache cache = new AttachmentCache(config)) {
+            assertThrows(IllegalArgumentException.class, () -> cache.createPart("big.bin"));
+        }
+    }
+
+    @Test
+    void roundTripsHeapMappedAndDataParts() throws Exception {
+        byte[] small = random(5_000, 1);
+        byte[] large = random(300_000, 2);
+        Files.write(base.resolve("logo.png"), small);
+        Files.write(base.resolve("report.pdf"), large);
+        AttachmentCacheConfig config = new AttachmentCacheConfig()
+            .baseDirectory(base)
+            .mappedThresholdBytes(100_000);
+        Session session = Session.getInstance(new Properties());
+
+        try (AttachmentCache cache = new AttachmentCache(config)) {
+            for (int round = 0; round < 2; round++) {
+                MimeMultipart multipart = new MimeMultipart("mixed");
+                multipart.addBodyPart(cache.createPart("logo.png"));
+                multipart.addBodyPart(cache.createPart(base.resolve("report.pdf").toUri().toString()));
+                multipart.addBodyPart(cache.createPart("data:text/plain;name=hi.txt;base64,aGVsbG8gd29ybGQ="));
+
+                MimeMultipart parsed = roundTrip(session, multipart);
+                assertArrayEquals(small, content(parsed.getBodyPart(0)));
+                assertArrayEquals(large, content(parsed.getBodyPart(1)));
+                assertEquals("report.pdf", parsed.getBodyPart(1).getFileName());
+                assertEquals("hello world", parsed.getBodyPart(2).getContent());
+                assertEquals(3, cache.size());
+            }
+        }
+    }
+
+    private static MimeMultipart roundTrip(Session session, MimeMultipart multipart) throws Exception {
+        MimeMessage message = new MimeMessage(session);
+        message.setFrom("from@example.com");
+        message.setRecipients(Message.RecipientType.TO, "to@example.com");
+        message.setContent(multipart);
+        message.saveChanges();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        message.writeTo(out);
+        MimeMessage parsed = new MimeMessage(session, new ByteArrayInputStream(out.toByteArray()));
+        return (MimeMultipart) parsed.getContent();
+    }
+
+    private static byte[] content(BodyPart part) throws Exception {
+        try (InputStream in = ((MimeBodyPart) part).getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] random(int size, long seed) {
+        byte[] bytes = new byte[size];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,95 @@
+package com.kafnotif.notifier.impl;
+
+import com.kafnotif.config.InvalidTokenCacheConfig;
+import com.kafnotif.notifier.SendResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class InvalidTokenCacheTest {
+
+    private static final SendResult UNREGISTERED = SendResult.permanentFailure("gone").withProviderCode("UNREGISTERED");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void knownInvalidTokensFailPermanently() {
+        try (InvalidTokenCache cache = new InvalidTokenCache()) {
+            assertNull(cache.lookup("token-1"));
+            cache.recordInvalid("token-1", UNREGISTERED);
+
+            SendResult result = cache.lookup("token-1");
+            assertNotNull(result);
+            assertFalse(result.isRetryable());
+            assertEquals("UNREGISTERED", result.getProviderCode());
+
+            cache.remove("token-1");
+            assertNull(cache.lookup("token-1"));
+        }
+    }
+
+    @Test
+    void tokensExpireAfterTtl() throws Exception {
+        try (InvalidTokenCache cache = new InvalidTokenCache(new InvalidTokenCacheConfig().ttl(Duration.ofMillis(50)))) {
+            cache.recordInvalid("token-1", UNREGISTERED);
+            assertNotNull(cache.lookup("token-1"));
+
+            Thread.sleep(100);
+            assertNull(cache.lookup("token-1"));
+        }
+    }
+
+    @Test
+    void evictsTokensExpiringSoonestWhenFull() throws Exception {
+        try (InvalidTokenCache cache = new InvalidTokenCache(new InvalidTokenCacheConfig().maxTokens(10))) {
+            for (int i = 0; i < 11; i++) {
+                cache.recordInvalid("token-" + i, UNREGISTERED);
+                Thread.sleep(2);
+            }
+
+            assertEquals(9, cache.size());
+            assertNull(cache.lookup("token-0"));
+            assertNotNull(cache.lookup("token-10"));
+        }
+    }
+
+    @Test
+    void notifiesListenersOncePerToken() {
+        List<String> notified = new ArrayList<>();
+        try (InvalidTokenCache cache = new InvalidTokenCache()) {
+            cache.addListener((token, result) -> notified.add(token));
+            cache.recordInvalid("token-1", UNREGISTERED);
+            cache.recordInvalid("token-1", UNREGISTERED);
+            cache.recordInvalid("token-2", UNREGISTERED);
+        }
+        assertEquals(List.of("token-1", "token-2"), notified);
+    }
+
+    @Test
+    void reloadsSnapshotOnStart() {
+        InvalidTokenCacheConfig config = new InvalidTokenCacheConfig()
+            .snapshotPath(directory.resolve("invalid-tokens.tsv"))
+            .bloomFilter(true);
+        try (InvalidTokenCache cache = new InvalidTokenCache(config)) {
+            cache.recordInvalid("token-1", UNREGISTERED);
+            cache.recordInvalid("token-2", SendResult.permanentFailure("mismatch"));
+        }
+
+        try (InvalidTokenCache reloaded = new InvalidTokenCache(config)) {
+            assertEquals(2, reloaded.size());
+            assertEquals("UNREGISTERED", reloaded.lookup("token-1").getProviderCode());
+            assertNotNull(reloaded.lookup("token-2"));
+            assertNull(reloaded.lookup("token-3"));
+        }
+    }
+}
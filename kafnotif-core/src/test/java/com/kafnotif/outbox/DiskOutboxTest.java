@@ -0,0 +1,148 @@
+package com.kafnotif.outbox;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiskOutboxTest {
+
+    private static final int SEGMENT_BYTES = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recordsSurviveReopening() throws IOException {
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>("notifications", null, "key-1",
+            "value".getBytes(StandardCharsets.UTF_8), List.of(new RecordHeader("content-type", "json".getBytes(StandardCharsets.UTF_8))));
+        try (DiskOutbox outbox = open()) {
+            outbox.append(record);
+            outbox.append(new ProducerRecord<>("notifications", null, null));
+        }
+
+        try (DiskOutbox outbox = open()) {
+            List<DiskOutbox.OutboxEntry> entries = outbox.read(10);
+            assertEquals(2, entries.size());
+            ProducerRecord<String, byte[]> read = entries.get(0).getRecord();
+            assertEquals("notifications", read.topic());
+            assertEquals("key-1", read.key());
+            assertArrayEquals(record.value(), read.value());
+            assertArrayEquals(record.headers().lastHeader("content-type").value(),
+                              read.headers().lastHeader("content-type").value());
+            assertNull(entries.get(1).getRecord().key());
+            assertNull(entries.get(1).getRecord().value());
+        }
+    }
+
+    @Test
+    void acknowledgedRecordsAreNotReplayed() throws IOException {
+        try (DiskOutbox outbox = open()) {
+            append(outbox, "a", "b", "c");
+            List<DiskOutbox.OutboxEntry> entries = outbox.read(10);
+            outbox.acknowledge(entries.get(0));
+
+            outbox.rewind();
+            assertEquals(List.of("b", "c"), keys(outbox.read(10)));
+        }
+
+        try (DiskOutbox outbox = open()) {
+            assertEquals(List.of("b", "c"), keys(outbox.read(10)));
+        }
+    }
+
+    @Test
+    void deliveredSegmentsAreDeleted() throws IOException {
+        try (DiskOutbox outbox = open()) {
+            for (int i = 0; i < 100; i++) {
+                outbox.append(new ProducerRecord<>("notifications", "key-" + i, new byte[100]));
+            }
+            assertTrue(segments().size() > 1);
+
+            List<DiskOutbox.OutboxEntry> entries = outbox.read(100);
+            assertEquals(100, entries.size());
+            outbox.acknowledge(entries.get(99));
+            assertEquals(1, segments().size());
+            assertTrue(outbox.isDrained());
+        }
+    }
+
+    @Test
+    void tornFrameIsDroppedOnRecovery() throws IOException {
+        int end;
+        try (DiskOutbox outbox = open()) {
+            append(outbox, "a");
+            end = outbox.read(10).get(0).getNextPosition();
+        }
+        // Crash after the length was written but before the payload reached the disk
+        write(end, ByteBuffer.allocate(4).putInt(64).array());
+
+        try (DiskOutbox outbox = open()) {
+            assertEquals(List.of("a"), keys(outbox.read(10)));
+            append(outbox, "b");
+            assertEquals(List.of("b"), keys(outbox.read(10)));
+        }
+    }
+
+    @Test
+    void corruptFrameTruncatesAndStaleFramesStayDead() throws IOException {
+        int second;
+        try (DiskOutbox outbox = open()) {
+            append(outbox, "a", "b", "c");
+            second = outbox.read(10).get(0).getNextPosition();
+        }
+        // Flip a payload byte of "b": CRC mismatch
+        write(second + 8, new byte[] { (byte) 0xff });
+
+        try (DiskOutbox outbox = open()) {
+            assertEquals(List.of("a"), keys(outbox.read(10)));
+            // Same size as "b", so it ends exactly where the stale "c" starts
+            append(outbox, "d");
+        }
+
+        try (DiskOutbox outbox = open()) {
+            assertEquals(List.of("a", "d"), keys(outbox.read(10)));
+        }
+    }
+
+    private DiskOutbox open() throws IOException {
+        return new DiskOutbox(directory, SEGMENT_BYTES, false);
+    }
+
+    private static void append(DiskOutbox outbox, String... keys) {
+        for (String key : keys) {
+            outbox.append(new ProducerRecord<>("notifications", key, key.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    private static List<String> keys(List<DiskOutbox.OutboxEntry> entries) {
+        return entries.stream().map(entry -> entry.getRecord().key()).toList();
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".seg")).toList();
+        }
+    }
+
+    private void write(int position, byte[] bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(segments().get(0), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes), position);
+        }
+    }
+}
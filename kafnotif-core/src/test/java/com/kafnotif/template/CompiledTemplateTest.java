@@ -0,0 +1,55 @@
+package com.kafnotif.template;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CompiledTemplateTest {
+
+    @Test
+    void insertsVariablesBetweenLiterals() {
+        CompiledTemplate template = CompiledTemplate.compile("Hello {{ name }}, you have {{count}} messages", false);
+
+        assertEquals("Hello Ada, you have 3 messages", template.render(Map.of("name", "Ada", "count", 3)));
+    }
+
+    @Test
+    void missingVariablesRenderEmpty() {
+        CompiledTemplate template = CompiledTemplate.compile("[{{missing}}]", false);
+
+        assertEquals("[]", template.render(Map.of()));
+        assertEquals("[]", template.render(null));
+    }
+
+    @Test
+    void escapesVariablesInHtmlTemplatesOnly() {
+        Map<String, String> values = Map.of("v", "<a href=\"x\">Tom & Jerry's</a>");
+
+        assertEquals("<p>&lt;a href=&quot;x&quot;&gt;Tom &amp; Jerry&#39;s&lt;/a&gt;</p>",
+                     CompiledTemplate.compile("<p>{{v}}</p>", true).render(values));
+        assertEquals("<p><a href=\"x\">Tom & Jerry's</a></p>",
+                     CompiledTemplate.compile("<p>{{{v}}}</p>", true).render(values));
+        assertEquals("<a href=\"x\">Tom & Jerry's</a>",
+                     CompiledTemplate.compile("{{v}}", false).render(values));
+    }
+
+    @Test
+    void rendersIntoExistingBuffer() {
+        StringBuilder out = new StringBuilder("subject: ");
+        CompiledTemplate.compile("{{a}}-{{b}}", false).render(Map.of("a", 1, "b", 2), out);
+
+        assertEquals("subject: 1-2", out.toString());
+    }
+
+    @Test
+    void unclosedPlaceholderIsRejected() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+            () -> CompiledTemplate.compile("Hi {{name", false));
+        assertEquals("Unclosed placeholder at position 3", error.getMessage());
+
+        assertThrows(IllegalArgumentException.class, () -> CompiledTemplate.compile("{{{raw}}", true));
+    }
+}
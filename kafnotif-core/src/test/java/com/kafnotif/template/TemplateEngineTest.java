@@ -0,0 +1,88 @@
+package com.kafnotif.template;
+
+import com.kafnotif.model.SmsNotification;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TemplateEngineTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void rendersAndClearsTheTemplateReference() throws Exception {
+        InMemoryTemplateSource source = new InMemoryTemplateSource()
+            .register("code", 1, Map.of("message", "Your code is {{code}}"));
+        SmsNotification sms = templated("code", 1);
+
+        new TemplateEngine(source, 16).render(sms);
+
+        assertEquals("Your code is 1234", sms.getMessage());
+        assertNull(sms.getTemplateId());
+        assertNull(sms.getVariables());
+    }
+
+    @Test
+    void latestVersionIsLookedUpAgainAfterTtl() throws Exception {
+        InMemoryTemplateSource source = new InMemoryTemplateSource()
+            .register("code", 1, Map.of("message", "v1 {{code}}"));
+        TemplateEngine cached = new TemplateEngine(source, 16, Duration.ofHours(1));
+        TemplateEngine expiring = new TemplateEngine(source, 16, Duration.ZERO);
+        render(cached, templated("code", null));
+        render(expiring, templated("code", null));
+
+        source.register("code", 2, Map.of("message", "v2 {{code}}"));
+
+        assertEquals("v1 1234", render(cached, templated("code", null)));
+        assertEquals("v2 1234", render(expiring, templated("code", null)));
+        assertEquals("v1 1234", render(expiring, templated("code", 1)));
+    }
+
+    @Test
+    void directorySourceFindsLatestVersion() throws Exception {
+        write("code/2/message.tmpl", "v2 {{code}}");
+        write("code/10/message.tmpl", "v10 {{code}}");
+        DirectoryTemplateSource source = new DirectoryTemplateSource(directory);
+
+        assertEquals(10, source.latestVersion("code"));
+        assertNull(source.latestVersion("missing"));
+        assertNull(source.latestVersion("../outside"));
+        assertEquals("v10 1234", render(new TemplateEngine(source, 16), templated("code", null)));
+    }
+
+    @Test
+    void missingTemplateIsRejected() {
+        TemplateEngine engine = new TemplateEngine(new InMemoryTemplateSource(), 16);
+
+        assertThrows(IllegalArgumentException.class, () -> engine.render(templated("missing", null)));
+        assertThrows(IllegalArgumentException.class, () -> engine.render(templated("missing", 3)));
+    }
+
+    private static String render(TemplateEngine engine, SmsNotification sms) throws Exception {
+        engine.render(sms);
+        return sms.getMessage();
+    }
+
+    private static SmsNotification templated(String templateId, Integer version) {
+        SmsNotification sms = new SmsNotification();
+        sms.setTemplateId(templateId);
+        sms.setTemplateVersion(version);
+        sms.setVariables(Map.of("code", "1234"));
+        return sms;
+    }
+
+    private void write(String path, String content) throws Exception {
+        Path file = directory.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+}
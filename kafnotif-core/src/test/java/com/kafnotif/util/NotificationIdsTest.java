@@ -0,0 +1,76 @@
+package com.kafnotif.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NotificationIdsTest {
+
+    @Test
+    void idsAreVersion7Uuids() {
+        UUID id = NotificationIds.nextUuid();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertEquals(36, NotificationIds.next().length());
+    }
+
+    @Test
+    void idsFromOneThreadAreStrictlyIncreasing() {
+        // More than the 4096 counter values of one millisecond, so the counter overflows
+        String previous = NotificationIds.next();
+        for (int i = 0; i < 50_000; i++) {
+            String id = NotificationIds.next();
+            assertTrue(id.compareTo(previous) > 0, id + " after " + previous);
+            previous = id;
+        }
+    }
+
+    @Test
+    void idsAreUniqueAcrossThreads() throws Exception {
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                tasks.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        ids.add(NotificationIds.next());
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(80_000, ids.size());
+    }
+
+    @Test
+    void timestampOfReturnsCreationTime() {
+        long before = System.currentTimeMillis();
+        long timestamp = NotificationIds.timestampOf(NotificationIds.next());
+        long after = System.currentTimeMillis();
+
+        // A thread that exhausted its counter borrows from the next milliseconds
+        assertTrue(timestamp >= before && timestamp <= after + 100, before + " <= " + timestamp + " <= " + after);
+    }
+
+    @Test
+    void timestampOfRejectsOtherIds() {
+        assertEquals(-1, NotificationIds.timestampOf(UUID.randomUUID().toString()));
+        assertEquals(-1, NotificationIds.timestampOf("not-a-uuid"));
+    }
+}
@@ -0,0 +1,117 @@
+package com.kafnotif.validation;
+
+import com.kafnotif.model.EmailNotification;
+import com.kafnotif.model.NotificationEvent;
+import com.kafnotif.model.NotificationType;
+import com.kafnotif.model.PushNotification;
+import com.kafnotif.model.SmsNotification;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NotificationValidatorTest {
+
+    private final NotificationValidator validator = NotificationValidator.createDefault();
+
+    @Test
+    void acceptsValidNotifications() {
+        assertEquals(List.of(), validator.validate(new EmailNotification("user@example.com", "Hi", "Body")));
+        assertEquals(List.of(), validator.validate(new SmsNotification("+14155550123", "Code 1234")));
+        assertEquals(List.of(), validator.validate(new PushNotification("token", "Title", "Body")));
+    }
+
+    @Test
+    void reportsEveryViolatedRule() {
+        EmailNotification email = new EmailNotification("not-an-email", null, null);
+
+        assertEquals(List.of("recipient must be an email address", "subject is required", "body or htmlBody is required"),
+                     validator.validate(email));
+        assertFalse(validator.isValid(email));
+    }
+
+    @Test
+    void enforcesProviderLimits() {
+        SmsNotification sms = new SmsNotification("+14155550123", "x".repeat(NotificationValidator.MAX_SMS_LENGTH + 1));
+
+        assertEquals(List.of("message exceeds " + NotificationValidator.MAX_SMS_LENGTH + " characters"),
+                     validator.validate(sms));
+    }
+
+    @Test
+    void skipsContentRulesForTemplatedNotifications() {
+        EmailNotification email = new EmailNotification("user@example.com", null, null);
+        email.setTemplateId("welcome");
+
+        assertTrue(validator.isValid(email));
+        email.setRecipient("not-an-email");
+        assertFalse(validator.isValid(email));
+    }
+
+    @Test
+    void appliesRulesOfSuperclasses() {
+        MarketingEmail email = new MarketingEmail("not-an-email");
+
+        assertEquals(List.of("recipient must be an email address"), validator.validate(email));
+        assertFalse(email.isValid());
+    }
+
+    @Test
+    void appliesCustomRulesToSubclasses() {
+        validator.rule(EmailNotification.class, "recipient must be internal",
+                       email -> email.getRecipient().endsWith("@example.com"));
+
+        assertEquals(List.of("recipient must be internal"), validator.validate(new MarketingEmail("user@other.org")));
+    }
+
+    @Test
+    void checksOverriddenIsValid() {
+        StrictEmail email = new StrictEmail("user@example.com");
+
+        assertEquals(List.of("isValid() returned false"), validator.validate(email));
+        email.setFromEmail("noreply@example.com");
+        assertTrue(validator.isValid(email));
+    }
+
+    @Test
+    void fallsBackToIsValidWithoutRules() {
+        assertEquals(List.of(), validator.validate(new AuditNotification("ok")));
+        assertEquals(List.of("isValid() returned false"), validator.validate(new AuditNotification("")));
+    }
+
+    static class MarketingEmail extends EmailNotification {
+        MarketingEmail(String recipient) {
+            super(recipient, "Sale", "Everything must go");
+        }
+    }
+
+    static class StrictEmail extends EmailNotification {
+        StrictEmail(String recipient) {
+            super(recipient, "Hi", "Body");
+        }
+
+        @Override
+        public boolean isValid() {
+            return super.isValid() && getFromEmail() != null;
+        }
+    }
+
+    static class AuditNotification extends NotificationEvent {
+        AuditNotification(String recipient) {
+            super(NotificationType.WEBHOOK, recipient);
+        }
+
+        @Override
+        public boolean isValid() {
+            return !getRecipient().isEmpty();
+        }
+
+        @Override
+        public String getContent() {
+            return "audit";
+        }
+    }
+}